@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.android.tvleanback.data;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.preference.PreferenceManager;
+import android.util.JsonReader;
+import android.util.JsonToken;
+import android.util.Log;
+
+import com.example.android.tvleanback.recommendation.RecommendationScores;
+import com.example.android.tvleanback.trace.StartupTrace;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The catalog bundled with the app, already enriched the way {@link VideoDbBuilder} does it, so
+ * that the browse screen has rows on the very first launch. The network sync then only applies
+ * what changed since the snapshot was made.
+ * <p>
+ * The snapshot is the asset {@link #ASSET_NAME}: the rows of the video table as JSON. It is checked
+ * in, written by {@code CatalogSnapshotGenerator} from what {@link VideoDbBuilder} fetches; without
+ * it the first launch downloads the whole catalog as before.
+ */
+public final class CatalogSnapshot {
+    private static final String TAG = "CatalogSnapshot";
+
+    public static final String ASSET_NAME = "catalog_snapshot.json";
+
+    static final int VERSION = 1;
+    static final String KEY_VERSION = "version";
+    static final String KEY_VIDEOS = "videos";
+
+    // Set while the catalog is the bundled one and has not been synced with the feed yet.
+    private static final String PREF_NEEDS_SYNC = "catalog_snapshot_needs_sync";
+
+    private CatalogSnapshot() {
+    }
+
+    /**
+     * Inserts the bundled catalog into a newly created database. Called from
+     * {@link VideoDbHelper#onCreate(SQLiteDatabase)}, inside its transaction.
+     */
+    static void insertInto(Context context, SQLiteDatabase db) {
+        StartupTrace.beginSection("CatalogSnapshot.insertInto");
+        try {
+            insert(context, db);
+        } finally {
+            StartupTrace.endSection();
+        }
+    }
+
+    private static void insert(Context context, SQLiteDatabase db) {
+        List<ContentValues> videos;
+        try {
+            videos = read(new InputStreamReader(context.getAssets().open(ASSET_NAME), "utf-8"));
+        } catch (FileNotFoundException e) {
+            return;
+        } catch (IOException | RuntimeException e) {
+            Log.e(TAG, "Could not read " + ASSET_NAME, e);
+            return;
+        }
+        for (ContentValues video : videos) {
+            db.insertWithOnConflict(VideoContract.VideoEntry.TABLE_NAME, null, video,
+                    SQLiteDatabase.CONFLICT_REPLACE);
+        }
+        RecommendationScores.syncWithCatalog(db, System.currentTimeMillis());
+        PreferenceManager.getDefaultSharedPreferences(context).edit()
+                .putBoolean(PREF_NEEDS_SYNC, !videos.isEmpty())
+                .apply();
+        Log.d(TAG, "Installed " + videos.size() + " bundled videos");
+    }
+
+    /**
+     * Returns whether the catalog is still the bundled one and should be synced with the feed.
+     */
+    public static boolean needsSync(Context context) {
+        return PreferenceManager.getDefaultSharedPreferences(context)
+                .getBoolean(PREF_NEEDS_SYNC, false);
+    }
+
+    /**
+     * Records that the catalog was synced with the feed.
+     */
+    public static void setSynced(Context context) {
+        PreferenceManager.getDefaultSharedPreferences(context).edit()
+                .remove(PREF_NEEDS_SYNC)
+                .apply();
+    }
+
+    static List<ContentValues> read(Reader in) throws IOException {
+        JsonReader reader = new JsonReader(new BufferedReader(in));
+        try {
+            List<ContentValues> videos = new ArrayList<>();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (KEY_VERSION.equals(name)) {
+                    int version = reader.nextInt();
+                    if (version != VERSION) {
+                        throw new IOException("Unsupported snapshot version " + version);
+                    }
+                } else if (KEY_VIDEOS.equals(name)) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        videos.add(readVideo(reader));
+                    }
+                    reader.endArray();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            return videos;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static ContentValues readVideo(JsonReader reader) throws IOException {
+        ContentValues video = new ContentValues();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String column = reader.nextName();
+            JsonToken token = reader.peek();
+            if (token == JsonToken.NULL) {
+                reader.nextNull();
+                video.putNull(column);
+            } else if (token == JsonToken.BOOLEAN) {
+                video.put(column, reader.nextBoolean());
+            } else if (token == JsonToken.NUMBER) {
+                String number = reader.nextString();
+                if (number.indexOf('.') >= 0 || number.indexOf('e') >= 0
+                        || number.indexOf('E') >= 0) {
+                    video.put(column, Double.parseDouble(number));
+                } else {
+                    video.put(column, Long.parseLong(number));
+                }
+            } else {
+                video.put(column, reader.nextString());
+            }
+        }
+        reader.endObject();
+        return video;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.android.tvleanback.data;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.ContentObserver;
+import android.database.Cursor;
+import android.net.Uri;
+import android.util.LruCache;
+
+import androidx.annotation.Nullable;
+
+import com.example.android.tvleanback.model.Video;
+import com.example.android.tvleanback.model.VideoCursorMapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps the videos of recently shown categories in memory, so that the details and playback
+ * screens of a category, which all show its videos, query the provider once between them.
+ * <p>
+ * Lists are immutable and read through: a miss queries the provider on the calling thread. An
+ * entry is dropped as soon as the provider notifies a change to its category, and the least
+ * recently used ones are dropped past {@link #MAX_SIZE_BYTES} of estimated size.
+ */
+public final class CategoryVideoCache {
+
+    // Rough share of the heap for the cache; a video is a few hundred bytes.
+    private static final int MAX_SIZE_BYTES = 2 * 1024 * 1024;
+    private static final int VIDEO_OVERHEAD_BYTES = 200;
+
+    /**
+     * Called when the videos of a category may have changed.
+     */
+    public interface Listener {
+        /**
+         * @param category the category that changed, or null if any may have
+         */
+        void onCategoryChanged(@Nullable String category);
+    }
+
+    private static CategoryVideoCache sInstance;
+
+    private final ContentResolver mContentResolver;
+    private final List<Listener> mListeners = new CopyOnWriteArrayList<>();
+
+    // Guarded by this.
+    private final LruCache<String, List<Video>> mVideos;
+    // Counts invalidations, so that a query that raced with one is not cached.
+    private long mInvalidations;
+
+    private CategoryVideoCache(Context context) {
+        this(context.getApplicationContext().getContentResolver(), MAX_SIZE_BYTES);
+    }
+
+    CategoryVideoCache(ContentResolver contentResolver, int maxSizeBytes) {
+        mContentResolver = contentResolver;
+        mVideos = new LruCache<String, List<Video>>(maxSizeBytes) {
+            @Override
+            protected int sizeOf(String category, List<Video> videos) {
+                return estimateSize(videos);
+            }
+        };
+        // Delivered on the binder thread, before any listener reloads.
+        mContentResolver.registerContentObserver(VideoContract.VideoEntry.CONTENT_URI, true,
+                new ContentObserver(null) {
+                    @Override
+                    public void onChange(boolean selfChange, Uri uri) {
+                        invalidate(uri);
+                    }
+                });
+    }
+
+    public static synchronized CategoryVideoCache getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new CategoryVideoCache(context);
+        }
+        return sInstance;
+    }
+
+    /**
+     * Returns the videos of {@code category} if they are in memory, or null.
+     */
+    @Nullable
+    public synchronized List<Video> peek(String category) {
+        return mVideos.get(category);
+    }
+
+    /**
+     * Returns the videos of {@code category}, querying the provider if they are not in memory.
+     * Must not be called on the main thread.
+     */
+    public List<Video> get(String category) {
+        long invalidations;
+        synchronized (this) {
+            List<Video> videos = mVideos.get(category);
+            if (videos != null) {
+                return videos;
+            }
+            invalidations = mInvalidations;
+        }
+
+        List<Video> videos = query(category);
+        synchronized (this) {
+            if (invalidations == mInvalidations) {
+                mVideos.put(category, videos);
+            }
+        }
+        return videos;
+    }
+
+    public void addListener(Listener listener) {
+        mListeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        mListeners.remove(listener);
+    }
+
+    private List<Video> query(String category) {
+        Cursor cursor = mContentResolver.query(
+                VideoContract.VideoEntry.buildCategoryUri(category), null, null, null, null);
+        if (cursor == null) {
+            return Collections.emptyList();
+        }
+        List<Video> videos = new ArrayList<>(cursor.getCount());
+        // A new mapper, so videos updated in place are not served from an older query.
+        VideoCursorMapper mapper = new VideoCursorMapper(Math.max(1, cursor.getCount()));
+        try {
+            while (cursor.moveToNext()) {
+                videos.add((Video) mapper.convert(cursor));
+            }
+        } finally {
+            cursor.close();
+        }
+        return Collections.unmodifiableList(videos);
+    }
+
+    // Uris are video, video/<category> and video/<category>/<id>.
+    private void invalidate(@Nullable Uri uri) {
+        List<String> segments = uri == null ? null : uri.getPathSegments();
+        String category = segments != null && segments.size() >= 2 ? segments.get(1) : null;
+        synchronized (this) {
+            mInvalidations++;
+            if (category == null) {
+                mVideos.evictAll();
+            } else {
+                mVideos.remove(category);
+            }
+        }
+        for (Listener listener : mListeners) {
+            listener.onCategoryChanged(category);
+        }
+    }
+
+    static int estimateSize(List<Video> videos) {
+        int size = 0;
+        for (Video video : videos) {
+            size += VIDEO_OVERHEAD_BYTES + 2 * (length(video.title) + length(video.description)
+                    + length(video.cardImageUrl) + length(video.bgImageUrl)
+                    + length(video.videoUrl) + length(video.license) + length(video.authtoken));
+        }
+        return size;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.android.tvleanback.data;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.Nullable;
+import androidx.loader.content.AsyncTaskLoader;
+
+import com.example.android.tvleanback.model.Video;
+
+import java.util.List;
+
+/**
+ * Loads the videos of a category through {@link CategoryVideoCache}, and reloads them when the
+ * category changes. Videos already in the cache are delivered as soon as the loader starts.
+ */
+public class CategoryVideosLoader extends AsyncTaskLoader<List<Video>>
+        implements CategoryVideoCache.Listener {
+
+    private final CategoryVideoCache mCache;
+    private final String mCategory;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private List<Video> mVideos;
+    private boolean mListening;
+
+    private final Runnable mContentChangedTask = new Runnable() {
+        @Override
+        public void run() {
+            onContentChanged();
+        }
+    };
+
+    public CategoryVideosLoader(Context context, String category) {
+        super(context);
+        mCache = CategoryVideoCache.getInstance(context);
+        mCategory = category;
+    }
+
+    @Override
+    public List<Video> loadInBackground() {
+        return mCache.get(mCategory);
+    }
+
+    @Override
+    public void deliverResult(List<Video> videos) {
+        mVideos = videos;
+        if (isStarted()) {
+            super.deliverResult(videos);
+        }
+    }
+
+    @Override
+    protected void onStartLoading() {
+        if (!mListening) {
+            mCache.addListener(this);
+            mListening = true;
+        }
+        if (mVideos == null) {
+            mVideos = mCache.peek(mCategory);
+        }
+        if (mVideos != null) {
+            deliverResult(mVideos);
+        }
+        if (takeContentChanged() || mVideos == null) {
+            forceLoad();
+        }
+    }
+
+    @Override
+    protected void onStopLoading() {
+        cancelLoad();
+    }
+
+    @Override
+    protected void onReset() {
+        onStopLoading();
+        mCache.removeListener(this);
+        mListening = false;
+        mHandler.removeCallbacks(mContentChangedTask);
+        mVideos = null;
+    }
+
+    @Override
+    public void onCategoryChanged(@Nullable String category) {
+        if (category == null || category.equals(mCategory)) {
+            mHandler.post(mContentChangedTask);
+        }
+    }
+}
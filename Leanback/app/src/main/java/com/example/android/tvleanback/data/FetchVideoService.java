@@ -17,17 +17,26 @@
 package com.example.android.tvleanback.data;
 
 import android.app.IntentService;
+import android.content.ContentResolver;
 import android.content.ContentValues;
 import android.content.Intent;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.text.TextUtils;
 import android.util.Log;
 
 import com.example.android.tvleanback.R;
 import com.example.android.tvleanback.model.Video;
+import com.example.android.tvleanback.trace.StartupTrace;
 
 import org.json.JSONException;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * FetchVideoService is responsible for fetching the videos from the Internet and inserting the
@@ -36,6 +45,9 @@ import java.util.List;
 public class FetchVideoService extends IntentService {
     private static final String TAG = "FetchVideoService";
 
+    // Stays under the SQLite limit on the number of arguments of one statement.
+    private static final int MAX_DELETE_ARGS = 500;
+
     /**
      * Creates an IntentService with a default name for the worker thread.
      */
@@ -45,6 +57,7 @@ public class FetchVideoService extends IntentService {
 
     @Override
     protected void onHandleIntent(Intent workIntent) {
+        StartupTrace.beginSection("FetchVideoService");
         VideoDbBuilder builder = new VideoDbBuilder(getApplicationContext());
         try {
             List<ContentValues> contentValuesList =
@@ -52,15 +65,88 @@ public class FetchVideoService extends IntentService {
             ContentValues[] downloadedVideoContentValues =
                     contentValuesList.toArray(new ContentValues[contentValuesList.size()]);
 
+            StartupTrace.beginSection("FetchVideoService write");
             if (workIntent.getBooleanExtra("update", false))
             {
                 getApplicationContext().getContentResolver().delete(VideoContract.VideoEntry.CONTENT_URI, null, null);
+                getApplicationContext().getContentResolver().bulkInsert(VideoContract.VideoEntry.CONTENT_URI,
+                        downloadedVideoContentValues);
+            } else {
+                applyChanges(getApplicationContext().getContentResolver(),
+                        downloadedVideoContentValues);
             }
-            getApplicationContext().getContentResolver().bulkInsert(VideoContract.VideoEntry.CONTENT_URI,
-                    downloadedVideoContentValues);
+            StartupTrace.endSection();
+            CatalogSnapshot.setSynced(getApplicationContext());
         } catch (IOException | JSONException e) {
             Log.e(TAG, "Error occurred in downloading videos");
             e.printStackTrace();
+        } finally {
+            StartupTrace.endSection();
+        }
+    }
+
+    /**
+     * Brings the video table in line with the feed, only writing the videos that were added,
+     * changed or removed. Unchanged videos keep their ids and do not notify their rows.
+     */
+    private static void applyChanges(ContentResolver resolver, ContentValues[] videos) {
+        Map<String, ContentValues> existing = new HashMap<>();
+        Cursor cursor = resolver.query(VideoContract.VideoEntry.CONTENT_URI, null, null, null,
+                null);
+        if (cursor != null) {
+            try {
+                while (cursor.moveToNext()) {
+                    ContentValues row = new ContentValues();
+                    DatabaseUtils.cursorRowToContentValues(cursor, row);
+                    existing.put(row.getAsString(VideoContract.VideoEntry.COLUMN_VIDEO_URL), row);
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+
+        List<ContentValues> changed = new ArrayList<>();
+        for (ContentValues video : videos) {
+            ContentValues row =
+                    existing.remove(video.getAsString(VideoContract.VideoEntry.COLUMN_VIDEO_URL));
+            if (row == null || !isSameVideo(video, row)) {
+                changed.add(video);
+            }
+        }
+        if (!changed.isEmpty()) {
+            resolver.bulkInsert(VideoContract.VideoEntry.CONTENT_URI,
+                    changed.toArray(new ContentValues[changed.size()]));
+        }
+
+        // Whatever is left is no longer in the feed.
+        String[] removed = existing.keySet().toArray(new String[existing.size()]);
+        for (int start = 0; start < removed.length; start += MAX_DELETE_ARGS) {
+            String[] urls = Arrays.copyOfRange(removed, start,
+                    Math.min(removed.length, start + MAX_DELETE_ARGS));
+            StringBuilder selection = new StringBuilder(
+                    VideoContract.VideoEntry.COLUMN_VIDEO_URL + " IN (");
+            for (int i = 0; i < urls.length; i++) {
+                selection.append(i == 0 ? "?" : ",?");
+            }
+            selection.append(')');
+            resolver.delete(VideoContract.VideoEntry.CONTENT_URI, selection.toString(), urls);
+        }
+        Log.d(TAG, "Synced catalog: " + changed.size() + " added or changed, "
+                + removed.length + " removed");
+    }
+
+    // Compares as text, the way the row was read back from the database.
+    private static boolean isSameVideo(ContentValues video, ContentValues row) {
+        for (String column : video.keySet()) {
+            Object value = video.get(column);
+            if (value instanceof Boolean) {
+                value = (Boolean) value ? 1 : 0;
+            }
+            if (!TextUtils.equals(value == null ? null : value.toString(),
+                    row.getAsString(column))) {
+                return false;
+            }
         }
+        return true;
     }
 }
@@ -0,0 +1,431 @@
+/*
+ * Copyright (c) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.android.tvleanback.data;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.util.Log;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * In-memory index of the words of every video title and description, used to answer search
+ * suggestions without scanning the video table.
+ * <p>
+ * Words are normalized (lower case, accents removed) and kept in one sorted array, so the words
+ * starting with a prefix are a contiguous range found by binary search. Everything else is flat
+ * int arrays: for every word the videos containing it, first the ones whose title starts with it,
+ * then the ones with it elsewhere in the title, then in the description; for every video its
+ * words. Only the first words of titles and descriptions are indexed, so for 100k videos this is
+ * a few megabytes, most of it the distinct words.
+ * <p>
+ * The index is built on a background thread when the provider starts and after a catalog sync.
+ * Other writes only touch the rows they change: inserted and updated videos are kept in a small
+ * list that is searched linearly, and the rows they replace or delete are hidden from the built
+ * index. Once there are too many such changes they are folded into a new build.
+ */
+final class SuggestionIndex {
+    private static final String TAG = "SuggestionIndex";
+
+    // Words past these in a title or a description are not indexed.
+    private static final int MAX_WORDS_PER_TITLE = 8;
+    private static final int MAX_WORDS_PER_DESCRIPTION = 16;
+    // Bounds the work of very short prefixes combined with more words.
+    private static final int MAX_CANDIDATES = 5000;
+    // Past this many changed videos a rebuild is cheaper than searching them.
+    static final int MAX_CHANGES = 256;
+
+    private final SQLiteOpenHelper mOpenHelper;
+    private final Executor mExecutor;
+
+    private final Object mLock = new Object();
+    private volatile Snapshot mSnapshot;
+    private boolean mRebuildPending;
+    // Counts the changes, so a build knows which ones it already contains.
+    private long mSequence;
+    // Videos inserted or updated since the snapshot was built, by id.
+    private final Map<Long, Added> mAdded = new LinkedHashMap<>();
+    // Videos of the snapshot that were updated or deleted since, with the sequence of the change.
+    private final Map<Long, Long> mRemoved = new HashMap<>();
+
+    SuggestionIndex(SQLiteOpenHelper openHelper) {
+        this(openHelper, Executors.newSingleThreadExecutor());
+    }
+
+    SuggestionIndex(SQLiteOpenHelper openHelper, Executor executor) {
+        mOpenHelper = openHelper;
+        mExecutor = executor;
+    }
+
+    /**
+     * Returns whether suggestions can be answered; false until the first build completes.
+     */
+    boolean isReady() {
+        return mSnapshot != null;
+    }
+
+    /**
+     * Rebuilds the index from the video table on the background thread. Requests made while a
+     * rebuild is waiting to start are merged into it.
+     */
+    void rebuild() {
+        synchronized (mLock) {
+            if (mRebuildPending) {
+                return;
+            }
+            mRebuildPending = true;
+        }
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                long sequence;
+                synchronized (mLock) {
+                    mRebuildPending = false;
+                    sequence = mSequence;
+                }
+                long start = System.nanoTime();
+                Snapshot snapshot = Snapshot.build(mOpenHelper.getReadableDatabase());
+                synchronized (mLock) {
+                    // Changes made during the build may be in it or not; keeping them is harmless
+                    // because they replace the rows of the snapshot and results are de-duplicated.
+                    mSnapshot = snapshot;
+                    Iterator<Added> added = mAdded.values().iterator();
+                    while (added.hasNext()) {
+                        if (added.next().mSequence < sequence) {
+                            added.remove();
+                        }
+                    }
+                    Iterator<Long> removed = mRemoved.values().iterator();
+                    while (removed.hasNext()) {
+                        if (removed.next() < sequence) {
+                            removed.remove();
+                        }
+                    }
+                }
+                Log.d(TAG, "Indexed " + snapshot.mIds.length + " videos in "
+                        + (System.nanoTime() - start) / 1000000 + " ms");
+            }
+        });
+    }
+
+    /**
+     * Indexes a video that was inserted, or replaces the words of one that was updated.
+     */
+    void put(long id, String title, String description) {
+        boolean rebuild;
+        synchronized (mLock) {
+            long sequence = mSequence++;
+            mRemoved.put(id, sequence);
+            mAdded.put(id, new Added(id, tokenize(title, description), sequence));
+            rebuild = mAdded.size() + mRemoved.size() > 2 * MAX_CHANGES;
+        }
+        if (rebuild) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Drops deleted videos.
+     */
+    void remove(List<Long> ids) {
+        if (ids.size() > MAX_CHANGES) {
+            rebuild();
+            return;
+        }
+        boolean rebuild;
+        synchronized (mLock) {
+            long sequence = mSequence++;
+            for (Long id : ids) {
+                mRemoved.put(id, sequence);
+                mAdded.remove(id);
+            }
+            rebuild = mAdded.size() + mRemoved.size() > 2 * MAX_CHANGES;
+        }
+        if (rebuild) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Returns the ids of up to {@code limit} videos whose title or description has a word
+     * starting with every word of {@code query}. For each matching word, titles starting with it
+     * come first, then titles containing it, then descriptions.
+     */
+    long[] query(String query, int limit) {
+        String[] words = tokenize(query, MAX_WORDS_PER_TITLE);
+        if (words.length == 0 || limit <= 0) {
+            return new long[0];
+        }
+        long[] results = new long[limit];
+        int count = 0;
+
+        synchronized (mLock) {
+            Snapshot snapshot = mSnapshot;
+            if (snapshot != null) {
+                count = snapshot.query(words, results, mRemoved);
+            }
+            for (Iterator<Added> it = mAdded.values().iterator(); it.hasNext() && count < limit; ) {
+                Added added = it.next();
+                if (added.matches(words) && !contains(results, count, added.mId)) {
+                    results[count++] = added.mId;
+                }
+            }
+        }
+        return count == limit ? results : Arrays.copyOf(results, count);
+    }
+
+    private static boolean contains(long[] values, int count, long value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The words of a video: those of its title, then those of its description not in the title.
+    static String[] tokenize(String title, String description) {
+        String[] titleWords = tokenize(title, MAX_WORDS_PER_TITLE);
+        List<String> words = new ArrayList<>(Arrays.asList(titleWords));
+        for (String word : tokenize(description, MAX_WORDS_PER_DESCRIPTION)) {
+            if (!words.contains(word)) {
+                words.add(word);
+            }
+        }
+        return words.toArray(new String[words.size()]);
+    }
+
+    static String[] tokenize(String text, int maxWords) {
+        if (text == null) {
+            return new String[0];
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT);
+        List<String> words = new ArrayList<>();
+        for (String word : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+                if (words.size() == maxWords) {
+                    break;
+                }
+            }
+        }
+        return words.toArray(new String[words.size()]);
+    }
+
+    private static final class Added {
+        private final long mId;
+        private final String[] mWords;
+        private final long mSequence;
+
+        Added(long id, String[] words, long sequence) {
+            mId = id;
+            mWords = words;
+            mSequence = sequence;
+        }
+
+        boolean matches(String[] prefixes) {
+            for (String prefix : prefixes) {
+                boolean found = false;
+                for (String word : mWords) {
+                    if (word.startsWith(prefix)) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * An immutable index over the videos in the video table at the time it was built.
+     */
+    private static final class Snapshot {
+        // Distinct words, sorted; a word's index in this array is its id.
+        private final String[] mWords;
+        // Videos containing word w: mPostings[mPostingStarts[w] .. mPostingStarts[w + 1]).
+        private final int[] mPostingStarts;
+        private final int[] mPostings;
+        // Words of video v: mVideoWords[mVideoStarts[v] .. mVideoStarts[v + 1]).
+        private final int[] mVideoStarts;
+        private final int[] mVideoWords;
+        private final long[] mIds;
+
+        private Snapshot(String[] words, int[] postingStarts, int[] postings, int[] videoStarts,
+                int[] videoWords, long[] ids) {
+            mWords = words;
+            mPostingStarts = postingStarts;
+            mPostings = postings;
+            mVideoStarts = videoStarts;
+            mVideoWords = videoWords;
+            mIds = ids;
+        }
+
+        static Snapshot build(SQLiteDatabase db) {
+            List<String[]> videos = new ArrayList<>();
+            int[] titleLengths;
+            long[] ids;
+            Cursor cursor = db.query(VideoContract.VideoEntry.TABLE_NAME,
+                    new String[]{VideoContract.VideoEntry._ID, VideoContract.VideoEntry.COLUMN_NAME,
+                            VideoContract.VideoEntry.COLUMN_DESC},
+                    null, null, null, null, null);
+            try {
+                ids = new long[cursor.getCount()];
+                titleLengths = new int[cursor.getCount()];
+                while (cursor.moveToNext()) {
+                    int v = videos.size();
+                    ids[v] = cursor.getLong(0);
+                    titleLengths[v] = tokenize(cursor.getString(1), MAX_WORDS_PER_TITLE).length;
+                    videos.add(tokenize(cursor.getString(1), cursor.getString(2)));
+                }
+            } finally {
+                cursor.close();
+            }
+
+            // Sorted dictionary of the distinct words.
+            Map<String, Integer> wordIds = new HashMap<>();
+            for (String[] video : videos) {
+                for (String word : video) {
+                    wordIds.put(word, 0);
+                }
+            }
+            String[] words = wordIds.keySet().toArray(new String[wordIds.size()]);
+            Arrays.sort(words);
+            for (int i = 0; i < words.length; i++) {
+                wordIds.put(words[i], i);
+            }
+
+            int[] videoStarts = new int[videos.size() + 1];
+            for (int v = 0; v < videos.size(); v++) {
+                videoStarts[v + 1] = videoStarts[v] + videos.get(v).length;
+            }
+            int[] videoWords = new int[videoStarts[videos.size()]];
+            int[] postingStarts = new int[words.length + 1];
+            for (int v = 0; v < videos.size(); v++) {
+                String[] video = videos.get(v);
+                for (int i = 0; i < video.length; i++) {
+                    int word = wordIds.get(video[i]);
+                    videoWords[videoStarts[v] + i] = word;
+                    postingStarts[word + 1]++;
+                }
+            }
+            for (int w = 0; w < words.length; w++) {
+                postingStarts[w + 1] += postingStarts[w];
+            }
+
+            // Filled by word position, titles first, so titles starting with a word come first in
+            // its list and descriptions last.
+            int[] postings = new int[videoWords.length];
+            int[] next = Arrays.copyOf(postingStarts, words.length);
+            for (int position = 0; position < MAX_WORDS_PER_TITLE; position++) {
+                for (int v = 0; v < videos.size(); v++) {
+                    if (position < titleLengths[v]) {
+                        postings[next[videoWords[videoStarts[v] + position]]++] = v;
+                    }
+                }
+            }
+            for (int position = 0; position < MAX_WORDS_PER_DESCRIPTION; position++) {
+                for (int v = 0; v < videos.size(); v++) {
+                    int i = titleLengths[v] + position;
+                    if (i < videoStarts[v + 1] - videoStarts[v]) {
+                        postings[next[videoWords[videoStarts[v] + i]]++] = v;
+                    }
+                }
+            }
+            return new Snapshot(words, postingStarts, postings, videoStarts, videoWords, ids);
+        }
+
+        // Videos whose id is in removed were changed since the build and are skipped.
+        int query(String[] prefixes, long[] results, Map<Long, Long> removed) {
+            // Word id ranges of every prefix; the last word is usually the one being typed.
+            int[] from = new int[prefixes.length];
+            int[] to = new int[prefixes.length];
+            for (int i = 0; i < prefixes.length; i++) {
+                from[i] = lowerBound(prefixes[i]);
+                to[i] = lowerBound(prefixes[i] + Character.MAX_VALUE);
+                if (from[i] == to[i]) {
+                    return 0;
+                }
+            }
+
+            int last = prefixes.length - 1;
+            int count = 0;
+            int candidates = 0;
+            for (int p = mPostingStarts[from[last]]; p < mPostingStarts[to[last]]
+                    && count < results.length && candidates < MAX_CANDIDATES; p++, candidates++) {
+                int video = mPostings[p];
+                long id = mIds[video];
+                if (matchesOthers(video, from, to, last)
+                        && !contains(results, count, id)
+                        && (removed.isEmpty() || !removed.containsKey(id))) {
+                    results[count++] = id;
+                }
+            }
+            return count;
+        }
+
+        private boolean matchesOthers(int video, int[] from, int[] to, int skip) {
+            for (int i = 0; i < from.length; i++) {
+                if (i == skip) {
+                    continue;
+                }
+                boolean found = false;
+                for (int t = mVideoStarts[video]; t < mVideoStarts[video + 1]; t++) {
+                    if (mVideoWords[t] >= from[i] && mVideoWords[t] < to[i]) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Index of the first word not less than key.
+        private int lowerBound(String key) {
+            int low = 0;
+            int high = mWords.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (mWords[mid].compareTo(key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
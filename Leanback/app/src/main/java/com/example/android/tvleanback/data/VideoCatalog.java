@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.android.tvleanback.data;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.util.LongSparseArray;
+
+import androidx.annotation.Nullable;
+
+import com.example.android.tvleanback.model.Video;
+import com.example.android.tvleanback.model.VideoCursorMapper;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * Process-wide store of the videos that have been read from the {@link VideoProvider}, keyed by
+ * video id. Screens pass only the id to each other and resolve it here.
+ * <p>
+ * Videos are held weakly: a record stays available while any adapter, screen or service still
+ * references it, and is otherwise left to the garbage collector. A miss falls back to a single
+ * primary key lookup in the provider.
+ */
+public final class VideoCatalog {
+
+    /** Value of an absent video id, e.g. in an Intent. */
+    public static final long NO_VIDEO = -1;
+
+    private static final LongSparseArray<VideoReference> sVideos = new LongSparseArray<>();
+    private static final ReferenceQueue<Video> sCollected = new ReferenceQueue<>();
+
+    private VideoCatalog() {
+    }
+
+    /**
+     * Makes {@code video} resolvable by its id. Called for every video read from the provider.
+     */
+    public static void put(Video video) {
+        synchronized (sVideos) {
+            removeCollected();
+            sVideos.put(video.id, new VideoReference(video, sCollected));
+        }
+    }
+
+    /**
+     * Returns the video with the given id if it is still in memory.
+     */
+    @Nullable
+    public static Video peek(long id) {
+        synchronized (sVideos) {
+            VideoReference reference = sVideos.get(id);
+            return reference == null ? null : reference.get();
+        }
+    }
+
+    /**
+     * Returns the video with the given id, reading it from the provider if it is no longer in
+     * memory, or null if it is not in the catalog.
+     */
+    @Nullable
+    public static Video get(Context context, long id) {
+        Video video = peek(id);
+        if (video != null || id == NO_VIDEO) {
+            return video;
+        }
+
+        Cursor cursor = context.getContentResolver().query(
+                VideoContract.VideoEntry.CONTENT_URI,
+                null,
+                VideoContract.VideoEntry._ID + " = ?",
+                new String[]{Long.toString(id)},
+                null);
+        if (cursor == null) {
+            return null;
+        }
+        try {
+            // The mapper puts the video back in the catalog.
+            return cursor.moveToFirst() ? (Video) new VideoCursorMapper().convert(cursor) : null;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private static void removeCollected() {
+        VideoReference reference;
+        while ((reference = (VideoReference) sCollected.poll()) != null) {
+            // The id may have been put again since.
+            if (sVideos.get(reference.mId) == reference) {
+                sVideos.remove(reference.mId);
+            }
+        }
+    }
+
+    private static final class VideoReference extends WeakReference<Video> {
+        private final long mId;
+
+        VideoReference(Video video, ReferenceQueue<Video> queue) {
+            super(video, queue);
+            mId = video.id;
+        }
+    }
+}
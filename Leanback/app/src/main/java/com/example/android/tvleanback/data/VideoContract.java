@@ -35,12 +35,20 @@ public final class VideoContract {
 
     // The content paths.
     public static final String PATH_VIDEO = "video";
+    public static final String PATH_CATEGORY = "category";
+    public static final String PATH_RECOMMENDATION = "recommendation";
+    public static final String PATH_PROGRESS = "progress";
+    public static final String PATH_CONTINUE_WATCHING = "continue_watching";
 
     public static final class VideoEntry implements BaseColumns {
 
         public static final Uri CONTENT_URI =
                 BASE_CONTENT_URI.buildUpon().appendPath(PATH_VIDEO).build();
 
+        // The distinct categories; only notified when a category appears or disappears.
+        public static final Uri CATEGORIES_URI =
+                BASE_CONTENT_URI.buildUpon().appendPath(PATH_CATEGORY).build();
+
         public static final String CONTENT_TYPE =
                 ContentResolver.CURSOR_DIR_BASE_TYPE + "/" + CONTENT_AUTHORITY + "." + PATH_VIDEO;
 
@@ -115,9 +123,111 @@ public final class VideoContract {
         // The action intent for the result.
         public static final String COLUMN_ACTION = SearchManager.SUGGEST_COLUMN_INTENT_ACTION;
 
-        // Returns the Uri referencing a video with the specified id.
-        public static Uri buildVideoUri(long id) {
-            return ContentUris.withAppendedId(CONTENT_URI, id);
+        // Incremented every time the row is updated in place.
+        public static final String COLUMN_VERSION = "version";
+
+        // Returns the Uri referencing the videos of a category.
+        public static Uri buildCategoryUri(String category) {
+            return CONTENT_URI.buildUpon().appendPath(category).build();
+        }
+
+        // Returns the Uri referencing a video with the specified id. It is a child of the Uri of
+        // its category, so observers of the category are notified when the video changes.
+        public static Uri buildVideoUri(String category, long id) {
+            return ContentUris.withAppendedId(buildCategoryUri(category), id);
+        }
+    }
+
+    public static final class RecommendationEntry {
+
+        public static final Uri CONTENT_URI =
+                BASE_CONTENT_URI.buildUpon().appendPath(PATH_RECOMMENDATION).build();
+
+        public static final String CONTENT_TYPE = ContentResolver.CURSOR_DIR_BASE_TYPE + "/"
+                + CONTENT_AUTHORITY + "." + PATH_RECOMMENDATION;
+
+        // Query parameter holding the number of recommendations to return.
+        public static final String QUERY_PARAMETER_LIMIT = "limit";
+
+        // Name of the recommendation score table.
+        public static final String TABLE_NAME = "recommendation";
+
+        // The video this score belongs to. Video ids change when the catalog is re-synced, the
+        // url does not.
+        public static final String COLUMN_VIDEO_URL = "video_url";
+
+        // Category of the video, used to apply category affinity.
+        public static final String COLUMN_CATEGORY = "category";
+
+        // Rating of the video, from 0 to 10.
+        public static final String COLUMN_RATING = "rating";
+
+        // Number of times the video was played.
+        public static final String COLUMN_PLAY_COUNT = "play_count";
+
+        // When the video was last played, in milliseconds since the epoch.
+        public static final String COLUMN_LAST_PLAYED = "last_played";
+
+        // Number of plays across the video's category.
+        public static final String COLUMN_CATEGORY_PLAY_COUNT = "category_play_count";
+
+        // When a video of the category was last played, in milliseconds since the epoch.
+        public static final String COLUMN_CATEGORY_LAST_PLAYED = "category_last_played";
+
+        // When the video first appeared in the catalog, in milliseconds since the epoch.
+        public static final String COLUMN_ADDED = "added";
+
+        // The part of the score which does not change with time; recommendations are read in
+        // descending score order, recency added.
+        public static final String COLUMN_SCORE = "score";
+
+        // Returns the Uri for the top recommendations.
+        public static Uri buildTopRecommendationsUri(int limit) {
+            return CONTENT_URI.buildUpon()
+                    .appendQueryParameter(QUERY_PARAMETER_LIMIT, Integer.toString(limit))
+                    .build();
+        }
+    }
+
+    public static final class ProgressEntry {
+
+        public static final Uri CONTENT_URI =
+                BASE_CONTENT_URI.buildUpon().appendPath(PATH_PROGRESS).build();
+
+        // Videos the user started but did not finish, most recently watched first.
+        public static final Uri CONTINUE_WATCHING_URI =
+                BASE_CONTENT_URI.buildUpon().appendPath(PATH_CONTINUE_WATCHING).build();
+
+        public static final String CONTENT_TYPE =
+                ContentResolver.CURSOR_DIR_BASE_TYPE + "/" + CONTENT_AUTHORITY + "." + PATH_PROGRESS;
+
+        // Query parameter holding the number of videos to return.
+        public static final String QUERY_PARAMETER_LIMIT = "limit";
+
+        // Name of the watch progress table.
+        public static final String TABLE_NAME = "progress";
+
+        // The video this progress belongs to. Video ids change when the catalog is re-synced, the
+        // url does not.
+        public static final String COLUMN_VIDEO_URL = "video_url";
+
+        // Playback position, in milliseconds.
+        public static final String COLUMN_POSITION = "position";
+
+        // Duration of the video, in milliseconds.
+        public static final String COLUMN_DURATION = "duration";
+
+        // When the video was last watched, in milliseconds since the epoch.
+        public static final String COLUMN_LAST_WATCHED = "last_watched";
+
+        // Progress this close to the end counts as finished.
+        public static final long FINISHED_MARGIN_MS = 30 * 1000;
+
+        // Returns the Uri for the videos to continue watching.
+        public static Uri buildContinueWatchingUri(int limit) {
+            return CONTINUE_WATCHING_URI.buildUpon()
+                    .appendQueryParameter(QUERY_PARAMETER_LIMIT, Integer.toString(limit))
+                    .build();
         }
     }
 }
@@ -22,7 +22,9 @@ import androidx.annotation.NonNull;
 import android.util.Log;
 
 import com.example.android.tvleanback.R;
+import com.example.android.tvleanback.image.ImageUrlResolver;
 import com.example.android.tvleanback.model.Video;
+import com.example.android.tvleanback.trace.StartupTrace;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -78,8 +80,8 @@ public class VideoDbBuilder {
     private static final String TAG_TMDB_POSTER_ART = "poster_path";
     private static final String TAG_TMDB_DESCRIPTION = "overview";
     private static final String TAG_TMDB_RELEASE_DATE = "release_date";
-    private static final String TMDB_POSTER_BASE_PATH =  "https://image.tmdb.org/t/p/w500";
-    private static final String TMDB_BACKDROP_BASE_PATH =  "https://image.tmdb.org/t/p/original";
+    private static final String TMDB_POSTER_SIZE = "w500";
+    private static final String TMDB_BACKDROP_SIZE = ImageUrlResolver.SIZE_ORIGINAL;
     private static final String TMDB_SEARCH_URL  = "https://api.themoviedb.org/3/search/movie?api_key=0f99c73a164f775c5a0e060a16cd9c76";
 
     private Context mContext;
@@ -101,7 +103,13 @@ public class VideoDbBuilder {
      */
     public @NonNull List<ContentValues> fetch(String url)
             throws IOException, JSONException {
-        JSONObject videoData = fetchJSON(url);
+        StartupTrace.beginSection("VideoDbBuilder fetch feed");
+        JSONObject videoData;
+        try {
+            videoData = fetchJSON(url);
+        } finally {
+            StartupTrace.endSection();
+        }
         return buildMedia(videoData);
     }
 
@@ -135,7 +143,13 @@ public class VideoDbBuilder {
                 }
 
                 String title = video.optString(TAG_TITLE);
-                TMDbInfo tmdb_video_info = fetchMovieInfo(title);
+                TMDbInfo tmdb_video_info;
+                StartupTrace.beginSection("VideoDbBuilder TMDb " + title);
+                try {
+                    tmdb_video_info = fetchMovieInfo(title);
+                } finally {
+                    StartupTrace.endSection();
+                }
 
                 String description = video.optString(TAG_DESCRIPTION) + "\n" + tmdb_video_info.description;
                 String videoUrl = video.optString(TAG_SOURCES);
@@ -209,8 +223,11 @@ public class VideoDbBuilder {
         for (int j = 0; j < results.length(); j++) {
             JSONObject result = results.getJSONObject(j);
             tmdb.description = result.optString(TAG_TMDB_DESCRIPTION);
-            tmdb.backgroundUrl = TMDB_BACKDROP_BASE_PATH + result.optString(TAG_TMDB_BACKGROUND_ART);
-            tmdb.posterUrl = TMDB_POSTER_BASE_PATH + result.optString(TAG_TMDB_POSTER_ART);
+            // Stored at the largest size we display; ImageUrlResolver picks smaller buckets.
+            tmdb.backgroundUrl = ImageUrlResolver.buildUrl(TMDB_BACKDROP_SIZE,
+                    result.optString(TAG_TMDB_BACKGROUND_ART));
+            tmdb.posterUrl = ImageUrlResolver.buildUrl(TMDB_POSTER_SIZE,
+                    result.optString(TAG_TMDB_POSTER_ART));
 
             //leanback wants year only but TMDB returns yyyy-mm-dd
             tmdb.releaseYear = result.optString(TAG_TMDB_RELEASE_DATE).split("-")[0];
@@ -20,6 +20,8 @@ import android.content.Context;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
 
+import com.example.android.tvleanback.data.VideoContract.ProgressEntry;
+import com.example.android.tvleanback.data.VideoContract.RecommendationEntry;
 import com.example.android.tvleanback.data.VideoContract.VideoEntry;
 
 /**
@@ -28,13 +30,16 @@ import com.example.android.tvleanback.data.VideoContract.VideoEntry;
 public class VideoDbHelper extends SQLiteOpenHelper {
 
     // Change this when you change the database schema.
-    private static final int DATABASE_VERSION = 5;
+    private static final int DATABASE_VERSION = 10;
 
     // The name of our database.
     private static final String DATABASE_NAME = "leanback.db";
 
+    private final Context mContext;
+
     public VideoDbHelper(Context context) {
         super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        mContext = context.getApplicationContext();
     }
 
     @Override
@@ -66,17 +71,60 @@ public class VideoDbHelper extends SQLiteOpenHelper {
                 VideoEntry.COLUMN_RATING_SCORE + " TEXT NOT NULL, " +
                 VideoEntry.COLUMN_PRODUCTION_YEAR + " TEXT NOT NULL, " +
                 VideoEntry.COLUMN_DURATION + " TEXT NOT NULL, " +
-                VideoEntry.COLUMN_ACTION + " TEXT NOT NULL " +
+                VideoEntry.COLUMN_ACTION + " TEXT NOT NULL, " +
+                VideoEntry.COLUMN_VERSION + " INTEGER NOT NULL DEFAULT 0" +
+                " );";
+
+        // Create a table to hold the recommendation score of every video.
+        final String SQL_CREATE_RECOMMENDATION_TABLE = "CREATE TABLE " +
+                RecommendationEntry.TABLE_NAME + " (" +
+                RecommendationEntry.COLUMN_VIDEO_URL + " TEXT PRIMARY KEY, " +
+                RecommendationEntry.COLUMN_CATEGORY + " TEXT NOT NULL, " +
+                RecommendationEntry.COLUMN_RATING + " REAL NOT NULL DEFAULT 0, " +
+                RecommendationEntry.COLUMN_PLAY_COUNT + " INTEGER NOT NULL DEFAULT 0, " +
+                RecommendationEntry.COLUMN_LAST_PLAYED + " INTEGER NOT NULL DEFAULT 0, " +
+                RecommendationEntry.COLUMN_CATEGORY_PLAY_COUNT + " INTEGER NOT NULL DEFAULT 0, " +
+                RecommendationEntry.COLUMN_CATEGORY_LAST_PLAYED + " INTEGER NOT NULL DEFAULT 0, " +
+                RecommendationEntry.COLUMN_ADDED + " INTEGER NOT NULL DEFAULT 0, " +
+                RecommendationEntry.COLUMN_SCORE + " REAL NOT NULL DEFAULT 0" +
+                " );";
+
+        // Create a table to hold how far the user got in every video.
+        final String SQL_CREATE_PROGRESS_TABLE = "CREATE TABLE " + ProgressEntry.TABLE_NAME + " (" +
+                ProgressEntry.COLUMN_VIDEO_URL + " TEXT PRIMARY KEY, " +
+                ProgressEntry.COLUMN_POSITION + " INTEGER NOT NULL, " +
+                ProgressEntry.COLUMN_DURATION + " INTEGER NOT NULL, " +
+                ProgressEntry.COLUMN_LAST_WATCHED + " INTEGER NOT NULL" +
                 " );";
 
         // Do the creating of the databases.
         db.execSQL(SQL_CREATE_VIDEO_TABLE);
+        db.execSQL(SQL_CREATE_RECOMMENDATION_TABLE);
+        db.execSQL(SQL_CREATE_PROGRESS_TABLE);
+
+        // Category rows, and the checks for categories appearing or disappearing, use this index.
+        db.execSQL("CREATE INDEX video_category_index ON " + VideoEntry.TABLE_NAME +
+                " (" + VideoEntry.COLUMN_CATEGORY + ");");
+        // Top-K recommendations are read from a range of this index.
+        db.execSQL("CREATE INDEX recommendation_score_index ON " + RecommendationEntry.TABLE_NAME +
+                " (" + RecommendationEntry.COLUMN_SCORE + " DESC);");
+        // Category affinity updates touch every video of a category.
+        db.execSQL("CREATE INDEX recommendation_category_index ON " +
+                RecommendationEntry.TABLE_NAME + " (" + RecommendationEntry.COLUMN_CATEGORY + ");");
+        // Continue watching is read straight off this index.
+        db.execSQL("CREATE INDEX progress_last_watched_index ON " + ProgressEntry.TABLE_NAME +
+                " (" + ProgressEntry.COLUMN_LAST_WATCHED + " DESC);");
+
+        // Start from the bundled catalog, so the first launch does not wait for the network.
+        CatalogSnapshot.insertInto(mContext, db);
     }
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
         // Simply discard all old data and start over when upgrading.
         db.execSQL("DROP TABLE IF EXISTS " + VideoEntry.TABLE_NAME);
+        db.execSQL("DROP TABLE IF EXISTS " + RecommendationEntry.TABLE_NAME);
+        db.execSQL("DROP TABLE IF EXISTS " + ProgressEntry.TABLE_NAME);
         onCreate(db);
     }
 
@@ -23,13 +23,27 @@ import android.content.ContentValues;
 import android.content.Context;
 import android.content.UriMatcher;
 import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.MatrixCursor;
 import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteQueryBuilder;
 import android.net.Uri;
+import android.os.Bundle;
+import android.text.TextUtils;
+import android.util.LongSparseArray;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
+import com.example.android.tvleanback.recommendation.RecommendationEngine;
+import com.example.android.tvleanback.recommendation.RecommendationScores;
+
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * VideoProvider is a ContentProvider that provides videos for the rest of applications.
@@ -43,17 +57,28 @@ public class VideoProvider extends ContentProvider {
     private static final int VIDEO_WITH_CATEGORY = 2;
     private static final int SEARCH_SUGGEST = 3;
     private static final int REFRESH_SHORTCUT = 4;
+    private static final int RECOMMENDATION = 5;
+    private static final int PROGRESS = 6;
+    private static final int CONTINUE_WATCHING = 7;
+    private static final int VIDEO_WITH_ID = 8;
+    private static final int CATEGORIES = 9;
+
+    // Suggestions returned when global search does not pass a limit.
+    private static final int DEFAULT_SUGGESTION_LIMIT = 20;
 
     private static final SQLiteQueryBuilder sVideosContainingQueryBuilder;
     private static final String[] sVideosContainingQueryColumns;
     private static final HashMap<String, String> sColumnMap = buildColumnMap();
     private ContentResolver mContentResolver;
+    private SuggestionIndex mSuggestionIndex;
 
     @Override
     public boolean onCreate() {
         Context context = getContext();
         mContentResolver = context.getContentResolver();
         mOpenHelper = new VideoDbHelper(context);
+        mSuggestionIndex = new SuggestionIndex(mOpenHelper);
+        mSuggestionIndex.rebuild();
         return true;
     }
 
@@ -99,6 +124,11 @@ public class VideoProvider extends ContentProvider {
         // For each type of URI to add, create a corresponding code.
         matcher.addURI(authority, VideoContract.PATH_VIDEO, VIDEO);
         matcher.addURI(authority, VideoContract.PATH_VIDEO + "/*", VIDEO_WITH_CATEGORY);
+        matcher.addURI(authority, VideoContract.PATH_VIDEO + "/*/#", VIDEO_WITH_ID);
+        matcher.addURI(authority, VideoContract.PATH_CATEGORY, CATEGORIES);
+        matcher.addURI(authority, VideoContract.PATH_RECOMMENDATION, RECOMMENDATION);
+        matcher.addURI(authority, VideoContract.PATH_PROGRESS, PROGRESS);
+        matcher.addURI(authority, VideoContract.PATH_CONTINUE_WATCHING, CONTINUE_WATCHING);
 
         // Search related URIs.
         matcher.addURI(authority, "search/" + SearchManager.SUGGEST_URI_PATH_QUERY, SEARCH_SUGGEST);
@@ -106,7 +136,75 @@ public class VideoProvider extends ContentProvider {
         return matcher;
     }
 
-    private Cursor getSuggestions(String query) {
+    // Answers from the title index once it is built, loading only the rows that are returned.
+    private Cursor getSuggestions(String query, int limit) {
+        if (!mSuggestionIndex.isReady()) {
+            return getSuggestionsFromTable(query);
+        }
+        long[] ids = mSuggestionIndex.query(query, limit);
+        MatrixCursor suggestions = new MatrixCursor(sVideosContainingQueryColumns, ids.length);
+        if (ids.length == 0) {
+            return suggestions;
+        }
+
+        StringBuilder selection = new StringBuilder(VideoContract.VideoEntry._ID + " IN (");
+        String[] selectionArgs = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            selection.append(i == 0 ? "?" : ",?");
+            selectionArgs[i] = Long.toString(ids[i]);
+        }
+        selection.append(')');
+        Cursor rows = sVideosContainingQueryBuilder.query(
+                mOpenHelper.getReadableDatabase(),
+                sVideosContainingQueryColumns,
+                selection.toString(),
+                selectionArgs,
+                null,
+                null,
+                null
+        );
+        try {
+            // Rows come back in table order; copy them in the order of the index.
+            LongSparseArray<Integer> positions = new LongSparseArray<>(ids.length);
+            while (rows.moveToNext()) {
+                positions.put(rows.getLong(0), rows.getPosition());
+            }
+            for (long id : ids) {
+                Integer position = positions.get(id);
+                if (position != null && rows.moveToPosition(position)) {
+                    addRow(suggestions, rows);
+                }
+            }
+        } finally {
+            rows.close();
+        }
+        return suggestions;
+    }
+
+    private static void addRow(MatrixCursor cursor, Cursor row) {
+        MatrixCursor.RowBuilder builder = cursor.newRow();
+        for (int i = 0; i < row.getColumnCount(); i++) {
+            switch (row.getType(i)) {
+                case Cursor.FIELD_TYPE_INTEGER:
+                    builder.add(row.getLong(i));
+                    break;
+                case Cursor.FIELD_TYPE_FLOAT:
+                    builder.add(row.getDouble(i));
+                    break;
+                case Cursor.FIELD_TYPE_BLOB:
+                    builder.add(row.getBlob(i));
+                    break;
+                case Cursor.FIELD_TYPE_NULL:
+                    builder.add(null);
+                    break;
+                default:
+                    builder.add(row.getString(i));
+                    break;
+            }
+        }
+    }
+
+    private Cursor getSuggestionsFromTable(String query) {
         query = query.toLowerCase();
         return sVideosContainingQueryBuilder.query(
                 mOpenHelper.getReadableDatabase(),
@@ -120,6 +218,22 @@ public class VideoProvider extends ContentProvider {
         );
     }
 
+    // Walks the last watched index and stops after the limit.
+    private Cursor getContinueWatching(int limit) {
+        final String video = VideoContract.VideoEntry.TABLE_NAME;
+        final String progress = VideoContract.ProgressEntry.TABLE_NAME;
+        return mOpenHelper.getReadableDatabase().rawQuery("SELECT " + video + ".* FROM "
+                + progress + " JOIN " + video + " ON " + video + "."
+                + VideoContract.VideoEntry.COLUMN_VIDEO_URL + " = " + progress + "."
+                + VideoContract.ProgressEntry.COLUMN_VIDEO_URL
+                + " WHERE " + progress + "." + VideoContract.ProgressEntry.COLUMN_POSITION
+                + " > 0 AND " + progress + "." + VideoContract.ProgressEntry.COLUMN_POSITION
+                + " < " + progress + "." + VideoContract.ProgressEntry.COLUMN_DURATION + " - "
+                + VideoContract.ProgressEntry.FINISHED_MARGIN_MS
+                + " ORDER BY " + progress + "." + VideoContract.ProgressEntry.COLUMN_LAST_WATCHED
+                + " DESC LIMIT " + limit, null);
+    }
+
     private static HashMap<String, String> buildColumnMap() {
         HashMap<String, String> map = new HashMap<>();
         map.put(VideoContract.VideoEntry._ID, VideoContract.VideoEntry._ID);
@@ -166,6 +280,112 @@ public class VideoProvider extends ContentProvider {
         return map;
     }
 
+    // Restricts the selection to the category or the video the uri refers to.
+    private static String buildVideoSelection(Uri uri, String selection) {
+        switch (sUriMatcher.match(uri)) {
+            case VIDEO_WITH_CATEGORY:
+                return DatabaseUtils.concatenateWhere(
+                        VideoContract.VideoEntry.COLUMN_CATEGORY + " = ?", selection);
+            case VIDEO_WITH_ID:
+                return DatabaseUtils.concatenateWhere(
+                        VideoContract.VideoEntry.COLUMN_CATEGORY + " = ? AND "
+                                + VideoContract.VideoEntry._ID + " = ?", selection);
+            default:
+                return selection;
+        }
+    }
+
+    private static String[] buildVideoSelectionArgs(Uri uri, String[] selectionArgs) {
+        // video/<category>[/<id>]
+        switch (sUriMatcher.match(uri)) {
+            case VIDEO_WITH_CATEGORY:
+                return DatabaseUtils.appendSelectionArgs(
+                        new String[]{uri.getPathSegments().get(1)}, selectionArgs);
+            case VIDEO_WITH_ID:
+                return DatabaseUtils.appendSelectionArgs(
+                        new String[]{uri.getPathSegments().get(1), uri.getLastPathSegment()},
+                        selectionArgs);
+            default:
+                return selectionArgs;
+        }
+    }
+
+    // Records the rows a write with this selection is about to change.
+    private static void collectVideoChanges(SQLiteDatabase db, String selection,
+            String[] selectionArgs, VideoChanges changes) {
+        Cursor cursor = db.query(VideoContract.VideoEntry.TABLE_NAME,
+                new String[]{
+                        VideoContract.VideoEntry._ID, VideoContract.VideoEntry.COLUMN_CATEGORY},
+                selection, selectionArgs, null, null, null);
+        try {
+            while (cursor.moveToNext()) {
+                changes.addRow(cursor.getString(1), cursor.getLong(0));
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // Reads the title and description of the given rows, or returns null when there are so many
+    // that the suggestion index is better rebuilt.
+    @Nullable
+    private static List<ContentValues> loadSuggestionWords(SQLiteDatabase db, List<Long> ids) {
+        if (ids.size() > SuggestionIndex.MAX_CHANGES) {
+            return null;
+        }
+        List<ContentValues> rows = new ArrayList<>(ids.size());
+        Cursor cursor = db.query(VideoContract.VideoEntry.TABLE_NAME,
+                new String[]{VideoContract.VideoEntry._ID, VideoContract.VideoEntry.COLUMN_NAME,
+                        VideoContract.VideoEntry.COLUMN_DESC},
+                VideoContract.VideoEntry._ID + " IN (" + TextUtils.join(",", ids) + ")",
+                null, null, null, null);
+        try {
+            while (cursor.moveToNext()) {
+                ContentValues row = new ContentValues();
+                DatabaseUtils.cursorRowToContentValues(cursor, row);
+                rows.add(row);
+            }
+        } finally {
+            cursor.close();
+        }
+        return rows;
+    }
+
+    private static long countVideos(SQLiteDatabase db, String category) {
+        return DatabaseUtils.queryNumEntries(db, VideoContract.VideoEntry.TABLE_NAME,
+                VideoContract.VideoEntry.COLUMN_CATEGORY + " = ?", new String[]{category});
+    }
+
+    private static Set<String> queryCategories(SQLiteDatabase db) {
+        Set<String> categories = new HashSet<>();
+        Cursor cursor = db.query(true, VideoContract.VideoEntry.TABLE_NAME,
+                new String[]{VideoContract.VideoEntry.COLUMN_CATEGORY},
+                null, null, null, null, null, null);
+        try {
+            while (cursor.moveToNext()) {
+                categories.add(cursor.getString(0));
+            }
+        } finally {
+            cursor.close();
+        }
+        return categories;
+    }
+
+    // Sends one notification per changed category once the write is committed: on the row if it
+    // is the only one that changed in its category, otherwise on the category.
+    private void notifyVideoChanges(VideoChanges changes) {
+        for (Map.Entry<String, Long> entry : changes.mRows.entrySet()) {
+            String category = entry.getKey();
+            long id = entry.getValue();
+            mContentResolver.notifyChange(id == VideoChanges.WHOLE_CATEGORY
+                    ? VideoContract.VideoEntry.buildCategoryUri(category)
+                    : VideoContract.VideoEntry.buildVideoUri(category, id), null);
+        }
+        if (changes.mCategoriesChanged) {
+            mContentResolver.notifyChange(VideoContract.VideoEntry.CATEGORIES_URI, null);
+        }
+    }
+
     @Override
     public Cursor query(@NonNull Uri uri, String[] projection, String selection,
             String[] selectionArgs, String sortOrder) {
@@ -176,13 +396,51 @@ public class VideoProvider extends ContentProvider {
                 if (selectionArgs != null && selectionArgs.length > 0) {
                     rawQuery = selectionArgs[0];
                 }
-                retCursor = getSuggestions(rawQuery);
+                String limit = uri.getQueryParameter(SearchManager.SUGGEST_PARAMETER_LIMIT);
+                retCursor = getSuggestions(rawQuery,
+                        limit == null ? DEFAULT_SUGGESTION_LIMIT : Integer.parseInt(limit));
                 break;
             }
-            case VIDEO: {
+            case VIDEO:
+            case VIDEO_WITH_CATEGORY:
+            case VIDEO_WITH_ID: {
                 retCursor = mOpenHelper.getReadableDatabase().query(
                         VideoContract.VideoEntry.TABLE_NAME,
                         projection,
+                        buildVideoSelection(uri, selection),
+                        buildVideoSelectionArgs(uri, selectionArgs),
+                        null,
+                        null,
+                        sortOrder
+                );
+                break;
+            }
+            case CATEGORIES: {
+                retCursor = mOpenHelper.getReadableDatabase().query(
+                        true,
+                        VideoContract.VideoEntry.TABLE_NAME,
+                        new String[]{VideoContract.VideoEntry.COLUMN_CATEGORY},
+                        selection,
+                        selectionArgs,
+                        null,
+                        null,
+                        sortOrder,
+                        null
+                );
+                break;
+            }
+            case RECOMMENDATION: {
+                String limit = uri.getQueryParameter(
+                        VideoContract.RecommendationEntry.QUERY_PARAMETER_LIMIT);
+                retCursor = RecommendationScores.queryTop(mOpenHelper.getReadableDatabase(),
+                        limit == null ? Integer.MAX_VALUE : Integer.parseInt(limit),
+                        System.currentTimeMillis());
+                break;
+            }
+            case PROGRESS: {
+                retCursor = mOpenHelper.getReadableDatabase().query(
+                        VideoContract.ProgressEntry.TABLE_NAME,
+                        projection,
                         selection,
                         selectionArgs,
                         null,
@@ -191,6 +449,13 @@ public class VideoProvider extends ContentProvider {
                 );
                 break;
             }
+            case CONTINUE_WATCHING: {
+                String limit = uri.getQueryParameter(
+                        VideoContract.ProgressEntry.QUERY_PARAMETER_LIMIT);
+                retCursor = getContinueWatching(
+                        limit == null ? Integer.MAX_VALUE : Integer.parseInt(limit));
+                break;
+            }
             default: {
                 throw new UnsupportedOperationException("Unknown uri: " + uri);
             }
@@ -206,8 +471,18 @@ public class VideoProvider extends ContentProvider {
             // The application is querying the db for its own contents.
             case VIDEO_WITH_CATEGORY:
                 return VideoContract.VideoEntry.CONTENT_TYPE;
+            case VIDEO_WITH_ID:
+                return VideoContract.VideoEntry.CONTENT_TYPE;
+            case CATEGORIES:
+                return VideoContract.VideoEntry.CONTENT_TYPE;
             case VIDEO:
                 return VideoContract.VideoEntry.CONTENT_TYPE;
+            case RECOMMENDATION:
+                return VideoContract.RecommendationEntry.CONTENT_TYPE;
+            case PROGRESS:
+                return VideoContract.ProgressEntry.CONTENT_TYPE;
+            case CONTINUE_WATCHING:
+                return VideoContract.VideoEntry.CONTENT_TYPE;
 
             // The Android TV global search is querying our app for relevant content.
             case SEARCH_SUGGEST:
@@ -228,13 +503,22 @@ public class VideoProvider extends ContentProvider {
 
         switch (match) {
             case VIDEO: {
-                long _id = mOpenHelper.getWritableDatabase().insert(
-                        VideoContract.VideoEntry.TABLE_NAME, null, values);
+                final SQLiteDatabase db = mOpenHelper.getWritableDatabase();
+                String category = values.getAsString(VideoContract.VideoEntry.COLUMN_CATEGORY);
+                long _id = db.insert(VideoContract.VideoEntry.TABLE_NAME, null, values);
                 if (_id > 0) {
-                    returnUri = VideoContract.VideoEntry.buildVideoUri(_id);
+                    returnUri = VideoContract.VideoEntry.buildVideoUri(category, _id);
                 } else {
                     throw new SQLException("Failed to insert row into " + uri);
                 }
+                mSuggestionIndex.put(_id,
+                        values.getAsString(VideoContract.VideoEntry.COLUMN_NAME),
+                        values.getAsString(VideoContract.VideoEntry.COLUMN_DESC));
+
+                VideoChanges changes = new VideoChanges();
+                changes.addRow(category, _id);
+                changes.mCategoriesChanged = countVideos(db, category) == 1;
+                notifyVideoChanges(changes);
                 break;
             }
             default: {
@@ -242,7 +526,6 @@ public class VideoProvider extends ContentProvider {
             }
         }
 
-        mContentResolver.notifyChange(uri, null);
         return returnUri;
     }
 
@@ -254,10 +537,30 @@ public class VideoProvider extends ContentProvider {
         //    throw new UnsupportedOperationException("Cannot delete without selection specified.");
         //}
 
+        final VideoChanges changes = new VideoChanges();
         switch (sUriMatcher.match(uri)) {
-            case VIDEO: {
-                rowsDeleted = mOpenHelper.getWritableDatabase().delete(
-                        VideoContract.VideoEntry.TABLE_NAME, selection, selectionArgs);
+            case VIDEO:
+            case VIDEO_WITH_CATEGORY:
+            case VIDEO_WITH_ID: {
+                final SQLiteDatabase db = mOpenHelper.getWritableDatabase();
+                selection = buildVideoSelection(uri, selection);
+                selectionArgs = buildVideoSelectionArgs(uri, selectionArgs);
+
+                db.beginTransaction();
+                try {
+                    collectVideoChanges(db, selection, selectionArgs, changes);
+                    rowsDeleted = db.delete(
+                            VideoContract.VideoEntry.TABLE_NAME, selection, selectionArgs);
+                    for (String category : changes.mRows.keySet()) {
+                        if (countVideos(db, category) == 0) {
+                            changes.mCategoriesChanged = true;
+                            break;
+                        }
+                    }
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
                 break;
             }
             default: {
@@ -266,7 +569,8 @@ public class VideoProvider extends ContentProvider {
         }
 
         if (rowsDeleted != 0) {
-            mContentResolver.notifyChange(uri, null);
+            mSuggestionIndex.remove(changes.mIds);
+            notifyVideoChanges(changes);
         }
 
         return rowsDeleted;
@@ -276,11 +580,52 @@ public class VideoProvider extends ContentProvider {
     public int update(@NonNull Uri uri, ContentValues values, String selection,
             String[] selectionArgs) {
         final int rowsUpdated;
+        // The new title and description of the updated rows, when they changed.
+        boolean wordsChanged = false;
+        List<ContentValues> suggestionWords = null;
 
+        final VideoChanges changes = new VideoChanges();
         switch (sUriMatcher.match(uri)) {
-            case VIDEO: {
-                rowsUpdated = mOpenHelper.getWritableDatabase().update(
-                        VideoContract.VideoEntry.TABLE_NAME, values, selection, selectionArgs);
+            case VIDEO:
+            case VIDEO_WITH_CATEGORY:
+            case VIDEO_WITH_ID: {
+                final SQLiteDatabase db = mOpenHelper.getWritableDatabase();
+                selection = buildVideoSelection(uri, selection);
+                selectionArgs = buildVideoSelectionArgs(uri, selectionArgs);
+                String newCategory = values.getAsString(VideoContract.VideoEntry.COLUMN_CATEGORY);
+                wordsChanged = values.containsKey(VideoContract.VideoEntry.COLUMN_NAME)
+                        || values.containsKey(VideoContract.VideoEntry.COLUMN_DESC);
+
+                db.beginTransaction();
+                try {
+                    collectVideoChanges(db, selection, selectionArgs, changes);
+                    Set<String> oldCategories = new HashSet<>(changes.mRows.keySet());
+                    // Lets cursor mappers tell the updated rows from the ones they mapped before.
+                    db.execSQL("UPDATE " + VideoContract.VideoEntry.TABLE_NAME + " SET "
+                            + VideoContract.VideoEntry.COLUMN_VERSION + " = "
+                            + VideoContract.VideoEntry.COLUMN_VERSION + " + 1"
+                            + (selection != null ? " WHERE " + selection : ""),
+                            selectionArgs != null ? selectionArgs : new String[0]);
+                    rowsUpdated = db.update(
+                            VideoContract.VideoEntry.TABLE_NAME, values, selection, selectionArgs);
+                    if (newCategory != null && rowsUpdated != 0) {
+                        // Moved rows leave their old category rows and join the new one.
+                        changes.addCategory(newCategory);
+                        changes.mCategoriesChanged = !oldCategories.contains(newCategory)
+                                && countVideos(db, newCategory) == rowsUpdated;
+                        for (String category : oldCategories) {
+                            if (!category.equals(newCategory) && countVideos(db, category) == 0) {
+                                changes.mCategoriesChanged = true;
+                            }
+                        }
+                    }
+                    if (wordsChanged && rowsUpdated != 0) {
+                        suggestionWords = loadSuggestionWords(db, changes.mIds);
+                    }
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
                 break;
             }
             default: {
@@ -288,8 +633,17 @@ public class VideoProvider extends ContentProvider {
             }
         }
 
+        if (wordsChanged && rowsUpdated != 0 && suggestionWords == null) {
+            mSuggestionIndex.rebuild();
+        } else if (suggestionWords != null) {
+            for (ContentValues words : suggestionWords) {
+                mSuggestionIndex.put(words.getAsLong(VideoContract.VideoEntry._ID),
+                        words.getAsString(VideoContract.VideoEntry.COLUMN_NAME),
+                        words.getAsString(VideoContract.VideoEntry.COLUMN_DESC));
+            }
+        }
         if (rowsUpdated != 0) {
-            mContentResolver.notifyChange(uri, null);
+            notifyVideoChanges(changes);
         }
 
         return rowsUpdated;
@@ -300,13 +654,49 @@ public class VideoProvider extends ContentProvider {
         switch (sUriMatcher.match(uri)) {
             case VIDEO: {
                 final SQLiteDatabase db = mOpenHelper.getWritableDatabase();
+                final VideoChanges changes = new VideoChanges();
                 int returnCount = 0;
 
                 db.beginTransaction();
                 try {
+                    Set<String> oldCategories = queryCategories(db);
                     for (ContentValues value : values) {
                         long _id = db.insertWithOnConflict(VideoContract.VideoEntry.TABLE_NAME,
                                 null, value, SQLiteDatabase.CONFLICT_REPLACE);
+                        if (_id != -1) {
+                            changes.addCategory(
+                                    value.getAsString(VideoContract.VideoEntry.COLUMN_CATEGORY));
+                            returnCount++;
+                        }
+                    }
+                    // Replaced rows may have been the last of another category.
+                    Set<String> newCategories = queryCategories(db);
+                    changes.mCategoriesChanged = !oldCategories.equals(newCategories);
+                    for (String category : oldCategories) {
+                        if (!newCategories.contains(category)) {
+                            changes.addCategory(category);
+                        }
+                    }
+                    RecommendationScores.syncWithCatalog(db, System.currentTimeMillis());
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+
+                mSuggestionIndex.rebuild();
+                notifyVideoChanges(changes);
+                mContentResolver.notifyChange(VideoContract.RecommendationEntry.CONTENT_URI, null);
+                return returnCount;
+            }
+            case PROGRESS: {
+                final SQLiteDatabase db = mOpenHelper.getWritableDatabase();
+                int returnCount = 0;
+
+                db.beginTransaction();
+                try {
+                    for (ContentValues value : values) {
+                        long _id = db.insertWithOnConflict(VideoContract.ProgressEntry.TABLE_NAME,
+                                null, value, SQLiteDatabase.CONFLICT_REPLACE);
                         if (_id != -1) {
                             returnCount++;
                         }
@@ -317,6 +707,8 @@ public class VideoProvider extends ContentProvider {
                 }
 
                 mContentResolver.notifyChange(uri, null);
+                mContentResolver.notifyChange(VideoContract.ProgressEntry.CONTINUE_WATCHING_URI,
+                        null);
                 return returnCount;
             }
             default: {
@@ -324,4 +716,48 @@ public class VideoProvider extends ContentProvider {
             }
         }
     }
+
+    @Override
+    public Bundle call(@NonNull String method, @Nullable String arg, @Nullable Bundle extras) {
+        if (RecommendationEngine.METHOD_RECORD_PLAYS.equals(method) && extras != null) {
+            final SQLiteDatabase db = mOpenHelper.getWritableDatabase();
+            db.beginTransaction();
+            try {
+                RecommendationScores.applyPlayEvents(db,
+                        extras.getStringArray(RecommendationEngine.EXTRA_VIDEO_URLS),
+                        extras.getLongArray(RecommendationEngine.EXTRA_TIMESTAMPS));
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            mContentResolver.notifyChange(VideoContract.RecommendationEntry.CONTENT_URI, null);
+            return null;
+        }
+        return super.call(method, arg, extras);
+    }
+
+    /**
+     * The videos changed by one write, by category.
+     */
+    private static final class VideoChanges {
+        static final long WHOLE_CATEGORY = -1;
+
+        // The id of the only changed video of each category, or WHOLE_CATEGORY.
+        final Map<String, Long> mRows = new HashMap<>();
+        // Every changed video.
+        final List<Long> mIds = new ArrayList<>();
+        boolean mCategoriesChanged;
+
+        void addRow(String category, long id) {
+            mIds.add(id);
+            Long previous = mRows.put(category, id);
+            if (previous != null && previous != id) {
+                mRows.put(category, WHOLE_CATEGORY);
+            }
+        }
+
+        void addCategory(String category) {
+            mRows.put(category, WHOLE_CATEGORY);
+        }
+    }
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.android.tvleanback.data;
+
+import android.content.ContentResolver;
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+
+import com.example.android.tvleanback.data.VideoContract.ProgressEntry;
+import com.example.android.tvleanback.model.Video;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers how far the user got in every video.
+ * <p>
+ * Position updates only overwrite the latest position of the video in memory. They are written
+ * in one transaction when playback pauses or stops, and at most every {@link #FLUSH_INTERVAL_MS}
+ * while it keeps playing.
+ */
+public final class WatchProgressStore {
+    private static final String TAG = "WatchProgressStore";
+
+    private static final long FLUSH_INTERVAL_MS = 15000;
+
+    private static WatchProgressStore sInstance;
+
+    private final ContentResolver mContentResolver;
+    private final ScheduledExecutorService mWriteExecutor =
+            Executors.newSingleThreadScheduledExecutor();
+
+    // Latest unwritten progress by video url, and the progress being written.
+    private Map<String, Progress> mPending = new HashMap<>();
+    private Map<String, Progress> mWriting = new HashMap<>();
+    private boolean mFlushScheduled;
+
+    private final Runnable mFlushTask = new Runnable() {
+        @Override
+        public void run() {
+            writePending();
+        }
+    };
+
+    private WatchProgressStore(Context context) {
+        mContentResolver = context.getApplicationContext().getContentResolver();
+    }
+
+    public static synchronized WatchProgressStore getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new WatchProgressStore(context);
+        }
+        return sInstance;
+    }
+
+    /**
+     * Records the playback position of {@code video}. Cheap enough to call on every progress
+     * update of the player.
+     */
+    public void update(Video video, long positionMs, long durationMs) {
+        if (positionMs < 0 || durationMs <= 0) {
+            return;
+        }
+        synchronized (this) {
+            Progress progress = mPending.get(video.videoUrl);
+            if (progress == null) {
+                progress = new Progress();
+                mPending.put(video.videoUrl, progress);
+            }
+            progress.mPosition = positionMs;
+            progress.mDuration = durationMs;
+            progress.mLastWatched = System.currentTimeMillis();
+
+            if (!mFlushScheduled) {
+                mFlushScheduled = true;
+                mWriteExecutor.schedule(mFlushTask, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Writes the recorded positions now, on a background thread.
+     */
+    public void flush() {
+        mWriteExecutor.execute(mFlushTask);
+    }
+
+    /**
+     * Returns the position to resume {@code video} from, or 0 to play it from the start. Must
+     * not be called on the main thread.
+     */
+    public long getResumePosition(Video video) {
+        long position;
+        long duration;
+        synchronized (this) {
+            Progress progress = mPending.get(video.videoUrl);
+            if (progress == null) {
+                progress = mWriting.get(video.videoUrl);
+            }
+            position = progress == null ? 0 : progress.mPosition;
+            duration = progress == null ? 0 : progress.mDuration;
+        }
+        if (duration == 0) {
+            Cursor cursor = mContentResolver.query(ProgressEntry.CONTENT_URI,
+                    new String[]{ProgressEntry.COLUMN_POSITION, ProgressEntry.COLUMN_DURATION},
+                    ProgressEntry.COLUMN_VIDEO_URL + " = ?",
+                    new String[]{video.videoUrl},
+                    null);
+            if (cursor == null) {
+                return 0;
+            }
+            try {
+                if (cursor.moveToFirst()) {
+                    position = cursor.getLong(0);
+                    duration = cursor.getLong(1);
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+        // Finished videos start over.
+        return position < duration - ProgressEntry.FINISHED_MARGIN_MS ? position : 0;
+    }
+
+    private void writePending() {
+        Map<String, Progress> writing;
+        synchronized (this) {
+            mFlushScheduled = false;
+            if (mPending.isEmpty()) {
+                return;
+            }
+            // The map written last time takes the new updates; Progress objects are not reused.
+            writing = mPending;
+            mPending = mWriting;
+            mPending.clear();
+            mWriting = writing;
+        }
+
+        ContentValues[] values = new ContentValues[writing.size()];
+        int i = 0;
+        for (Map.Entry<String, Progress> entry : writing.entrySet()) {
+            Progress progress = entry.getValue();
+            ContentValues value = new ContentValues();
+            value.put(ProgressEntry.COLUMN_VIDEO_URL, entry.getKey());
+            value.put(ProgressEntry.COLUMN_POSITION, progress.mPosition);
+            value.put(ProgressEntry.COLUMN_DURATION, progress.mDuration);
+            value.put(ProgressEntry.COLUMN_LAST_WATCHED, progress.mLastWatched);
+            values[i++] = value;
+        }
+        try {
+            mContentResolver.bulkInsert(ProgressEntry.CONTENT_URI, values);
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Could not write the progress of " + values.length + " videos.", e);
+        }
+    }
+
+    private static final class Progress {
+        private long mPosition;
+        private long mDuration;
+        private long mLastWatched;
+    }
+}
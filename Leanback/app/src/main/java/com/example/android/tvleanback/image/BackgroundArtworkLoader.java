@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.android.tvleanback.image;
+
+import android.graphics.Bitmap;
+import android.graphics.drawable.Drawable;
+import android.util.LruCache;
+
+import androidx.annotation.Nullable;
+import androidx.leanback.app.BackgroundManager;
+
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.request.RequestOptions;
+import com.bumptech.glide.request.target.SimpleTarget;
+import com.bumptech.glide.request.transition.Transition;
+
+/**
+ * Loads backdrops into a {@link BackgroundManager}.
+ * <p>
+ * A tiny thumbnail of the backdrop is shown first; the BackgroundManager scales it up to the
+ * window with filtering, which gives a blurred placeholder. The screen-sized backdrop replaces it
+ * once decoded. The last {@link #RECENT_BACKDROPS} backdrops are kept decoded, so moving back and
+ * forth between neighbouring titles does not decode again. Older backdrops are released to Glide,
+ * whose bitmap pool hands their memory to the next screen-sized decode instead of allocating.
+ * All methods must be called on the main thread.
+ */
+public class BackgroundArtworkLoader {
+
+    // Must be at least 2 so the backdrop that is fading out is never released.
+    private static final int RECENT_BACKDROPS = 3;
+    private static final int THUMBNAIL_WIDTH = 48;
+
+    private final RequestManager mRequestManager;
+    private final BackgroundManager mBackgroundManager;
+    private final Drawable mDefaultBackground;
+    private final int mWidth;
+    private final int mHeight;
+    private final int mThumbnailHeight;
+    private final RequestOptions mBackdropOptions;
+    private final RequestOptions mThumbnailOptions;
+
+    // Decoded backdrops keyed by URL; each target keeps its bitmap acquired from Glide.
+    private final LruCache<String, BackdropTarget> mRecentBackdrops =
+            new LruCache<String, BackdropTarget>(RECENT_BACKDROPS) {
+                @Override
+                protected void entryRemoved(boolean evicted, String key, BackdropTarget oldValue,
+                        BackdropTarget newValue) {
+                    mRequestManager.clear(oldValue);
+                }
+            };
+
+    private String mCurrentUrl;
+    private BackdropTarget mPendingBackdrop;
+    private ThumbnailTarget mThumbnail;
+    // The thumbnail of the previous load, kept so it is not released while fading out.
+    private ThumbnailTarget mPreviousThumbnail;
+
+    public BackgroundArtworkLoader(RequestManager requestManager,
+            BackgroundManager backgroundManager, int width, int height,
+            Drawable defaultBackground) {
+        mRequestManager = requestManager;
+        mBackgroundManager = backgroundManager;
+        mDefaultBackground = defaultBackground;
+        mWidth = width;
+        mHeight = height;
+
+        mBackdropOptions = new RequestOptions()
+                .centerCrop()
+                .override(width, height)
+                .format(DecodeFormat.PREFER_RGB_565);
+
+        mThumbnailHeight = Math.max(1, THUMBNAIL_WIDTH * height / Math.max(1, width));
+        mThumbnailOptions = new RequestOptions()
+                .centerCrop()
+                .override(THUMBNAIL_WIDTH, mThumbnailHeight)
+                .format(DecodeFormat.PREFER_RGB_565);
+    }
+
+    /**
+     * Shows the backdrop at {@code url}, cancelling the load of any previous one.
+     */
+    public void load(@Nullable String url) {
+        if (url == null) {
+            return;
+        }
+        BackdropTarget recent = mRecentBackdrops.get(url);
+        if (recent != null) {
+            cancelPending();
+            mCurrentUrl = url;
+            mBackgroundManager.setBitmap(recent.mBitmap);
+            return;
+        }
+        if (url.equals(mCurrentUrl) && mPendingBackdrop != null) {
+            // Already on its way.
+            return;
+        }
+        cancelPending();
+        mCurrentUrl = url;
+
+        // Start the full backdrop first: if Glide has it in memory it is delivered synchronously
+        // and the thumbnail is not needed.
+        BackdropTarget backdrop = new BackdropTarget(url, mWidth, mHeight);
+        mPendingBackdrop = backdrop;
+        mRequestManager.asBitmap()
+                .load(ImageUrlResolver.resolveBackdrop(url, mWidth, mHeight))
+                .apply(mBackdropOptions)
+                .into(backdrop);
+
+        if (mPendingBackdrop == backdrop) {
+            clearThumbnail(mPreviousThumbnail);
+            mPreviousThumbnail = mThumbnail;
+            mThumbnail = new ThumbnailTarget(url);
+            mRequestManager.asBitmap()
+                    .load(ImageUrlResolver.resolveBackdrop(url, THUMBNAIL_WIDTH, 0))
+                    .apply(mThumbnailOptions)
+                    .into(mThumbnail);
+        }
+    }
+
+    /**
+     * Cancels pending loads and releases every decoded backdrop.
+     */
+    public void release() {
+        cancelPending();
+        clearThumbnail(mThumbnail);
+        clearThumbnail(mPreviousThumbnail);
+        mThumbnail = null;
+        mPreviousThumbnail = null;
+        mRecentBackdrops.evictAll();
+        mCurrentUrl = null;
+    }
+
+    private void cancelPending() {
+        if (mPendingBackdrop != null) {
+            mRequestManager.clear(mPendingBackdrop);
+            mPendingBackdrop = null;
+        }
+    }
+
+    private void clearThumbnail(@Nullable ThumbnailTarget thumbnail) {
+        if (thumbnail != null) {
+            mRequestManager.clear(thumbnail);
+        }
+    }
+
+    private final class ThumbnailTarget extends SimpleTarget<Bitmap> {
+        private final String mUrl;
+
+        ThumbnailTarget(String url) {
+            super(THUMBNAIL_WIDTH, mThumbnailHeight);
+            mUrl = url;
+        }
+
+        @Override
+        public void onResourceReady(Bitmap resource, Transition<? super Bitmap> transition) {
+            // Only useful while the full backdrop is still on its way.
+            if (mThumbnail == this && mPendingBackdrop != null && mUrl.equals(mCurrentUrl)) {
+                mBackgroundManager.setBitmap(resource);
+            }
+        }
+    }
+
+    private final class BackdropTarget extends SimpleTarget<Bitmap> {
+        private final String mUrl;
+        private Bitmap mBitmap;
+
+        BackdropTarget(String url, int width, int height) {
+            super(width, height);
+            mUrl = url;
+        }
+
+        @Override
+        public void onResourceReady(Bitmap resource, Transition<? super Bitmap> transition) {
+            if (mPendingBackdrop != this) {
+                return;
+            }
+            mPendingBackdrop = null;
+            mBitmap = resource;
+            mRecentBackdrops.put(mUrl, this);
+            if (mUrl.equals(mCurrentUrl)) {
+                mBackgroundManager.setBitmap(resource);
+            }
+        }
+
+        @Override
+        public void onLoadFailed(@Nullable Drawable errorDrawable) {
+            if (mPendingBackdrop != this) {
+                return;
+            }
+            mPendingBackdrop = null;
+            if (mUrl.equals(mCurrentUrl)) {
+                mBackgroundManager.setDrawable(mDefaultBackground);
+            }
+        }
+    }
+}
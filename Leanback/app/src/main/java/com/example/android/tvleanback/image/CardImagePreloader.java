@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.android.tvleanback.image;
+
+import android.content.res.Resources;
+import android.graphics.drawable.Drawable;
+import android.view.View;
+
+import androidx.annotation.Nullable;
+import androidx.leanback.widget.ListRow;
+import androidx.leanback.widget.ObjectAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.engine.GlideException;
+import com.bumptech.glide.request.RequestListener;
+import com.bumptech.glide.request.target.Target;
+import com.example.android.tvleanback.model.Video;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Warms Glide's memory and disk caches for the cards that are about to scroll into view.
+ * <p>
+ * The preloader is attached to the grid views that show cards. When a grid scrolls, the next
+ * {@code preloadCount} cards past the visible ones, in the scroll direction, are requested at the
+ * exact card size so the bind in {@link com.example.android.tvleanback.presenter.CardPresenter}
+ * is a memory cache hit. When the list of rows scrolls, the first cards of the next row are
+ * requested the same way. Each new prediction replaces the previous one: queued requests are
+ * dropped and in-flight requests that are no longer wanted are cancelled. At most
+ * {@code maxConcurrentRequests} requests run at the same time. All methods must be called on the
+ * main thread.
+ */
+public class CardImagePreloader {
+
+    public static final int DEFAULT_PRELOAD_COUNT = 5;
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 3;
+
+    // Number of recently preloaded URLs that are not requested again.
+    private static final int MAX_RECENT_URLS = 100;
+
+    /**
+     * Supplies the adapter currently bound to a grid. Row grid views are recycled between rows,
+     * so the adapter has to be looked up when the grid scrolls.
+     */
+    public interface AdapterProvider {
+        @Nullable
+        ObjectAdapter getAdapter();
+    }
+
+    private final RequestManager mRequestManager;
+    private final int mCardWidth;
+    private final int mCardHeight;
+    private final int mPreloadCount;
+    private final int mMaxConcurrentRequests;
+
+    private final ArrayDeque<String> mPendingUrls = new ArrayDeque<>();
+    private final Map<String, Target<Drawable>> mInFlightRequests = new HashMap<>();
+    private final Map<String, Boolean> mRecentUrls =
+            new LinkedHashMap<String, Boolean>(MAX_RECENT_URLS, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > MAX_RECENT_URLS;
+                }
+            };
+
+    // Set while a request is being started, since memory cache hits complete synchronously.
+    private String mStartingUrl;
+    private boolean mStartingUrlFinished;
+
+    public CardImagePreloader(RequestManager requestManager, Resources res) {
+        this(requestManager, res, DEFAULT_PRELOAD_COUNT, DEFAULT_MAX_CONCURRENT_REQUESTS);
+    }
+
+    public CardImagePreloader(RequestManager requestManager, Resources res, int preloadCount,
+            int maxConcurrentRequests) {
+        mRequestManager = requestManager;
+        mCardWidth = CardImageRequests.getCardWidth(res);
+        mCardHeight = CardImageRequests.getCardHeight(res);
+        mPreloadCount = preloadCount;
+        mMaxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    /**
+     * Starts predicting from the scroll events of {@code gridView}, whose items are the items of
+     * the adapter returned by {@code adapterProvider}.
+     */
+    public void attach(RecyclerView gridView, final AdapterProvider adapterProvider) {
+        gridView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+                int direction = dx != 0 ? dx : dy;
+                ObjectAdapter adapter = adapterProvider.getAdapter();
+                int[] visible = getVisibleRange(recyclerView);
+                if (direction == 0 || adapter == null || visible == null) {
+                    return;
+                }
+                if (direction > 0) {
+                    preload(adapter, visible[1] + 1, visible[1] + 1 + mPreloadCount);
+                } else {
+                    preload(adapter, visible[0] - mPreloadCount, visible[0]);
+                }
+            }
+        });
+    }
+
+    /**
+     * Starts predicting from the vertical scroll events of {@code rowsView}, the list of rows
+     * whose items are the {@link ListRow}s of the adapter returned by {@code adapterProvider}.
+     * The first cards of the next row in the scroll direction are preloaded.
+     */
+    public void attachRows(RecyclerView rowsView, final AdapterProvider adapterProvider) {
+        rowsView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+                ObjectAdapter adapter = adapterProvider.getAdapter();
+                int[] visible = getVisibleRange(recyclerView);
+                if (dy == 0 || adapter == null || visible == null) {
+                    return;
+                }
+                int nextRow = dy > 0 ? visible[1] + 1 : visible[0] - 1;
+                if (nextRow >= 0 && nextRow < adapter.size()
+                        && adapter.get(nextRow) instanceof ListRow) {
+                    preloadRow(((ListRow) adapter.get(nextRow)).getAdapter());
+                }
+            }
+        });
+    }
+
+    /**
+     * Preloads the first cards of {@code adapter}; used when a row is about to scroll into view.
+     */
+    public void preloadRow(ObjectAdapter adapter) {
+        preload(adapter, 0, mPreloadCount);
+    }
+
+    /**
+     * Replaces the current prediction with the cards in [{@code start}, {@code end}) of
+     * {@code adapter}. Out of range positions are ignored.
+     */
+    public void preload(ObjectAdapter adapter, int start, int end) {
+        start = Math.max(0, start);
+        end = Math.min(adapter.size(), end);
+
+        List<String> wanted = new ArrayList<>(Math.max(0, end - start));
+        for (int i = start; i < end; i++) {
+            Object item = adapter.get(i);
+            if (item instanceof Video) {
+                String url = ((Video) item).cardImageUrl;
+                if (url != null && !mRecentUrls.containsKey(url)) {
+                    wanted.add(url);
+                }
+            }
+        }
+
+        // Cancel in-flight requests that are no longer part of the prediction.
+        List<String> stale = new ArrayList<>();
+        for (String url : mInFlightRequests.keySet()) {
+            if (!wanted.contains(url)) {
+                stale.add(url);
+            }
+        }
+        for (String url : stale) {
+            mRequestManager.clear(mInFlightRequests.remove(url));
+        }
+
+        mPendingUrls.clear();
+        for (String url : wanted) {
+            if (!mInFlightRequests.containsKey(url)) {
+                mPendingUrls.add(url);
+            }
+        }
+        dispatchPending();
+    }
+
+    /**
+     * Drops the queued requests and cancels the ones in flight.
+     */
+    public void cancel() {
+        mPendingUrls.clear();
+        for (Target<Drawable> target : mInFlightRequests.values()) {
+            mRequestManager.clear(target);
+        }
+        mInFlightRequests.clear();
+    }
+
+    // The first and last adapter positions laid out in the grid, or null if there are none.
+    @Nullable
+    private static int[] getVisibleRange(RecyclerView recyclerView) {
+        int first = Integer.MAX_VALUE;
+        int last = -1;
+        for (int i = 0; i < recyclerView.getChildCount(); i++) {
+            View child = recyclerView.getChildAt(i);
+            int position = recyclerView.getChildAdapterPosition(child);
+            if (position != RecyclerView.NO_POSITION) {
+                first = Math.min(first, position);
+                last = Math.max(last, position);
+            }
+        }
+        return last < 0 ? null : new int[] {first, last};
+    }
+
+    private void dispatchPending() {
+        while (mInFlightRequests.size() < mMaxConcurrentRequests && !mPendingUrls.isEmpty()) {
+            final String url = mPendingUrls.poll();
+            mStartingUrl = url;
+            mStartingUrlFinished = false;
+            Target<Drawable> target = CardImageRequests
+                    .load(mRequestManager, url, mCardWidth, mCardHeight)
+                    .listener(new RequestListener<Drawable>() {
+                        @Override
+                        public boolean onLoadFailed(@Nullable GlideException e, Object model,
+                                Target<Drawable> target, boolean isFirstResource) {
+                            onRequestFinished(url, target);
+                            return false;
+                        }
+
+                        @Override
+                        public boolean onResourceReady(Drawable resource, Object model,
+                                Target<Drawable> target, DataSource dataSource,
+                                boolean isFirstResource) {
+                            onRequestFinished(url, target);
+                            return false;
+                        }
+                    })
+                    .preload(mCardWidth, mCardHeight);
+            mStartingUrl = null;
+            if (!mStartingUrlFinished) {
+                mInFlightRequests.put(url, target);
+            }
+        }
+    }
+
+    private void onRequestFinished(String url, Target<Drawable> target) {
+        mRecentUrls.put(url, Boolean.TRUE);
+        if (url.equals(mStartingUrl)) {
+            // Finished inside preload(); dispatchPending() is still running.
+            mStartingUrlFinished = true;
+            return;
+        }
+        // A cancelled request may still report back; only count the one we are tracking.
+        if (mInFlightRequests.get(url) != target) {
+            return;
+        }
+        mInFlightRequests.remove(url);
+        dispatchPending();
+    }
+}
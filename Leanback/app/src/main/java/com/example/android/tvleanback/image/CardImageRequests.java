@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.android.tvleanback.image;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.drawable.Drawable;
+
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.request.RequestOptions;
+import com.example.android.tvleanback.R;
+
+/**
+ * Builds the Glide requests used for card and details posters. The screens and the preloaders go
+ * through here so that a preloaded image has the same cache key as the one the screen asks for.
+ */
+public final class CardImageRequests {
+
+    private CardImageRequests() {
+    }
+
+    public static int getCardWidth(Resources res) {
+        return res.getDimensionPixelSize(R.dimen.card_width);
+    }
+
+    public static int getCardHeight(Resources res) {
+        return res.getDimensionPixelSize(R.dimen.card_height);
+    }
+
+    public static int getDetailsPosterWidth(Resources res) {
+        return res.getDimensionPixelSize(R.dimen.detail_thumb_width);
+    }
+
+    public static int getDetailsPosterHeight(Resources res) {
+        return res.getDimensionPixelSize(R.dimen.detail_thumb_height);
+    }
+
+    /**
+     * Returns a request for the poster at {@code url}, decoded straight to the given card size.
+     * Posters are JPEGs, so RGB_565 halves the bitmap memory; Glide still falls back to ARGB_8888
+     * for images that have alpha.
+     */
+    public static RequestBuilder<Drawable> load(RequestManager requestManager, String url,
+            int cardWidth, int cardHeight) {
+        RequestOptions options = new RequestOptions()
+                .override(cardWidth, cardHeight)
+                .centerCrop()
+                .format(DecodeFormat.PREFER_RGB_565);
+
+        return requestManager
+                .load(ImageUrlResolver.resolvePoster(url, cardWidth, cardHeight))
+                .apply(options);
+    }
+
+    /**
+     * Returns a request for the poster at {@code url} as shown on the details screen, decoded
+     * straight to the given size.
+     */
+    public static RequestBuilder<Bitmap> loadDetailsPoster(RequestManager requestManager,
+            String url, int width, int height) {
+        RequestOptions options = new RequestOptions()
+                .override(width, height)
+                .centerCrop()
+                .format(DecodeFormat.PREFER_RGB_565);
+
+        return requestManager
+                .asBitmap()
+                .load(ImageUrlResolver.resolvePoster(url, width, height))
+                .apply(options);
+    }
+}
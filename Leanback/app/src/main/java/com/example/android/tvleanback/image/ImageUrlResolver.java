@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.android.tvleanback.image;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Builds and rewrites TMDb image URLs. A TMDb URL is made of a base, a size bucket and a file
+ * path (e.g. https://image.tmdb.org/t/p/w500/abc.jpg). The file path is what identifies the
+ * artwork, so callers can ask for the smallest bucket that still covers the view it is drawn into.
+ * URLs that do not point at TMDb are returned unchanged.
+ */
+public final class ImageUrlResolver {
+
+    public static final String TMDB_IMAGE_BASE_URL = "https://image.tmdb.org/t/p/";
+    public static final String SIZE_ORIGINAL = "original";
+
+    // Size buckets published by the TMDb configuration API, in ascending order.
+    private static final int[] POSTER_WIDTHS = {92, 154, 185, 342, 500, 780};
+    private static final int[] BACKDROP_WIDTHS = {300, 780, 1280};
+
+    // Width / height of the artwork as served by TMDb.
+    private static final float POSTER_ASPECT = 2f / 3f;
+    private static final float BACKDROP_ASPECT = 16f / 9f;
+
+    private ImageUrlResolver() {
+    }
+
+    /**
+     * Returns the full URL for a TMDb file path in the given size bucket.
+     *
+     * @param size     a size bucket such as "w342" or {@link #SIZE_ORIGINAL}.
+     * @param filePath the TMDb file path, including its leading slash.
+     */
+    public static String buildUrl(String size, String filePath) {
+        return TMDB_IMAGE_BASE_URL + size + filePath;
+    }
+
+    /**
+     * Returns the TMDb file path of the given URL, or null when the URL is not a TMDb image URL.
+     */
+    @Nullable
+    public static String getFilePath(@Nullable String url) {
+        if (url == null || !url.startsWith(TMDB_IMAGE_BASE_URL)) {
+            return null;
+        }
+        int pathStart = url.indexOf('/', TMDB_IMAGE_BASE_URL.length());
+        if (pathStart < 0 || pathStart == url.length() - 1) {
+            return null;
+        }
+        return url.substring(pathStart);
+    }
+
+    /**
+     * Returns the URL of the smallest poster variant that covers a centre-cropped view of the
+     * given pixel size.
+     */
+    public static String resolvePoster(String url, int widthPx, int heightPx) {
+        return resolve(url, POSTER_WIDTHS, POSTER_ASPECT, widthPx, heightPx);
+    }
+
+    /**
+     * Returns the URL of the smallest backdrop variant that covers a centre-cropped view of the
+     * given pixel size.
+     */
+    public static String resolveBackdrop(String url, int widthPx, int heightPx) {
+        return resolve(url, BACKDROP_WIDTHS, BACKDROP_ASPECT, widthPx, heightPx);
+    }
+
+    private static String resolve(String url, int[] widths, float aspect, int widthPx,
+            int heightPx) {
+        String filePath = getFilePath(url);
+        if (filePath == null) {
+            return url;
+        }
+        // With a centre crop the image is scaled until both dimensions cover the view.
+        int requiredWidth = Math.max(widthPx, (int) Math.ceil(heightPx * aspect));
+        return buildUrl(selectSize(widths, requiredWidth), filePath);
+    }
+
+    static String selectSize(int[] widths, int requiredWidth) {
+        for (int width : widths) {
+            if (width >= requiredWidth) {
+                return "w" + width;
+            }
+        }
+        return SIZE_ORIGINAL;
+    }
+}
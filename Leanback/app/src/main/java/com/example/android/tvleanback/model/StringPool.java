@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.android.tvleanback.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded, thread-safe table that maps equal strings to one shared instance, so values repeated
+ * on many rows are only retained once. Unlike {@link String#intern()}, the least recently used
+ * values are dropped once the table is full.
+ */
+final class StringPool {
+
+    private final Map<String, String> mStrings;
+
+    StringPool(final int maxSize) {
+        mStrings = new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the shared instance equal to {@code value}, which becomes the shared instance if
+     * there is none yet.
+     */
+    synchronized String get(String value) {
+        if (value == null) {
+            return null;
+        }
+        String shared = mStrings.get(value);
+        if (shared == null) {
+            mStrings.put(value, value);
+            shared = value;
+        }
+        return shared;
+    }
+}
@@ -19,67 +19,101 @@ package com.example.android.tvleanback.model;
 import android.database.Cursor;
 import androidx.leanback.database.CursorMapper;
 
+import com.example.android.tvleanback.data.VideoCatalog;
 import com.example.android.tvleanback.data.VideoContract;
 
 /**
  * VideoCursorMapper maps a database Cursor to a Video object.
+ * <p>
+ * Column indices are cached per mapper, so each cursor adapter needs its own instance. Videos are
+ * memoized by row id and version: a row updated in place gets a new version, and a catalog refresh
+ * reinserts the rows with new ids, so rebinding an unchanged row that was already mapped returns
+ * the same Video without reading the row. Values repeated across many rows share one String
+ * instance.
  */
 public final class VideoCursorMapper extends CursorMapper {
 
-    private static int idIndex;
-    private static int nameIndex;
-    private static int descIndex;
-    private static int videoUrlIndex;
-    private static int bgImageUrlIndex;
-    private static int cardImageUrlIndex;
-    private static int studioIndex;
-    private static int categoryIndex;
-    private static int licenseIndex;
-    private static int authtokenIndex;
-    private static int drmSchemeIndex;
-    private static int assetIndex;
-    private static int entitlementIndex;
-    private static int policyIndex;
+    public static final int DEFAULT_MAX_CACHED_VIDEOS = 1024;
+
+    // Bounds the distinct categories, studios, DRM schemes and license proxies kept shared.
+    private static final StringPool sRepeatedValues = new StringPool(256);
+
+    private int mIdIndex;
+    private int mNameIndex;
+    private int mDescIndex;
+    private int mVideoUrlIndex;
+    private int mBgImageUrlIndex;
+    private int mCardImageUrlIndex;
+    private int mStudioIndex;
+    private int mCategoryIndex;
+    private int mLicenseIndex;
+    private int mAuthtokenIndex;
+    private int mDrmSchemeIndex;
+    private int mAssetIndex;
+    private int mEntitlementIndex;
+    private int mPolicyIndex;
+    private int mVersionIndex;
+
+    // Direct-mapped by id: catalog ids are sequential, so neighbouring rows never collide.
+    private final Video[] mVideos;
+    private final long[] mVersions;
+
+    public VideoCursorMapper() {
+        this(DEFAULT_MAX_CACHED_VIDEOS);
+    }
+
+    public VideoCursorMapper(int maxCachedVideos) {
+        mVideos = new Video[maxCachedVideos];
+        mVersions = new long[maxCachedVideos];
+    }
 
     @Override
     protected void bindColumns(Cursor cursor) {
-        idIndex = cursor.getColumnIndex(VideoContract.VideoEntry._ID);
-        nameIndex = cursor.getColumnIndex(VideoContract.VideoEntry.COLUMN_NAME);
-        descIndex = cursor.getColumnIndex(VideoContract.VideoEntry.COLUMN_DESC);
-        videoUrlIndex = cursor.getColumnIndex(VideoContract.VideoEntry.COLUMN_VIDEO_URL);
-        bgImageUrlIndex = cursor.getColumnIndex(VideoContract.VideoEntry.COLUMN_BG_IMAGE_URL);
-        cardImageUrlIndex = cursor.getColumnIndex(VideoContract.VideoEntry.COLUMN_CARD_IMG);
-        studioIndex = cursor.getColumnIndex(VideoContract.VideoEntry.COLUMN_STUDIO);
-        categoryIndex = cursor.getColumnIndex(VideoContract.VideoEntry.COLUMN_CATEGORY);
-        licenseIndex = cursor.getColumnIndex(VideoContract.VideoEntry.COLUMN_LICENSE);
-        authtokenIndex = cursor.getColumnIndex(VideoContract.VideoEntry.COLUMN_AUTH_TOKEN);
-        drmSchemeIndex = cursor.getColumnIndex(VideoContract.VideoEntry.COLUMN_DRM_SCHEME);
-        assetIndex = cursor.getColumnIndex(VideoContract.VideoEntry.COLUMN_MULTITRUST_ASSET);
-        entitlementIndex = cursor.getColumnIndex(VideoContract.VideoEntry.COLUMN_MULTITRUST_ENTITLEMENT);
-        policyIndex = cursor.getColumnIndex(VideoContract.VideoEntry.COLUMN_MULTITRUST_POLICY);
+        mIdIndex = cursor.getColumnIndex(VideoContract.VideoEntry._ID);
+        mNameIndex = cursor.getColumnIndex(VideoContract.VideoEntry.COLUMN_NAME);
+        mDescIndex = cursor.getColumnIndex(VideoContract.VideoEntry.COLUMN_DESC);
+        mVideoUrlIndex = cursor.getColumnIndex(VideoContract.VideoEntry.COLUMN_VIDEO_URL);
+        mBgImageUrlIndex = cursor.getColumnIndex(VideoContract.VideoEntry.COLUMN_BG_IMAGE_URL);
+        mCardImageUrlIndex = cursor.getColumnIndex(VideoContract.VideoEntry.COLUMN_CARD_IMG);
+        mStudioIndex = cursor.getColumnIndex(VideoContract.VideoEntry.COLUMN_STUDIO);
+        mCategoryIndex = cursor.getColumnIndex(VideoContract.VideoEntry.COLUMN_CATEGORY);
+        mLicenseIndex = cursor.getColumnIndex(VideoContract.VideoEntry.COLUMN_LICENSE);
+        mAuthtokenIndex = cursor.getColumnIndex(VideoContract.VideoEntry.COLUMN_AUTH_TOKEN);
+        mDrmSchemeIndex = cursor.getColumnIndex(VideoContract.VideoEntry.COLUMN_DRM_SCHEME);
+        mAssetIndex = cursor.getColumnIndex(VideoContract.VideoEntry.COLUMN_MULTITRUST_ASSET);
+        mEntitlementIndex = cursor.getColumnIndex(VideoContract.VideoEntry.COLUMN_MULTITRUST_ENTITLEMENT);
+        mPolicyIndex = cursor.getColumnIndex(VideoContract.VideoEntry.COLUMN_MULTITRUST_POLICY);
+        mVersionIndex = cursor.getColumnIndex(VideoContract.VideoEntry.COLUMN_VERSION);
     }
 
     @Override
     protected Object bind(Cursor cursor) {
+        long id = cursor.getLong(mIdIndex);
+        // Without the version, an updated row cannot be told apart, so it is always read.
+        long version = mVersionIndex >= 0 ? cursor.getLong(mVersionIndex) : -1;
+        int slot = (int) ((id & Long.MAX_VALUE) % mVideos.length);
+        Video cached = mVideos[slot];
+        if (version >= 0 && cached != null && cached.id == id && mVersions[slot] == version) {
+            return cached;
+        }
 
         // Get the values of the video.
-        long id = cursor.getLong(idIndex);
-        String category = cursor.getString(categoryIndex);
-        String title = cursor.getString(nameIndex);
-        String desc = cursor.getString(descIndex);
-        String videoUrl = cursor.getString(videoUrlIndex);
-        String bgImageUrl = cursor.getString(bgImageUrlIndex);
-        String cardImageUrl = cursor.getString(cardImageUrlIndex);
-        String studio = cursor.getString(studioIndex);
-        String license = cursor.getString(licenseIndex);
-        String authtoken = cursor.getString(authtokenIndex);
-        String drmScheme = cursor.getString(drmSchemeIndex);
-        String asset = cursor.getString(assetIndex);
-        String entitlement = cursor.getString(entitlementIndex);
-        String policy = cursor.getString(policyIndex);
+        String category = sRepeatedValues.get(cursor.getString(mCategoryIndex));
+        String title = cursor.getString(mNameIndex);
+        String desc = cursor.getString(mDescIndex);
+        String videoUrl = cursor.getString(mVideoUrlIndex);
+        String bgImageUrl = cursor.getString(mBgImageUrlIndex);
+        String cardImageUrl = cursor.getString(mCardImageUrlIndex);
+        String studio = sRepeatedValues.get(cursor.getString(mStudioIndex));
+        String license = sRepeatedValues.get(cursor.getString(mLicenseIndex));
+        String authtoken = cursor.getString(mAuthtokenIndex);
+        String drmScheme = sRepeatedValues.get(cursor.getString(mDrmSchemeIndex));
+        String asset = cursor.getString(mAssetIndex);
+        String entitlement = cursor.getString(mEntitlementIndex);
+        String policy = cursor.getString(mPolicyIndex);
 
         // Build a Video object to be processed.
-        return new Video.VideoBuilder()
+        Video video = new Video.VideoBuilder()
                 .id(id)
                 .title(title)
                 .category(category)
@@ -95,5 +129,9 @@ public final class VideoCursorMapper extends CursorMapper {
                 .entitlement(entitlement)
                 .policy(policy)
                 .build();
+        mVideos[slot] = video;
+        mVersions[slot] = version;
+        VideoCatalog.put(video);
+        return video;
     }
 }
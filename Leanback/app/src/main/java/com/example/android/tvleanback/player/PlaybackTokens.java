@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.android.tvleanback.player;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.SystemClock;
+import android.preference.PreferenceManager;
+import android.util.Log;
+import android.util.LongSparseArray;
+
+import com.example.android.tvleanback.R;
+import com.example.android.tvleanback.model.Video;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.net.URLConnection;
+
+/**
+ * Requests the portal tokens needed to play a video, and keeps tokens that were requested ahead
+ * of playback until they are used.
+ */
+public final class PlaybackTokens {
+    private static final String TAG = "PlaybackTokens";
+
+    /** Prefix of the result of a token request that failed. */
+    public static final String REQUEST_FAILED = "TOKEN REQUEST FAILED";
+
+    // Tokens are issued for an hour; a prefetched one is only kept for a few minutes of it.
+    private static final int TOKEN_DURATION_SECONDS = 3600;
+    private static final long PREFETCHED_TOKEN_MAX_AGE_MS = 5 * 60 * 1000;
+
+    private static final LongSparseArray<PrefetchedToken> sPrefetched = new LongSparseArray<>();
+
+    private PlaybackTokens() {
+    }
+
+    /**
+     * Returns a token for {@code video}, either one that was prefetched for it or a new one.
+     * Failures are returned as a message starting with {@link #REQUEST_FAILED}. Must not be
+     * called on the main thread.
+     */
+    public static String get(Context context, Video video) {
+        String request = buildRequest(context, video);
+        synchronized (sPrefetched) {
+            PrefetchedToken prefetched = sPrefetched.get(video.id);
+            sPrefetched.remove(video.id);
+            if (prefetched != null && prefetched.mRequest.equals(request)
+                    && SystemClock.elapsedRealtime() - prefetched.mTime
+                            < PREFETCHED_TOKEN_MAX_AGE_MS) {
+                return prefetched.mToken;
+            }
+        }
+        return request(request);
+    }
+
+    /**
+     * Requests a token for {@code video} ahead of playback unless one is already waiting. Must
+     * not be called on the main thread.
+     */
+    public static void prefetch(Context context, Video video) {
+        String request = buildRequest(context, video);
+        synchronized (sPrefetched) {
+            PrefetchedToken prefetched = sPrefetched.get(video.id);
+            if (prefetched != null && prefetched.mRequest.equals(request)
+                    && SystemClock.elapsedRealtime() - prefetched.mTime
+                            < PREFETCHED_TOKEN_MAX_AGE_MS / 2) {
+                return;
+            }
+        }
+        String token = request(request);
+        if (token.startsWith(REQUEST_FAILED)) {
+            Log.w(TAG, "Could not prefetch token: " + token);
+            return;
+        }
+        synchronized (sPrefetched) {
+            // Only the latest prefetch is worth keeping.
+            sPrefetched.clear();
+            sPrefetched.put(video.id,
+                    new PrefetchedToken(request, token, SystemClock.elapsedRealtime()));
+        }
+    }
+
+    private static String buildRequest(Context context, Video video) {
+        SharedPreferences preferences = PreferenceManager.getDefaultSharedPreferences(context);
+        String user = preferences.getString(context.getString(R.string.pref_title_username),
+                context.getString(R.string.user));
+        String pass = preferences.getString(context.getString(R.string.pref_title_password),
+                context.getString(R.string.pass));
+        String url = preferences.getString(context.getString(R.string.pref_title_portal),
+                context.getString(R.string.portal_url));
+
+        //If setting was added and reverted the pref may be an empty string and default needs defined manually
+        if (user.isEmpty()) {
+            user = context.getString(R.string.user);
+        }
+        if (pass.isEmpty()) {
+            pass = context.getString(R.string.pass);
+        }
+        if (url.isEmpty()) {
+            url = context.getString(R.string.portal_url);
+        }
+
+        String ent = video.entitlement.isEmpty() ? "" : "&entitlement=" + video.entitlement;
+        String pol = video.policy.isEmpty() ? "" : "&policy=" + video.policy;
+        String asset = video.asset.isEmpty() ? "test" : video.asset;
+        return url + "/gettoken?username=" + user + "&password=" + pass + "&asset=" + asset
+                + "&duration=" + TOKEN_DURATION_SECONDS + ent + pol;
+    }
+
+    private static String request(String request) {
+        try {
+            URL url = new URL(request);
+            URLConnection conn;
+            conn = url.openConnection();
+            conn.setReadTimeout(3000);
+
+            BufferedReader bufferedReader = new BufferedReader(
+                    new InputStreamReader(conn.getInputStream())
+            );
+            String inputLine;
+            StringBuilder response = new StringBuilder();
+
+            while ((inputLine = bufferedReader.readLine()) != null) {
+                response.append(inputLine);
+            }
+            bufferedReader.close();
+
+            return response.toString();
+
+        } catch (IOException e) {
+            e.printStackTrace();
+            if (e.getMessage() == null || e.getMessage().isEmpty()) {
+                return REQUEST_FAILED + ": " + e.getCause();
+            } else {
+                return REQUEST_FAILED + ": " + e.getMessage();
+            }
+        }
+    }
+
+    private static final class PrefetchedToken {
+        private final String mRequest;
+        private final String mToken;
+        private final long mTime;
+
+        PrefetchedToken(String request, String token, long time) {
+            mRequest = request;
+            mToken = token;
+            mTime = time;
+        }
+    }
+}
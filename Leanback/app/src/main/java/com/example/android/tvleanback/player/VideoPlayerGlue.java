@@ -57,7 +57,18 @@ public class VideoPlayerGlue extends PlaybackTransportControlGlue<LeanbackPlayer
         void onNext();
     }
 
+    /** Listens for playback position changes. */
+    public interface OnProgressListener {
+
+        /** The position moved while playing, or was seeked. */
+        void onProgress(long positionMs, long durationMs);
+
+        /** Playback was paused. */
+        void onPaused(long positionMs, long durationMs);
+    }
+
     private final OnActionClickedListener mActionListener;
+    private OnProgressListener mProgressListener;
 
     private PlaybackControlsRow.RepeatAction mRepeatAction;
     private PlaybackControlsRow.ThumbsUpAction mThumbsUpAction;
@@ -87,6 +98,26 @@ public class VideoPlayerGlue extends PlaybackTransportControlGlue<LeanbackPlayer
         mRepeatAction = new PlaybackControlsRow.RepeatAction(context);
     }
 
+    public void setOnProgressListener(OnProgressListener progressListener) {
+        mProgressListener = progressListener;
+    }
+
+    @Override
+    protected void onUpdateProgress() {
+        super.onUpdateProgress();
+        if (mProgressListener != null) {
+            mProgressListener.onProgress(getCurrentPosition(), getDuration());
+        }
+    }
+
+    @Override
+    protected void onPlayStateChanged() {
+        super.onPlayStateChanged();
+        if (mProgressListener != null && !isPlaying()) {
+            mProgressListener.onPaused(getCurrentPosition(), getDuration());
+        }
+    }
+
     @Override
     protected void onCreatePrimaryActions(ArrayObjectAdapter adapter) {
         // Order matters, super.onCreatePrimaryActions() will create the play / pause action.
@@ -24,9 +24,12 @@ import androidx.core.content.ContextCompat;
 import android.view.ViewGroup;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestBuilder;
 import com.bumptech.glide.request.RequestOptions;
 import com.example.android.tvleanback.R;
+import com.example.android.tvleanback.image.CardImageRequests;
 import com.example.android.tvleanback.model.Video;
+import com.example.android.tvleanback.trace.StartupTrace;
 
 /*
  * A CardPresenter is used to generate Views and bind Objects to them on demand.
@@ -36,27 +39,40 @@ public class CardPresenter extends Presenter {
     private int mSelectedBackgroundColor = -1;
     private int mDefaultBackgroundColor = -1;
     private Drawable mDefaultCardImage;
+    private int mCardWidth;
+    private int mCardHeight;
+    private boolean mFirstRowMarked;
 
     @Override
     public ViewHolder onCreateViewHolder(ViewGroup parent) {
-        mDefaultBackgroundColor =
-            ContextCompat.getColor(parent.getContext(), R.color.default_background);
-        mSelectedBackgroundColor =
-                ContextCompat.getColor(parent.getContext(), R.color.selected_background);
-        mDefaultCardImage = parent.getResources().getDrawable(R.drawable.movie, null);
-
-        ImageCardView cardView = new ImageCardView(parent.getContext()) {
-            @Override
-            public void setSelected(boolean selected) {
-                updateCardBackgroundColor(this, selected);
-                super.setSelected(selected);
-            }
-        };
+        StartupTrace.beginSection("CardPresenter.onCreateViewHolder");
+        try {
+            mDefaultBackgroundColor =
+                ContextCompat.getColor(parent.getContext(), R.color.default_background);
+            mSelectedBackgroundColor =
+                    ContextCompat.getColor(parent.getContext(), R.color.selected_background);
+            mDefaultCardImage = parent.getResources().getDrawable(R.drawable.movie, null);
+
+            // Set card size from dimension resources.
+            Resources res = parent.getResources();
+            mCardWidth = CardImageRequests.getCardWidth(res);
+            mCardHeight = CardImageRequests.getCardHeight(res);
 
-        cardView.setFocusable(true);
-        cardView.setFocusableInTouchMode(true);
-        updateCardBackgroundColor(cardView, false);
-        return new ViewHolder(cardView);
+            ImageCardView cardView = new ImageCardView(parent.getContext()) {
+                @Override
+                public void setSelected(boolean selected) {
+                    updateCardBackgroundColor(this, selected);
+                    super.setSelected(selected);
+                }
+            };
+
+            cardView.setFocusable(true);
+            cardView.setFocusableInTouchMode(true);
+            updateCardBackgroundColor(cardView, false);
+            return new ViewHolder(cardView);
+        } finally {
+            StartupTrace.endSection();
+        }
     }
 
     private void updateCardBackgroundColor(ImageCardView view, boolean selected) {
@@ -70,23 +86,32 @@ public class CardPresenter extends Presenter {
 
     @Override
     public void onBindViewHolder(Presenter.ViewHolder viewHolder, Object item) {
-        Video video = (Video) item;
+        StartupTrace.beginSection("CardPresenter.onBindViewHolder");
+        try {
+            Video video = (Video) item;
 
-        ImageCardView cardView = (ImageCardView) viewHolder.view;
-        cardView.setTitleText(video.title);
-        cardView.setContentText(video.studio);
+            ImageCardView cardView = (ImageCardView) viewHolder.view;
+            cardView.setTitleText(video.title);
+            cardView.setContentText(video.studio);
 
-        if (video.cardImageUrl != null) {
-            // Set card size from dimension resources.
-            Resources res = cardView.getResources();
-            int width = res.getDimensionPixelSize(R.dimen.card_width);
-            int height = res.getDimensionPixelSize(R.dimen.card_height);
-            cardView.setMainImageDimensions(width, height);
-
-            Glide.with(cardView.getContext())
-                    .load(video.cardImageUrl)
-                    .apply(RequestOptions.errorOf(mDefaultCardImage))
-                    .into(cardView.getMainImageView());
+            if (video.cardImageUrl != null) {
+                cardView.setMainImageDimensions(mCardWidth, mCardHeight);
+
+                RequestBuilder<Drawable> request = CardImageRequests
+                        .load(Glide.with(cardView.getContext()), video.cardImageUrl, mCardWidth,
+                                mCardHeight)
+                        .apply(RequestOptions.errorOf(mDefaultCardImage));
+                if (StartupTrace.isRecording()) {
+                    request = request.listener(StartupTrace.<Drawable>firstImageListener());
+                }
+                request.into(cardView.getMainImageView());
+            }
+        } finally {
+            StartupTrace.endSection();
+        }
+        if (!mFirstRowMarked) {
+            mFirstRowMarked = true;
+            StartupTrace.mark(StartupTrace.FIRST_ROW);
         }
     }
 
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.android.tvleanback.presenter;
+
+import androidx.leanback.widget.ListRow;
+import androidx.leanback.widget.ListRowPresenter;
+import androidx.leanback.widget.ObjectAdapter;
+import androidx.leanback.widget.Row;
+import androidx.leanback.widget.RowPresenter;
+
+import com.example.android.tvleanback.image.CardImagePreloader;
+
+/*
+ * A ListRowPresenter that attaches a CardImagePreloader to the HorizontalGridView of every row,
+ * so card images ahead of the scroll direction are loaded before they are bound.
+ */
+public class PreloadingListRowPresenter extends ListRowPresenter {
+
+    private final CardImagePreloader mPreloader;
+
+    public PreloadingListRowPresenter(CardImagePreloader preloader) {
+        mPreloader = preloader;
+    }
+
+    @Override
+    protected void initializeRowViewHolder(final RowPresenter.ViewHolder holder) {
+        super.initializeRowViewHolder(holder);
+
+        ListRowPresenter.ViewHolder rowViewHolder = (ListRowPresenter.ViewHolder) holder;
+        mPreloader.attach(rowViewHolder.getGridView(), new CardImagePreloader.AdapterProvider() {
+            @Override
+            public ObjectAdapter getAdapter() {
+                Row row = holder.getRow();
+                return row instanceof ListRow ? ((ListRow) row).getAdapter() : null;
+            }
+        });
+    }
+}
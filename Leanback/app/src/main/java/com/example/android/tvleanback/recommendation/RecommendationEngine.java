@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.android.tvleanback.recommendation;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.Cursor;
+import android.os.Bundle;
+import android.util.Log;
+
+import com.example.android.tvleanback.data.VideoContract;
+import com.example.android.tvleanback.model.Video;
+import com.example.android.tvleanback.model.VideoCursorMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the events that drive recommendation scores and reads the best scored videos.
+ * <p>
+ * Recording an event only appends it to an in-memory batch, so it is safe to call from the
+ * playback path. Batches are written by a background thread a few seconds after the first event,
+ * or as soon as {@link #MAX_PENDING_EVENTS} are waiting, in a single provider transaction.
+ */
+public final class RecommendationEngine {
+    private static final String TAG = "RecommendationEngine";
+
+    public static final String METHOD_RECORD_PLAYS = "recordPlays";
+    public static final String EXTRA_VIDEO_URLS = "videoUrls";
+    public static final String EXTRA_TIMESTAMPS = "timestamps";
+
+    private static final long FLUSH_DELAY_MS = 10000;
+    private static final int MAX_PENDING_EVENTS = 20;
+
+    private static RecommendationEngine sInstance;
+
+    private final ContentResolver mContentResolver;
+    private final ScheduledExecutorService mWriteExecutor =
+            Executors.newSingleThreadScheduledExecutor();
+
+    private final Object mLock = new Object();
+    private List<String> mPendingVideoUrls = new ArrayList<>();
+    private List<Long> mPendingTimestamps = new ArrayList<>();
+    private boolean mFlushScheduled;
+
+    private final Runnable mFlushTask = new Runnable() {
+        @Override
+        public void run() {
+            writePendingEvents();
+        }
+    };
+
+    private RecommendationEngine(Context context) {
+        mContentResolver = context.getApplicationContext().getContentResolver();
+    }
+
+    public static synchronized RecommendationEngine getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new RecommendationEngine(context);
+        }
+        return sInstance;
+    }
+
+    /**
+     * Records that {@code video} started playing. May be called from any thread.
+     */
+    public void recordPlay(Video video) {
+        synchronized (mLock) {
+            mPendingVideoUrls.add(video.videoUrl);
+            mPendingTimestamps.add(System.currentTimeMillis());
+
+            if (mPendingVideoUrls.size() >= MAX_PENDING_EVENTS) {
+                mWriteExecutor.execute(mFlushTask);
+            } else if (!mFlushScheduled) {
+                mFlushScheduled = true;
+                mWriteExecutor.schedule(mFlushTask, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Returns up to {@code count} videos in descending score order. Must not be called on the
+     * main thread.
+     */
+    public List<Video> getTopRecommendations(int count) {
+        List<Video> videos = new ArrayList<>(count);
+        Cursor cursor = mContentResolver.query(
+                VideoContract.RecommendationEntry.buildTopRecommendationsUri(count),
+                null, null, null, null);
+        if (cursor == null) {
+            return videos;
+        }
+        try {
+            VideoCursorMapper mapper = new VideoCursorMapper();
+            while (cursor.moveToNext()) {
+                videos.add((Video) mapper.convert(cursor));
+            }
+        } finally {
+            cursor.close();
+        }
+        return videos;
+    }
+
+    private void writePendingEvents() {
+        List<String> videoUrls;
+        List<Long> timestamps;
+        synchronized (mLock) {
+            mFlushScheduled = false;
+            if (mPendingVideoUrls.isEmpty()) {
+                return;
+            }
+            videoUrls = mPendingVideoUrls;
+            timestamps = mPendingTimestamps;
+            mPendingVideoUrls = new ArrayList<>();
+            mPendingTimestamps = new ArrayList<>();
+        }
+
+        long[] times = new long[timestamps.size()];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = timestamps.get(i);
+        }
+        Bundle extras = new Bundle();
+        extras.putStringArray(EXTRA_VIDEO_URLS, videoUrls.toArray(new String[videoUrls.size()]));
+        extras.putLongArray(EXTRA_TIMESTAMPS, times);
+        try {
+            mContentResolver.call(VideoContract.RecommendationEntry.CONTENT_URI,
+                    METHOD_RECORD_PLAYS, null, extras);
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Could not write " + times.length + " play events.", e);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.android.tvleanback.recommendation;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import com.example.android.tvleanback.data.VideoContract.RecommendationEntry;
+import com.example.android.tvleanback.data.VideoContract.VideoEntry;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Maintains the recommendation score table. The part of the score that does not depend on time is
+ * stored and indexed, and only rewritten for the rows whose inputs changed, so picking the top K
+ * reads a range of the score index whatever the size of the catalog.
+ * <p>
+ * The score adds up the rating of the video, the user's affinity for its category, how often the
+ * user played it, and how recent the latest activity on it is: the later of its last play, the
+ * last play in its category, and when it was added. Each term saturates, so none of them can
+ * outweigh the others however large its input gets. Recency changes with time alone, so it is
+ * added when the recommendations are read; it is worth at most {@link #RECENCY_WEIGHT}, so only
+ * the rows stored within that of the K-th best stored score can make the top K.
+ * <p>
+ * These methods are called by {@link com.example.android.tvleanback.data.VideoProvider} inside its
+ * own transactions.
+ */
+public final class RecommendationScores {
+
+    private static final double RATING_WEIGHT = 2.0;
+    private static final double CATEGORY_AFFINITY_WEIGHT = 3.0;
+    private static final double PLAY_COUNT_WEIGHT = 0.5;
+    private static final double RECENCY_WEIGHT = 1.0;
+    // Plays at which category affinity or play count reaches half its weight.
+    private static final int CATEGORY_PLAYS_HALF_WEIGHT = 5;
+    private static final int PLAYS_HALF_WEIGHT = 2;
+    // Age of the latest activity at which recency reaches half its weight.
+    private static final long RECENCY_HALF_WEIGHT_MS = 7L * 24 * 60 * 60 * 1000;
+
+    // The stored score of a row of the table, from its own columns.
+    private static final String SCORE_EXPRESSION = RATING_WEIGHT + " * "
+            + RecommendationEntry.COLUMN_RATING + " / 10.0"
+            + " + " + CATEGORY_AFFINITY_WEIGHT + " * "
+            + RecommendationEntry.COLUMN_CATEGORY_PLAY_COUNT
+            + " / (" + RecommendationEntry.COLUMN_CATEGORY_PLAY_COUNT + " + "
+            + CATEGORY_PLAYS_HALF_WEIGHT + ".0)"
+            + " + " + PLAY_COUNT_WEIGHT + " * " + RecommendationEntry.COLUMN_PLAY_COUNT
+            + " / (" + RecommendationEntry.COLUMN_PLAY_COUNT + " + " + PLAYS_HALF_WEIGHT + ".0)";
+
+    private static final String UPDATE_CATEGORY_SCORES = "UPDATE "
+            + RecommendationEntry.TABLE_NAME + " SET " + RecommendationEntry.COLUMN_SCORE + " = "
+            + SCORE_EXPRESSION + " WHERE " + RecommendationEntry.COLUMN_CATEGORY + " = ?";
+
+    private RecommendationScores() {
+    }
+
+    // The recency term of a row of the table, as of now.
+    private static String recencyExpression(long now) {
+        return RECENCY_WEIGHT + " * " + RECENCY_HALF_WEIGHT_MS + ".0 / ("
+                + RECENCY_HALF_WEIGHT_MS + " + MAX(0, " + now + " - MAX("
+                + RecommendationEntry.COLUMN_LAST_PLAYED + ", "
+                + RecommendationEntry.COLUMN_CATEGORY_LAST_PLAYED + ", "
+                + RecommendationEntry.COLUMN_ADDED + ")))";
+    }
+
+    // The value of column in the video table for the row of the score table, or null.
+    private static String videoColumn(String column) {
+        return "(SELECT " + column + " FROM " + VideoEntry.TABLE_NAME
+                + " WHERE " + VideoEntry.TABLE_NAME + "." + VideoEntry.COLUMN_VIDEO_URL + " = "
+                + RecommendationEntry.TABLE_NAME + "." + RecommendationEntry.COLUMN_VIDEO_URL
+                + ")";
+    }
+
+    // The largest value of column among the rows of category in the score table, or 0.
+    private static String categoryMax(String column, String category) {
+        return "IFNULL((SELECT MAX(r." + column + ") FROM " + RecommendationEntry.TABLE_NAME
+                + " AS r WHERE r." + RecommendationEntry.COLUMN_CATEGORY + " = " + category
+                + "), 0)";
+    }
+
+    /**
+     * Brings the score table in line with the video table after a catalog sync: rows are added
+     * for new videos, dropped for removed ones, and ratings and categories are refreshed. Only
+     * the rows which changed are written.
+     */
+    public static void syncWithCatalog(SQLiteDatabase db, long now) {
+        db.execSQL("DELETE FROM " + RecommendationEntry.TABLE_NAME
+                + " WHERE " + RecommendationEntry.COLUMN_VIDEO_URL + " NOT IN (SELECT "
+                + VideoEntry.COLUMN_VIDEO_URL + " FROM " + VideoEntry.TABLE_NAME + ")");
+
+        // New videos inherit the affinity already built up for their category.
+        String category = "v." + VideoEntry.COLUMN_CATEGORY;
+        db.execSQL("INSERT INTO " + RecommendationEntry.TABLE_NAME + " ("
+                + RecommendationEntry.COLUMN_VIDEO_URL + ", "
+                + RecommendationEntry.COLUMN_CATEGORY + ", "
+                + RecommendationEntry.COLUMN_RATING + ", "
+                + RecommendationEntry.COLUMN_CATEGORY_PLAY_COUNT + ", "
+                + RecommendationEntry.COLUMN_CATEGORY_LAST_PLAYED + ", "
+                + RecommendationEntry.COLUMN_ADDED + ") SELECT v."
+                + VideoEntry.COLUMN_VIDEO_URL + ", " + category + ", IFNULL(CAST(v."
+                + VideoEntry.COLUMN_RATING_SCORE + " AS REAL), 0), "
+                + categoryMax(RecommendationEntry.COLUMN_CATEGORY_PLAY_COUNT, category) + ", "
+                + categoryMax(RecommendationEntry.COLUMN_CATEGORY_LAST_PLAYED, category) + ", "
+                + now + " FROM " + VideoEntry.TABLE_NAME + " AS v WHERE v."
+                + VideoEntry.COLUMN_VIDEO_URL + " NOT IN (SELECT "
+                + RecommendationEntry.COLUMN_VIDEO_URL + " FROM "
+                + RecommendationEntry.TABLE_NAME + ")");
+
+        // Both lookups go through the unique index on the video url.
+        String rating = "IFNULL(" + videoColumn(
+                "CAST(" + VideoEntry.COLUMN_RATING_SCORE + " AS REAL)") + ", 0)";
+        String videoCategory = videoColumn(VideoEntry.COLUMN_CATEGORY);
+        db.execSQL("UPDATE " + RecommendationEntry.TABLE_NAME + " SET "
+                + RecommendationEntry.COLUMN_RATING + " = " + rating + ", "
+                + RecommendationEntry.COLUMN_CATEGORY + " = " + videoCategory
+                + " WHERE " + RecommendationEntry.COLUMN_RATING + " IS NOT " + rating
+                + " OR " + RecommendationEntry.COLUMN_CATEGORY + " IS NOT " + videoCategory);
+
+        // The new rows, and the ones whose rating changed.
+        db.execSQL("UPDATE " + RecommendationEntry.TABLE_NAME + " SET "
+                + RecommendationEntry.COLUMN_SCORE + " = " + SCORE_EXPRESSION
+                + " WHERE " + RecommendationEntry.COLUMN_SCORE + " IS NOT (" + SCORE_EXPRESSION
+                + ")");
+    }
+
+    /**
+     * Applies a batch of play events, and rescores the videos of the categories played.
+     *
+     * @param videoUrls  the url of the played video, one per event.
+     * @param timestamps when each event happened, in milliseconds since the epoch.
+     */
+    public static void applyPlayEvents(SQLiteDatabase db, String[] videoUrls, long[] timestamps) {
+        SQLiteStatement updateVideo = db.compileStatement("UPDATE "
+                + RecommendationEntry.TABLE_NAME + " SET "
+                + RecommendationEntry.COLUMN_PLAY_COUNT + " = "
+                + RecommendationEntry.COLUMN_PLAY_COUNT + " + 1, "
+                + RecommendationEntry.COLUMN_LAST_PLAYED + " = MAX("
+                + RecommendationEntry.COLUMN_LAST_PLAYED + ", ?) WHERE "
+                + RecommendationEntry.COLUMN_VIDEO_URL + " = ?");
+        SQLiteStatement updateCategory = db.compileStatement("UPDATE "
+                + RecommendationEntry.TABLE_NAME + " SET "
+                + RecommendationEntry.COLUMN_CATEGORY_PLAY_COUNT + " = "
+                + RecommendationEntry.COLUMN_CATEGORY_PLAY_COUNT + " + 1, "
+                + RecommendationEntry.COLUMN_CATEGORY_LAST_PLAYED + " = MAX("
+                + RecommendationEntry.COLUMN_CATEGORY_LAST_PLAYED + ", ?) WHERE "
+                + RecommendationEntry.COLUMN_CATEGORY + " = ?");
+        SQLiteStatement updateScores = db.compileStatement(UPDATE_CATEGORY_SCORES);
+        try {
+            Set<String> categories = new HashSet<>();
+            for (int i = 0; i < videoUrls.length; i++) {
+                String category = getCategory(db, videoUrls[i]);
+                if (category == null) {
+                    // No longer in the catalog.
+                    continue;
+                }
+
+                updateVideo.bindLong(1, timestamps[i]);
+                updateVideo.bindString(2, videoUrls[i]);
+                updateVideo.executeUpdateDelete();
+
+                updateCategory.bindLong(1, timestamps[i]);
+                updateCategory.bindString(2, category);
+                updateCategory.executeUpdateDelete();
+                categories.add(category);
+            }
+
+            // The played videos are in these categories too.
+            for (String category : categories) {
+                updateScores.bindString(1, category);
+                updateScores.executeUpdateDelete();
+            }
+        } finally {
+            updateVideo.close();
+            updateCategory.close();
+            updateScores.close();
+        }
+    }
+
+    /**
+     * Returns the {@code limit} best scored videos as of {@code now}, with the columns of the
+     * video table.
+     */
+    public static Cursor queryTop(SQLiteDatabase db, int limit, long now) {
+        // The score of the K-th video is at least its stored score, so the videos stored lower
+        // than that by more than recency can add are not in the top K.
+        String candidates = "";
+        Cursor cursor = db.rawQuery("SELECT " + RecommendationEntry.COLUMN_SCORE + " FROM "
+                + RecommendationEntry.TABLE_NAME + " ORDER BY "
+                + RecommendationEntry.COLUMN_SCORE + " DESC LIMIT 1 OFFSET " + (limit - 1), null);
+        try {
+            if (cursor.moveToFirst()) {
+                candidates = " WHERE " + RecommendationEntry.TABLE_NAME + "."
+                        + RecommendationEntry.COLUMN_SCORE + " >= "
+                        + (cursor.getDouble(0) - RECENCY_WEIGHT);
+            }
+        } finally {
+            cursor.close();
+        }
+
+        return db.rawQuery("SELECT " + VideoEntry.TABLE_NAME + ".* FROM "
+                + RecommendationEntry.TABLE_NAME + " JOIN " + VideoEntry.TABLE_NAME + " ON "
+                + VideoEntry.TABLE_NAME + "." + VideoEntry.COLUMN_VIDEO_URL + " = "
+                + RecommendationEntry.TABLE_NAME + "." + RecommendationEntry.COLUMN_VIDEO_URL
+                + candidates
+                + " ORDER BY " + RecommendationEntry.TABLE_NAME + "."
+                + RecommendationEntry.COLUMN_SCORE + " + " + recencyExpression(now)
+                + " DESC LIMIT " + limit, null);
+    }
+
+    private static String getCategory(SQLiteDatabase db, String videoUrl) {
+        Cursor cursor = db.query(RecommendationEntry.TABLE_NAME,
+                new String[]{RecommendationEntry.COLUMN_CATEGORY},
+                RecommendationEntry.COLUMN_VIDEO_URL + " = ?",
+                new String[]{videoUrl},
+                null, null, null);
+        try {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        } finally {
+            cursor.close();
+        }
+    }
+}
@@ -25,19 +25,36 @@ import android.content.SharedPreferences;
 import android.content.res.Resources;
 import android.database.Cursor;
 import android.graphics.Bitmap;
+import android.os.SystemClock;
 import android.preference.PreferenceManager;
 import androidx.recommendation.app.ContentRecommendation;
 import android.util.Log;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.request.FutureTarget;
 import com.example.android.tvleanback.BuildConfig;
 import com.example.android.tvleanback.R;
 import com.example.android.tvleanback.data.VideoContract;
+import com.example.android.tvleanback.image.ImageUrlResolver;
 import com.example.android.tvleanback.model.Video;
 import com.example.android.tvleanback.model.VideoCursorMapper;
 import com.example.android.tvleanback.ui.VideoDetailsActivity;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /*
  * This class builds up to MAX_RECOMMENDATIONS of ContentRecommendations and defines what happens
@@ -45,7 +62,10 @@ import java.util.concurrent.ExecutionException;
  */
 public class UpdateRecommendationsService extends IntentService {
     private static final String TAG = "RecommendationService";
-    private static final int MAX_RECOMMENDATIONS = 3;
+    private static final int MAX_RECOMMENDATIONS = 25;
+    private static final int MAX_CONCURRENT_IMAGE_FETCHES = 4;
+    private static final int MAX_SAMPLE_ATTEMPTS = 3;
+    private static final long IMAGE_TIMEOUT_SECONDS = 30;
     private static final VideoCursorMapper mVideoCursorMapper = new VideoCursorMapper();
 
     private NotificationManager mNotifManager;
@@ -72,59 +92,201 @@ public class UpdateRecommendationsService extends IntentService {
         //    mNotifManager.cancelAll();
         //    return;
         //}
-        Resources res = getResources();
-        int cardWidth = res.getDimensionPixelSize(R.dimen.card_width);
-        int cardHeight = res.getDimensionPixelSize(R.dimen.card_height);
-        ContentRecommendation.Builder builder = new ContentRecommendation.Builder()
-                .setBadgeIcon(R.drawable.videos_by_google_icon);
+        long startTime = SystemClock.elapsedRealtime();
+
+        List<Video> videos = RecommendationEngine.getInstance(this)
+                .getTopRecommendations(MAX_RECOMMENDATIONS);
+        if (videos.isEmpty()) {
+            // Scores are filled in on the first catalog sync.
+            videos = sampleVideos(MAX_RECOMMENDATIONS);
+        }
+        List<Notification> notifications = new ArrayList<>(videos.size());
+        List<Integer> notificationIds = new ArrayList<>(videos.size());
+        List<FutureTarget<Bitmap>> targets = new ArrayList<>(videos.size());
+        try {
+            Bitmap[] images = fetchImages(videos, targets);
+            ContentRecommendation.Builder builder = new ContentRecommendation.Builder()
+                    .setBadgeIcon(R.drawable.videos_by_google_icon);
+
+            for (int i = 0; i < videos.size(); i++) {
+                Bitmap bitmap = images[i];
+                if (bitmap == null) {
+                    continue;
+                }
+                Video video = videos.get(i);
+                int id = Long.valueOf(video.id).hashCode();
+
+                builder.setIdTag("Video" + id)
+                        .setTitle(video.title)
+                        .setText(getString(R.string.popular_header))
+                        .setContentIntentData(ContentRecommendation.INTENT_TYPE_ACTIVITY,
+                                buildPendingIntent(video, id), 0, null)
+                        .setContentImage(bitmap);
+
+                // Create an object holding all the information used to recommend the content.
+                ContentRecommendation rec = builder.build();
+                notifications.add(rec.getNotificationObject(getApplicationContext()));
+                notificationIds.add(id);
+
+                if (BuildConfig.DEBUG) Log.d(TAG, "Recommending video " + video.title);
+            }
 
-        Cursor cursor = getContentResolver().query(
+            // Recommend the content by publishing the notifications once every image is ready.
+            for (int i = 0; i < notifications.size(); i++) {
+                mNotifManager.notify(notificationIds.get(i), notifications.get(i));
+            }
+        } finally {
+            // The notifications hold their own copy of the images.
+            synchronized (targets) {
+                for (FutureTarget<Bitmap> target : targets) {
+                    Glide.with(getApplication()).clear(target);
+                }
+            }
+        }
+
+        Log.i(TAG, "Published " + notifications.size() + " recommendations in "
+                + (SystemClock.elapsedRealtime() - startTime) + " ms");
+    }
+
+    /**
+     * Picks up to {@code count} random videos without sorting the whole table: random ids are
+     * drawn from the id range and looked up through the primary key. Ids left unused by deleted
+     * rows are made up for by drawing more ids than needed.
+     */
+    private List<Video> sampleVideos(int count) {
+        List<Video> videos = new ArrayList<>(count);
+        long minId;
+        long maxId;
+        Cursor range = getContentResolver().query(
                 VideoContract.VideoEntry.CONTENT_URI,
-                null, // projection
-                null, // selection
-                null, // selection clause
-                "RANDOM() LIMIT " + MAX_RECOMMENDATIONS // sort order
-        );
+                new String[]{
+                        "MIN(" + VideoContract.VideoEntry._ID + ")",
+                        "MAX(" + VideoContract.VideoEntry._ID + ")"},
+                null, null, null);
+        if (range == null) {
+            return videos;
+        }
+        try {
+            if (!range.moveToFirst() || range.isNull(0)) {
+                return videos;
+            }
+            minId = range.getLong(0);
+            maxId = range.getLong(1);
+        } finally {
+            range.close();
+        }
+
+        Random random = new Random();
+        Set<Long> tried = new HashSet<>();
+        long idCount = maxId - minId + 1;
+        for (int attempt = 0; attempt < MAX_SAMPLE_ATTEMPTS
+                && videos.size() < count && tried.size() < idCount; attempt++) {
+            int wanted = (int) Math.min(2 * (count - videos.size()), idCount - tried.size());
+            List<String> ids = new ArrayList<>(wanted);
+            while (ids.size() < wanted) {
+                long id = minId + (long) (random.nextDouble() * idCount);
+                if (tried.add(id)) {
+                    ids.add(Long.toString(id));
+                }
+            }
+
+            StringBuilder selection = new StringBuilder(VideoContract.VideoEntry._ID + " IN (");
+            for (int i = 0; i < ids.size(); i++) {
+                selection.append(i == 0 ? "?" : ",?");
+            }
+            selection.append(')');
 
-        if (cursor != null && cursor.moveToNext()) {
+            Cursor cursor = getContentResolver().query(
+                    VideoContract.VideoEntry.CONTENT_URI,
+                    null, // projection
+                    selection.toString(),
+                    ids.toArray(new String[ids.size()]),
+                    null);
+            if (cursor == null) {
+                break;
+            }
             try {
-                do {
-                    Video video = (Video) mVideoCursorMapper.convert(cursor);
-                    int id = Long.valueOf(video.id).hashCode();
-
-                    builder.setIdTag("Video" + id)
-                            .setTitle(video.title)
-                            .setText(getString(R.string.popular_header))
-                            .setContentIntentData(ContentRecommendation.INTENT_TYPE_ACTIVITY,
-                                    buildPendingIntent(video, id), 0, null);
-
-                    Bitmap bitmap = Glide.with(getApplication())
-                            .asBitmap()
-                            .load(video.cardImageUrl)
-                            .submit(cardWidth, cardHeight) // Only use for synchronous .get()
-                            .get();
-                    builder.setContentImage(bitmap);
-
-                    // Create an object holding all the information used to recommend the content.
-                    ContentRecommendation rec = builder.build();
-                    Notification notification = rec.getNotificationObject(getApplicationContext());
-
-                    if (BuildConfig.DEBUG) Log.d(TAG, "Recommending video " + video.title);
-
-                    // Recommend the content by publishing the notification.
-                    mNotifManager.notify(id, notification);
-                } while (cursor.moveToNext());
-            } catch (InterruptedException | ExecutionException e) {
-                Log.e(TAG, "Could not create recommendation.", e);
+                while (videos.size() < count && cursor.moveToNext()) {
+                    videos.add((Video) mVideoCursorMapper.convert(cursor));
+                }
             } finally {
                 cursor.close();
             }
         }
+        return videos;
+    }
+
+    /**
+     * Loads the card images of {@code videos}, null where an image could not be loaded. Glide
+     * fetches and decodes them on its own thread pool; no more than
+     * {@link #MAX_CONCURRENT_IMAGE_FETCHES} are handed to it at a time so the browse screen's own
+     * image loads are not starved. The images are collected as they complete, so a slow one only
+     * holds up its own slot, and all of them get {@link #IMAGE_TIMEOUT_SECONDS} in total.
+     *
+     * @param targets receives the image requests, to clear once the images are not used anymore.
+     */
+    private Bitmap[] fetchImages(List<Video> videos, final List<FutureTarget<Bitmap>> targets) {
+        Resources res = getResources();
+        final int cardWidth = res.getDimensionPixelSize(R.dimen.card_width);
+        final int cardHeight = res.getDimensionPixelSize(R.dimen.card_height);
+
+        Bitmap[] images = new Bitmap[videos.size()];
+        ExecutorService executor = Executors.newFixedThreadPool(MAX_CONCURRENT_IMAGE_FETCHES);
+        CompletionService<Bitmap> requests = new ExecutorCompletionService<>(executor);
+        Map<Future<Bitmap>, Integer> positions = new HashMap<>();
+        try {
+            for (int i = 0; i < videos.size(); i++) {
+                final String url = ImageUrlResolver.resolvePoster(videos.get(i).cardImageUrl,
+                        cardWidth, cardHeight);
+                positions.put(requests.submit(new Callable<Bitmap>() {
+                    @Override
+                    public Bitmap call() throws Exception {
+                        FutureTarget<Bitmap> target = Glide.with(getApplication())
+                                .asBitmap()
+                                .load(url)
+                                .submit(cardWidth, cardHeight); // Only use for synchronous .get()
+                        synchronized (targets) {
+                            targets.add(target);
+                        }
+                        return target.get();
+                    }
+                }), i);
+            }
+
+            long deadline = SystemClock.elapsedRealtime()
+                    + TimeUnit.SECONDS.toMillis(IMAGE_TIMEOUT_SECONDS);
+            for (int i = 0; i < videos.size(); i++) {
+                Future<Bitmap> image = requests.poll(deadline - SystemClock.elapsedRealtime(),
+                        TimeUnit.MILLISECONDS);
+                if (image == null) {
+                    Log.e(TAG, "Timed out loading recommendation images.");
+                    break;
+                }
+                try {
+                    images[positions.get(image)] = image.get();
+                } catch (ExecutionException e) {
+                    Log.e(TAG, "Could not load recommendation image.", e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Log.e(TAG, "Interrupted loading recommendation images.", e);
+            Thread.currentThread().interrupt();
+        } finally {
+            // Gives up on the images still loading, and waits for their requests to be listed so
+            // that they are cleared too.
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(IMAGE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return images;
     }
 
     private Intent buildPendingIntent(Video video, int id) {
         Intent detailsIntent = new Intent(this, VideoDetailsActivity.class);
-        detailsIntent.putExtra(VideoDetailsActivity.VIDEO, video);
+        detailsIntent.putExtra(VideoDetailsActivity.VIDEO_ID, video.id);
         detailsIntent.putExtra(VideoDetailsActivity.NOTIFICATION_ID, id);
         detailsIntent.setAction(Long.toString(video.id));
 
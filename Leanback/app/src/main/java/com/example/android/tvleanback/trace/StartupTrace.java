@@ -0,0 +1,433 @@
+/*
+ * Copyright (c) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.android.tvleanback.trace;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Color;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.util.Log;
+import android.util.TypedValue;
+import android.view.Gravity;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.engine.GlideException;
+import com.bumptech.glide.request.RequestListener;
+import com.bumptech.glide.request.target.Target;
+import com.example.android.tvleanback.BuildConfig;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.ref.WeakReference;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Records where the time goes between the launch of the app and the first rows and images of the
+ * browse screen.
+ * <p>
+ * Every section is an {@link Trace} section, so it shows in systrace and Perfetto. In debug builds
+ * it is also recorded in memory with its start and duration relative to the start of the process.
+ * Once the first row and the first card image are on screen, or after {@link #TIMEOUT_MS},
+ * recording stops, a summary is logged and shown over the browse screen, and the timeline is
+ * written to {@code files/startup_traces/} with the device model.
+ * <p>
+ * Sections opened with {@link #beginSection(String)} must be closed on the same thread; sections
+ * that start and finish on different threads use {@link #beginAsyncSection(String)}.
+ */
+public final class StartupTrace {
+    private static final String TAG = "StartupTrace";
+
+    /** The first card of the browse screen is bound. */
+    public static final String FIRST_ROW = "first row";
+    /** The first card image is ready. */
+    public static final String FIRST_IMAGE = "first image";
+
+    // Stop recording this long after both milestones, to catch what they started.
+    private static final long SETTLE_MS = 2000;
+    private static final long TIMEOUT_MS = 60000;
+    private static final int MAX_SPANS = 1000;
+    private static final int MAX_TRACE_FILES = 10;
+    private static final int MAX_SECTION_NAME_LENGTH = 127;
+    private static final int OVERLAY_SPANS = 5;
+    private static final String TRACE_DIRECTORY = "startup_traces";
+
+    // Release builds only emit the systrace sections: nothing is recorded, logged or written.
+    private static final boolean ENABLED = BuildConfig.DEBUG;
+
+    private static final Handler sHandler = new Handler(Looper.getMainLooper());
+
+    private static final ThreadLocal<List<Span>> sOpenSpans = new ThreadLocal<List<Span>>() {
+        @Override
+        protected List<Span> initialValue() {
+            return new ArrayList<>();
+        }
+    };
+
+    // Guarded by StartupTrace.class.
+    private static final List<Span> sSpans = new ArrayList<>();
+    private static final Map<String, Span> sAsyncSpans = new HashMap<>();
+    private static final Map<String, Long> sMarks = new LinkedHashMap<>();
+    private static long sOriginNanos = Process.getStartElapsedRealtime() * 1000000L;
+    private static boolean sColdStart = true;
+    private static boolean sFinished;
+    private static Context sAppContext;
+    private static WeakReference<TextView> sOverlay = new WeakReference<>(null);
+
+    private static volatile boolean sRecording = ENABLED;
+
+    private static final Runnable sFinishTask = new Runnable() {
+        @Override
+        public void run() {
+            finish();
+        }
+    };
+
+    private StartupTrace() {
+    }
+
+    /**
+     * Called first thing when the main activity is created, before its content view is set. A
+     * launch into a process that already finished tracing one starts a new, warm, timeline from
+     * now.
+     */
+    public static void onLaunch(final Activity activity) {
+        if (!ENABLED) {
+            return;
+        }
+        synchronized (StartupTrace.class) {
+            sAppContext = activity.getApplicationContext();
+            if (sFinished) {
+                sSpans.clear();
+                sAsyncSpans.clear();
+                sMarks.clear();
+                sOriginNanos = SystemClock.elapsedRealtimeNanos();
+                sColdStart = false;
+                sFinished = false;
+                sRecording = true;
+            }
+        }
+        // After onCreate, once the content view is set.
+        sHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (!activity.isDestroyed()) {
+                    showOverlay(activity);
+                }
+            }
+        });
+        sHandler.removeCallbacks(sFinishTask);
+        sHandler.postDelayed(sFinishTask, TIMEOUT_MS);
+    }
+
+    /**
+     * Returns whether spans are being recorded, for callers that need extra work to trace.
+     */
+    public static boolean isRecording() {
+        return sRecording;
+    }
+
+    /**
+     * Opens a section on the current thread.
+     */
+    public static void beginSection(String name) {
+        Trace.beginSection(truncate(name));
+        // Pushed even when not recording, so every end pops its own begin.
+        sOpenSpans.get().add(sRecording ? new Span(name, SystemClock.elapsedRealtimeNanos())
+                : null);
+    }
+
+    /**
+     * Closes the section last opened on the current thread.
+     */
+    public static void endSection() {
+        Trace.endSection();
+        List<Span> open = sOpenSpans.get();
+        if (open.isEmpty()) {
+            return;
+        }
+        Span span = open.remove(open.size() - 1);
+        if (span != null) {
+            span.mEndNanos = SystemClock.elapsedRealtimeNanos();
+            record(span);
+        }
+    }
+
+    /**
+     * Opens a section that may be closed on another thread. Only one section of a name can be
+     * open at a time.
+     */
+    public static void beginAsyncSection(String name) {
+        if (!sRecording) {
+            return;
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            Trace.beginAsyncSection(truncate(name), name.hashCode());
+        }
+        synchronized (StartupTrace.class) {
+            sAsyncSpans.put(name, new Span(name, SystemClock.elapsedRealtimeNanos()));
+        }
+    }
+
+    /**
+     * Closes the section of this name opened with {@link #beginAsyncSection(String)}, if any.
+     */
+    public static void endAsyncSection(String name) {
+        Span span;
+        synchronized (StartupTrace.class) {
+            span = sAsyncSpans.remove(name);
+        }
+        if (span == null) {
+            return;
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            Trace.endAsyncSection(truncate(name), name.hashCode());
+        }
+        span.mEndNanos = SystemClock.elapsedRealtimeNanos();
+        record(span);
+    }
+
+    /**
+     * Records the first time {@code name} happens, such as {@link #FIRST_ROW}.
+     */
+    public static void mark(String name) {
+        if (!sRecording) {
+            return;
+        }
+        boolean settled;
+        synchronized (StartupTrace.class) {
+            if (sMarks.containsKey(name)) {
+                return;
+            }
+            sMarks.put(name, SystemClock.elapsedRealtimeNanos());
+            settled = sMarks.containsKey(FIRST_ROW) && sMarks.containsKey(FIRST_IMAGE);
+        }
+        if (settled) {
+            sHandler.removeCallbacks(sFinishTask);
+            sHandler.postDelayed(sFinishTask, SETTLE_MS);
+        }
+    }
+
+    /**
+     * Returns a Glide listener that marks {@link #FIRST_IMAGE}.
+     */
+    public static <R> RequestListener<R> firstImageListener() {
+        return new RequestListener<R>() {
+            @Override
+            public boolean onLoadFailed(@Nullable GlideException e, Object model,
+                    Target<R> target, boolean isFirstResource) {
+                return false;
+            }
+
+            @Override
+            public boolean onResourceReady(R resource, Object model, Target<R> target,
+                    DataSource dataSource, boolean isFirstResource) {
+                mark(FIRST_IMAGE);
+                return false;
+            }
+        };
+    }
+
+    private static void record(Span span) {
+        synchronized (StartupTrace.class) {
+            if (sRecording && sSpans.size() < MAX_SPANS) {
+                span.mThread = Thread.currentThread().getName();
+                sSpans.add(span);
+            }
+        }
+    }
+
+    private static String truncate(String name) {
+        return name.length() <= MAX_SECTION_NAME_LENGTH
+                ? name : name.substring(0, MAX_SECTION_NAME_LENGTH);
+    }
+
+    private static void finish() {
+        final Span[] spans;
+        final Map<String, Long> marks;
+        final long origin;
+        final boolean cold;
+        final Context context;
+        synchronized (StartupTrace.class) {
+            if (sFinished) {
+                return;
+            }
+            sFinished = true;
+            sRecording = false;
+            spans = sSpans.toArray(new Span[sSpans.size()]);
+            marks = new LinkedHashMap<>(sMarks);
+            origin = sOriginNanos;
+            cold = sColdStart;
+            context = sAppContext;
+        }
+        Arrays.sort(spans, Span.BY_START);
+
+        String summary = buildSummary(spans, marks, origin, cold);
+        Log.i(TAG, summary.replace('\n', ' '));
+        TextView overlay = sOverlay.get();
+        if (overlay != null) {
+            overlay.setText(summary);
+        }
+        if (context != null) {
+            final File directory = new File(context.getFilesDir(), TRACE_DIRECTORY);
+            final String timeline = buildTimeline(spans, marks, origin, cold);
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    write(directory, timeline);
+                }
+            }, TAG).start();
+        }
+    }
+
+    private static String buildSummary(Span[] spans, Map<String, Long> marks, long origin,
+            boolean cold) {
+        StringBuilder summary = new StringBuilder(cold ? "Cold start" : "Warm start");
+        for (Map.Entry<String, Long> mark : marks.entrySet()) {
+            summary.append('\n').append(mark.getKey()).append(": ")
+                    .append(formatMs(mark.getValue() - origin)).append(" ms");
+        }
+        Span[] longest = spans.clone();
+        Arrays.sort(longest, Span.BY_DURATION_DESCENDING);
+        for (int i = 0; i < Math.min(OVERLAY_SPANS, longest.length); i++) {
+            summary.append('\n').append(longest[i].mName).append(": ")
+                    .append(formatMs(longest[i].mEndNanos - longest[i].mStartNanos))
+                    .append(" ms");
+        }
+        return summary.toString();
+    }
+
+    private static String buildTimeline(Span[] spans, Map<String, Long> marks, long origin,
+            boolean cold) {
+        StringBuilder timeline = new StringBuilder();
+        timeline.append("# ").append(cold ? "cold" : "warm").append(" start, ")
+                .append(Build.MANUFACTURER).append(' ').append(Build.MODEL)
+                .append(", API ").append(Build.VERSION.SDK_INT).append('\n');
+        for (Map.Entry<String, Long> mark : marks.entrySet()) {
+            timeline.append("# ").append(mark.getKey()).append(": ")
+                    .append(formatMs(mark.getValue() - origin)).append(" ms\n");
+        }
+        timeline.append("# start_ms\tduration_ms\tthread\tsection\n");
+        for (Span span : spans) {
+            timeline.append(formatMs(span.mStartNanos - origin)).append('\t')
+                    .append(formatMs(span.mEndNanos - span.mStartNanos)).append('\t')
+                    .append(span.mThread).append('\t')
+                    .append(span.mName).append('\n');
+        }
+        return timeline.toString();
+    }
+
+    private static void write(File directory, String timeline) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            Log.w(TAG, "Could not create " + directory);
+            return;
+        }
+        String name = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.US).format(new Date());
+        File file = new File(directory, "startup-" + name + ".tsv");
+        PrintWriter writer = null;
+        try {
+            writer = new PrintWriter(new FileWriter(file));
+            writer.print(timeline);
+        } catch (IOException e) {
+            Log.w(TAG, "Could not write " + file, e);
+        } finally {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+
+        // Only the latest launches are kept; names sort by date.
+        String[] files = directory.list();
+        if (files != null && files.length > MAX_TRACE_FILES) {
+            Arrays.sort(files);
+            for (int i = 0; i < files.length - MAX_TRACE_FILES; i++) {
+                new File(directory, files[i]).delete();
+            }
+        }
+    }
+
+    private static String formatMs(long nanos) {
+        return String.format(Locale.US, "%.1f", nanos / 1000000.0);
+    }
+
+    private static void showOverlay(Activity activity) {
+        ViewGroup content = activity.findViewById(android.R.id.content);
+        if (content == null) {
+            return;
+        }
+        TextView overlay = new TextView(activity);
+        overlay.setBackgroundColor(0xaa000000);
+        overlay.setTextColor(Color.WHITE);
+        overlay.setTextSize(TypedValue.COMPLEX_UNIT_SP, 12);
+        int padding = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 8,
+                activity.getResources().getDisplayMetrics());
+        overlay.setPadding(padding, padding, padding, padding);
+        overlay.setFocusable(false);
+        overlay.setText(TAG);
+        content.addView(overlay, new FrameLayout.LayoutParams(
+                ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT,
+                Gravity.TOP | Gravity.END));
+        sOverlay = new WeakReference<>(overlay);
+    }
+
+    private static final class Span {
+        static final Comparator<Span> BY_START = new Comparator<Span>() {
+            @Override
+            public int compare(Span a, Span b) {
+                return Long.compare(a.mStartNanos, b.mStartNanos);
+            }
+        };
+        static final Comparator<Span> BY_DURATION_DESCENDING =
+                new Comparator<Span>() {
+                    @Override
+                    public int compare(Span a, Span b) {
+                        return Long.compare(b.mEndNanos - b.mStartNanos,
+                                a.mEndNanos - a.mStartNanos);
+                    }
+                };
+
+        private final String mName;
+        private final long mStartNanos;
+        private long mEndNanos;
+        private String mThread;
+
+        Span(String name, long startNanos) {
+            mName = name;
+            mStartNanos = startNanos;
+        }
+    }
+}
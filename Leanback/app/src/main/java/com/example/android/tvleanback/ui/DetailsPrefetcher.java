@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.android.tvleanback.ui;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.util.Log;
+
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.request.target.Target;
+import com.example.android.tvleanback.data.CategoryVideoCache;
+import com.example.android.tvleanback.image.CardImageRequests;
+import com.example.android.tvleanback.model.Video;
+import com.example.android.tvleanback.player.PlaybackTokens;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Prepares the details screen of the card the user rests on, so that opening it finds the poster,
+ * the related videos row and optionally the playback token already in memory.
+ * <p>
+ * Nothing starts until focus has stayed on a card for the dwell time, and everything is cancelled
+ * as soon as focus moves. At most one poster request and one background task run at a time. All
+ * methods must be called on the main thread.
+ */
+class DetailsPrefetcher {
+    private static final String TAG = "DetailsPrefetcher";
+
+    static final long DEFAULT_DWELL_MS = 400;
+
+    private final Context mAppContext;
+    private final RequestManager mRequestManager;
+    private final int mPosterWidth;
+    private final int mPosterHeight;
+    private final long mDwellMs;
+    private final boolean mPrefetchTokens;
+
+    private final Handler mHandler = new Handler();
+    private final ExecutorService mExecutor = Executors.newSingleThreadExecutor();
+
+    private Video mFocusedVideo;
+    private Target<Bitmap> mPoster;
+    private Future<?> mTask;
+
+    private final Runnable mDwellTask = new Runnable() {
+        @Override
+        public void run() {
+            prefetch(mFocusedVideo);
+        }
+    };
+
+    DetailsPrefetcher(Context context, RequestManager requestManager, long dwellMs,
+            boolean prefetchTokens) {
+        mAppContext = context.getApplicationContext();
+        mRequestManager = requestManager;
+        mPosterWidth = CardImageRequests.getDetailsPosterWidth(context.getResources());
+        mPosterHeight = CardImageRequests.getDetailsPosterHeight(context.getResources());
+        mDwellMs = dwellMs;
+        mPrefetchTokens = prefetchTokens;
+    }
+
+    /**
+     * Called when focus moves; {@code video} is the focused video, or null if focus left the
+     * cards.
+     */
+    void onFocusChanged(Video video) {
+        if (video == mFocusedVideo) {
+            return;
+        }
+        cancel();
+        mFocusedVideo = video;
+        if (video != null) {
+            mHandler.postDelayed(mDwellTask, mDwellMs);
+        }
+    }
+
+    /**
+     * Cancels the pending and running prefetch.
+     */
+    void cancel() {
+        mFocusedVideo = null;
+        mHandler.removeCallbacks(mDwellTask);
+        if (mPoster != null) {
+            mRequestManager.clear(mPoster);
+            mPoster = null;
+        }
+        if (mTask != null) {
+            mTask.cancel(true);
+            mTask = null;
+        }
+    }
+
+    /**
+     * Cancels everything and stops the background thread.
+     */
+    void release() {
+        cancel();
+        mExecutor.shutdownNow();
+    }
+
+    private void prefetch(final Video video) {
+        mPoster = CardImageRequests
+                .loadDetailsPoster(mRequestManager, video.cardImageUrl, mPosterWidth,
+                        mPosterHeight)
+                .preload(mPosterWidth, mPosterHeight);
+
+        mTask = mExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                CategoryVideoCache.getInstance(mAppContext).get(video.category);
+                if (mPrefetchTokens && !Thread.currentThread().isInterrupted()) {
+                    PlaybackTokens.prefetch(mAppContext, video);
+                }
+                Log.d(TAG, "Prefetched details of " + video.id);
+            }
+        });
+    }
+}
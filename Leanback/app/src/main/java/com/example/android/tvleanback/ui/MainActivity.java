@@ -22,6 +22,7 @@ import android.os.Bundle;
 import android.preference.PreferenceManager;
 
 import com.example.android.tvleanback.R;
+import com.example.android.tvleanback.trace.StartupTrace;
 
 /*
  * MainActivity class that loads MainFragment.
@@ -29,8 +30,11 @@ import com.example.android.tvleanback.R;
 public class MainActivity extends LeanbackActivity {
     @Override
     public void onCreate(Bundle savedInstanceState) {
+        StartupTrace.onLaunch(this);
+        StartupTrace.beginSection("MainActivity.onCreate");
         super.onCreate(savedInstanceState);
         setContentView(R.layout.main);
+        StartupTrace.endSection();
         SharedPreferences sharedPreferences = PreferenceManager.getDefaultSharedPreferences(this);
 //        if(!sharedPreferences.getBoolean(OnboardingFragment.COMPLETED_ONBOARDING, false)) {
             // This is the first time running the app, let's go to onboarding
@@ -20,25 +20,26 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.SharedPreferences;
 import android.database.Cursor;
-import android.graphics.Bitmap;
 import android.graphics.drawable.Drawable;
 import android.net.Uri;
 import android.os.Bundle;
 import android.os.Handler;
 import androidx.leanback.app.BackgroundManager;
 import androidx.leanback.app.BrowseSupportFragment;
+import androidx.leanback.app.RowsSupportFragment;
 import androidx.leanback.widget.ArrayObjectAdapter;
 import androidx.leanback.widget.CursorObjectAdapter;
 import androidx.leanback.widget.HeaderItem;
 import androidx.leanback.widget.ImageCardView;
 import androidx.leanback.widget.ListRow;
-import androidx.leanback.widget.ListRowPresenter;
+import androidx.leanback.widget.ObjectAdapter;
 import androidx.leanback.widget.OnItemViewClickedListener;
 import androidx.leanback.widget.OnItemViewSelectedListener;
 import androidx.leanback.widget.Presenter;
 import androidx.leanback.widget.PresenterSelector;
 import androidx.leanback.widget.Row;
 import androidx.leanback.widget.RowPresenter;
+import androidx.leanback.widget.VerticalGridView;
 import androidx.core.app.ActivityOptionsCompat;
 import androidx.loader.app.LoaderManager;
 import androidx.core.content.ContextCompat;
@@ -52,18 +53,20 @@ import android.view.View;
 import android.widget.Toast;
 
 import com.bumptech.glide.Glide;
-import com.bumptech.glide.request.RequestOptions;
-import com.bumptech.glide.request.target.SimpleTarget;
-import com.bumptech.glide.request.transition.Transition;
 import com.example.android.tvleanback.R;
+import com.example.android.tvleanback.data.CatalogSnapshot;
 import com.example.android.tvleanback.data.FetchVideoService;
 import com.example.android.tvleanback.data.VideoContract;
+import com.example.android.tvleanback.image.BackgroundArtworkLoader;
+import com.example.android.tvleanback.image.CardImagePreloader;
 import com.example.android.tvleanback.model.Video;
 import com.example.android.tvleanback.model.VideoCursorMapper;
 import com.example.android.tvleanback.presenter.CardPresenter;
 import com.example.android.tvleanback.presenter.GridItemPresenter;
 import com.example.android.tvleanback.presenter.IconHeaderItemPresenter;
+import com.example.android.tvleanback.presenter.PreloadingListRowPresenter;
 import com.example.android.tvleanback.recommendation.UpdateRecommendationsService;
+import com.example.android.tvleanback.trace.StartupTrace;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -75,6 +78,8 @@ public class MainFragment extends BrowseSupportFragment
         implements LoaderManager.LoaderCallbacks<Cursor> {
 
     private static final int BACKGROUND_UPDATE_DELAY = 200;
+    // Off by default: every focus dwell would send a credentialed token request.
+    private static final boolean PREFETCH_PLAYBACK_TOKENS = false;
     private final Handler mHandler = new Handler();
     private ArrayObjectAdapter mCategoryRowAdapter;
     private Drawable mDefaultBackground;
@@ -82,7 +87,11 @@ public class MainFragment extends BrowseSupportFragment
     private Runnable mBackgroundTask;
     private Uri mBackgroundURI;
     private BackgroundManager mBackgroundManager;
+    private BackgroundArtworkLoader mBackgroundArtworkLoader;
     private LoaderManager mLoaderManager;
+    private CardImagePreloader mCardImagePreloader;
+    private DetailsPrefetcher mDetailsPrefetcher;
+    private VerticalGridView mRowsView;
     private static final int CATEGORY_LOADER = 123; // Unique ID for Category Loader.
 
     // Maps a Loader Id to its CursorObjectAdapter.
@@ -91,6 +100,7 @@ public class MainFragment extends BrowseSupportFragment
     //Store the last loaded content list
     private SharedPreferences mPreferences;
     private String mLastContentList;
+    private boolean mCatalogSyncStarted;
 
     @Override
     public void onAttach(Context context) {
@@ -102,6 +112,7 @@ public class MainFragment extends BrowseSupportFragment
 
         // Start loading the categories from the database.
         mLoaderManager = LoaderManager.getInstance(this);
+        StartupTrace.beginAsyncSection("category query");
         mLoaderManager.initLoader(CATEGORY_LOADER, null, this);
     }
 
@@ -124,17 +135,45 @@ public class MainFragment extends BrowseSupportFragment
         setupEventListeners();
         prepareEntranceTransition();
 
+        // Warms the image cache for cards that are about to scroll into view.
+        mCardImagePreloader = new CardImagePreloader(Glide.with(this), getResources());
+        // Prepares the details screen of the card that keeps focus.
+        mDetailsPrefetcher = new DetailsPrefetcher(getActivity(), Glide.with(this),
+                DetailsPrefetcher.DEFAULT_DWELL_MS, PREFETCH_PLAYBACK_TOKENS);
+
         // Map category results from the database to ListRow objects.
         // This Adapter is used to render the MainFragment sidebar labels.
-        mCategoryRowAdapter = new ArrayObjectAdapter(new ListRowPresenter());
+        mCategoryRowAdapter =
+                new ArrayObjectAdapter(new PreloadingListRowPresenter(mCardImagePreloader));
         setAdapter(mCategoryRowAdapter);
 
         updateRecommendations();
     }
 
+    @Override
+    public void onStart() {
+        super.onStart();
+
+        // The list of rows is created by the rows fragment, once this fragment has started.
+        RowsSupportFragment rowsFragment = getRowsSupportFragment();
+        VerticalGridView rowsView =
+                rowsFragment != null ? rowsFragment.getVerticalGridView() : null;
+        if (rowsView != null && rowsView != mRowsView) {
+            mRowsView = rowsView;
+            mCardImagePreloader.attachRows(rowsView, new CardImagePreloader.AdapterProvider() {
+                @Override
+                public ObjectAdapter getAdapter() {
+                    return mCategoryRowAdapter;
+                }
+            });
+        }
+    }
+
     @Override
     public void onDestroy() {
         mHandler.removeCallbacks(mBackgroundTask);
+        mBackgroundArtworkLoader.release();
+        mDetailsPrefetcher.release();
         mBackgroundManager = null;
         super.onDestroy();
     }
@@ -142,6 +181,8 @@ public class MainFragment extends BrowseSupportFragment
     @Override
     public void onStop() {
         mBackgroundManager.release();
+        mCardImagePreloader.cancel();
+        mDetailsPrefetcher.cancel();
         super.onStop();
     }
 
@@ -173,6 +214,9 @@ public class MainFragment extends BrowseSupportFragment
         mBackgroundTask = new UpdateBackgroundTask();
         mMetrics = new DisplayMetrics();
         getActivity().getWindowManager().getDefaultDisplay().getMetrics(mMetrics);
+        mBackgroundArtworkLoader = new BackgroundArtworkLoader(Glide.with(this),
+                mBackgroundManager, mMetrics.widthPixels, mMetrics.heightPixels,
+                mDefaultBackground);
     }
 
     private void setupUIElements() {
@@ -212,25 +256,7 @@ public class MainFragment extends BrowseSupportFragment
     }
 
     private void updateBackground(String uri) {
-        int width = mMetrics.widthPixels;
-        int height = mMetrics.heightPixels;
-
-        RequestOptions options = new RequestOptions()
-                .centerCrop()
-                .error(mDefaultBackground);
-
-        Glide.with(this)
-                .asBitmap()
-                .load(uri)
-                .apply(options)
-                .into(new SimpleTarget<Bitmap>(width, height) {
-                    @Override
-                    public void onResourceReady(
-                            Bitmap resource,
-                            Transition<? super Bitmap> transition) {
-                        mBackgroundManager.setBitmap(resource);
-                    }
-                });
+        mBackgroundArtworkLoader.load(uri);
     }
 
     private void startBackgroundTimer() {
@@ -248,9 +274,8 @@ public class MainFragment extends BrowseSupportFragment
         if (id == CATEGORY_LOADER) {
             return new CursorLoader(
                     getContext(),
-                    VideoContract.VideoEntry.CONTENT_URI, // Table to query
-                    new String[]{"DISTINCT " + VideoContract.VideoEntry.COLUMN_CATEGORY},
-                    // Only categories
+                    VideoContract.VideoEntry.CATEGORIES_URI, // Only categories
+                    null, // Projection is always the category
                     null, // No selection clause
                     null, // No selection arguments
                     null  // Default sort order
@@ -258,14 +283,15 @@ public class MainFragment extends BrowseSupportFragment
         } else {
             // Assume it is for a video.
             String category = args.getString(VideoContract.VideoEntry.COLUMN_CATEGORY);
+            StartupTrace.beginAsyncSection("row query " + category);
 
-            // This just creates a CursorLoader that gets all videos.
+            // Gets the videos of the category; only changes to this category reload the row.
             return new CursorLoader(
                     getContext(),
-                    VideoContract.VideoEntry.CONTENT_URI, // Table to query
+                    VideoContract.VideoEntry.buildCategoryUri(category), // Videos to query
                     null, // Projection to return - null means return all fields
-                    VideoContract.VideoEntry.COLUMN_CATEGORY + " = ?", // Selection clause
-                    new String[]{category},  // Select based on the category id.
+                    null, // No selection clause
+                    null, // No selection arguments
                     null // Default sort order
             );
         }
@@ -273,10 +299,17 @@ public class MainFragment extends BrowseSupportFragment
 
     @Override
     public void onLoadFinished(Loader<Cursor> loader, Cursor data) {
-        if (data != null && data.moveToFirst()) {
-            final int loaderId = loader.getId();
+        final int loaderId = loader.getId();
+        if (loaderId == CATEGORY_LOADER) {
+            StartupTrace.endAsyncSection("category query");
+        } else {
+            StartupTrace.endAsyncSection("row query "
+                    + ((CursorLoader) loader).getUri().getLastPathSegment());
+        }
 
+        if (data != null && data.moveToFirst()) {
             if (loaderId == CATEGORY_LOADER) {
+                StartupTrace.beginSection("MainFragment.onLoadFinished categories");
 
                 // Every time we have to re-get the category loader, we must re-create the sidebar.
                 mCategoryRowAdapter.clear();
@@ -329,6 +362,17 @@ public class MainFragment extends BrowseSupportFragment
 
                 startEntranceTransition(); // TODO: Move startEntranceTransition to after all
                 // cursors have loaded.
+                StartupTrace.endSection();
+
+                // The rows come from the catalog bundled with the app; fetch what changed since.
+                if (!mCatalogSyncStarted && CatalogSnapshot.needsSync(getActivity())) {
+                    mCatalogSyncStarted = true;
+                    Intent serviceIntent = new Intent(getActivity(), FetchVideoService.class);
+                    //this is NOT an update
+                    serviceIntent.putExtra("update", false);
+                    serviceIntent.putExtra("content_url", mLastContentList);
+                    getActivity().startService(serviceIntent);
+                }
             } else {
                 // The CursorAdapter contains a Cursor pointing to all videos.
                 mVideoCursorAdapters.get(loaderId).changeCursor(data);
@@ -371,7 +415,7 @@ public class MainFragment extends BrowseSupportFragment
             if (item instanceof Video) {
                 Video video = (Video) item;
                 Intent intent = new Intent(getActivity(), VideoDetailsActivity.class);
-                intent.putExtra(VideoDetailsActivity.VIDEO, video);
+                intent.putExtra(VideoDetailsActivity.VIDEO_ID, video.id);
 
                 Bundle bundle = ActivityOptionsCompat.makeSceneTransitionAnimation(
                         getActivity(),
@@ -423,7 +467,7 @@ public class MainFragment extends BrowseSupportFragment
                 mBackgroundURI = Uri.parse(((Video) item).bgImageUrl);
                 startBackgroundTimer();
             }
-
+            mDetailsPrefetcher.onFocusChanged(item instanceof Video ? (Video) item : null);
         }
     }
 }
@@ -19,10 +19,10 @@ package com.example.android.tvleanback.ui;
 import android.annotation.TargetApi;
 import android.app.AlertDialog;
 import android.app.ProgressDialog;
+import android.content.Context;
 import android.content.DialogInterface;
 import android.content.Intent;
 import android.content.SharedPreferences;
-import android.database.Cursor;
 import android.net.Uri;
 import android.os.AsyncTask;
 import android.os.Build;
@@ -37,7 +37,6 @@ import androidx.leanback.app.VideoSupportFragment;
 import androidx.leanback.app.VideoSupportFragmentGlueHost;
 import androidx.leanback.widget.ArrayObjectAdapter;
 import androidx.leanback.widget.ClassPresenterSelector;
-import androidx.leanback.widget.CursorObjectAdapter;
 import androidx.leanback.widget.HeaderItem;
 import androidx.leanback.widget.ImageCardView;
 import androidx.leanback.widget.ListRow;
@@ -48,16 +47,19 @@ import androidx.leanback.widget.Row;
 import androidx.leanback.widget.RowPresenter;
 import androidx.core.app.ActivityOptionsCompat;
 import androidx.loader.app.LoaderManager;
-import androidx.loader.content.CursorLoader;
 import androidx.loader.content.Loader;
 
 import com.example.android.tvleanback.R;
+import com.example.android.tvleanback.data.CategoryVideosLoader;
+import com.example.android.tvleanback.data.VideoCatalog;
 import com.example.android.tvleanback.data.VideoContract;
+import com.example.android.tvleanback.data.WatchProgressStore;
 import com.example.android.tvleanback.model.Playlist;
 import com.example.android.tvleanback.model.Video;
-import com.example.android.tvleanback.model.VideoCursorMapper;
+import com.example.android.tvleanback.player.PlaybackTokens;
 import com.example.android.tvleanback.player.VideoPlayerGlue;
 import com.example.android.tvleanback.presenter.CardPresenter;
+import com.example.android.tvleanback.recommendation.RecommendationEngine;
 import com.google.android.exoplayer2.C;
 import com.google.android.exoplayer2.DefaultLoadControl;
 import com.google.android.exoplayer2.DefaultRenderersFactory;
@@ -93,14 +95,12 @@ import com.google.android.exoplayer2.util.ErrorMessageProvider;
 import com.google.android.exoplayer2.util.Util;
 
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.ProtocolException;
 import java.net.URL;
-import java.net.URLConnection;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
 import javax.net.ssl.HttpsURLConnection;
@@ -122,9 +122,12 @@ public class PlaybackFragment extends VideoSupportFragment {
 
 
     private Video mVideo;
+    // The video the player was last prepared with.
+    private Video mPlayingVideo;
+    private WatchProgressStore mWatchProgressStore;
     private Playlist mPlaylist;
     private VideoLoaderCallbacks mVideoLoaderCallbacks;
-    private CursorObjectAdapter mVideoCursorAdapter;
+    private ArrayObjectAdapter mRelatedVideosAdapter;
     private SharedPreferences mPreferences;
 
     private String userAgent;
@@ -135,8 +138,15 @@ public class PlaybackFragment extends VideoSupportFragment {
 
         userAgent = Util.getUserAgent(getActivity(), "MultiTrustAndroidDemo");
 
-        mVideo = getActivity().getIntent().getParcelableExtra(VideoDetailsActivity.VIDEO);
+        mVideo = VideoCatalog.get(getActivity(), getActivity().getIntent()
+                .getLongExtra(VideoDetailsActivity.VIDEO_ID, VideoCatalog.NO_VIDEO));
+        if (mVideo == null) {
+            // No longer in the catalog, e.g. a recommendation posted before a catalog refresh.
+            getActivity().finish();
+            return;
+        }
         mPreferences = PreferenceManager.getDefaultSharedPreferences(getActivity());
+        mWatchProgressStore = WatchProgressStore.getInstance(getActivity());
         mPlaylist = new Playlist();
 
 
@@ -149,13 +159,13 @@ public class PlaybackFragment extends VideoSupportFragment {
         getLoaderManager()
                 .initLoader(VideoLoaderCallbacks.QUEUE_VIDEOS_LOADER, args, mVideoLoaderCallbacks);
 
-        mVideoCursorAdapter = setupRelatedVideosCursor();
+        mRelatedVideosAdapter = setupRelatedVideos();
     }
 
     @Override
     public void onStart() {
         super.onStart();
-        if (Util.SDK_INT > 23) {
+        if (Util.SDK_INT > 23 && mVideo != null) {
             initializePlayer();
         }
     }
@@ -163,7 +173,7 @@ public class PlaybackFragment extends VideoSupportFragment {
     @Override
     public void onResume() {
         super.onResume();
-        if ((Util.SDK_INT <= 23 || mPlayer == null)) {
+        if ((Util.SDK_INT <= 23 || mPlayer == null) && mVideo != null) {
             initializePlayer();
         }
     }
@@ -272,6 +282,20 @@ public class PlaybackFragment extends VideoSupportFragment {
         mPlayerAdapter.setErrorMessageProvider(new PlayerErrorMessageProvider());
         mPlayerGlue = new VideoPlayerGlue(getActivity(), mPlayerAdapter, mPlaylistActionListener);
         mPlayerGlue.setHost(new VideoSupportFragmentGlueHost(this));
+        mPlayerGlue.setOnProgressListener(new VideoPlayerGlue.OnProgressListener() {
+            @Override
+            public void onProgress(long positionMs, long durationMs) {
+                if (mPlayingVideo != null) {
+                    mWatchProgressStore.update(mPlayingVideo, positionMs, durationMs);
+                }
+            }
+
+            @Override
+            public void onPaused(long positionMs, long durationMs) {
+                onProgress(positionMs, durationMs);
+                mWatchProgressStore.flush();
+            }
+        });
         mPlayerGlue.playWhenPrepared();
 
         play(mVideo);
@@ -282,6 +306,12 @@ public class PlaybackFragment extends VideoSupportFragment {
 
     private void releasePlayer() {
         if (mPlayer != null) {
+            if (mPlayingVideo != null) {
+                mWatchProgressStore.update(mPlayingVideo, mPlayer.getCurrentPosition(),
+                        mPlayer.getDuration());
+                mPlayingVideo = null;
+            }
+            mWatchProgressStore.flush();
             mPlayer.release();
             mPlayer = null;
             mPlayerGlue = null;
@@ -300,33 +330,26 @@ public class PlaybackFragment extends VideoSupportFragment {
 
             mPlayerGlue.setTitle(video.title);
             mPlayerGlue.setSubtitle(video.description);
+            RecommendationEngine.getInstance(getContext()).recordPlay(video);
 
             //calls prepareMediaForPlaying when completed
             Log.d("PlaybackFragment", "Requesting Token");
-            String user = mPreferences.getString(getString(R.string.pref_title_username), getString(R.string.user));
-            String pass = mPreferences.getString(getString(R.string.pref_title_password), getString(R.string.pass));
-            String url = mPreferences.getString(getString(R.string.pref_title_portal), getString(R.string.portal_url));
-
-            //If setting was added and reverted the pref may be an empty string and default needs defined manually
-            if (user.isEmpty()){
-                user = getString(R.string.user);
-            }
-            if (pass.isEmpty()){
-                pass = getString(R.string.pass);
-            }
-            if (url.isEmpty()) {
-                url = getString(R.string.portal_url);
-            }
-
-            new GetTokenTask(url, user, pass, video).execute();
+            new GetTokenTask(getActivity().getApplicationContext(), video).execute();
 
 
         }
     }
 
     //Called on completion of GetTokenTask
-    private void prepareMediaForPlaying(Video video, String token) {
-        mPlayer.prepare(buildMediaSource(video, token));
+    private void prepareMediaForPlaying(Video video, String token, long resumePositionMs) {
+        mPlayingVideo = video;
+        if (resumePositionMs > 0) {
+            // Seeking before prepare makes the first segment requested the one to resume from.
+            mPlayer.seekTo(resumePositionMs);
+            mPlayer.prepare(buildMediaSource(video, token), false, false);
+        } else {
+            mPlayer.prepare(buildMediaSource(video, token));
+        }
         mPlayerGlue.play();
     }
 
@@ -417,7 +440,7 @@ public class PlaybackFragment extends VideoSupportFragment {
         rowsAdapter.add(mPlayerGlue.getControlsRow());
 
         HeaderItem header = new HeaderItem(getString(R.string.related_movies));
-        ListRow row = new ListRow(header, mVideoCursorAdapter);
+        ListRow row = new ListRow(header, mRelatedVideosAdapter);
         rowsAdapter.add(row);
 
         setOnItemViewClickedListener(new ItemViewClickedListener());
@@ -425,15 +448,14 @@ public class PlaybackFragment extends VideoSupportFragment {
         return rowsAdapter;
     }
 
-    private CursorObjectAdapter setupRelatedVideosCursor() {
-        CursorObjectAdapter videoCursorAdapter = new CursorObjectAdapter(new CardPresenter());
-        videoCursorAdapter.setMapper(new VideoCursorMapper());
+    private ArrayObjectAdapter setupRelatedVideos() {
+        ArrayObjectAdapter videoAdapter = new ArrayObjectAdapter(new CardPresenter());
 
         Bundle args = new Bundle();
         args.putString(VideoContract.VideoEntry.COLUMN_CATEGORY, mVideo.category);
         getLoaderManager().initLoader(RELATED_VIDEOS_LOADER, args, mVideoLoaderCallbacks);
 
-        return videoCursorAdapter;
+        return videoAdapter;
     }
 
     public void skipToNext() {
@@ -465,7 +487,7 @@ public class PlaybackFragment extends VideoSupportFragment {
                 Video video = (Video) item;
 
                 Intent intent = new Intent(getActivity(), VideoDetailsActivity.class);
-                intent.putExtra(VideoDetailsActivity.VIDEO, video);
+                intent.putExtra(VideoDetailsActivity.VIDEO_ID, video.id);
 
                 Bundle bundle =
                         ActivityOptionsCompat.makeSceneTransitionAnimation(
@@ -478,14 +500,12 @@ public class PlaybackFragment extends VideoSupportFragment {
         }
     }
 
-    /** Loads a playlist with videos from a cursor and also updates the related videos cursor. */
-    protected class VideoLoaderCallbacks implements LoaderManager.LoaderCallbacks<Cursor> {
+    /** Loads a playlist with the videos of a category and also updates the related videos. */
+    protected class VideoLoaderCallbacks implements LoaderManager.LoaderCallbacks<List<Video>> {
 
         static final int RELATED_VIDEOS_LOADER = 1;
         static final int QUEUE_VIDEOS_LOADER = 2;
 
-        private final VideoCursorMapper mVideoCursorMapper = new VideoCursorMapper();
-
         private final Playlist playlist;
 
         private VideoLoaderCallbacks(Playlist playlist) {
@@ -493,45 +513,39 @@ public class PlaybackFragment extends VideoSupportFragment {
         }
 
         @Override
-        public Loader<Cursor> onCreateLoader(int id, Bundle args) {
-            // When loading related videos or videos for the playlist, query by category.
+        public Loader<List<Video>> onCreateLoader(int id, Bundle args) {
+            // When loading related videos or videos for the playlist, load by category.
             String category = args.getString(VideoContract.VideoEntry.COLUMN_CATEGORY);
-            return new CursorLoader(
-                    getActivity(),
-                    VideoContract.VideoEntry.CONTENT_URI,
-                    null,
-                    VideoContract.VideoEntry.COLUMN_CATEGORY + " = ?",
-                    new String[] {category},
-                    null);
+            return new CategoryVideosLoader(getActivity(), category);
         }
 
         @Override
-        public void onLoadFinished(Loader<Cursor> loader, Cursor cursor) {
-            if (cursor == null || !cursor.moveToFirst()) {
-                return;
+        public void onLoadFinished(Loader<List<Video>> loader, List<Video> videos) {
+            // An emptied category clears the queue and the related row.
+            if (videos == null) {
+                videos = Collections.emptyList();
             }
             int id = loader.getId();
             if (id == QUEUE_VIDEOS_LOADER) {
                 playlist.clear();
-                do {
-                    Video video = (Video) mVideoCursorMapper.convert(cursor);
-
+                for (Video video : videos) {
                     // Set the current position to the selected video.
                     if (video.id == mVideo.id) {
                         playlist.setCurrentPosition(playlist.size());
                     }
 
                     playlist.add(video);
-
-                } while (cursor.moveToNext());
+                }
             } else if (id == RELATED_VIDEOS_LOADER) {
-                mVideoCursorAdapter.changeCursor(cursor);
+                mRelatedVideosAdapter.setItems(videos, null);
             }
         }
 
         @Override
-        public void onLoaderReset(Loader<Cursor> loader) {
-            mVideoCursorAdapter.changeCursor(null);
+        public void onLoaderReset(Loader<List<Video>> loader) {
+            if (loader.getId() == RELATED_VIDEOS_LOADER) {
+                mRelatedVideosAdapter.clear();
+            }
         }
     }
 
@@ -596,80 +610,36 @@ public class PlaybackFragment extends VideoSupportFragment {
 
     private class GetTokenTask extends AsyncTask<Void,Void,String> {
 
-        private final String Url;
-        private final String Username;
-        private final String Password;
-        private final String Path;
-        private final String Asset;
-        private final String Entitlement;
-        private final String Policy;
+        private final Context mAppContext;
         private final Video  Video;
+        private long mResumePositionMs;
 
 
-        GetTokenTask(String url, String user, String pass, Video video) {
-            this.Url = url;
-            this.Username = user;
-            this.Password = pass;
-            this.Asset =  video.asset;
-            this.Path = "gettoken";
-            this.Entitlement = video.entitlement;
-            this.Policy = video.policy;
+        GetTokenTask(Context appContext, Video video) {
+            this.mAppContext = appContext;
             this.Video = video;
         }
 
         @Override
         protected void onPreExecute() {
-            Log.d("Token Request","Getting Token for :" + this.Asset);
+            Log.d("Token Request","Getting Token for :" + this.Video.asset);
         }
         @Override
         protected String doInBackground(Void... voids) {
-            String ent  = this.Entitlement.isEmpty() ? "" : "&entitlement="+this.Entitlement;
-            String pol  = this.Policy.isEmpty() ? "" : "&policy="+this.Policy;
-            String asset = this.Asset.isEmpty() ? "test" : this.Asset;
-            String request = this.Url + "/" + this.Path + "?username=" + this.Username + "&password=" + this.Password + "&asset=" + asset + "&duration=3600" + ent + pol;
-
-            try {
-                java.net.URL url = new java.net.URL(request);
-                URLConnection conn;
-                conn = url.openConnection();
-                conn.setReadTimeout(3000);
-
-                BufferedReader bufferedReader = new BufferedReader(
-                        new InputStreamReader(conn.getInputStream())
-                );
-                String inputLine;
-                StringBuilder response = new StringBuilder();
-
-                while ((inputLine = bufferedReader.readLine()) != null) {
-                    response.append(inputLine);
-                }
-                bufferedReader.close();
-
-                return response.toString();
-
-            } catch (IOException e ){
-                e.printStackTrace();
-                if (e.getMessage().isEmpty())
-                {
-                    return "TOKEN REQUEST FAILED: " + e.getCause().toString();
-                }
-                else
-                {
-                    return "TOKEN REQUEST FAILED: " + e.getMessage();
-                }
-            }
-
+            mResumePositionMs = WatchProgressStore.getInstance(mAppContext)
+                    .getResumePosition(this.Video);
+            return PlaybackTokens.get(mAppContext, this.Video);
         }
         @Override
         protected void onPostExecute(String result) {
-            if(result.contains("FAILED"))
+            if(result.startsWith(PlaybackTokens.REQUEST_FAILED))
             {
                 onError(500, result);
 
             }
             else{
                 //result is Auth Token
-                prepareMediaForPlaying(this.Video, result);
+                prepareMediaForPlaying(this.Video, result, mResumePositionMs);
             }
 
         }
@@ -27,11 +27,10 @@ import android.os.Bundle;
 import android.os.Handler;
 import androidx.leanback.app.SearchSupportFragment;
 import androidx.leanback.widget.ArrayObjectAdapter;
-import androidx.leanback.widget.CursorObjectAdapter;
+import androidx.leanback.widget.DiffCallback;
 import androidx.leanback.widget.HeaderItem;
 import androidx.leanback.widget.ImageCardView;
 import androidx.leanback.widget.ListRow;
-import androidx.leanback.widget.ListRowPresenter;
 import androidx.leanback.widget.ObjectAdapter;
 import androidx.leanback.widget.OnItemViewClickedListener;
 import androidx.leanback.widget.Presenter;
@@ -47,11 +46,18 @@ import android.util.Log;
 import android.widget.Toast;
 
 import com.example.android.tvleanback.BuildConfig;
+import com.bumptech.glide.Glide;
 import com.example.android.tvleanback.R;
 import com.example.android.tvleanback.data.VideoContract;
+import com.example.android.tvleanback.image.CardImagePreloader;
 import com.example.android.tvleanback.model.Video;
 import com.example.android.tvleanback.model.VideoCursorMapper;
 import com.example.android.tvleanback.presenter.CardPresenter;
+import com.example.android.tvleanback.presenter.PreloadingListRowPresenter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 
 /*
  * This class demonstrates how to do in-app search
@@ -63,22 +69,57 @@ public class SearchFragment extends SearchSupportFragment
     private static final boolean DEBUG = BuildConfig.DEBUG;
     private static final boolean FINISH_ON_RECOGNIZER_CANCELED = true;
     private static final int REQUEST_SPEECH = 0x00000010;
+    private static final int SEARCH_LOADER = 1;
+    private static final long SEARCH_DELAY_MS = 300;
+    private static final String ARG_QUERY = "query";
+
+    private static final DiffCallback<Video> VIDEO_DIFF = new DiffCallback<Video>() {
+        @Override
+        public boolean areItemsTheSame(Video oldItem, Video newItem) {
+            return oldItem.id == newItem.id;
+        }
+
+        @Override
+        public boolean areContentsTheSame(Video oldItem, Video newItem) {
+            // An unchanged row is usually the same memoized object; compare what a card shows.
+            return oldItem == newItem
+                    || (TextUtils.equals(oldItem.title, newItem.title)
+                    && TextUtils.equals(oldItem.description, newItem.description)
+                    && TextUtils.equals(oldItem.studio, newItem.studio)
+                    && TextUtils.equals(oldItem.cardImageUrl, newItem.cardImageUrl)
+                    && TextUtils.equals(oldItem.bgImageUrl, newItem.bgImageUrl)
+                    && TextUtils.equals(oldItem.videoUrl, newItem.videoUrl)
+                    && TextUtils.equals(oldItem.category, newItem.category));
+        }
+    };
 
     private final Handler mHandler = new Handler();
     private ArrayObjectAdapter mRowsAdapter;
+    private CardImagePreloader mCardImagePreloader;
     private String mQuery;
-    private final CursorObjectAdapter mVideoCursorAdapter =
-            new CursorObjectAdapter(new CardPresenter());
+    private final ArrayObjectAdapter mVideoAdapter = new ArrayObjectAdapter(new CardPresenter());
+    private final VideoCursorMapper mVideoCursorMapper = new VideoCursorMapper();
 
-    private int mSearchLoaderId = 1;
+    // The query the loader runs, and its results. Queries that extend it are answered by
+    // narrowing these results instead of running a new query.
+    private String mLoaderQuery;
+    private final List<Video> mLoadedVideos = new ArrayList<>();
+    private boolean mLoadedVideosReady;
     private boolean mResultsFound = false;
 
+    private final Runnable mSearchTask = new Runnable() {
+        @Override
+        public void run() {
+            runQuery();
+        }
+    };
+
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
 
-        mRowsAdapter = new ArrayObjectAdapter(new ListRowPresenter());
-        mVideoCursorAdapter.setMapper(new VideoCursorMapper());
+        mCardImagePreloader = new CardImagePreloader(Glide.with(this), getResources());
+        mRowsAdapter = new ArrayObjectAdapter(new PreloadingListRowPresenter(mCardImagePreloader));
 
         setSearchResultProvider(this);
         setOnItemViewClickedListener(new ItemViewClickedListener());
@@ -111,6 +152,7 @@ public class SearchFragment extends SearchSupportFragment
     @Override
     public void onPause() {
         mHandler.removeCallbacksAndMessages(null);
+        mCardImagePreloader.cancel();
         super.onPause();
     }
 
@@ -152,6 +194,9 @@ public class SearchFragment extends SearchSupportFragment
     public boolean onQueryTextSubmit(String query) {
         if (DEBUG) Log.i(TAG, String.format("Search text submitted: %s", query));
         loadQuery(query);
+        // No need to wait for more input.
+        mHandler.removeCallbacks(mSearchTask);
+        runQuery();
         return true;
     }
 
@@ -165,11 +210,79 @@ public class SearchFragment extends SearchSupportFragment
                 permission, context.getPackageName());
     }
 
+    // Runs the query once the user stops typing.
     private void loadQuery(String query) {
         if (!TextUtils.isEmpty(query) && !query.equals("nil")) {
             mQuery = query;
-            getLoaderManager().initLoader(mSearchLoaderId++, null, this);
+            mHandler.removeCallbacks(mSearchTask);
+            mHandler.postDelayed(mSearchTask, SEARCH_DELAY_MS);
+        }
+    }
+
+    private void runQuery() {
+        if (mQuery == null) {
+            return;
+        }
+        if (mLoaderQuery != null && narrows(mLoaderQuery, mQuery)) {
+            // Otherwise the results are narrowed when they arrive.
+            if (mLoadedVideosReady) {
+                showResults();
+            }
+            return;
+        }
+        mLoaderQuery = mQuery;
+        mLoadedVideosReady = false;
+        Bundle args = new Bundle();
+        args.putString(ARG_QUERY, mQuery);
+        // Replaces the running query, if any, with the same loader id.
+        getLoaderManager().restartLoader(SEARCH_LOADER, args, this);
+    }
+
+    // Whether every match of query is also a match of loadedQuery.
+    private static boolean narrows(String loadedQuery, String query) {
+        // LIKE wildcards have no in-memory equivalent.
+        if (query.indexOf('%') >= 0 || query.indexOf('_') >= 0) {
+            return false;
+        }
+        return normalize(query).contains(normalize(loadedQuery));
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean matches(Video video, String normalizedQuery) {
+        return normalize(video.title).contains(normalizedQuery)
+                || normalize(video.description).contains(normalizedQuery);
+    }
+
+    private void showResults() {
+        List<Video> results;
+        if (mQuery.equals(mLoaderQuery)) {
+            results = mLoadedVideos;
+        } else {
+            String normalizedQuery = normalize(mQuery);
+            results = new ArrayList<>();
+            for (Video video : mLoadedVideos) {
+                if (matches(video, normalizedQuery)) {
+                    results.add(video);
+                }
+            }
+        }
+
+        int titleRes;
+        if (!results.isEmpty()) {
+            mResultsFound = true;
+            titleRes = R.string.search_results;
+        } else {
+            mResultsFound = false;
+            titleRes = R.string.no_search_results;
         }
+        mVideoAdapter.setItems(results, VIDEO_DIFF);
+        HeaderItem header = new HeaderItem(getString(titleRes, mQuery));
+        mRowsAdapter.clear();
+        ListRow row = new ListRow(header, mVideoAdapter);
+        mRowsAdapter.add(row);
     }
 
     public void focusOnSearch() {
@@ -178,7 +291,7 @@ public class SearchFragment extends SearchSupportFragment
 
     @Override
     public Loader<Cursor> onCreateLoader(int id, Bundle args) {
-        String query = mQuery;
+        String query = args.getString(ARG_QUERY);
         return new CursorLoader(
                 getActivity(),
                 VideoContract.VideoEntry.CONTENT_URI,
@@ -192,24 +305,22 @@ public class SearchFragment extends SearchSupportFragment
 
     @Override
     public void onLoadFinished(Loader<Cursor> loader, Cursor cursor) {
-        int titleRes;
+        // Also called again with fresh results when the catalog changes.
+        mLoadedVideos.clear();
         if (cursor != null && cursor.moveToFirst()) {
-            mResultsFound = true;
-            titleRes = R.string.search_results;
-        } else {
-            mResultsFound = false;
-            titleRes = R.string.no_search_results;
+            do {
+                mLoadedVideos.add((Video) mVideoCursorMapper.convert(cursor));
+            } while (cursor.moveToNext());
         }
-        mVideoCursorAdapter.changeCursor(cursor);
-        HeaderItem header = new HeaderItem(getString(titleRes, mQuery));
-        mRowsAdapter.clear();
-        ListRow row = new ListRow(header, mVideoCursorAdapter);
-        mRowsAdapter.add(row);
+        mLoadedVideosReady = true;
+        showResults();
     }
 
     @Override
     public void onLoaderReset(Loader<Cursor> loader) {
-        mVideoCursorAdapter.changeCursor(null);
+        mLoadedVideos.clear();
+        mLoadedVideosReady = false;
+        mVideoAdapter.clear();
     }
 
     private final class ItemViewClickedListener implements OnItemViewClickedListener {
@@ -220,7 +331,7 @@ public class SearchFragment extends SearchSupportFragment
             if (item instanceof Video) {
                 Video video = (Video) item;
                 Intent intent = new Intent(getActivity(), VideoDetailsActivity.class);
-                intent.putExtra(VideoDetailsActivity.VIDEO, video);
+                intent.putExtra(VideoDetailsActivity.VIDEO_ID, video.id);
 
                 Bundle bundle = ActivityOptionsCompat.makeSceneTransitionAnimation(
                         getActivity(),
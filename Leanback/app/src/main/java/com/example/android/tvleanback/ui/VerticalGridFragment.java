@@ -23,6 +23,7 @@ import android.os.Handler;
 import androidx.leanback.app.VerticalGridSupportFragment;
 import androidx.leanback.widget.CursorObjectAdapter;
 import androidx.leanback.widget.ImageCardView;
+import androidx.leanback.widget.ObjectAdapter;
 import androidx.leanback.widget.OnItemViewClickedListener;
 import androidx.leanback.widget.OnItemViewSelectedListener;
 import androidx.leanback.widget.Presenter;
@@ -35,8 +36,10 @@ import androidx.loader.content.CursorLoader;
 import androidx.loader.content.Loader;
 import android.view.View;
 
+import com.bumptech.glide.Glide;
 import com.example.android.tvleanback.R;
 import com.example.android.tvleanback.data.VideoContract;
+import com.example.android.tvleanback.image.CardImagePreloader;
 import com.example.android.tvleanback.model.Video;
 import com.example.android.tvleanback.model.VideoCursorMapper;
 import com.example.android.tvleanback.presenter.CardPresenter;
@@ -51,6 +54,7 @@ public class VerticalGridFragment extends VerticalGridSupportFragment
     private final CursorObjectAdapter mVideoCursorAdapter =
             new CursorObjectAdapter(new CardPresenter());
     private static final int ALL_VIDEOS_LOADER = 1;
+    private CardImagePreloader mCardImagePreloader;
 
     @Override
     public void onCreate(Bundle savedInstanceState) {
@@ -67,8 +71,30 @@ public class VerticalGridFragment extends VerticalGridSupportFragment
         setupFragment();
     }
 
+    @Override
+    public void onStop() {
+        mCardImagePreloader.cancel();
+        super.onStop();
+    }
+
     private void setupFragment() {
-        VerticalGridPresenter gridPresenter = new VerticalGridPresenter();
+        // Look a full row of cards ahead of the scroll direction.
+        mCardImagePreloader = new CardImagePreloader(Glide.with(this), getResources(),
+                NUM_COLUMNS, CardImagePreloader.DEFAULT_MAX_CONCURRENT_REQUESTS);
+
+        VerticalGridPresenter gridPresenter = new VerticalGridPresenter() {
+            @Override
+            protected void initializeGridViewHolder(ViewHolder vh) {
+                super.initializeGridViewHolder(vh);
+                mCardImagePreloader.attach(vh.getGridView(),
+                        new CardImagePreloader.AdapterProvider() {
+                            @Override
+                            public ObjectAdapter getAdapter() {
+                                return mVideoCursorAdapter;
+                            }
+                        });
+            }
+        };
         gridPresenter.setNumberOfColumns(NUM_COLUMNS);
         setGridPresenter(gridPresenter);
 
@@ -126,7 +152,7 @@ public class VerticalGridFragment extends VerticalGridSupportFragment
                 Video video = (Video) item;
 
                 Intent intent = new Intent(getActivity(), VideoDetailsActivity.class);
-                intent.putExtra(VideoDetailsActivity.VIDEO, video);
+                intent.putExtra(VideoDetailsActivity.VIDEO_ID, video.id);
 
                 Bundle bundle = ActivityOptionsCompat.makeSceneTransitionAnimation(
                         getActivity(),
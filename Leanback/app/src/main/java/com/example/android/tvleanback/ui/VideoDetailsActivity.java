@@ -25,7 +25,7 @@ import com.example.android.tvleanback.R;
  */
 public class VideoDetailsActivity extends LeanbackActivity {
     public static final String SHARED_ELEMENT_NAME = "hero";
-    public static final String VIDEO = "Video";
+    public static final String VIDEO_ID = "VideoId";
     public static final String NOTIFICATION_ID = "NotificationId";
 
     /**
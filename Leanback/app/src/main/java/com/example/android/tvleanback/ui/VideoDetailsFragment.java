@@ -30,7 +30,6 @@ import androidx.leanback.app.DetailsSupportFragment;
 import androidx.leanback.widget.Action;
 import androidx.leanback.widget.ArrayObjectAdapter;
 import androidx.leanback.widget.ClassPresenterSelector;
-import androidx.leanback.widget.CursorObjectAdapter;
 import androidx.leanback.widget.DetailsOverviewLogoPresenter;
 import androidx.leanback.widget.DetailsOverviewRow;
 import androidx.leanback.widget.FullWidthDetailsOverviewRowPresenter;
@@ -62,12 +61,18 @@ import com.bumptech.glide.request.RequestOptions;
 import com.bumptech.glide.request.target.SimpleTarget;
 import com.bumptech.glide.request.transition.Transition;
 import com.example.android.tvleanback.R;
+import com.example.android.tvleanback.data.CategoryVideosLoader;
+import com.example.android.tvleanback.data.VideoCatalog;
 import com.example.android.tvleanback.data.VideoContract;
+import com.example.android.tvleanback.image.BackgroundArtworkLoader;
+import com.example.android.tvleanback.image.CardImageRequests;
 import com.example.android.tvleanback.model.Video;
 import com.example.android.tvleanback.model.VideoCursorMapper;
 import com.example.android.tvleanback.presenter.CardPresenter;
 import com.example.android.tvleanback.presenter.DetailsDescriptionPresenter;
 
+import java.util.List;
+
 /*
  * VideoDetailsFragment extends DetailsFragment, a Wrapper fragment for leanback details screens.
  * It shows a detailed view of video and its metadata plus related videos.
@@ -90,9 +95,10 @@ public class VideoDetailsFragment extends DetailsSupportFragment
     private ArrayObjectAdapter mAdapter;
     private ClassPresenterSelector mPresenterSelector;
     private BackgroundManager mBackgroundManager;
+    private BackgroundArtworkLoader mBackgroundArtworkLoader;
     private Drawable mDefaultBackground;
     private DisplayMetrics mMetrics;
-    private CursorObjectAdapter mVideoCursorAdapter;
+    private ArrayObjectAdapter mRelatedVideosAdapter;
     private FullWidthDetailsOverviewSharedElementHelper mHelper;
     private final VideoCursorMapper mVideoCursorMapper = new VideoCursorMapper();
 
@@ -101,13 +107,17 @@ public class VideoDetailsFragment extends DetailsSupportFragment
         super.onCreate(savedInstanceState);
 
         prepareBackgroundManager();
-        mVideoCursorAdapter = new CursorObjectAdapter(new CardPresenter());
-        mVideoCursorAdapter.setMapper(mVideoCursorMapper);
+        mRelatedVideosAdapter = new ArrayObjectAdapter(new CardPresenter());
 
-        mSelectedVideo = (Video) getActivity().getIntent()
-                .getParcelableExtra(VideoDetailsActivity.VIDEO);
+        mSelectedVideo = VideoCatalog.get(getActivity(), getActivity().getIntent()
+                .getLongExtra(VideoDetailsActivity.VIDEO_ID, VideoCatalog.NO_VIDEO));
 
-        if (mSelectedVideo != null || !hasGlobalSearchIntent()) {
+        if (mSelectedVideo == null && !hasGlobalSearchIntent()) {
+            // No longer in the catalog, e.g. a recommendation posted before a catalog refresh.
+            getActivity().finish();
+            return;
+        }
+        if (mSelectedVideo != null) {
             removeNotification(getActivity().getIntent()
                     .getIntExtra(VideoDetailsActivity.NOTIFICATION_ID, NO_NOTIFICATION));
             setupAdapter();
@@ -134,6 +144,12 @@ public class VideoDetailsFragment extends DetailsSupportFragment
         super.onStop();
     }
 
+    @Override
+    public void onDestroy() {
+        mBackgroundArtworkLoader.release();
+        super.onDestroy();
+    }
+
     /**
      * Check if there is a global search intent. If there is, load that video.
      */
@@ -160,25 +176,13 @@ public class VideoDetailsFragment extends DetailsSupportFragment
         mDefaultBackground = getResources().getDrawable(R.drawable.default_background, null);
         mMetrics = new DisplayMetrics();
         getActivity().getWindowManager().getDefaultDisplay().getMetrics(mMetrics);
+        mBackgroundArtworkLoader = new BackgroundArtworkLoader(Glide.with(this),
+                mBackgroundManager, mMetrics.widthPixels, mMetrics.heightPixels,
+                mDefaultBackground);
     }
 
     private void updateBackground(String uri) {
-        RequestOptions options = new RequestOptions()
-                .centerCrop()
-                .error(mDefaultBackground);
-
-        Glide.with(this)
-                .asBitmap()
-                .load(uri)
-                .apply(options)
-                .into(new SimpleTarget<Bitmap>(mMetrics.widthPixels, mMetrics.heightPixels) {
-                    @Override
-                    public void onResourceReady(
-                            Bitmap resource,
-                            Transition<? super Bitmap> transition) {
-                        mBackgroundManager.setBitmap(resource);
-                    }
-                });
+        mBackgroundArtworkLoader.load(uri);
     }
 
     private void setupAdapter() {
@@ -204,7 +208,7 @@ public class VideoDetailsFragment extends DetailsSupportFragment
             public void onActionClicked(Action action) {
                 if (action.getId() == ACTION_WATCH_TRAILER) {
                     Intent intent = new Intent(getActivity(), PlaybackActivity.class);
-                    intent.putExtra(VideoDetailsActivity.VIDEO, mSelectedVideo);
+                    intent.putExtra(VideoDetailsActivity.VIDEO_ID, mSelectedVideo.id);
                     startActivity(intent);
                 } else {
                     Toast.makeText(getActivity(), action.toString(), Toast.LENGTH_SHORT).show();
@@ -221,63 +225,57 @@ public class VideoDetailsFragment extends DetailsSupportFragment
 
     @Override
     public Loader<Cursor> onCreateLoader(int id, Bundle args) {
-        switch (id) {
-            case RELATED_VIDEO_LOADER: {
-                String category = args.getString(VideoContract.VideoEntry.COLUMN_CATEGORY);
-                return new CursorLoader(
-                        getActivity(),
-                        VideoContract.VideoEntry.CONTENT_URI,
-                        null,
-                        VideoContract.VideoEntry.COLUMN_CATEGORY + " = ?",
-                        new String[]{category},
-                        null
-                );
-            }
-            default: {
-                // Loading video from global search.
-                String videoId = args.getString(VideoContract.VideoEntry._ID);
-                return new CursorLoader(
-                        getActivity(),
-                        VideoContract.VideoEntry.CONTENT_URI,
-                        null,
-                        VideoContract.VideoEntry._ID + " = ?",
-                        new String[]{videoId},
-                        null
-                );
-            }
-        }
-
+        // Loading video from global search.
+        String videoId = args.getString(VideoContract.VideoEntry._ID);
+        return new CursorLoader(
+                getActivity(),
+                VideoContract.VideoEntry.CONTENT_URI,
+                null,
+                VideoContract.VideoEntry._ID + " = ?",
+                new String[]{videoId},
+                null
+        );
     }
 
     @Override
     public void onLoadFinished(Loader<Cursor> loader, Cursor cursor) {
         if (cursor != null && cursor.moveToNext()) {
-            switch (loader.getId()) {
-                case RELATED_VIDEO_LOADER: {
-                    mVideoCursorAdapter.changeCursor(cursor);
-                    break;
-                }
-                default: {
-                    // Loading video from global search.
-                    mSelectedVideo = (Video) mVideoCursorMapper.convert(cursor);
+            // Loading video from global search.
+            mSelectedVideo = (Video) mVideoCursorMapper.convert(cursor);
 
-                    setupAdapter();
-                    setupDetailsOverviewRow();
-                    setupMovieListRow();
-                    updateBackground(mSelectedVideo.bgImageUrl);
+            setupAdapter();
+            setupDetailsOverviewRow();
+            setupMovieListRow();
+            updateBackground(mSelectedVideo.bgImageUrl);
 
-                    // When a Related Video item is clicked.
-                    setOnItemViewClickedListener(new ItemViewClickedListener());
-                }
-            }
+            // When a Related Video item is clicked.
+            setOnItemViewClickedListener(new ItemViewClickedListener());
         }
     }
 
     @Override
     public void onLoaderReset(Loader<Cursor> loader) {
-        mVideoCursorAdapter.changeCursor(null);
     }
 
+    private final LoaderManager.LoaderCallbacks<List<Video>> mRelatedVideosCallbacks =
+            new LoaderManager.LoaderCallbacks<List<Video>>() {
+                @Override
+                public Loader<List<Video>> onCreateLoader(int id, Bundle args) {
+                    return new CategoryVideosLoader(getActivity(),
+                            args.getString(VideoContract.VideoEntry.COLUMN_CATEGORY));
+                }
+
+                @Override
+                public void onLoadFinished(Loader<List<Video>> loader, List<Video> videos) {
+                    mRelatedVideosAdapter.setItems(videos, null);
+                }
+
+                @Override
+                public void onLoaderReset(Loader<List<Video>> loader) {
+                    mRelatedVideosAdapter.clear();
+                }
+            };
+
     static class MovieDetailsOverviewLogoPresenter extends DetailsOverviewLogoPresenter {
 
         static class ViewHolder extends DetailsOverviewLogoPresenter.ViewHolder {
@@ -328,9 +326,11 @@ public class VideoDetailsFragment extends DetailsSupportFragment
                 .error(R.drawable.default_background)
                 .dontAnimate();
 
-        Glide.with(this)
-                .asBitmap()
-                .load(mSelectedVideo.cardImageUrl)
+        // Same request as DetailsPrefetcher, so a prefetched poster is a memory cache hit.
+        Resources res = getResources();
+        CardImageRequests.loadDetailsPoster(Glide.with(this), mSelectedVideo.cardImageUrl,
+                        CardImageRequests.getDetailsPosterWidth(res),
+                        CardImageRequests.getDetailsPosterHeight(res))
                 .apply(options)
                 .into(new SimpleTarget<Bitmap>() {
                     @Override
@@ -362,12 +362,13 @@ public class VideoDetailsFragment extends DetailsSupportFragment
         // Generating related video list.
         String category = mSelectedVideo.category;
 
+        // Videos prefetched while the card had focus are delivered as the loader starts.
         Bundle args = new Bundle();
         args.putString(VideoContract.VideoEntry.COLUMN_CATEGORY, category);
-        getLoaderManager().initLoader(RELATED_VIDEO_LOADER, args, this);
+        getLoaderManager().initLoader(RELATED_VIDEO_LOADER, args, mRelatedVideosCallbacks);
 
         HeaderItem header = new HeaderItem(0, subcategories[0]);
-        mAdapter.add(new ListRow(header, mVideoCursorAdapter));
+        mAdapter.add(new ListRow(header, mRelatedVideosAdapter));
     }
 
     private final class ItemViewClickedListener implements OnItemViewClickedListener {
@@ -378,7 +379,7 @@ public class VideoDetailsFragment extends DetailsSupportFragment
             if (item instanceof Video) {
                 Video video = (Video) item;
                 Intent intent = new Intent(getActivity(), VideoDetailsActivity.class);
-                intent.putExtra(VideoDetailsActivity.VIDEO, video);
+                intent.putExtra(VideoDetailsActivity.VIDEO_ID, video.id);
 
                 Bundle bundle = ActivityOptionsCompat.makeSceneTransitionAnimation(
                         getActivity(),
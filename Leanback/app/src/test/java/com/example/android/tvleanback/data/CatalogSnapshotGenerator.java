@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.android.tvleanback.data;
+
+import android.content.ContentValues;
+import android.content.Context;
+
+import com.example.android.tvleanback.R;
+
+import junit.framework.Assert;
+
+import org.json.JSONException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Rewrites the bundled catalog, app/src/main/assets/catalog_snapshot.json, with what
+ * {@link VideoDbBuilder} fetches from the feed and TMDb, so the first sync only applies what
+ * changed since. Needs the network, so it is not part of the default test run, see
+ * {@code catalogSnapshot} in app/build.gradle.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 21, manifest = "src/main/AndroidManifest.xml")
+public class CatalogSnapshotGenerator {
+
+    // Relative to the module, where the unit tests run.
+    private static final File SNAPSHOT = new File("src/main/assets", CatalogSnapshot.ASSET_NAME);
+
+    /**
+     * Test that the catalog fetched from the feed is written as the bundled snapshot
+     */
+    @Test
+    public void generateSnapshot() throws IOException, JSONException {
+        Context context = RuntimeEnvironment.application;
+        List<ContentValues> videos = new VideoDbBuilder(context)
+                .fetch(context.getString(R.string.content_url));
+        Assert.assertFalse(videos.isEmpty());
+
+        Writer out = new OutputStreamWriter(new FileOutputStream(SNAPSHOT), "utf-8");
+        try {
+            CatalogSnapshotWriter.write(videos, out);
+            out.write('\n');
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.android.tvleanback.data;
+
+import android.content.ContentValues;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 21, manifest = "src/main/AndroidManifest.xml")
+public class CatalogSnapshotTest {
+
+    /**
+     * Test that the values of every type VideoDbBuilder produces are read back unchanged
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        ContentValues video = new ContentValues();
+        video.put(VideoContract.VideoEntry.COLUMN_CATEGORY, "Trailers");
+        video.put(VideoContract.VideoEntry.COLUMN_NAME, "Top \"Gun\"\n");
+        video.put(VideoContract.VideoEntry.COLUMN_VIDEO_URL, "https://example.com/out.mpd");
+        video.put(VideoContract.VideoEntry.COLUMN_IS_LIVE, false);
+        video.put(VideoContract.VideoEntry.COLUMN_VIDEO_WIDTH, 1280);
+        video.put(VideoContract.VideoEntry.COLUMN_RATING_SCORE, 7.5);
+        video.putNull(VideoContract.VideoEntry.COLUMN_PURCHASE_PRICE);
+        List<ContentValues> videos = new ArrayList<>();
+        videos.add(video);
+
+        StringWriter out = new StringWriter();
+        CatalogSnapshotWriter.write(videos, out);
+        List<ContentValues> read = CatalogSnapshot.read(new StringReader(out.toString()));
+
+        Assert.assertEquals(1, read.size());
+        ContentValues copy = read.get(0);
+        Assert.assertEquals(video.size(), copy.size());
+        Assert.assertEquals("Top \"Gun\"\n",
+                copy.getAsString(VideoContract.VideoEntry.COLUMN_NAME));
+        Assert.assertEquals(Boolean.FALSE,
+                copy.getAsBoolean(VideoContract.VideoEntry.COLUMN_IS_LIVE));
+        Assert.assertEquals(1280L,
+                (long) copy.getAsLong(VideoContract.VideoEntry.COLUMN_VIDEO_WIDTH));
+        Assert.assertEquals(7.5,
+                copy.getAsDouble(VideoContract.VideoEntry.COLUMN_RATING_SCORE), 0);
+        Assert.assertTrue(copy.containsKey(VideoContract.VideoEntry.COLUMN_PURCHASE_PRICE));
+        Assert.assertNull(copy.get(VideoContract.VideoEntry.COLUMN_PURCHASE_PRICE));
+    }
+
+    /**
+     * Test that a snapshot from a newer version of the format is rejected
+     */
+    @Test(expected = IOException.class)
+    public void testUnknownVersion() throws IOException {
+        CatalogSnapshot.read(new StringReader("{\"version\": 2, \"videos\": []}"));
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.android.tvleanback.data;
+
+import android.content.ContentValues;
+import android.util.JsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes the videos built by {@link VideoDbBuilder} in the format {@link CatalogSnapshot} reads.
+ */
+final class CatalogSnapshotWriter {
+
+    private CatalogSnapshotWriter() {
+    }
+
+    static void write(List<ContentValues> videos, Writer out) throws IOException {
+        JsonWriter writer = new JsonWriter(out);
+        writer.setIndent("    ");
+        writer.beginObject();
+        writer.name(CatalogSnapshot.KEY_VERSION).value(CatalogSnapshot.VERSION);
+        writer.name(CatalogSnapshot.KEY_VIDEOS).beginArray();
+        for (ContentValues video : videos) {
+            writer.beginObject();
+            for (String column : video.keySet()) {
+                Object value = video.get(column);
+                writer.name(column);
+                if (value == null) {
+                    writer.nullValue();
+                } else if (value instanceof Boolean) {
+                    writer.value((Boolean) value);
+                } else if (value instanceof Number) {
+                    writer.value((Number) value);
+                } else {
+                    writer.value(value.toString());
+                }
+            }
+            writer.endObject();
+        }
+        writer.endArray();
+        writer.endObject();
+        writer.flush();
+    }
+}
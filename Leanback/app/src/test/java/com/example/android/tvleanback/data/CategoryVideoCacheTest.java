@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.android.tvleanback.data;
+
+import android.content.ContentProvider;
+import android.content.ContentResolver;
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.MatrixCursor;
+import android.net.Uri;
+
+import com.example.android.tvleanback.data.VideoContract.VideoEntry;
+import com.example.android.tvleanback.model.Video;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowContentResolver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 21, manifest = "src/main/AndroidManifest.xml")
+public class CategoryVideoCacheTest {
+    private static final int VIDEOS_PER_CATEGORY = 3;
+
+    private ContentResolver mContentResolver;
+    private FakeVideoProvider mProvider;
+
+    @Before
+    public void setUp() {
+        mContentResolver = RuntimeEnvironment.application.getContentResolver();
+        mProvider = new FakeVideoProvider();
+        ShadowContentResolver.registerProviderInternal(VideoContract.CONTENT_AUTHORITY, mProvider);
+    }
+
+    // The estimated size of the videos of one category; every category has the same.
+    private int getCategorySize() {
+        CategoryVideoCache cache = new CategoryVideoCache(mContentResolver, Integer.MAX_VALUE);
+        return CategoryVideoCache.estimateSize(cache.get("A"));
+    }
+
+    /**
+     * Test that the least recently used categories are dropped past the maximum size
+     */
+    @Test
+    public void testLruSizing() {
+        int categorySize = getCategorySize();
+        Assert.assertTrue(categorySize > 0);
+        CategoryVideoCache cache =
+                new CategoryVideoCache(mContentResolver, 2 * categorySize + categorySize / 2);
+
+        cache.get("A");
+        cache.get("B");
+        // Makes B the least recently used.
+        Assert.assertNotNull(cache.peek("A"));
+        cache.get("C");
+
+        Assert.assertNotNull(cache.peek("A"));
+        Assert.assertNull(cache.peek("B"));
+        Assert.assertNotNull(cache.peek("C"));
+    }
+
+    /**
+     * Test that categories in memory are not queried again
+     */
+    @Test
+    public void testReadThrough() {
+        CategoryVideoCache cache = new CategoryVideoCache(mContentResolver, Integer.MAX_VALUE);
+
+        List<Video> videos = cache.get("A");
+        Assert.assertEquals(VIDEOS_PER_CATEGORY, videos.size());
+        Assert.assertSame(videos, cache.get("A"));
+        Assert.assertEquals(1, mProvider.getQueryCount("A"));
+    }
+
+    /**
+     * Test that a change to a category drops it and tells the listeners, and that a change to
+     * every video drops everything
+     */
+    @Test
+    public void testObserverInvalidates() {
+        CategoryVideoCache cache = new CategoryVideoCache(mContentResolver, Integer.MAX_VALUE);
+        final List<String> changed = new ArrayList<>();
+        cache.addListener(new CategoryVideoCache.Listener() {
+            @Override
+            public void onCategoryChanged(String category) {
+                changed.add(category);
+            }
+        });
+        cache.get("A");
+        cache.get("B");
+
+        mContentResolver.notifyChange(VideoEntry.buildVideoUri("A", 1), null);
+        Assert.assertNull(cache.peek("A"));
+        Assert.assertNotNull(cache.peek("B"));
+
+        mContentResolver.notifyChange(VideoEntry.CONTENT_URI, null);
+        Assert.assertNull(cache.peek("B"));
+
+        List<String> expected = new ArrayList<>();
+        expected.add("A");
+        expected.add(null);
+        Assert.assertEquals(expected, changed);
+
+        cache.get("A");
+        Assert.assertEquals(2, mProvider.getQueryCount("A"));
+    }
+
+    /**
+     * Test that a query that raced with a change is returned but not kept
+     */
+    @Test
+    public void testQueryRacingInvalidationNotCached() {
+        CategoryVideoCache cache = new CategoryVideoCache(mContentResolver, Integer.MAX_VALUE);
+        mProvider.mDuringQuery = new Runnable() {
+            @Override
+            public void run() {
+                mContentResolver.notifyChange(VideoEntry.buildCategoryUri("A"), null);
+            }
+        };
+
+        Assert.assertEquals(VIDEOS_PER_CATEGORY, cache.get("A").size());
+        Assert.assertNull(cache.peek("A"));
+
+        mProvider.mDuringQuery = null;
+        cache.get("A");
+        Assert.assertNotNull(cache.peek("A"));
+        Assert.assertEquals(2, mProvider.getQueryCount("A"));
+    }
+
+    /**
+     * Answers the category queries of the cache with a few videos, and counts them.
+     */
+    private static final class FakeVideoProvider extends ContentProvider {
+        private static final String[] COLUMNS = {
+                VideoEntry._ID,
+                VideoEntry.COLUMN_NAME,
+                VideoEntry.COLUMN_DESC,
+                VideoEntry.COLUMN_VIDEO_URL,
+                VideoEntry.COLUMN_BG_IMAGE_URL,
+                VideoEntry.COLUMN_CARD_IMG,
+                VideoEntry.COLUMN_STUDIO,
+                VideoEntry.COLUMN_CATEGORY,
+                VideoEntry.COLUMN_LICENSE,
+                VideoEntry.COLUMN_AUTH_TOKEN,
+                VideoEntry.COLUMN_DRM_SCHEME,
+                VideoEntry.COLUMN_MULTITRUST_ASSET,
+                VideoEntry.COLUMN_MULTITRUST_ENTITLEMENT,
+                VideoEntry.COLUMN_MULTITRUST_POLICY,
+                VideoEntry.COLUMN_VERSION
+        };
+
+        private final Map<String, Integer> mQueryCounts = new HashMap<>();
+        private Runnable mDuringQuery;
+        private long mNextId = 1;
+
+        int getQueryCount(String category) {
+            Integer count = mQueryCounts.get(category);
+            return count == null ? 0 : count;
+        }
+
+        @Override
+        public boolean onCreate() {
+            return true;
+        }
+
+        @Override
+        public Cursor query(Uri uri, String[] projection, String selection,
+                String[] selectionArgs, String sortOrder) {
+            String category = uri.getPathSegments().get(1);
+            mQueryCounts.put(category, getQueryCount(category) + 1);
+            if (mDuringQuery != null) {
+                mDuringQuery.run();
+            }
+
+            MatrixCursor cursor = new MatrixCursor(COLUMNS, VIDEOS_PER_CATEGORY);
+            for (int i = 0; i < VIDEOS_PER_CATEGORY; i++) {
+                long id = mNextId++;
+                MatrixCursor.RowBuilder row = cursor.newRow();
+                for (String column : COLUMNS) {
+                    if (column.equals(VideoEntry._ID)) {
+                        row.add(id);
+                    } else if (column.equals(VideoEntry.COLUMN_VERSION)) {
+                        row.add(0);
+                    } else if (column.equals(VideoEntry.COLUMN_CATEGORY)) {
+                        row.add(category);
+                    } else {
+                        // Same length in every category, so they all have the same size.
+                        row.add(column + " " + category + i);
+                    }
+                }
+            }
+            return cursor;
+        }
+
+        @Override
+        public String getType(Uri uri) {
+            return null;
+        }
+
+        @Override
+        public Uri insert(Uri uri, ContentValues values) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int delete(Uri uri, String selection, String[] selectionArgs) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int update(Uri uri, ContentValues values, String selection,
+                String[] selectionArgs) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
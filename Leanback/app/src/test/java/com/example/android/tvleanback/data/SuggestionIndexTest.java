@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.android.tvleanback.data;
+
+import android.content.ContentValues;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import com.example.android.tvleanback.data.VideoContract.VideoEntry;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.Executor;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 21, manifest = "src/main/AndroidManifest.xml")
+public class SuggestionIndexTest {
+    private SQLiteOpenHelper mOpenHelper;
+    private SuggestionIndex mIndex;
+    private int mBuilds;
+
+    @Before
+    public void setUp() {
+        // An in-memory database with only the columns of the video table that the index reads.
+        mOpenHelper = new SQLiteOpenHelper(RuntimeEnvironment.application, null, null, 1) {
+            @Override
+            public void onCreate(SQLiteDatabase db) {
+                db.execSQL("CREATE TABLE " + VideoEntry.TABLE_NAME + " ("
+                        + VideoEntry._ID + " INTEGER PRIMARY KEY, "
+                        + VideoEntry.COLUMN_NAME + " TEXT NOT NULL, "
+                        + VideoEntry.COLUMN_DESC + " TEXT NOT NULL)");
+            }
+
+            @Override
+            public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+            }
+        };
+        // Builds run right away, and are counted.
+        mIndex = new SuggestionIndex(mOpenHelper, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                mBuilds++;
+                command.run();
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        mOpenHelper.close();
+    }
+
+    private void addVideo(long id, String title, String description) {
+        ContentValues values = new ContentValues();
+        values.put(VideoEntry._ID, id);
+        values.put(VideoEntry.COLUMN_NAME, title);
+        values.put(VideoEntry.COLUMN_DESC, description);
+        mOpenHelper.getWritableDatabase().insertOrThrow(VideoEntry.TABLE_NAME, null, values);
+    }
+
+    private void assertResults(String query, long... expected) {
+        long[] results = mIndex.query(query, 10);
+        Assert.assertEquals(Arrays.toString(expected), Arrays.toString(results));
+    }
+
+    /**
+     * Test that titles starting with the prefix come before titles containing it
+     */
+    @Test
+    public void testTitlePrefix() {
+        addVideo(1, "The Big Race", "");
+        addVideo(2, "Race Day", "");
+        addVideo(3, "Garden Party", "");
+        mIndex.rebuild();
+
+        Assert.assertTrue(mIndex.isReady());
+        assertResults("rac", 2, 1);
+        assertResults("big", 1);
+        assertResults("gard", 3);
+        assertResults("zebra");
+    }
+
+    /**
+     * Test that descriptions are matched, after the titles
+     */
+    @Test
+    public void testDescriptionMatch() {
+        addVideo(1, "Weekend", "A trip to the mountains");
+        addVideo(2, "Mountain Climbing", "Ropes and boots");
+        mIndex.rebuild();
+
+        assertResults("mount", 2, 1);
+        assertResults("ropes", 2);
+    }
+
+    /**
+     * Test that every word of the query must match, in the title or the description
+     */
+    @Test
+    public void testAllWordsMatch() {
+        addVideo(1, "Ocean Life", "Whales of the north");
+        addVideo(2, "Ocean Storms", "Waves and wind");
+        mIndex.rebuild();
+
+        assertResults("ocean wha", 1);
+        assertResults("oc wa", 2);
+    }
+
+    /**
+     * Test that case and accents are ignored
+     */
+    @Test
+    public void testNormalized() {
+        addVideo(1, "Café Société", "");
+        mIndex.rebuild();
+
+        assertResults("CAFE", 1);
+        assertResults("soci", 1);
+    }
+
+    /**
+     * Test that inserted, updated and deleted videos are found without rebuilding the index
+     */
+    @Test
+    public void testIncrementalChanges() {
+        addVideo(1, "Autumn Leaves", "");
+        addVideo(2, "Winter Light", "");
+        mIndex.rebuild();
+        int builds = mBuilds;
+
+        // Inserted.
+        mIndex.put(3, "Autumn Harvest", "Apples");
+        assertResults("autumn", 1, 3);
+        assertResults("apple", 3);
+
+        // Updated: the old words no longer match.
+        mIndex.put(1, "Spring Rain", "");
+        assertResults("autumn", 3);
+        assertResults("spring", 1);
+
+        // Deleted.
+        mIndex.remove(Collections.singletonList(2L));
+        assertResults("winter");
+
+        Assert.assertEquals(builds, mBuilds);
+    }
+
+    /**
+     * Test that many changes are folded into a rebuild, which keeps the results
+     */
+    @Test
+    public void testCompaction() {
+        mIndex.rebuild();
+        int builds = mBuilds;
+
+        for (long id = 1; id <= 2 * SuggestionIndex.MAX_CHANGES; id++) {
+            addVideo(id, "Episode " + id, "");
+            mIndex.put(id, "Episode " + id, "");
+        }
+
+        Assert.assertEquals(builds + 1, mBuilds);
+        Assert.assertEquals(10, mIndex.query("episode", 10).length);
+        assertResults("episode 100", 100);
+        assertResults("episode 512", 512);
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.android.tvleanback.model;
+
+import android.database.Cursor;
+import android.database.MatrixCursor;
+
+import com.example.android.tvleanback.data.VideoContract;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 21, manifest = "src/main/AndroidManifest.xml")
+public class VideoCursorMapperTest {
+    private static final int ROWS = 10000;
+    private static final int CATEGORIES = 10;
+    private static final int STUDIOS = 25;
+
+    private static final String[] COLUMNS = {
+            VideoContract.VideoEntry._ID,
+            VideoContract.VideoEntry.COLUMN_NAME,
+            VideoContract.VideoEntry.COLUMN_DESC,
+            VideoContract.VideoEntry.COLUMN_VIDEO_URL,
+            VideoContract.VideoEntry.COLUMN_BG_IMAGE_URL,
+            VideoContract.VideoEntry.COLUMN_CARD_IMG,
+            VideoContract.VideoEntry.COLUMN_STUDIO,
+            VideoContract.VideoEntry.COLUMN_CATEGORY,
+            VideoContract.VideoEntry.COLUMN_LICENSE,
+            VideoContract.VideoEntry.COLUMN_AUTH_TOKEN,
+            VideoContract.VideoEntry.COLUMN_DRM_SCHEME,
+            VideoContract.VideoEntry.COLUMN_MULTITRUST_ASSET,
+            VideoContract.VideoEntry.COLUMN_MULTITRUST_ENTITLEMENT,
+            VideoContract.VideoEntry.COLUMN_MULTITRUST_POLICY,
+            VideoContract.VideoEntry.COLUMN_VERSION
+    };
+
+    private static Cursor createCursor(String[] columns, long firstId, int rows) {
+        return createCursor(columns, firstId, rows, 0);
+    }
+
+    /**
+     * Builds a cursor whose string values are fresh instances on every row, like a database
+     * cursor. Rows updated in place have a version above 0, and their titles change.
+     */
+    private static Cursor createCursor(String[] columns, long firstId, int rows, long version) {
+        MatrixCursor cursor = new MatrixCursor(columns, rows);
+        for (int i = 0; i < rows; i++) {
+            long id = firstId + i;
+            MatrixCursor.RowBuilder row = cursor.newRow();
+            for (String column : columns) {
+                if (column.equals(VideoContract.VideoEntry._ID)) {
+                    row.add(id);
+                } else if (column.equals(VideoContract.VideoEntry.COLUMN_VERSION)) {
+                    row.add(version);
+                } else if (column.equals(VideoContract.VideoEntry.COLUMN_NAME) && version > 0) {
+                    row.add(column + " " + id + " v" + version);
+                } else if (column.equals(VideoContract.VideoEntry.COLUMN_CATEGORY)) {
+                    row.add("Category " + (i % CATEGORIES));
+                } else if (column.equals(VideoContract.VideoEntry.COLUMN_STUDIO)) {
+                    row.add("Studio " + (i % STUDIOS));
+                } else if (column.equals(VideoContract.VideoEntry.COLUMN_LICENSE)) {
+                    row.add("https://license.example.com/" + (i % 2));
+                } else if (column.equals(VideoContract.VideoEntry.COLUMN_DRM_SCHEME)) {
+                    row.add(new String(i % 2 == 0 ? "widevine" : "clearkey"));
+                } else {
+                    row.add(column + " " + id);
+                }
+            }
+        }
+        return cursor;
+    }
+
+    private static Set<Object> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+    }
+
+    /**
+     * Test that rebinding 10k unchanged rows allocates no Video and that repeated values share
+     * one String instance per distinct value
+     */
+    @Test
+    public void testAllocationsOverTenThousandRows() {
+        Cursor cursor = createCursor(COLUMNS, 1, ROWS);
+        VideoCursorMapper mapper = new VideoCursorMapper(ROWS);
+
+        Set<Object> videos = identitySet();
+        Set<Object> categories = identitySet();
+        Set<Object> studios = identitySet();
+        Set<Object> licenses = identitySet();
+        Set<Object> drmSchemes = identitySet();
+        for (int pass = 0; pass < 3; pass++) {
+            for (int i = 0; i < ROWS; i++) {
+                cursor.moveToPosition(i);
+                Video video = (Video) mapper.convert(cursor);
+                videos.add(video);
+                categories.add(video.category);
+                studios.add(video.studio);
+                licenses.add(video.license);
+                drmSchemes.add(video.drmScheme);
+            }
+        }
+
+        Assert.assertEquals(ROWS, videos.size());
+        Assert.assertEquals(CATEGORIES, categories.size());
+        Assert.assertEquals(STUDIOS, studios.size());
+        Assert.assertEquals(2, licenses.size());
+        Assert.assertEquals(2, drmSchemes.size());
+        cursor.close();
+    }
+
+    /**
+     * Test that a row that was already mapped is returned from memory even from a new cursor
+     */
+    @Test
+    public void testMemoizedAcrossCursors() {
+        VideoCursorMapper mapper = new VideoCursorMapper();
+        Cursor first = createCursor(COLUMNS, 1, 10);
+        Cursor second = createCursor(COLUMNS, 1, 10);
+
+        first.moveToPosition(3);
+        second.moveToPosition(3);
+        Assert.assertSame(mapper.convert(first), mapper.convert(second));
+
+        // A refreshed catalog gives the same video a new id.
+        Cursor refreshed = createCursor(COLUMNS, 11, 10);
+        refreshed.moveToPosition(3);
+        Video video = (Video) mapper.convert(refreshed);
+        Assert.assertEquals(14, video.id);
+        Assert.assertEquals("video_url 14", video.videoUrl);
+
+        first.close();
+        second.close();
+        refreshed.close();
+    }
+
+    /**
+     * Test that a row updated in place is read again, and memoized from then on
+     */
+    @Test
+    public void testUpdatedRowMappedAgain() {
+        VideoCursorMapper mapper = new VideoCursorMapper();
+        Cursor original = createCursor(COLUMNS, 1, 10);
+        Cursor updated = createCursor(COLUMNS, 1, 10, 1);
+        Cursor reloaded = createCursor(COLUMNS, 1, 10, 1);
+
+        original.moveToPosition(3);
+        updated.moveToPosition(3);
+        reloaded.moveToPosition(3);
+        Video before = (Video) mapper.convert(original);
+        Video after = (Video) mapper.convert(updated);
+
+        Assert.assertNotSame(before, after);
+        Assert.assertEquals(VideoContract.VideoEntry.COLUMN_NAME + " 4 v1", after.title);
+        Assert.assertSame(after, mapper.convert(reloaded));
+
+        original.close();
+        updated.close();
+        reloaded.close();
+    }
+
+    /**
+     * Test that rows are not memoized when the cursor has no version to tell updates apart
+     */
+    @Test
+    public void testNotMemoizedWithoutVersion() {
+        String[] columns = new String[COLUMNS.length - 1];
+        System.arraycopy(COLUMNS, 0, columns, 0, columns.length);
+        VideoCursorMapper mapper = new VideoCursorMapper();
+        Cursor cursor = createCursor(columns, 1, 10);
+
+        cursor.moveToPosition(3);
+        Video first = (Video) mapper.convert(cursor);
+        Assert.assertNotSame(first, mapper.convert(cursor));
+        cursor.close();
+    }
+
+    /**
+     * Test that mappers bound to cursors with different projections do not share column indices
+     */
+    @Test
+    public void testMappersKeepTheirOwnColumns() {
+        String[] reversed = new String[COLUMNS.length];
+        for (int i = 0; i < COLUMNS.length; i++) {
+            reversed[i] = COLUMNS[COLUMNS.length - 1 - i];
+        }
+        Cursor rows = createCursor(COLUMNS, 1, 5);
+        Cursor queue = createCursor(reversed, 101, 5);
+        VideoCursorMapper rowMapper = new VideoCursorMapper();
+        VideoCursorMapper queueMapper = new VideoCursorMapper();
+
+        for (int i = 0; i < 5; i++) {
+            rows.moveToPosition(i);
+            queue.moveToPosition(i);
+            Video row = (Video) rowMapper.convert(rows);
+            Video queued = (Video) queueMapper.convert(queue);
+
+            Assert.assertEquals(1 + i, row.id);
+            Assert.assertEquals(VideoContract.VideoEntry.COLUMN_NAME + " " + (1 + i), row.title);
+            Assert.assertEquals(101 + i, queued.id);
+            Assert.assertEquals(VideoContract.VideoEntry.COLUMN_NAME + " " + (101 + i),
+                    queued.title);
+        }
+        rows.close();
+        queue.close();
+    }
+}
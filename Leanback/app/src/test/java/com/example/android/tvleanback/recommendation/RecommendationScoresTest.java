@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.example.android.tvleanback.recommendation;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.example.android.tvleanback.data.VideoContract.RecommendationEntry;
+import com.example.android.tvleanback.data.VideoContract.VideoEntry;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 21, manifest = "src/main/AndroidManifest.xml")
+public class RecommendationScoresTest {
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+    private static final long NOW = 1800000000000L;
+
+    private SQLiteDatabase mDb;
+
+    @Before
+    public void setUp() {
+        mDb = SQLiteDatabase.create(null);
+        // Only the columns of the video table that the scores read.
+        mDb.execSQL("CREATE TABLE " + VideoEntry.TABLE_NAME + " ("
+                + VideoEntry._ID + " INTEGER PRIMARY KEY, "
+                + VideoEntry.COLUMN_CATEGORY + " TEXT NOT NULL, "
+                + VideoEntry.COLUMN_VIDEO_URL + " TEXT UNIQUE NOT NULL, "
+                + VideoEntry.COLUMN_RATING_SCORE + " TEXT NOT NULL)");
+        mDb.execSQL("CREATE TABLE " + RecommendationEntry.TABLE_NAME + " ("
+                + RecommendationEntry.COLUMN_VIDEO_URL + " TEXT PRIMARY KEY, "
+                + RecommendationEntry.COLUMN_CATEGORY + " TEXT NOT NULL, "
+                + RecommendationEntry.COLUMN_RATING + " REAL NOT NULL DEFAULT 0, "
+                + RecommendationEntry.COLUMN_PLAY_COUNT + " INTEGER NOT NULL DEFAULT 0, "
+                + RecommendationEntry.COLUMN_LAST_PLAYED + " INTEGER NOT NULL DEFAULT 0, "
+                + RecommendationEntry.COLUMN_CATEGORY_PLAY_COUNT
+                + " INTEGER NOT NULL DEFAULT 0, "
+                + RecommendationEntry.COLUMN_CATEGORY_LAST_PLAYED
+                + " INTEGER NOT NULL DEFAULT 0, "
+                + RecommendationEntry.COLUMN_ADDED + " INTEGER NOT NULL DEFAULT 0, "
+                + RecommendationEntry.COLUMN_SCORE + " REAL NOT NULL DEFAULT 0)");
+    }
+
+    @After
+    public void tearDown() {
+        mDb.close();
+    }
+
+    private void addVideo(String url, String category, double rating) {
+        ContentValues values = new ContentValues();
+        values.put(VideoEntry.COLUMN_VIDEO_URL, url);
+        values.put(VideoEntry.COLUMN_CATEGORY, category);
+        values.put(VideoEntry.COLUMN_RATING_SCORE, Double.toString(rating));
+        mDb.insertOrThrow(VideoEntry.TABLE_NAME, null, values);
+    }
+
+    private List<String> queryTop() {
+        return queryTop(Integer.MAX_VALUE);
+    }
+
+    private List<String> queryTop(int limit) {
+        List<String> urls = new ArrayList<>();
+        Cursor cursor = RecommendationScores.queryTop(mDb, limit, NOW);
+        try {
+            while (cursor.moveToNext()) {
+                urls.add(cursor.getString(
+                        cursor.getColumnIndexOrThrow(VideoEntry.COLUMN_VIDEO_URL)));
+            }
+        } finally {
+            cursor.close();
+        }
+        return urls;
+    }
+
+    // Counts the rows of the score table written from now on.
+    private void countWrites() {
+        mDb.execSQL("CREATE TEMP TABLE writes (video_url TEXT)");
+        mDb.execSQL("CREATE TEMP TRIGGER count_writes AFTER UPDATE ON "
+                + RecommendationEntry.TABLE_NAME + " BEGIN INSERT INTO writes VALUES (new."
+                + RecommendationEntry.COLUMN_VIDEO_URL + "); END");
+    }
+
+    private List<String> getWrittenUrls() {
+        List<String> urls = new ArrayList<>();
+        Cursor cursor = mDb.rawQuery("SELECT DISTINCT video_url FROM writes ORDER BY video_url",
+                null);
+        try {
+            while (cursor.moveToNext()) {
+                urls.add(cursor.getString(0));
+            }
+        } finally {
+            cursor.close();
+        }
+        return urls;
+    }
+
+    private double getScore(String url) {
+        Cursor cursor = mDb.query(RecommendationEntry.TABLE_NAME,
+                new String[]{RecommendationEntry.COLUMN_SCORE},
+                RecommendationEntry.COLUMN_VIDEO_URL + " = ?", new String[]{url},
+                null, null, null);
+        try {
+            Assert.assertTrue(cursor.moveToFirst());
+            return cursor.getDouble(0);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Test that a video added a year after another does not outrank it on recency alone
+     */
+    @Test
+    public void testRecencyDoesNotOutweighRating() {
+        addVideo("old", "Drama", 10);
+        RecommendationScores.syncWithCatalog(mDb, NOW - 365 * DAY_MS);
+        addVideo("new", "Drama", 0);
+        RecommendationScores.syncWithCatalog(mDb, NOW);
+
+        Assert.assertEquals("old", queryTop().get(0));
+        // Recency is added when reading, it is not stored.
+        Assert.assertEquals(0.0, getScore("new"), 0);
+    }
+
+    /**
+     * Test that plays in a category raise its other videos above equally rated ones
+     */
+    @Test
+    public void testCategoryAffinity() {
+        addVideo("comedy 1", "Comedy", 5);
+        addVideo("comedy 2", "Comedy", 5);
+        addVideo("drama 1", "Drama", 5);
+        RecommendationScores.syncWithCatalog(mDb, NOW - 30 * DAY_MS);
+
+        RecommendationScores.applyPlayEvents(mDb, new String[]{"comedy 1", "comedy 1"},
+                new long[]{NOW - DAY_MS, NOW - DAY_MS});
+
+        List<String> top = queryTop();
+        Assert.assertEquals("comedy 1", top.get(0));
+        Assert.assertEquals("comedy 2", top.get(1));
+        Assert.assertEquals("drama 1", top.get(2));
+    }
+
+    /**
+     * Test that recency is measured when reading, so a video played recently ranks above one
+     * played long ago without the stored scores changing with time
+     */
+    @Test
+    public void testRecentPlayRanksFirst() {
+        addVideo("comedy", "Comedy", 5);
+        addVideo("drama", "Drama", 5);
+        RecommendationScores.syncWithCatalog(mDb, NOW - 60 * DAY_MS);
+
+        RecommendationScores.applyPlayEvents(mDb, new String[]{"comedy"},
+                new long[]{NOW - 50 * DAY_MS});
+        RecommendationScores.applyPlayEvents(mDb, new String[]{"drama"},
+                new long[]{NOW});
+
+        Assert.assertEquals("drama", queryTop().get(0));
+        Assert.assertEquals(getScore("comedy"), getScore("drama"), 0);
+    }
+
+    /**
+     * Test that events for videos no longer in the catalog are ignored
+     */
+    @Test
+    public void testUnknownVideoIgnored() {
+        addVideo("comedy", "Comedy", 5);
+        RecommendationScores.syncWithCatalog(mDb, NOW);
+
+        RecommendationScores.applyPlayEvents(mDb, new String[]{"removed"}, new long[]{NOW});
+
+        Assert.assertEquals(1, queryTop().size());
+    }
+
+    /**
+     * Test that a video whose recency makes up for a lower rating is found in a short top K
+     */
+    @Test
+    public void testRecentVideoInTopK() {
+        for (int i = 0; i < 5; i++) {
+            addVideo("old " + i, "Drama", 8);
+        }
+        addVideo("unrated", "Drama", 0);
+        RecommendationScores.syncWithCatalog(mDb, NOW - 365 * DAY_MS);
+        addVideo("new", "Drama", 7.5);
+        RecommendationScores.syncWithCatalog(mDb, NOW);
+
+        List<String> top = queryTop(3);
+        Assert.assertEquals(3, top.size());
+        Assert.assertEquals("new", top.get(0));
+        Assert.assertFalse(top.contains("unrated"));
+    }
+
+    /**
+     * Test that a batch of plays only rewrites the videos of the categories played
+     */
+    @Test
+    public void testPlaysOnlyWriteTheirCategories() {
+        addVideo("comedy 1", "Comedy", 5);
+        addVideo("comedy 2", "Comedy", 5);
+        addVideo("drama", "Drama", 5);
+        addVideo("horror", "Horror", 5);
+        RecommendationScores.syncWithCatalog(mDb, NOW - DAY_MS);
+        countWrites();
+
+        RecommendationScores.applyPlayEvents(mDb, new String[]{"comedy 1", "comedy 2"},
+                new long[]{NOW, NOW});
+
+        List<String> written = getWrittenUrls();
+        Assert.assertEquals(2, written.size());
+        Assert.assertTrue(written.contains("comedy 1"));
+        Assert.assertTrue(written.contains("comedy 2"));
+    }
+
+    /**
+     * Test that a catalog sync only writes the videos which are new or changed
+     */
+    @Test
+    public void testSyncOnlyWritesChangedVideos() {
+        addVideo("comedy", "Comedy", 5);
+        addVideo("drama", "Drama", 5);
+        RecommendationScores.syncWithCatalog(mDb, NOW - DAY_MS);
+        RecommendationScores.applyPlayEvents(mDb, new String[]{"comedy"}, new long[]{NOW});
+        countWrites();
+
+        ContentValues rating = new ContentValues();
+        rating.put(VideoEntry.COLUMN_RATING_SCORE, "7.0");
+        mDb.update(VideoEntry.TABLE_NAME, rating, VideoEntry.COLUMN_VIDEO_URL + " = ?",
+                new String[]{"drama"});
+        addVideo("comedy 2", "Comedy", 5);
+        addVideo("horror", "Horror", 5);
+        RecommendationScores.syncWithCatalog(mDb, NOW);
+
+        // The new videos are written once inserted, to store their score.
+        Assert.assertEquals(3, getWrittenUrls().size());
+        Assert.assertFalse(getWrittenUrls().contains("comedy"));
+        // A new video inherits the plays of its category.
+        Assert.assertTrue(getScore("comedy 2") > getScore("horror"));
+    }
+}
@@ -16,6 +16,9 @@
 
 package androidx.leanback.leanbackshowcase.app.room.adapter;
 
+import android.os.Handler;
+import android.os.Looper;
+import androidx.annotation.VisibleForTesting;
 import androidx.leanback.widget.ObjectAdapter;
 import androidx.leanback.widget.Presenter;
 import androidx.leanback.widget.PresenterSelector;
@@ -26,8 +29,9 @@ import android.util.Log;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 public class ListAdapter<T> extends ObjectAdapter {
 
@@ -35,8 +39,29 @@ public class ListAdapter<T> extends ObjectAdapter {
     private final static String TAG =  "ListAdapter";
     private final static Boolean DEBUG = false;
 
+    // Computes the difference of the lists, like AsyncListDiffer's default executor.
+    private static final Executor sDiffExecutor = Executors.newFixedThreadPool(2);
+
+    private static final Executor sMainThreadExecutor = new Executor() {
+        private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void execute(Runnable command) {
+            mHandler.post(command);
+        }
+    };
+
     private List<T> mItems = new ArrayList<>();
 
+    private Executor mDiffExecutor = sDiffExecutor;
+    private Executor mMainThreadExecutor = sMainThreadExecutor;
+
+    // Incremented by every setItems(), only the difference for the latest list is dispatched.
+    private int mGeneration;
+
+    // Incremented by every other change of the items, which makes a computed difference stale.
+    private int mModCount;
+
     // Un modifiable version of mItems
     private List<T> mUnmodifiableItems;
 
@@ -100,6 +125,7 @@ public class ListAdapter<T> extends ObjectAdapter {
      * @param item  The item to insert into the adapter.
      */
     public void add(int index, T item) {
+        mModCount++;
         mItems.add(index, item);
         notifyItemRangeInserted(index, 1);
     }
@@ -116,6 +142,7 @@ public class ListAdapter<T> extends ObjectAdapter {
         if (itemsCount == 0) {
             return;
         }
+        mModCount++;
         mItems.addAll(index, items);
         notifyItemRangeInserted(index, itemsCount);
     }
@@ -129,6 +156,7 @@ public class ListAdapter<T> extends ObjectAdapter {
     public boolean remove(T item) {
         int index = mItems.indexOf(item);
         if (index >= 0) {
+            mModCount++;
             mItems.remove(index);
             notifyItemRangeRemoved(index, 1);
         }
@@ -145,6 +173,7 @@ public class ListAdapter<T> extends ObjectAdapter {
      * @param item     The new item to be placed at given position.
      */
     public void replace(int position, T item) {
+        mModCount++;
         mItems.set(position, item);
         notifyItemRangeChanged(position, 1);
     }
@@ -163,6 +192,7 @@ public class ListAdapter<T> extends ObjectAdapter {
             return 0;
         }
 
+        mModCount++;
         for (int i = 0; i < itemsToRemove; i++) {
             mItems.remove(position);
         }
@@ -178,6 +208,7 @@ public class ListAdapter<T> extends ObjectAdapter {
         if (itemCount == 0) {
             return;
         }
+        mModCount++;
         mItems.clear();
         notifyItemRangeRemoved(0, itemCount);
     }
@@ -198,46 +229,89 @@ public class ListAdapter<T> extends ObjectAdapter {
     }
 
     /**
-     * Set a new item list to adapter. The Diffutil will compute the difference and dispatch it to
-     * according position
+     * Set a new item list to adapter. The Diffutil will compute the difference on a background
+     * thread and dispatch it to according position on the main thread. When a newer list is set
+     * before the difference is computed, the older one is dropped.
+     *
+     * Must be called on the main thread.
      *
-     * @param itemList              List of new Items
-     * @param sameItemComparator    The comparator to determine if two item are same or not
-     * @param sameContentComparator The comparator to determin if two item's content are same or not
+     * @param itemList     List of new Items
+     * @param diffCallback Determines if two items are the same, and if their contents are
      */
-    public void setItems(final List<T> itemList, final Comparator<T> sameItemComparator,
-                         final Comparator<T> sameContentComparator) {
+    public void setItems(final List<T> itemList, final DiffUtil.ItemCallback<T> diffCallback) {
         if (DEBUG) {
             Log.e(TAG, "new items: " + itemList);
             Log.e(TAG, "old items: " + mItems);
         }
 
-        DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
-            @Override
-            public int getOldListSize() {
-                return mItems.size();
-            }
+        final int generation = ++mGeneration;
 
-            @Override
-            public int getNewListSize() {
-                return itemList.size();
-            }
+        // Nothing to diff when either list is empty, update the adapter right away.
+        if (itemList.isEmpty()) {
+            clear();
+            return;
+        }
+        if (mItems.isEmpty()) {
+            addAll(0, itemList);
+            return;
+        }
 
-            @Override
-            public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
-                return sameItemComparator.compare(mItems.get(oldItemPosition),
-                        itemList.get(newItemPosition)) == 0;
-            }
+        // The adapter's list can still change while the difference is computed, and so can the
+        // caller's one, so the difference is computed between copies.
+        final List<T> oldItems = new ArrayList<>(mItems);
+        final List<T> newItems = new ArrayList<>(itemList);
+        final int modCount = mModCount;
 
+        mDiffExecutor.execute(new Runnable() {
             @Override
-            public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
-                return sameContentComparator.compare(mItems.get(oldItemPosition),
-                        itemList.get(newItemPosition)) == 0;
+            public void run() {
+                final DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+                    @Override
+                    public int getOldListSize() {
+                        return oldItems.size();
+                    }
+
+                    @Override
+                    public int getNewListSize() {
+                        return newItems.size();
+                    }
+
+                    @Override
+                    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                        return diffCallback.areItemsTheSame(oldItems.get(oldItemPosition),
+                                newItems.get(newItemPosition));
+                    }
+
+                    @Override
+                    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                        return diffCallback.areContentsTheSame(oldItems.get(oldItemPosition),
+                                newItems.get(newItemPosition));
+                    }
+                });
+
+                mMainThreadExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != mGeneration) {
+                            // A newer list has been set, this one is stale.
+                            return;
+                        }
+                        if (modCount != mModCount) {
+                            // The items changed since the difference was computed, compute it
+                            // again from what the adapter holds now.
+                            setItems(newItems, diffCallback);
+                            return;
+                        }
+                        dispatchUpdates(newItems, result);
+                    }
+                });
             }
         });
+    }
 
+    private void dispatchUpdates(List<T> newItems, DiffUtil.DiffResult result) {
         mItems.clear();
-        mItems.addAll(itemList);
+        mItems.addAll(newItems);
 
         result.dispatchUpdatesTo(new ListUpdateCallback() {
 
@@ -257,18 +331,12 @@ public class ListAdapter<T> extends ObjectAdapter {
                 notifyItemRangeRemoved(position, count);
             }
 
-            /**
-             * Currently Leanback support library doesn't support move operation, use item range
-             * changed method to replace it as a temporal solution.
-             * @param fromPosition from position.
-             * @param toPosition to position.
-             */
             @Override
             public void onMoved(int fromPosition, int toPosition) {
                 if (DEBUG){
                     Log.e(TAG, "onMoved: ");
                 }
-                notifyItemRangeChanged(fromPosition, toPosition - fromPosition + 1);
+                notifyItemMoved(fromPosition, toPosition);
             }
 
             @Override
@@ -277,13 +345,21 @@ public class ListAdapter<T> extends ObjectAdapter {
                     Log.e(TAG, "onChanged: ");
                 }
 
-                // the support for payload has not been added to leanback support library, just
-                // ignore it currently.
-                notifyItemRangeChanged(position, count);
+                notifyItemRangeChanged(position, count, payload);
             }
         });
     }
 
+    /**
+     * Sets the executors computing the difference of the lists and dispatching it, for tests
+     * which cannot rely on the main looper.
+     */
+    @VisibleForTesting
+    void setExecutors(Executor diffExecutor, Executor mainThreadExecutor) {
+        mDiffExecutor = diffExecutor;
+        mMainThreadExecutor = mainThreadExecutor;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
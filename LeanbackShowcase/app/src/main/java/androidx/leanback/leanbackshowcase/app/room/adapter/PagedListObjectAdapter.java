@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.leanback.leanbackshowcase.app.room.adapter;
+
+import androidx.annotation.Nullable;
+import androidx.leanback.widget.ObjectAdapter;
+import androidx.leanback.widget.Presenter;
+import androidx.paging.AsyncPagedListDiffer;
+import androidx.paging.PagedList;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+/**
+ * An adapter over a {@link PagedList}, for rows which may be too long to hold in memory.
+ *
+ * Getting an item tells the paged list which part of it is shown, so it loads the pages around it
+ * and drops the ones far from it. Items not loaded yet are null, and presenters bind them as
+ * placeholders. New lists are diffed on a background thread.
+ */
+public class PagedListObjectAdapter<T> extends ObjectAdapter {
+
+    private final AsyncPagedListDiffer<T> mDiffer;
+
+    public PagedListObjectAdapter(Presenter presenter, DiffUtil.ItemCallback<T> diffCallback) {
+        super(presenter);
+        mDiffer = new AsyncPagedListDiffer<>(new ListUpdateCallback() {
+            @Override
+            public void onInserted(int position, int count) {
+                notifyItemRangeInserted(position, count);
+            }
+
+            @Override
+            public void onRemoved(int position, int count) {
+                notifyItemRangeRemoved(position, count);
+            }
+
+            @Override
+            public void onMoved(int fromPosition, int toPosition) {
+                notifyItemMoved(fromPosition, toPosition);
+            }
+
+            @Override
+            public void onChanged(int position, int count, Object payload) {
+                notifyItemRangeChanged(position, count, payload);
+            }
+        }, new AsyncDifferConfig.Builder<>(diffCallback).build());
+    }
+
+    /**
+     * Shows {@code pagedList}, replacing the current one once they are diffed.
+     */
+    public void submitList(@Nullable PagedList<T> pagedList) {
+        mDiffer.submitList(pagedList);
+    }
+
+    @Nullable
+    public PagedList<T> getCurrentList() {
+        return mDiffer.getCurrentList();
+    }
+
+    @Override
+    public int size() {
+        return mDiffer.getItemCount();
+    }
+
+    /**
+     * Returns the item at {@code position}, or null if it is not loaded yet.
+     */
+    @Nullable
+    @Override
+    public T get(int position) {
+        return mDiffer.getItem(position);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.leanback.leanbackshowcase.app.room.adapter;
+
+import androidx.core.util.ObjectsCompat;
+import androidx.leanback.leanbackshowcase.app.room.db.entity.VideoEntity;
+import androidx.recyclerview.widget.DiffUtil;
+
+import java.util.Arrays;
+
+/**
+ * Diffs videos by their id and row version, instead of comparing all their fields.
+ *
+ * A changed video whose title and studio are the same gets an Integer payload, the flags of what
+ * changed, so presenters can update only the views showing it. Payloads of the same item are
+ * merged by OR-ing their flags.
+ */
+public class VideoEntityDiffCallback extends DiffUtil.ItemCallback<VideoEntity> {
+
+    // The rented state, the download status or a downloaded file changed.
+    public static final int CHANGED_STATE = 1;
+
+    // The local or remote url of the card image changed.
+    public static final int CHANGED_CARD_IMAGE = 1 << 1;
+
+    @Override
+    public boolean areItemsTheSame(VideoEntity oldItem, VideoEntity newItem) {
+        return oldItem.getId() == newItem.getId();
+    }
+
+    @Override
+    public boolean areContentsTheSame(VideoEntity oldItem, VideoEntity newItem) {
+        // The matches of a search are not stored, the same row can match another query.
+        return oldItem.getVersion() == newItem.getVersion()
+                && Arrays.equals(oldItem.getTitleMatches(), newItem.getTitleMatches());
+    }
+
+    @Override
+    public Object getChangePayload(VideoEntity oldItem, VideoEntity newItem) {
+        if (!ObjectsCompat.equals(oldItem.getTitle(), newItem.getTitle())
+                || !ObjectsCompat.equals(oldItem.getStudio(), newItem.getStudio())
+                || !Arrays.equals(oldItem.getTitleMatches(), newItem.getTitleMatches())) {
+            return null;
+        }
+
+        int changes = 0;
+        if (oldItem.isRented() != newItem.isRented()
+                || !ObjectsCompat.equals(oldItem.getStatus(), newItem.getStatus())
+                || !ObjectsCompat.equals(oldItem.getVideoLocalStorageUrl(),
+                        newItem.getVideoLocalStorageUrl())
+                || !ObjectsCompat.equals(oldItem.getVideoBgImageLocalStorageUrl(),
+                        newItem.getVideoBgImageLocalStorageUrl())
+                || !ObjectsCompat.equals(oldItem.getVideoCardImageLocalStorageUrl(),
+                        newItem.getVideoCardImageLocalStorageUrl())) {
+            changes |= CHANGED_STATE;
+        }
+        if (!ObjectsCompat.equals(oldItem.getVideoCardImageLocalStorageUrl(),
+                newItem.getVideoCardImageLocalStorageUrl())
+                || !ObjectsCompat.equals(oldItem.getCardImageUrl(), newItem.getCardImageUrl())) {
+            changes |= CHANGED_CARD_IMAGE;
+        }
+        return changes;
+    }
+}
@@ -27,9 +27,6 @@ public class AppConfiguration {
     // used to simulate network latency when we firstly need to fetch data using network
     public static boolean IS_NETWORK_LATENCY_ENABLED = false;
 
-    // used to simulate file operation latency
-    public static boolean IS_FILE_OPERATION_LATENCY_ENABLED = false;
-
     // used to simulate renting transaction latency
     public static boolean IS_RENTING_OPERATION_DELAY_ENABLED = false;
 
@@ -38,4 +35,22 @@ public class AppConfiguration {
 
     // only use small data set (live_movie_debug.json) for debugging
     public static boolean IS_DEBUGGING_VERSION = false;
+
+    // number of videos loaded at a time in a paged row
+    public static int PAGE_SIZE = 20;
+
+    // how close to the end of the loaded videos the next page starts loading
+    public static int PREFETCH_DISTANCE = 20;
+
+    // most videos a paged row keeps in memory, older pages are dropped beyond it
+    public static int MAX_PAGED_ROW_SIZE = 100;
+
+    // show placeholder cards for the videos not loaded yet
+    public static boolean IS_PLACEHOLDER_ENABLED = true;
+
+    // number of files downloaded at the same time, the others wait in the download queue
+    public static int MAX_CONCURRENT_DOWNLOADS = 2;
+
+    // most bytes the downloaded videos can use, the least recently watched are removed beyond it
+    public static long OFFLINE_STORAGE_QUOTA_BYTES = 2L * 1024 * 1024 * 1024;
 }
@@ -18,6 +18,10 @@ package androidx.leanback.leanbackshowcase.app.room.controller.app;
 
 import android.app.Activity;
 import android.app.Application;
+import android.os.StrictMode;
+
+import androidx.core.os.TraceCompat;
+import androidx.leanback.leanbackshowcase.BuildConfig;
 
 import androidx.leanback.leanbackshowcase.app.room.di.androidinject.AppInjector;
 
@@ -45,12 +49,24 @@ public class SampleApplication extends Application implements HasActivityInjecto
     @Override
     public void onCreate() {
         super.onCreate();
+        TraceCompat.beginSection("SampleApplication.onCreate");
         sApp = this;
 
+        if (BuildConfig.DEBUG) {
+            // Nothing on the main thread of the Room demo should touch the disk, the database
+            // included. Violations are only logged, the other demos share this process.
+            StrictMode.setThreadPolicy(new StrictMode.ThreadPolicy.Builder()
+                    .detectDiskReads()
+                    .detectDiskWrites()
+                    .penaltyLog()
+                    .build());
+        }
+
         AppInjector.init(this);
 
         // If we want to process the dependency injection manually, we have to add this line.
         // DaggerAppComponent.builder().application(this).build().inject(this);
+        TraceCompat.endSection();
     }
 
     @Override
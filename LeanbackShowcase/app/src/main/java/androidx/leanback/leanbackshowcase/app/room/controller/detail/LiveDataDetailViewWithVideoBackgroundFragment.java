@@ -30,6 +30,7 @@ import androidx.leanback.app.DetailsSupportFragmentBackgroundController;
 import androidx.leanback.media.MediaPlayerGlue;
 import androidx.leanback.leanbackshowcase.R;
 import androidx.leanback.leanbackshowcase.app.room.adapter.ListAdapter;
+import androidx.leanback.leanbackshowcase.app.room.adapter.VideoEntityDiffCallback;
 import androidx.leanback.leanbackshowcase.app.room.config.AppConfiguration;
 import androidx.leanback.leanbackshowcase.app.room.controller.app.SampleApplication;
 import androidx.leanback.leanbackshowcase.app.room.db.entity.VideoEntity;
@@ -59,7 +60,6 @@ import com.bumptech.glide.Glide;
 import com.bumptech.glide.request.RequestOptions;
 import com.bumptech.glide.request.target.SimpleTarget;
 import com.bumptech.glide.request.transition.Transition;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import javax.inject.Inject;
@@ -237,17 +237,7 @@ public class LiveDataDetailViewWithVideoBackgroundFragment extends DetailsSuppor
                     public void onChanged(@Nullable List<VideoEntity> videoEntities) {
                         if (videoEntities != null) {
                             mRelatedRowAdapter
-                                    .setItems(videoEntities, new Comparator<VideoEntity>() {
-                                        @Override
-                                        public int compare(VideoEntity o1, VideoEntity o2) {
-                                            return o1.getId() == o2.getId() ? 0 : -1;
-                                        }
-                                    }, new Comparator<VideoEntity>() {
-                                        @Override
-                                        public int compare(VideoEntity o1, VideoEntity o2) {
-                                            return o1.equals(o2) ? 0 : -1;
-                                        }
-                                    });
+                                    .setItems(videoEntities, new VideoEntityDiffCallback());
                         }
                     }
                 });
@@ -294,6 +284,7 @@ public class LiveDataDetailViewWithVideoBackgroundFragment extends DetailsSuppor
                 getActivity().findViewById(R.id.renting_progressbar).setVisibility(View.VISIBLE);
                 getActivity().findViewById(R.id.loading_renting).setVisibility(View.VISIBLE);
             } else if (action == mActionPlay) {
+                mViewModel.markPlayed(mObservedVideo);
                 mDetailsBgController.switchToVideo();
             } else if (action == mActionPreview) {
                 mDetailsBgController.switchToVideo();
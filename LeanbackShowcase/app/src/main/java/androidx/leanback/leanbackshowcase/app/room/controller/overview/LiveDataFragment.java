@@ -20,17 +20,18 @@ import androidx.lifecycle.LifecycleOwner;
 import androidx.lifecycle.Observer;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.lifecycle.ViewModelProviders;
-import android.os.AsyncTask;
 import android.os.Bundle;
 import androidx.annotation.Nullable;
 import androidx.leanback.app.BrowseSupportFragment;
 import androidx.leanback.leanbackshowcase.R;
 import androidx.leanback.leanbackshowcase.app.room.adapter.ListAdapter;
-import androidx.leanback.leanbackshowcase.app.room.config.AppConfiguration;
+import androidx.leanback.leanbackshowcase.app.room.adapter.PagedListObjectAdapter;
+import androidx.leanback.leanbackshowcase.app.room.adapter.VideoEntityDiffCallback;
 import androidx.leanback.leanbackshowcase.app.room.db.entity.CategoryEntity;
 import androidx.leanback.leanbackshowcase.app.room.db.entity.VideoEntity;
+import androidx.leanback.leanbackshowcase.app.room.db.repo.VideosIngester;
 import androidx.leanback.leanbackshowcase.app.room.di.adapter.qualifier.ListAdapteWithLiveDataRowPresenterQualifier;
-import androidx.leanback.leanbackshowcase.app.room.network.DownloadCompleteBroadcastReceiver;
+import androidx.leanback.leanbackshowcase.app.room.network.DownloadQueue;
 import androidx.leanback.leanbackshowcase.app.room.network.DownloadingTaskDescription;
 import androidx.leanback.leanbackshowcase.app.room.network.NetworkLiveData;
 import androidx.leanback.leanbackshowcase.app.room.ui.LiveDataRowPresenter;
@@ -41,6 +42,7 @@ import androidx.leanback.widget.HeaderItem;
 import androidx.leanback.widget.ListRow;
 import androidx.leanback.widget.OnItemViewClickedListener;
 import androidx.leanback.widget.OnItemViewSelectedListener;
+import androidx.recyclerview.widget.DiffUtil;
 
 import android.util.Log;
 import android.view.View;
@@ -49,7 +51,6 @@ import android.widget.Toast;
 
 import dagger.android.support.AndroidSupportInjection;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import javax.inject.Inject;
@@ -63,7 +64,7 @@ import javax.inject.Inject;
 
 // but dagger is sophisicated, it will check anyway
 public class LiveDataFragment extends BrowseSupportFragment
-        implements DownloadCompleteBroadcastReceiver.DownloadCompleteListener,
+        implements DownloadQueue.DownloadCompleteListener,
         LiveDataRowPresenter.DataLoadedListener {
 
     // For debugging purpose
@@ -75,6 +76,20 @@ public class LiveDataFragment extends BrowseSupportFragment
     private static final String CARD = "card";
     private static final String VIDEO = "video";
 
+    private static final DiffUtil.ItemCallback<ListRow> ROW_DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<ListRow>() {
+                @Override
+                public boolean areItemsTheSame(ListRow oldItem, ListRow newItem) {
+                    return oldItem.getId() == newItem.getId();
+                }
+
+                @Override
+                public boolean areContentsTheSame(ListRow oldItem, ListRow newItem) {
+                    return oldItem.getHeaderItem().getName()
+                            .equals(newItem.getHeaderItem().getName());
+                }
+            };
+
     @Inject
     @ListAdapteWithLiveDataRowPresenterQualifier
     ListAdapter<ListRow> mRowsAdapter;
@@ -115,9 +130,6 @@ public class LiveDataFragment extends BrowseSupportFragment
         setOnItemViewSelectedListener(viewOnSelectListenerMap.get(this.getClass()));
         setOnSearchClickedListener(onClickListener.get(this.getClass()));
 
-        // register broadcast receiver
-        DownloadCompleteBroadcastReceiver.getInstance().registerListener(this);
-
         // tweak the ui
         setHeadersState(HEADERS_ENABLED);
         setHeadersTransitionOnBackEnabled(true);
@@ -136,6 +148,14 @@ public class LiveDataFragment extends BrowseSupportFragment
         subscribeUi(mViewModel);
     }
 
+    @Override
+    public void onDestroy() {
+        super.onDestroy();
+        if (mViewModel != null) {
+            mViewModel.removeDownloadListener(this);
+        }
+    }
+
     @Override
     public void onDataLoaded() {
         startEntranceTransition();
@@ -143,82 +163,30 @@ public class LiveDataFragment extends BrowseSupportFragment
 
     @Override
     public void onDownloadingCompleted(final DownloadingTaskDescription desc) {
+        // The path of the file is already stored by the repository.
         final VideoEntity videoEntity = desc.getVideo();
         switch (desc.getCategory()) {
-
             case VIDEO:
-                new AsyncTask<Void, Void, Void>() {
-                    @Override
-                    protected Void doInBackground(Void... voids) {
-
-                        if (AppConfiguration.IS_NETWORK_LATENCY_ENABLED) {
-                            addLatency(3000L);
-                        }
-                        mViewModel.updateDatabase(videoEntity, VIDEO, desc.getStoragePath());
-                        return null;
-                    }
-
-                    @Override
-                    protected void onPostExecute(Void aVoid) {
-                        super.onPostExecute(aVoid);
-                        Toast.makeText(
-                                getActivity().getApplicationContext(),
-                                "video " + videoEntity.getId() + " " +
-                                        "downloaded",
-                                Toast.LENGTH_SHORT).show();
-                    }
-                }.execute();
+                showToast("video " + videoEntity.getId() + " " + "downloaded");
                 break;
 
             case BACKGROUND:
-                new AsyncTask<Void, Void, Void>() {
-                    @Override
-                    protected Void doInBackground(Void... voids) {
-
-                        if (AppConfiguration.IS_NETWORK_LATENCY_ENABLED) {
-                            addLatency(2000L);
-                        }
-                        mViewModel.updateDatabase(videoEntity, BACKGROUND, desc.getStoragePath());
-                        return null;
-                    }
-
-                    @Override
-                    protected void onPostExecute(Void aVoid) {
-                        super.onPostExecute(aVoid);
-                        Toast.makeText(
-                                getActivity().getApplicationContext(),
-                                "background" + videoEntity.getId() + " " +
-                                        "downloaded",
-                                Toast.LENGTH_SHORT).show();
-                    }
-                }.execute();
+                showToast("background" + videoEntity.getId() + " " + "downloaded");
                 break;
 
             case CARD:
-                new AsyncTask<Void, Void, Void>() {
-                    @Override
-                    protected Void doInBackground(Void... voids) {
-
-                        if (AppConfiguration.IS_NETWORK_LATENCY_ENABLED) {
-                            addLatency(1000L);
-                        }
-                        mViewModel.updateDatabase(videoEntity, CARD, desc.getStoragePath());
-                        return null;
-                    }
-
-                    @Override
-                    protected void onPostExecute(Void aVoid) {
-                        super.onPostExecute(aVoid);
-                        Toast.makeText(
-                                getActivity().getApplicationContext(),
-                                "card " + videoEntity.getId() + " downloaded",
-                                Toast.LENGTH_SHORT).show();
-                    }
-                }.execute();
+                showToast("card " + videoEntity.getId() + " downloaded");
                 break;
         }
     }
 
+    private void showToast(String message) {
+        if (getActivity() != null) {
+            Toast.makeText(getActivity().getApplicationContext(), message, Toast.LENGTH_SHORT)
+                    .show();
+        }
+    }
+
     private void subscribeNetworkInfo() {
         NetworkLiveData.sync(getActivity())
                 .observe((LifecycleOwner) getActivity(), new Observer<Boolean>() {
@@ -237,6 +205,33 @@ public class LiveDataFragment extends BrowseSupportFragment
     }
 
     private void subscribeUi(final VideosViewModel viewModel) {
+        // The repository is built in the background, show progress until it is ready.
+        getProgressBarManager().show();
+        viewModel.isRepositoryReady().observe((LifecycleOwner) getActivity(),
+                new Observer<Boolean>() {
+                    @Override
+                    public void onChanged(@Nullable Boolean ready) {
+                        if (!Boolean.TRUE.equals(ready)) {
+                            return;
+                        }
+                        viewModel.addDownloadListener(LiveDataFragment.this);
+                        if (viewModel.getIngestProgress().getValue() == null) {
+                            getProgressBarManager().hide();
+                        }
+                    }
+                });
+        viewModel.getIngestProgress().observe((LifecycleOwner) getActivity(),
+                new Observer<VideosIngester.Progress>() {
+                    @Override
+                    public void onChanged(@Nullable VideosIngester.Progress progress) {
+                        if (progress == null || progress.isDone()) {
+                            getProgressBarManager().hide();
+                        } else {
+                            getProgressBarManager().show();
+                        }
+                    }
+                });
+
         viewModel.getAllCategories().observe((LifecycleOwner) getActivity(),
                 new Observer<List<CategoryEntity>>() {
                     @Override
@@ -249,36 +244,14 @@ public class LiveDataFragment extends BrowseSupportFragment
                             for (CategoryEntity categoryEntity : categoryEntities) {
                                 ListRow row = new ListRow(
                                         new HeaderItem(categoryEntity.getCategoryName()),
-                                        new ListAdapter<>(videoCardPresenter));
+                                        new PagedListObjectAdapter<>(videoCardPresenter,
+                                                new VideoEntityDiffCallback()));
                                 rows.add(row);
                             }
 
-                            mRowsAdapter.setItems(rows, new Comparator<ListRow>() {
-                                @Override
-                                public int compare(ListRow o1, ListRow o2) {
-                                    return o1.getId() == o2.getId() ? 0 : -1;
-                                }
-                            }, new Comparator<ListRow>() {
-                                @Override
-                                public int compare(ListRow o1, ListRow o2) {
-                                    return o1.getHeaderItem().getName()
-                                            .equals(o2.getHeaderItem().getName()) ? 0 : -1;
-                                }
-                            });
+                            mRowsAdapter.setItems(rows, ROW_DIFF_CALLBACK);
                         }
                     }
                 });
     }
-
-    private void addLatency(Long ms) {
-        try {
-            // add 1s latency for video downloading, when network latency option
-            // is enabled.
-            Thread.sleep(ms);
-        } catch (InterruptedException e) {
-            if (DEBUG) {
-                Log.e(TAG, "doInBackground: ", e);
-            }
-        }
-    }
 }
@@ -17,18 +17,21 @@
 package androidx.leanback.leanbackshowcase.app.room.controller.overview;
 
 import android.Manifest;
-import android.app.DownloadManager;
 import androidx.fragment.app.FragmentActivity;
-import android.content.IntentFilter;
 import android.content.pm.PackageManager;
 import android.os.Bundle;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
 import androidx.annotation.NonNull;
+import androidx.leanback.leanbackshowcase.BuildConfig;
 import androidx.leanback.leanbackshowcase.R;
-import androidx.leanback.leanbackshowcase.app.room.network.DownloadCompleteBroadcastReceiver;
 import androidx.leanback.leanbackshowcase.app.room.network.PermissionLiveData;
 import androidx.core.app.ActivityCompat;
 import androidx.fragment.app.Fragment;
 import androidx.core.content.ContextCompat;
+import androidx.core.os.TraceCompat;
 import dagger.android.AndroidInjection;
 import dagger.android.AndroidInjector;
 import dagger.android.DispatchingAndroidInjector;
@@ -40,16 +43,19 @@ import javax.inject.Inject;
  */
 public class LiveDataRowsActivity extends FragmentActivity implements HasSupportFragmentInjector{
 
-    private static final int WRITE_PERMISSION = 0;
+    private static final String TAG = "LiveDataRowsActivity";
 
-    private DownloadCompleteBroadcastReceiver mReceiver;
+    private static final int WRITE_PERMISSION = 0;
 
     @Override
     public void onCreate(Bundle savedInstanceState) {
+        long start = SystemClock.uptimeMillis();
+        TraceCompat.beginSection("LiveDataRowsActivity first frame");
         AndroidInjection.inject(this);
         super.onCreate(savedInstanceState);
 
         setContentView(R.layout.activity_livedata_rows);
+        endTraceOnFirstFrame(start);
 
 
         if (ContextCompat.checkSelfPermission(LiveDataRowsActivity.this,
@@ -71,6 +77,27 @@ public class LiveDataRowsActivity extends FragmentActivity implements HasSupport
 
     }
 
+    /**
+     * Ends the trace section started when the activity was created on its first frame, and logs
+     * how long the main thread took to get there.
+     */
+    private void endTraceOnFirstFrame(final long start) {
+        final View decorView = getWindow().getDecorView();
+        decorView.getViewTreeObserver().addOnPreDrawListener(
+                new ViewTreeObserver.OnPreDrawListener() {
+                    @Override
+                    public boolean onPreDraw() {
+                        decorView.getViewTreeObserver().removeOnPreDrawListener(this);
+                        TraceCompat.endSection();
+                        if (BuildConfig.DEBUG) {
+                            Log.d(TAG, "Main thread time before first frame: "
+                                    + (SystemClock.uptimeMillis() - start) + " ms");
+                        }
+                        return true;
+                    }
+                });
+    }
+
     @Override
     public void onRequestPermissionsResult(int requestCode, @NonNull String[] permissions,
                                            @NonNull int[] grantResults) {
@@ -90,22 +117,6 @@ public class LiveDataRowsActivity extends FragmentActivity implements HasSupport
         super.onRequestPermissionsResult(requestCode, permissions, grantResults);
     }
 
-    @Override
-    protected void onStart() {
-        super.onStart();
-
-        // The broadcast receiver will only be registered when the browse fragment can be loaded at
-        // the main frame.
-        mReceiver = DownloadCompleteBroadcastReceiver.getInstance();
-        registerReceiver(mReceiver, new IntentFilter(DownloadManager.ACTION_DOWNLOAD_COMPLETE));
-    }
-
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        unregisterReceiver(mReceiver);
-    }
-
 
     @Inject
     DispatchingAndroidInjector<Fragment> dispatchingAndroidInjector;
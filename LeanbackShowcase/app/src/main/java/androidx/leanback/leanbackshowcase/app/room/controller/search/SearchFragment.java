@@ -24,6 +24,7 @@ import android.os.Bundle;
 import androidx.annotation.Nullable;
 import androidx.leanback.leanbackshowcase.R;
 import androidx.leanback.leanbackshowcase.app.room.adapter.ListAdapter;
+import androidx.leanback.leanbackshowcase.app.room.adapter.VideoEntityDiffCallback;
 import androidx.leanback.leanbackshowcase.app.room.db.entity.VideoEntity;
 import androidx.leanback.leanbackshowcase.app.room.di.adapter.qualifier.ListAdapterForRelatedRowQualifier;
 import androidx.leanback.leanbackshowcase.app.room.di.adapter.qualifier.SearchFragmentArrayObjectAdapterForRowsQualifier;
@@ -38,7 +39,6 @@ import android.text.TextUtils;
 import android.view.View;
 
 import dagger.android.support.AndroidSupportInjection;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import javax.inject.Inject;
@@ -115,7 +115,6 @@ public class SearchFragment extends androidx.leanback.app.SearchSupportFragment
 
         if (!TextUtils.isEmpty(newQuery) && !newQuery.equals("nil")) {
             getActivity().findViewById(R.id.search_progressbar).setVisibility(View.VISIBLE);
-            newQuery = "%" + newQuery + "%";
             mViewModel.setQueryMessage(newQuery);
         }
         return true;
@@ -126,7 +125,6 @@ public class SearchFragment extends androidx.leanback.app.SearchSupportFragment
 
         if (!TextUtils.isEmpty(query) && !query.equals("nil")) {
             getActivity().findViewById(R.id.search_progressbar).setVisibility(View.VISIBLE);
-            query = "%" + query + "%";
             mViewModel.setQueryMessage(query);
         }
         return true;
@@ -143,17 +141,7 @@ public class SearchFragment extends androidx.leanback.app.SearchSupportFragment
                                     .setVisibility(View.GONE);
                             getActivity().findViewById(R.id.search_progressbar)
                                     .setVisibility(View.GONE);
-                            mRelatedAdapter.setItems(videoEntities, new Comparator<VideoEntity>() {
-                                @Override
-                                public int compare(VideoEntity o1, VideoEntity o2) {
-                                    return o1.getId() == o2.getId() ? 0 : -1;
-                                }
-                            }, new Comparator<VideoEntity>() {
-                                @Override
-                                public int compare(VideoEntity o1, VideoEntity o2) {
-                                    return o1.equals(o2) ? 0 : -1;
-                                }
-                            });
+                            mRelatedAdapter.setItems(videoEntities, new VideoEntityDiffCallback());
                         } else {
                             // When the search result is null (when data base has not been created) or
                             // empty, the text view field will be visible and telling user that no search
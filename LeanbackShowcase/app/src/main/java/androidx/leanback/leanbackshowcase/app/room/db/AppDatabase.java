@@ -14,19 +14,88 @@
 
 package androidx.leanback.leanbackshowcase.app.room.db;
 
+import androidx.annotation.NonNull;
 import androidx.room.Database;
 import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.leanback.leanbackshowcase.app.room.db.constant.DatabaseColumnConstant.DownloadEntry;
+import androidx.leanback.leanbackshowcase.app.room.db.constant.DatabaseColumnConstant.StorageEntry;
+import androidx.leanback.leanbackshowcase.app.room.db.constant.DatabaseColumnConstant.VideoEntry;
 import androidx.leanback.leanbackshowcase.app.room.db.dao.CategoryDao;
+import androidx.leanback.leanbackshowcase.app.room.db.dao.DownloadDao;
+import androidx.leanback.leanbackshowcase.app.room.db.dao.StorageDao;
 import androidx.leanback.leanbackshowcase.app.room.db.dao.VideoDao;
 import androidx.leanback.leanbackshowcase.app.room.db.entity.CategoryEntity;
+import androidx.leanback.leanbackshowcase.app.room.db.entity.DownloadEntity;
+import androidx.leanback.leanbackshowcase.app.room.db.entity.StorageEntity;
 import androidx.leanback.leanbackshowcase.app.room.db.entity.VideoEntity;
 
 
-@Database(entities = {VideoEntity.class, CategoryEntity.class}, version = 1, exportSchema = false)
+@Database(entities = {VideoEntity.class, CategoryEntity.class, DownloadEntity.class,
+        StorageEntity.class}, version = 6, exportSchema = false)
 public abstract class AppDatabase extends RoomDatabase{
     public static final String DATABASE_NAME = "leanback_showcase.db";
 
+    /**
+     * Adds the version of the video rows, indexed for the latest version. Existing rows start
+     * at 0.
+     */
+    public static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE " + VideoEntry.TABLE_NAME + " ADD COLUMN "
+                    + VideoEntry.COLUMN_VERSION + " INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_" + VideoEntry.TABLE_NAME + "_"
+                    + VideoEntry.COLUMN_VERSION + " ON " + VideoEntry.TABLE_NAME + " ("
+                    + VideoEntry.COLUMN_VERSION + ")");
+        }
+    };
+
+    /**
+     * Adds the table of the downloads, which used to be kept in memory only.
+     */
+    public static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS " + DownloadEntry.TABLE_NAME + " ("
+                    + DownloadEntry.COLUMN_AUTO_GENERATE_ID
+                    + " INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + DownloadEntry.COLUMN_VIDEO_ID + " INTEGER NOT NULL, "
+                    + DownloadEntry.COLUMN_CATEGORY + " TEXT, "
+                    + DownloadEntry.COLUMN_PRIORITY + " INTEGER NOT NULL, "
+                    + DownloadEntry.COLUMN_URL + " TEXT, "
+                    + DownloadEntry.COLUMN_LOCAL_PATH + " TEXT, "
+                    + DownloadEntry.COLUMN_STATE + " INTEGER NOT NULL, "
+                    + DownloadEntry.COLUMN_DOWNLOADED_BYTES + " INTEGER NOT NULL, "
+                    + DownloadEntry.COLUMN_TOTAL_BYTES + " INTEGER NOT NULL)");
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS index_" + DownloadEntry.TABLE_NAME
+                    + "_" + DownloadEntry.COLUMN_VIDEO_ID + "_" + DownloadEntry.COLUMN_CATEGORY
+                    + " ON " + DownloadEntry.TABLE_NAME + " (" + DownloadEntry.COLUMN_VIDEO_ID
+                    + ", " + DownloadEntry.COLUMN_CATEGORY + ")");
+        }
+    };
+
+    /**
+     * Adds the table of the storage used by the downloaded videos. Files downloaded before have
+     * no row and are not counted against the quota until they are downloaded again.
+     */
+    public static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS " + StorageEntry.TABLE_NAME + " ("
+                    + StorageEntry.COLUMN_VIDEO_ID + " INTEGER NOT NULL, "
+                    + StorageEntry.COLUMN_SIZE_BYTES + " INTEGER NOT NULL, "
+                    + StorageEntry.COLUMN_LAST_PLAYED + " INTEGER NOT NULL, "
+                    + "PRIMARY KEY(" + StorageEntry.COLUMN_VIDEO_ID + "))");
+        }
+    };
+
     public abstract VideoDao videoDao();
 
     public abstract CategoryDao categoryDao();
+
+    public abstract DownloadDao downloadDao();
+
+    public abstract StorageDao storageDao();
 }
@@ -68,6 +68,9 @@ public class DatabaseColumnConstant {
         public static final String COLUMN_CARD_IMG_CACHE = "card_image_downloaded_uri";
 
         public static final String COLUMN_VIDEO_STATUS = "working_status";
+
+        // Version of the row, set from a counter increasing with every write of the table.
+        public static final String COLUMN_VERSION = "row_version";
     }
 
     /**
@@ -84,4 +87,58 @@ public class DatabaseColumnConstant {
         // Name of the column of category name
         public static final String COLUMN_CATEGORY_NAME = "category_name";
     }
+
+    /**
+     * Define the name of column in download entry
+     */
+    public static final class DownloadEntry {
+
+        // Name of the download table.
+        public static final String TABLE_NAME = "downloads";
+
+        // Name of auto generated id name
+        public static final String COLUMN_AUTO_GENERATE_ID = "_id";
+
+        // Id of the video the file belongs to.
+        public static final String COLUMN_VIDEO_ID = "video_id";
+
+        // Which file of the video is downloaded: video, background or card.
+        public static final String COLUMN_CATEGORY = "category";
+
+        // Downloads with a lower priority start first.
+        public static final String COLUMN_PRIORITY = "priority";
+
+        // The url of the file.
+        public static final String COLUMN_URL = "url";
+
+        // The path the file is downloaded to.
+        public static final String COLUMN_LOCAL_PATH = "local_path";
+
+        // Queued, running, done or failed.
+        public static final String COLUMN_STATE = "state";
+
+        // Number of bytes of the file downloaded so far.
+        public static final String COLUMN_DOWNLOADED_BYTES = "downloaded_bytes";
+
+        // Size of the file, -1 until the server tells it.
+        public static final String COLUMN_TOTAL_BYTES = "total_bytes";
+    }
+
+    /**
+     * Define the name of column in storage entry
+     */
+    public static final class StorageEntry {
+
+        // Name of the table of the storage used by the downloaded videos.
+        public static final String TABLE_NAME = "video_storage";
+
+        // Id of the video, one row per video with downloaded files.
+        public static final String COLUMN_VIDEO_ID = "video_id";
+
+        // Number of bytes of the downloaded files of the video.
+        public static final String COLUMN_SIZE_BYTES = "size_bytes";
+
+        // When the video was last played, or downloaded if it was never played.
+        public static final String COLUMN_LAST_PLAYED = "last_played";
+    }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.leanback.leanbackshowcase.app.room.db.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Update;
+import androidx.leanback.leanbackshowcase.app.room.db.constant.DatabaseColumnConstant.DownloadEntry;
+import androidx.leanback.leanbackshowcase.app.room.db.entity.DownloadEntity;
+
+import java.util.List;
+
+@Dao
+public interface DownloadDao {
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    long insertDownload(DownloadEntity download);
+
+    @Update(onConflict = OnConflictStrategy.REPLACE)
+    void updateDownload(DownloadEntity download);
+
+    @Query("SELECT * FROM " + DownloadEntry.TABLE_NAME
+            + " WHERE " + DownloadEntry.COLUMN_VIDEO_ID + " = :videoId"
+            + " AND " + DownloadEntry.COLUMN_CATEGORY + " = :category")
+    DownloadEntity loadDownload(long videoId, String category);
+
+    @Query("SELECT * FROM " + DownloadEntry.TABLE_NAME
+            + " WHERE " + DownloadEntry.COLUMN_VIDEO_ID + " = :videoId")
+    List<DownloadEntity> loadDownloadsOfVideo(long videoId);
+
+    // The next downloads to start, by priority and then in the order they were queued.
+    @Query("SELECT * FROM " + DownloadEntry.TABLE_NAME
+            + " WHERE " + DownloadEntry.COLUMN_STATE + " = " + DownloadEntity.STATE_QUEUED
+            + " ORDER BY " + DownloadEntry.COLUMN_PRIORITY + ", "
+            + DownloadEntry.COLUMN_AUTO_GENERATE_ID
+            + " LIMIT :limit")
+    List<DownloadEntity> loadNextQueued(int limit);
+
+    // Downloads left running by a killed process are queued again.
+    @Query("UPDATE " + DownloadEntry.TABLE_NAME
+            + " SET " + DownloadEntry.COLUMN_STATE + " = " + DownloadEntity.STATE_QUEUED
+            + " WHERE " + DownloadEntry.COLUMN_STATE + " = " + DownloadEntity.STATE_RUNNING)
+    int requeueRunning();
+
+    @Query("UPDATE " + DownloadEntry.TABLE_NAME
+            + " SET " + DownloadEntry.COLUMN_DOWNLOADED_BYTES + " = :downloadedBytes, "
+            + DownloadEntry.COLUMN_TOTAL_BYTES + " = :totalBytes"
+            + " WHERE " + DownloadEntry.COLUMN_AUTO_GENERATE_ID + " = :id")
+    void updateProgress(long id, long downloadedBytes, long totalBytes);
+
+    // Size of the files of a video which are downloaded.
+    @Query("SELECT COALESCE(SUM(" + DownloadEntry.COLUMN_DOWNLOADED_BYTES + "), 0) FROM "
+            + DownloadEntry.TABLE_NAME
+            + " WHERE " + DownloadEntry.COLUMN_VIDEO_ID + " = :videoId"
+            + " AND " + DownloadEntry.COLUMN_STATE + " = " + DownloadEntity.STATE_DONE)
+    long loadDownloadedBytes(long videoId);
+
+    @Query("DELETE FROM " + DownloadEntry.TABLE_NAME
+            + " WHERE " + DownloadEntry.COLUMN_VIDEO_ID + " = :videoId")
+    void deleteDownloadsOfVideo(long videoId);
+}
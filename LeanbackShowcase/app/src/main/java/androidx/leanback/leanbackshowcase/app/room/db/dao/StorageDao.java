@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.leanback.leanbackshowcase.app.room.db.dao;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.leanback.leanbackshowcase.app.room.db.constant.DatabaseColumnConstant.DownloadEntry;
+import androidx.leanback.leanbackshowcase.app.room.db.constant.DatabaseColumnConstant.StorageEntry;
+import androidx.leanback.leanbackshowcase.app.room.db.entity.DownloadEntity;
+import androidx.leanback.leanbackshowcase.app.room.db.entity.StorageEntity;
+
+import java.util.List;
+
+@Dao
+public interface StorageDao {
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertStorage(StorageEntity storage);
+
+    @Query("SELECT * FROM " + StorageEntry.TABLE_NAME
+            + " WHERE " + StorageEntry.COLUMN_VIDEO_ID + " = :videoId")
+    StorageEntity loadStorage(long videoId);
+
+    @Query("SELECT COALESCE(SUM(" + StorageEntry.COLUMN_SIZE_BYTES + "), 0) FROM "
+            + StorageEntry.TABLE_NAME)
+    long loadUsedBytes();
+
+    @Query("SELECT COALESCE(SUM(" + StorageEntry.COLUMN_SIZE_BYTES + "), 0) FROM "
+            + StorageEntry.TABLE_NAME)
+    LiveData<Long> loadUsedBytesLiveData();
+
+    // Least recently played first, without the videos which are still downloading.
+    @Query("SELECT * FROM " + StorageEntry.TABLE_NAME
+            + " WHERE " + StorageEntry.COLUMN_VIDEO_ID + " NOT IN (SELECT "
+            + DownloadEntry.COLUMN_VIDEO_ID + " FROM " + DownloadEntry.TABLE_NAME
+            + " WHERE " + DownloadEntry.COLUMN_STATE + " IN (" + DownloadEntity.STATE_QUEUED
+            + ", " + DownloadEntity.STATE_RUNNING + "))"
+            + " ORDER BY " + StorageEntry.COLUMN_LAST_PLAYED + ", " + StorageEntry.COLUMN_VIDEO_ID)
+    List<StorageEntity> loadEvictionCandidates();
+
+    @Query("UPDATE " + StorageEntry.TABLE_NAME
+            + " SET " + StorageEntry.COLUMN_LAST_PLAYED + " = :lastPlayed"
+            + " WHERE " + StorageEntry.COLUMN_VIDEO_ID + " = :videoId")
+    int updateLastPlayed(long videoId, long lastPlayed);
+
+    @Query("DELETE FROM " + StorageEntry.TABLE_NAME
+            + " WHERE " + StorageEntry.COLUMN_VIDEO_ID + " = :videoId")
+    void deleteStorage(long videoId);
+}
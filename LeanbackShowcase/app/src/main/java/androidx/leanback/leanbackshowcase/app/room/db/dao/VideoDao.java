@@ -17,13 +17,18 @@
 package androidx.leanback.leanbackshowcase.app.room.db.dao;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.DataSource;
 import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.RawQuery;
 import androidx.room.Update;
 import androidx.leanback.leanbackshowcase.app.room.db.constant.DatabaseColumnConstant;
 import androidx.leanback.leanbackshowcase.app.room.db.entity.VideoEntity;
+import androidx.leanback.leanbackshowcase.app.room.db.search.VideoSearchMatch;
+import androidx.leanback.leanbackshowcase.app.room.db.search.VideoSearchRank;
+import androidx.sqlite.db.SupportSQLiteQuery;
 
 import java.util.List;
 
@@ -37,19 +42,40 @@ public interface VideoDao {
             + " = :videoId")
     LiveData<VideoEntity> loadVideoById(long videoId);
 
+    @Query("SELECT * FROM " + DatabaseColumnConstant.VideoEntry.TABLE_NAME
+            + " WHERE " + DatabaseColumnConstant.VideoEntry.COLUMN_AUTO_GENERATE_ID
+            + " IN (:videoIds)")
+    List<VideoEntity> loadVideosByIds(List<Long> videoIds);
+
 
     @Query("SELECT * FROM " + DatabaseColumnConstant.VideoEntry.TABLE_NAME
             + " WHERE " + DatabaseColumnConstant.VideoEntry.COLUMN_CATEGORY
             + " = :category")
     LiveData<List<VideoEntity>> loadVideoInSameCateogry(String category);
 
+    // Ordered, so the pages of a category are stable while they are loaded.
     @Query("SELECT * FROM " + DatabaseColumnConstant.VideoEntry.TABLE_NAME
-            + " WHERE "+ DatabaseColumnConstant.VideoEntry.COLUMN_NAME
-            + " LIKE " + ":queryMessage"
-            + " OR " + DatabaseColumnConstant.VideoEntry.COLUMN_CATEGORY
-            +" LIKE " + ":queryMessage")
-    LiveData<List<VideoEntity>> searchVideos(String queryMessage);
+            + " WHERE " + DatabaseColumnConstant.VideoEntry.COLUMN_CATEGORY
+            + " = :category ORDER BY "
+            + DatabaseColumnConstant.VideoEntry.COLUMN_AUTO_GENERATE_ID)
+    DataSource.Factory<Integer, VideoEntity> loadPagedVideosInSameCategory(String category);
+
+    // The full text table is not known to Room, so search queries are built by VideoSearch.
+    @RawQuery
+    List<VideoSearchRank> rankVideos(SupportSQLiteQuery query);
+
+    @RawQuery
+    List<VideoSearchMatch> loadVideoMatches(SupportSQLiteQuery query);
+
+    // The version of the latest write of the table, 0 if it is empty. A bare MAX() is read from
+    // the end of the version index, which wrapping it in COALESCE() would prevent.
+    @Query("SELECT MAX(" + DatabaseColumnConstant.VideoEntry.COLUMN_VERSION + ") FROM "
+            + DatabaseColumnConstant.VideoEntry.TABLE_NAME)
+    long loadLatestVersion();
 
     @Update(onConflict = OnConflictStrategy.REPLACE)
     void updateVideo(VideoEntity video);
+
+    @Update(onConflict = OnConflictStrategy.REPLACE)
+    void updateVideos(List<VideoEntity> videos);
 }
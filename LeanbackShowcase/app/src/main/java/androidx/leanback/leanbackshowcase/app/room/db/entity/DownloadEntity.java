@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.leanback.leanbackshowcase.app.room.db.entity;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+import androidx.leanback.leanbackshowcase.app.room.db.constant.DatabaseColumnConstant.DownloadEntry;
+
+/**
+ * A file of a video being downloaded, kept in the database so the download can go on after the
+ * process is restarted.
+ */
+@Entity(tableName = DownloadEntry.TABLE_NAME,
+        indices = {@Index(value = {DownloadEntry.COLUMN_VIDEO_ID, DownloadEntry.COLUMN_CATEGORY},
+                unique = true)})
+public class DownloadEntity {
+
+    // Waiting for a free download slot.
+    public static final int STATE_QUEUED = 0;
+
+    // Being downloaded, or was when the process was killed.
+    public static final int STATE_RUNNING = 1;
+
+    public static final int STATE_DONE = 2;
+
+    // The download failed, it starts again from where it stopped when the video is downloaded
+    // again.
+    public static final int STATE_FAILED = 3;
+
+    @PrimaryKey(autoGenerate = true)
+    @ColumnInfo(name = DownloadEntry.COLUMN_AUTO_GENERATE_ID)
+    private long mId;
+
+    @ColumnInfo(name = DownloadEntry.COLUMN_VIDEO_ID)
+    private long mVideoId;
+
+    @ColumnInfo(name = DownloadEntry.COLUMN_CATEGORY)
+    private String mCategory;
+
+    @ColumnInfo(name = DownloadEntry.COLUMN_PRIORITY)
+    private int mPriority;
+
+    @ColumnInfo(name = DownloadEntry.COLUMN_URL)
+    private String mUrl;
+
+    @ColumnInfo(name = DownloadEntry.COLUMN_LOCAL_PATH)
+    private String mLocalPath;
+
+    @ColumnInfo(name = DownloadEntry.COLUMN_STATE)
+    private int mState;
+
+    @ColumnInfo(name = DownloadEntry.COLUMN_DOWNLOADED_BYTES)
+    private long mDownloadedBytes;
+
+    @ColumnInfo(name = DownloadEntry.COLUMN_TOTAL_BYTES)
+    private long mTotalBytes = -1;
+
+    public long getId() {
+        return mId;
+    }
+
+    public void setId(long id) {
+        mId = id;
+    }
+
+    public long getVideoId() {
+        return mVideoId;
+    }
+
+    public void setVideoId(long videoId) {
+        mVideoId = videoId;
+    }
+
+    public String getCategory() {
+        return mCategory;
+    }
+
+    public void setCategory(String category) {
+        mCategory = category;
+    }
+
+    public int getPriority() {
+        return mPriority;
+    }
+
+    public void setPriority(int priority) {
+        mPriority = priority;
+    }
+
+    public String getUrl() {
+        return mUrl;
+    }
+
+    public void setUrl(String url) {
+        mUrl = url;
+    }
+
+    public String getLocalPath() {
+        return mLocalPath;
+    }
+
+    public void setLocalPath(String localPath) {
+        mLocalPath = localPath;
+    }
+
+    public int getState() {
+        return mState;
+    }
+
+    public void setState(int state) {
+        mState = state;
+    }
+
+    public long getDownloadedBytes() {
+        return mDownloadedBytes;
+    }
+
+    public void setDownloadedBytes(long downloadedBytes) {
+        mDownloadedBytes = downloadedBytes;
+    }
+
+    public long getTotalBytes() {
+        return mTotalBytes;
+    }
+
+    public void setTotalBytes(long totalBytes) {
+        mTotalBytes = totalBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "DownloadEntity{"
+                + "mId=" + mId
+                + ", mVideoId=" + mVideoId
+                + ", mCategory='" + mCategory + '\''
+                + ", mState=" + mState
+                + ", mDownloadedBytes=" + mDownloadedBytes
+                + ", mTotalBytes=" + mTotalBytes
+                + '}';
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.leanback.leanbackshowcase.app.room.db.entity;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+import androidx.leanback.leanbackshowcase.app.room.db.constant.DatabaseColumnConstant.StorageEntry;
+
+/**
+ * The storage used by the downloaded files of a video, and when it was last played, so the least
+ * recently watched videos can be removed first when the storage quota is exceeded.
+ *
+ * Kept apart from the video rows, so playing a video does not change its row and rebind its card.
+ */
+@Entity(tableName = StorageEntry.TABLE_NAME)
+public class StorageEntity {
+
+    @PrimaryKey
+    @ColumnInfo(name = StorageEntry.COLUMN_VIDEO_ID)
+    private long mVideoId;
+
+    @ColumnInfo(name = StorageEntry.COLUMN_SIZE_BYTES)
+    private long mSizeBytes;
+
+    // Milliseconds since the epoch.
+    @ColumnInfo(name = StorageEntry.COLUMN_LAST_PLAYED)
+    private long mLastPlayed;
+
+    public long getVideoId() {
+        return mVideoId;
+    }
+
+    public void setVideoId(long videoId) {
+        mVideoId = videoId;
+    }
+
+    public long getSizeBytes() {
+        return mSizeBytes;
+    }
+
+    public void setSizeBytes(long sizeBytes) {
+        mSizeBytes = sizeBytes;
+    }
+
+    public long getLastPlayed() {
+        return mLastPlayed;
+    }
+
+    public void setLastPlayed(long lastPlayed) {
+        mLastPlayed = lastPlayed;
+    }
+}
@@ -19,6 +19,7 @@ package androidx.leanback.leanbackshowcase.app.room.db.entity;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.Ignore;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 import android.os.Parcel;
 import android.os.Parcelable;
@@ -27,9 +28,11 @@ import androidx.leanback.leanbackshowcase.app.room.db.constant.GsonConstant;
 
 import com.google.gson.annotations.SerializedName;
 
+import java.util.Arrays;
 import java.util.List;
 
-@Entity(tableName = DatabaseColumnConstant.VideoEntry.TABLE_NAME)
+@Entity(tableName = DatabaseColumnConstant.VideoEntry.TABLE_NAME,
+        indices = {@Index(DatabaseColumnConstant.VideoEntry.COLUMN_VERSION)})
 public class VideoEntity implements  Parcelable {
 
     @SerializedName(GsonConstant.DESCRIPTION)
@@ -103,6 +106,16 @@ public class VideoEntity implements  Parcelable {
     @ColumnInfo(name = DatabaseColumnConstant.VideoEntry.COLUMN_VIDEO_STATUS)
     private String mStatus;
 
+    // Changes whenever the row is written, so two videos with the same id and version have the
+    // same content.
+    @ColumnInfo(name = DatabaseColumnConstant.VideoEntry.COLUMN_VERSION)
+    private long mVersion;
+
+    // The ranges of the title matched by a search, as pairs of start and end offsets. Only set
+    // on the videos returned by a search.
+    @Ignore
+    private int[] mTitleMatches;
+
     /**
      * The constructor is requried by room database
      */
@@ -307,6 +320,34 @@ public class VideoEntity implements  Parcelable {
         this.mVideoCardImageLocalStorageUrl = videoCardImageLocalStorageUrl;
     }
 
+    /**
+     * getVersion
+     */
+    public long getVersion() {
+        return mVersion;
+    }
+
+    /**
+     * setVersion
+     */
+    public void setVersion(long version) {
+        mVersion = version;
+    }
+
+    /**
+     * getTitleMatches
+     */
+    public int[] getTitleMatches() {
+        return mTitleMatches;
+    }
+
+    /**
+     * setTitleMatches
+     */
+    public void setTitleMatches(int[] titleMatches) {
+        mTitleMatches = titleMatches;
+    }
+
     // This constructor is needed since we will pass the video item between different activities.
     protected VideoEntity(Parcel in) {
         mId = in.readLong();
@@ -322,6 +363,7 @@ public class VideoEntity implements  Parcelable {
         mVideoLocalStorageUrl = in.readString();
         mStatus = in.readString();
         mTrailerVideoUrl = in.readString();
+        mVersion = in.readLong();
 
         // Rented information (boolean) will be passed as a byte type
         mRented = in.readByte() != 0;
@@ -366,6 +408,7 @@ public class VideoEntity implements  Parcelable {
         dest.writeString(mVideoCardImageLocalStorageUrl);
         dest.writeString(mStatus);
         dest.writeString(mTrailerVideoUrl);
+        dest.writeLong(mVersion);
 
         // Rented information (boolean) will be passed as a byte type
         dest.writeByte((byte) (mRented ? 1:0));
@@ -394,6 +437,7 @@ public class VideoEntity implements  Parcelable {
                 ", mTrailerVideoUrl='" + mTrailerVideoUrl + '\'' +
                 ", mRented=" + mRented +
                 ", mStatus='" + mStatus + '\'' +
+                ", mVersion=" + mVersion +
                 '}';
     }
 
@@ -412,6 +456,8 @@ public class VideoEntity implements  Parcelable {
 
         if (mId != that.mId) return false;
 
+        if (mVersion != that.mVersion) return false;
+
         if (mRented != that.mRented) return false;
 
         if (mDescription != null ? !mDescription.equals(that.mDescription) :
@@ -451,6 +497,8 @@ public class VideoEntity implements  Parcelable {
         if (mVideoUrl != null ? !mVideoUrl.equals(that.mVideoUrl) : that.mVideoUrl != null)
             return false;
 
+        if (!Arrays.equals(mTitleMatches, that.mTitleMatches)) return false;
+
         return mStatus != null ? mStatus.equals(that.mStatus) : that.mStatus == null;
     }
 
@@ -470,6 +518,8 @@ public class VideoEntity implements  Parcelable {
         result = 31 * result + (mVideoUrl != null ? mVideoUrl.hashCode() : 0);
         result = 31 * result + (mRented ? 1 : 0);
         result = 31 * result + (mStatus != null ? mStatus.hashCode() : 0);
+        result = 31 * result + (int) (mVersion ^ (mVersion >>> 32));
+        result = 31 * result + Arrays.hashCode(mTitleMatches);
         return result;
     }
 }
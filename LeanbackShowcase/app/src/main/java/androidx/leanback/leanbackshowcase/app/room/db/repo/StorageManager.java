@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.leanback.leanbackshowcase.app.room.db.repo;
+
+import android.net.Uri;
+import android.util.Log;
+
+import androidx.annotation.WorkerThread;
+import androidx.leanback.leanbackshowcase.app.room.config.AppConfiguration;
+import androidx.leanback.leanbackshowcase.app.room.db.AppDatabase;
+import androidx.leanback.leanbackshowcase.app.room.db.dao.DownloadDao;
+import androidx.leanback.leanbackshowcase.app.room.db.dao.StorageDao;
+import androidx.leanback.leanbackshowcase.app.room.db.entity.DownloadEntity;
+import androidx.leanback.leanbackshowcase.app.room.db.entity.StorageEntity;
+import androidx.leanback.leanbackshowcase.app.room.db.entity.VideoEntity;
+import androidx.leanback.leanbackshowcase.app.room.network.DownloadQueue;
+import androidx.leanback.leanbackshowcase.app.room.network.DownloadingTaskDescription;
+import androidx.lifecycle.LiveData;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps the downloaded videos within a storage quota.
+ *
+ * The size and the last played time of every downloaded video are kept in the database. When a
+ * download makes the videos use more than the quota, the least recently watched ones are removed
+ * until they fit again, in the background. Their rows are removed first, so they can be
+ * downloaded again right away, and their files are then deleted in one batch on a dedicated IO
+ * thread.
+ * <p>
+ * Everything runs on the scheduler of the {@link DownloadQueue}, so no download starts or
+ * finishes while the rows are changed: the running downloads of a removed video are cancelled,
+ * and a download reported after its video was removed is not counted.
+ */
+public class StorageManager {
+
+    // For debugging purpose.
+    private static final boolean DEBUG = false;
+    private static final String TAG = "StorageManager";
+
+    private final AppDatabase mDb;
+    private final DownloadDao mDownloadDao;
+    private final StorageDao mStorageDao;
+    private final VideoUpdateQueue mUpdateQueue;
+    private final DownloadQueue mDownloadQueue;
+    private final long mQuotaBytes;
+
+    // Updates the storage rows and decides what to evict, one change at a time.
+    private final Executor mExecutor;
+
+    // Deletes the files of the evicted videos.
+    private final Executor mIoExecutor;
+
+    public StorageManager(AppDatabase db, VideoUpdateQueue updateQueue,
+            DownloadQueue downloadQueue) {
+        this(db, updateQueue, downloadQueue, AppConfiguration.OFFLINE_STORAGE_QUOTA_BYTES,
+                downloadQueue.getScheduler(), Executors.newSingleThreadExecutor());
+    }
+
+    StorageManager(AppDatabase db, VideoUpdateQueue updateQueue, DownloadQueue downloadQueue,
+            long quotaBytes, Executor executor, Executor ioExecutor) {
+        mDb = db;
+        mDownloadDao = db.downloadDao();
+        mStorageDao = db.storageDao();
+        mUpdateQueue = updateQueue;
+        mDownloadQueue = downloadQueue;
+        mQuotaBytes = quotaBytes;
+        mExecutor = executor;
+        mIoExecutor = ioExecutor;
+    }
+
+    /**
+     * The number of bytes used by the downloaded videos.
+     */
+    public LiveData<Long> getUsedBytes() {
+        return mStorageDao.loadUsedBytesLiveData();
+    }
+
+    /**
+     * Stores the path of a downloaded file in its video and counts it, then removes the least
+     * recently watched videos if the quota is exceeded. Ignored if the video was removed since.
+     */
+    public void onDownloaded(final DownloadingTaskDescription desc) {
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                long videoId = desc.getVideo().getId();
+                DownloadEntity download = mDownloadDao.loadDownload(videoId, desc.getCategory());
+                if (download == null || download.getState() != DownloadEntity.STATE_DONE) {
+                    return;
+                }
+                mUpdateQueue.update(desc.getVideo(), desc.getCategory(), desc.getStoragePath());
+
+                mDb.beginTransaction();
+                try {
+                    StorageEntity storage = mStorageDao.loadStorage(videoId);
+                    if (storage == null) {
+                        // A video never played is as recent as its download.
+                        storage = new StorageEntity();
+                        storage.setVideoId(videoId);
+                        storage.setLastPlayed(System.currentTimeMillis());
+                    }
+                    storage.setSizeBytes(mDownloadDao.loadDownloadedBytes(videoId));
+                    mStorageDao.insertStorage(storage);
+                    mDb.setTransactionSuccessful();
+                } finally {
+                    mDb.endTransaction();
+                }
+                evictIfNeeded();
+            }
+        });
+    }
+
+    /**
+     * Marks a video as watched now, so it is removed after the videos watched before.
+     */
+    public void onPlayed(final long videoId) {
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                mStorageDao.updateLastPlayed(videoId, System.currentTimeMillis());
+            }
+        });
+    }
+
+    /**
+     * Removes the downloaded files of a video.
+     */
+    public void remove(final long videoId) {
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                evict(Collections.singletonList(videoId));
+            }
+        });
+    }
+
+    @WorkerThread
+    private void evictIfNeeded() {
+        long usedBytes = mStorageDao.loadUsedBytes();
+        if (usedBytes <= mQuotaBytes) {
+            return;
+        }
+
+        List<Long> evicted = new ArrayList<>();
+        for (StorageEntity storage : mStorageDao.loadEvictionCandidates()) {
+            if (usedBytes <= mQuotaBytes) {
+                break;
+            }
+            evicted.add(storage.getVideoId());
+            usedBytes -= storage.getSizeBytes();
+        }
+        if (DEBUG) {
+            Log.d(TAG, "Evicting " + evicted + ", " + usedBytes + " bytes left");
+        }
+        evict(evicted);
+    }
+
+    @WorkerThread
+    private void evict(List<Long> videoIds) {
+        if (videoIds.isEmpty()) {
+            return;
+        }
+
+        final Set<File> files = new LinkedHashSet<>();
+        mDb.beginTransaction();
+        try {
+            for (long videoId : videoIds) {
+                for (DownloadEntity download : mDownloadDao.loadDownloadsOfVideo(videoId)) {
+                    mDownloadQueue.cancel(download);
+                    files.add(new File(download.getLocalPath()));
+                }
+                mDownloadDao.deleteDownloadsOfVideo(videoId);
+                mStorageDao.deleteStorage(videoId);
+            }
+            mDb.setTransactionSuccessful();
+        } finally {
+            mDb.endTransaction();
+        }
+
+        // The videos are merged into one write by the update queue.
+        for (VideoEntity video : mDb.videoDao().loadVideosByIds(videoIds)) {
+            // Files downloaded before the download table have no row.
+            addLocalFile(files, video.getVideoLocalStorageUrl());
+            addLocalFile(files, video.getVideoBgImageLocalStorageUrl());
+            addLocalFile(files, video.getVideoCardImageLocalStorageUrl());
+
+            mUpdateQueue.update(video, VideoUpdateQueue.VIDEO, "");
+            mUpdateQueue.update(video, VideoUpdateQueue.BACKGROUND, "");
+            mUpdateQueue.update(video, VideoUpdateQueue.CARD, "");
+            mUpdateQueue.update(video, VideoUpdateQueue.STATUS, "");
+        }
+
+        mIoExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                for (File file : files) {
+                    if (!file.delete() && DEBUG) {
+                        Log.e(TAG, "Cannot delete " + file);
+                    }
+                }
+            }
+        });
+    }
+
+    private static void addLocalFile(Set<File> files, String uri) {
+        if (uri != null && !uri.isEmpty()) {
+            files.add(new File(Uri.parse(uri).getPath()));
+        }
+    }
+}
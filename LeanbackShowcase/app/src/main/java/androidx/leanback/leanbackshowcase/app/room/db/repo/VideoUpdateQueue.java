@@ -0,0 +1,237 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.leanback.leanbackshowcase.app.room.db.repo;
+
+import androidx.annotation.WorkerThread;
+import androidx.leanback.leanbackshowcase.app.room.db.AppDatabase;
+import androidx.leanback.leanbackshowcase.app.room.db.dao.VideoDao;
+import androidx.leanback.leanbackshowcase.app.room.db.entity.VideoEntity;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the field updates of the videos from a single thread.
+ *
+ * Updates are not written right away: the ones made within {@link #WINDOW_MS} are merged by
+ * video, a later value of a field replacing an earlier one, and written in one transaction. A
+ * burst of updates, like the files of a few downloads completing together, is then one write of
+ * each video and one invalidation of the observers instead of one per field.
+ *
+ * The fields are applied to the rows read in the transaction, not to the videos passed in, so
+ * merged updates from stale copies of a video do not overwrite each other.
+ */
+public class VideoUpdateQueue {
+
+    // Fields which can be updated.
+    static final String RENTED = "rented";
+    static final String STATUS = "status";
+    static final String CARD = "card";
+    static final String BACKGROUND = "background";
+    static final String VIDEO = "video";
+
+    // How long updates are merged before they are written.
+    static final long WINDOW_MS = 100;
+
+    private final AppDatabase mDb;
+    private final long mWindowMs;
+    private final ScheduledExecutorService mWriter = Executors.newSingleThreadScheduledExecutor();
+
+    private final Object mLock = new Object();
+
+    // Updates waiting for the next write, by video id, guarded by mLock.
+    private Map<Long, PendingUpdate> mPending = new LinkedHashMap<>();
+    private boolean mWriteScheduled;
+
+    public VideoUpdateQueue(AppDatabase db) {
+        this(db, WINDOW_MS);
+    }
+
+    VideoUpdateQueue(AppDatabase db, long windowMs) {
+        mDb = db;
+        mWindowMs = windowMs;
+    }
+
+    /**
+     * Sets the {@code category} field of {@code video} to {@code value} in the next write.
+     *
+     * @return A future which completes once the update is written.
+     */
+    public UpdateFuture update(VideoEntity video, String category, String value) {
+        UpdateFuture future = new UpdateFuture();
+        synchronized (mLock) {
+            PendingUpdate pending = mPending.get(video.getId());
+            if (pending == null) {
+                pending = new PendingUpdate();
+                mPending.put(video.getId(), pending);
+            }
+            pending.mFields.put(category, value);
+            pending.mFutures.add(future);
+
+            if (!mWriteScheduled) {
+                mWriteScheduled = true;
+                mWriter.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        write();
+                    }
+                }, mWindowMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        return future;
+    }
+
+    @WorkerThread
+    private void write() {
+        Map<Long, PendingUpdate> pending;
+        synchronized (mLock) {
+            pending = mPending;
+            mPending = new LinkedHashMap<>();
+            mWriteScheduled = false;
+        }
+
+        try {
+            VideoDao dao = mDb.videoDao();
+            mDb.beginTransaction();
+            try {
+                List<VideoEntity> videos =
+                        dao.loadVideosByIds(new ArrayList<>(pending.keySet()));
+
+                // All the videos of a write share one version.
+                long version = dao.loadLatestVersion() + 1;
+                for (VideoEntity video : videos) {
+                    for (Map.Entry<String, String> field
+                            : pending.get(video.getId()).mFields.entrySet()) {
+                        apply(video, field.getKey(), field.getValue());
+                    }
+                    video.setVersion(version);
+                }
+                dao.updateVideos(videos);
+                mDb.setTransactionSuccessful();
+            } finally {
+                mDb.endTransaction();
+            }
+        } catch (RuntimeException e) {
+            for (PendingUpdate update : pending.values()) {
+                for (UpdateFuture future : update.mFutures) {
+                    future.fail(e);
+                }
+            }
+            return;
+        }
+
+        for (PendingUpdate update : pending.values()) {
+            for (UpdateFuture future : update.mFutures) {
+                future.complete();
+            }
+        }
+    }
+
+    private static void apply(VideoEntity video, String category, String value) {
+        switch (category) {
+            case VIDEO:
+                video.setVideoLocalStorageUrl(value);
+                break;
+            case BACKGROUND:
+                video.setVideoBgImageLocalStorageUrl(value);
+                break;
+            case CARD:
+                video.setVideoCardImageLocalStorageUrl(value);
+                break;
+            case STATUS:
+                video.setStatus(value);
+                break;
+            case RENTED:
+                video.setRented(true);
+                break;
+        }
+    }
+
+    private static final class PendingUpdate {
+        // The latest value of every updated field, in the order they were first updated.
+        private final Map<String, String> mFields = new LinkedHashMap<>();
+        private final List<UpdateFuture> mFutures = new ArrayList<>();
+    }
+
+    /**
+     * Completes once an update is written, or fails with the error of its write. Listeners can be
+     * added to be notified when it is done, without blocking on {@link #get()}.
+     */
+    public static final class UpdateFuture extends FutureTask<Void> {
+
+        private static final Callable<Void> NO_OP = new Callable<Void>() {
+            @Override
+            public Void call() {
+                return null;
+            }
+        };
+
+        private final List<Runnable> mListeners = new ArrayList<>();
+
+        UpdateFuture() {
+            super(NO_OP);
+        }
+
+        /**
+         * Runs {@code listener} on {@code executor} once the update is written or failed, right
+         * away if it already is.
+         */
+        public void addListener(final Runnable listener, final Executor executor) {
+            Runnable dispatch = new Runnable() {
+                @Override
+                public void run() {
+                    executor.execute(listener);
+                }
+            };
+            synchronized (mListeners) {
+                if (!isDone()) {
+                    mListeners.add(dispatch);
+                    return;
+                }
+            }
+            dispatch.run();
+        }
+
+        void complete() {
+            set(null);
+        }
+
+        void fail(Throwable t) {
+            setException(t);
+        }
+
+        @Override
+        protected void done() {
+            List<Runnable> listeners;
+            synchronized (mListeners) {
+                listeners = new ArrayList<>(mListeners);
+                mListeners.clear();
+            }
+            for (Runnable listener : listeners) {
+                listener.run();
+            }
+        }
+    }
+}
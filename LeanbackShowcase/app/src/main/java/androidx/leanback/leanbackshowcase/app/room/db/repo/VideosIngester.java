@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.leanback.leanbackshowcase.app.room.db.repo;
+
+import androidx.annotation.WorkerThread;
+import androidx.leanback.leanbackshowcase.app.room.api.VideosWithGoogleTag;
+import androidx.leanback.leanbackshowcase.app.room.db.AppDatabase;
+import androidx.leanback.leanbackshowcase.app.room.db.entity.CategoryEntity;
+import androidx.leanback.leanbackshowcase.app.room.db.entity.VideoEntity;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a downloaded catalog into the database.
+ *
+ * All categories and videos go in one transaction, so the database is synced to disk once and
+ * Room's invalidation tracker notifies the observers of both tables once, when the whole catalog
+ * is in. The inserts reuse one prepared statement per table.
+ */
+public class VideosIngester {
+
+    // Number of videos inserted between two progress updates.
+    private static final int BATCH_SIZE = 500;
+
+    private static final String TRAILER_VIDEO_URL = "https://storage.googleapis.com/android-tv/"
+            + "Sample%20videos/Google%2B/Google%2B_%20Say%20more%20with%20Hangouts.mp4";
+
+    private final AppDatabase mDb;
+    private final MutableLiveData<Progress> mProgress = new MutableLiveData<>();
+
+    public VideosIngester(AppDatabase db) {
+        mDb = db;
+    }
+
+    /**
+     * The progress of the latest ingest, or no value if none was started.
+     */
+    public LiveData<Progress> getProgress() {
+        return mProgress;
+    }
+
+    /**
+     * Inserts all the categories and videos of {@code videosWithGoogleTag}.
+     */
+    @WorkerThread
+    public void ingest(VideosWithGoogleTag videosWithGoogleTag) {
+        List<VideosWithGoogleTag.VideosGroupByCategory> groups =
+                videosWithGoogleTag.getAllResources();
+
+        List<CategoryEntity> categories = new ArrayList<>(groups.size());
+        int total = 0;
+        for (VideosWithGoogleTag.VideosGroupByCategory videosGroupByCategory : groups) {
+            CategoryEntity categoryEntity = new CategoryEntity();
+            categoryEntity.setCategoryName(videosGroupByCategory.getCategory());
+            categories.add(categoryEntity);
+
+            postProcessing(videosGroupByCategory);
+            total += videosGroupByCategory.getVideos().size();
+        }
+        mProgress.postValue(new Progress(0, total, false, false));
+
+        int inserted = 0;
+        boolean committed = false;
+        try {
+            mDb.beginTransaction();
+            try {
+                mDb.categoryDao().insertAllCategories(categories);
+
+                // The whole catalog is one write, its videos share one version.
+                long version = mDb.videoDao().loadLatestVersion() + 1;
+                for (VideosWithGoogleTag.VideosGroupByCategory videosGroupByCategory : groups) {
+                    List<VideoEntity> videos = videosGroupByCategory.getVideos();
+                    for (int start = 0; start < videos.size(); start += BATCH_SIZE) {
+                        int end = Math.min(videos.size(), start + BATCH_SIZE);
+                        for (int i = start; i < end; i++) {
+                            videos.get(i).setVersion(version);
+                        }
+                        mDb.videoDao().insertAllVideos(videos.subList(start, end));
+                        inserted += end - start;
+                        mProgress.postValue(new Progress(inserted, total, false, false));
+                    }
+                }
+                mDb.setTransactionSuccessful();
+            } finally {
+                mDb.endTransaction();
+            }
+            committed = true;
+        } finally {
+            // Posted when the ingest fails too, so the progress is never left running.
+            mProgress.postValue(committed
+                    ? new Progress(inserted, total, true, false)
+                    : new Progress(0, total, true, true));
+        }
+    }
+
+    /**
+     * Helper function to make some customization on raw data
+     */
+    private static void postProcessing(
+            VideosWithGoogleTag.VideosGroupByCategory videosGroupByCategory) {
+        for (VideoEntity each : videosGroupByCategory.getVideos()) {
+            each.setCategory(videosGroupByCategory.getCategory());
+            each.setVideoLocalStorageUrl("");
+            each.setVideoBgImageLocalStorageUrl("");
+            each.setVideoCardImageLocalStorageUrl("");
+            each.setVideoUrl(each.getVideoUrls().get(0));
+            each.setRented(false);
+            each.setStatus("");
+            each.setTrailerVideoUrl(TRAILER_VIDEO_URL);
+        }
+    }
+
+    /**
+     * How far an ingest got. The last one has {@link #isDone()}; unless it also has
+     * {@link #isFailed()}, the catalog is then visible to queries.
+     */
+    public static class Progress {
+        private final int mInserted;
+        private final int mTotal;
+        private final boolean mDone;
+        private final boolean mFailed;
+
+        Progress(int inserted, int total, boolean done, boolean failed) {
+            mInserted = inserted;
+            mTotal = total;
+            mDone = done;
+            mFailed = failed;
+        }
+
+        public int getInserted() {
+            return mInserted;
+        }
+
+        public int getTotal() {
+            return mTotal;
+        }
+
+        public boolean isDone() {
+            return mDone;
+        }
+
+        /**
+         * Whether the ingest ended without writing anything.
+         */
+        public boolean isFailed() {
+            return mFailed;
+        }
+    }
+}
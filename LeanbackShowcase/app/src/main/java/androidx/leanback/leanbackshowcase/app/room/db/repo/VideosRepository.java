@@ -18,9 +18,11 @@
 package androidx.leanback.leanbackshowcase.app.room.db.repo;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.LivePagedListBuilder;
+import androidx.paging.PagedList;
 import androidx.room.Room;
 import android.os.AsyncTask;
-import androidx.annotation.WorkerThread;
+import android.os.Environment;
 import androidx.leanback.leanbackshowcase.R;
 import androidx.leanback.leanbackshowcase.app.room.controller.app.SampleApplication;
 import androidx.leanback.leanbackshowcase.app.room.api.VideoDownloadingService;
@@ -31,11 +33,16 @@ import androidx.leanback.leanbackshowcase.app.room.db.dao.CategoryDao;
 import androidx.leanback.leanbackshowcase.app.room.db.dao.VideoDao;
 import androidx.leanback.leanbackshowcase.app.room.db.entity.CategoryEntity;
 import androidx.leanback.leanbackshowcase.app.room.db.entity.VideoEntity;
+import androidx.leanback.leanbackshowcase.app.room.db.search.VideoFts;
+import androidx.leanback.leanbackshowcase.app.room.db.search.VideoSearchLiveData;
+import androidx.leanback.leanbackshowcase.app.room.network.DownloadQueue;
+import androidx.leanback.leanbackshowcase.app.room.network.DownloadingTaskDescription;
 import androidx.leanback.leanbackshowcase.utils.Utils;
 import android.util.Log;
 
 import com.google.gson.Gson;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
@@ -57,21 +64,29 @@ public class VideosRepository {
     private static final boolean DEBUG = false;
     private static final String TAG = "VideosRepository";
 
-    // meta data type constant
-    private static final String RENTED = "rented";
-    private static final String STATUS = "status";
-    private static final String CARD = "card";
-    private static final String BACKGROUND = "background";
-    private static final String VIDEO = "video";
+    // Dropping pages needs room for the loaded window on both sides of the shown position.
+    private static final PagedList.Config PAGED_LIST_CONFIG = new PagedList.Config.Builder()
+            .setPageSize(AppConfiguration.PAGE_SIZE)
+            .setPrefetchDistance(AppConfiguration.PREFETCH_DISTANCE)
+            .setInitialLoadSizeHint(AppConfiguration.PAGE_SIZE * 2)
+            .setEnablePlaceholders(AppConfiguration.IS_PLACEHOLDER_ENABLED)
+            .setMaxSize(Math.max(AppConfiguration.MAX_PAGED_ROW_SIZE,
+                    AppConfiguration.PAGE_SIZE + 2 * AppConfiguration.PREFETCH_DISTANCE))
+            .build();
 
     private static VideosRepository sVideosRepository;
 
     private AppDatabase mDb;
     private VideoDao mVideoDao;
     private CategoryDao mCategoryDao;
+    private VideosIngester mIngester;
+    private VideoUpdateQueue mUpdateQueue;
+    private DownloadQueue mDownloadQueue;
+    private StorageManager mStorageManager;
 
     // maintain the local cache so the live data can be shared among different components
     private Map<String, LiveData<List<VideoEntity>>> mVideoEntitiesCache;
+    private Map<String, LiveData<PagedList<VideoEntity>>> mPagedVideosCache;
     private LiveData<List<CategoryEntity>> mCategories;
 
     public static VideosRepository getVideosRepositoryInstance() {
@@ -98,6 +113,24 @@ public class VideosRepository {
         return videoEntities;
     }
 
+    /**
+     * The videos of a category, loaded a page at a time as the row is scrolled. At most
+     * {@link AppConfiguration#MAX_PAGED_ROW_SIZE} videos are kept in memory, and the videos not
+     * loaded yet are null placeholders when {@link AppConfiguration#IS_PLACEHOLDER_ENABLED}.
+     *
+     * @param category category
+     * @return The paged list of videos which is wrapped in a live data.
+     */
+    public LiveData<PagedList<VideoEntity>> getPagedVideosInSameCategory(String category) {
+        if (mPagedVideosCache.containsKey(category)) {
+            return mPagedVideosCache.get(category);
+        }
+        LiveData<PagedList<VideoEntity>> videos = new LivePagedListBuilder<>(
+                mVideoDao.loadPagedVideosInSameCategory(category), PAGED_LIST_CONFIG).build();
+        mPagedVideosCache.put(category, videos);
+        return videos;
+    }
+
     public LiveData<List<CategoryEntity>> getAllCategories() {
 
         if (mCategories == null) {
@@ -106,49 +139,77 @@ public class VideosRepository {
         return mCategories;
     }
 
+    /**
+     * Searches the title, description and category of the videos, best match first. The videos
+     * have the ranges of their title which matched the query.
+     */
     public LiveData<List<VideoEntity>> getSearchResult(String query) {
-        return mVideoDao.searchVideos(query);
+        return new VideoSearchLiveData(mDb, query);
     }
 
     public LiveData<VideoEntity> getVideoById(Long id) {
         return mVideoDao.loadVideoById(id);
     }
 
+    /**
+     * The progress of writing the downloaded catalog into the database.
+     */
+    public LiveData<VideosIngester.Progress> getIngestProgress() {
+        return mIngester.getProgress();
+    }
+
 
 
     /**
-     * Helper function to access the database and update the video information in the database.
+     * Updates a field of a video in the database. Updates made close together are merged and
+     * written in one transaction by {@link VideoUpdateQueue}.
      *
      * @param video    video entity
      * @param category which fields to update
      * @param value    updated value
+     * @return A future which completes once the update is written.
      */
-    @WorkerThread
-    public synchronized void updateDatabase(VideoEntity video, String category, String value) {
-        try {
-            mDb.beginTransaction();
-            switch (category) {
-                case VIDEO:
-                    video.setVideoLocalStorageUrl(value);
-                    break;
-                case BACKGROUND:
-                    video.setVideoBgImageLocalStorageUrl(value);
-                    break;
-                case CARD:
-                    video.setVideoCardImageLocalStorageUrl(value);
-                    break;
-                case STATUS:
-                    video.setStatus(value);
-                    break;
-                case RENTED:
-                    video.setRented(true);
-                    break;
-            }
-            mDb.videoDao().updateVideo(video);
-            mDb.setTransactionSuccessful();
-        } finally {
-            mDb.endTransaction();
-        }
+    public VideoUpdateQueue.UpdateFuture updateDatabase(VideoEntity video, String category,
+            String value) {
+        return mUpdateQueue.update(video, category, value);
+    }
+
+    /**
+     * Downloads the video content, background and card image of {@code video}. The paths of the
+     * downloaded files are stored in the video as they complete.
+     */
+    public void download(VideoEntity video) {
+        mDownloadQueue.enqueue(video);
+    }
+
+    /**
+     * Removes the downloaded files of {@code video}.
+     */
+    public void removeDownloads(VideoEntity video) {
+        mStorageManager.remove(video.getId());
+    }
+
+    /**
+     * Marks {@code video} as watched now, the least recently watched videos are removed first
+     * when the downloads exceed {@link AppConfiguration#OFFLINE_STORAGE_QUOTA_BYTES}.
+     */
+    public void markPlayed(VideoEntity video) {
+        mStorageManager.onPlayed(video.getId());
+    }
+
+    /**
+     * The number of bytes used by the downloaded videos.
+     */
+    public LiveData<Long> getUsedStorage() {
+        return mStorageManager.getUsedBytes();
+    }
+
+    public void addDownloadListener(DownloadQueue.DownloadCompleteListener listener) {
+        mDownloadQueue.addListener(listener);
+    }
+
+    public void removeDownloadListener(DownloadQueue.DownloadCompleteListener listener) {
+        mDownloadQueue.removeListener(listener);
     }
 
     @Inject
@@ -157,11 +218,20 @@ public class VideosRepository {
         mVideoDao = mDb.videoDao();
         mCategoryDao = mDb.categoryDao();
         mVideoEntitiesCache = new HashMap<>();
+        mPagedVideosCache = new HashMap<>();
     }
 
     private void createAndPopulateDatabase() {
         mDb = Room.databaseBuilder(SampleApplication.getInstance(),
-                AppDatabase.class, AppDatabase.DATABASE_NAME).build();
+                AppDatabase.class, AppDatabase.DATABASE_NAME)
+                .addCallback(VideoFts.CALLBACK)
+                .addMigrations(VideoFts.MIGRATION_1_2, AppDatabase.MIGRATION_2_3,
+                        AppDatabase.MIGRATION_3_4, AppDatabase.MIGRATION_4_5,
+                        VideoFts.MIGRATION_5_6)
+                .build();
+        mIngester = new VideosIngester(mDb);
+        mUpdateQueue = new VideoUpdateQueue(mDb);
+        createDownloadQueue();
 
         // insert contents into database
         try {
@@ -173,6 +243,26 @@ public class VideosRepository {
         }
     }
 
+    private void createDownloadQueue() {
+        SampleApplication app = SampleApplication.getInstance();
+        File directory = app.getExternalFilesDir(Environment.DIRECTORY_DOWNLOADS);
+        if (directory == null) {
+            directory = new File(app.getFilesDir(), Environment.DIRECTORY_DOWNLOADS);
+        }
+        mDownloadQueue = new DownloadQueue(mDb, directory);
+        mStorageManager = new StorageManager(mDb, mUpdateQueue, mDownloadQueue);
+        mDownloadQueue.addListener(new DownloadQueue.DownloadCompleteListener() {
+            @Override
+            public void onDownloadingCompleted(DownloadingTaskDescription desc) {
+                // Stores the path of the file, unless the video was removed since.
+                mStorageManager.onDownloaded(desc);
+            }
+        });
+
+        // go on with the downloads of the previous process
+        mDownloadQueue.resume();
+    }
+
     private void initializeDb(AppDatabase db, String url) throws IOException {
 
         // json data
@@ -190,18 +280,18 @@ public class VideosRepository {
             Gson gson = new Gson();
             VideosWithGoogleTag videosWithGoogleTag = gson.fromJson(json,
                     VideosWithGoogleTag.class);
-            populateDatabase(videosWithGoogleTag,db);
+            populateDatabase(videosWithGoogleTag);
         } else {
-            buildDatabase(db, url);
+            buildDatabase(url);
         }
     }
 
     /**
      * Takes the contents of a JSON object and populates the database
      *
-     * @param db Room database.
+     * @param url base url of the catalog.
      */
-    private static void buildDatabase(final AppDatabase db, String url) throws IOException {
+    private void buildDatabase(String url) throws IOException {
         Retrofit retrofit = new Retrofit
                 .Builder()
                 .baseUrl(url)
@@ -218,7 +308,7 @@ public class VideosRepository {
                     Log.d(TAG, "onResponse: result is null");
                     return;
                 }
-                populateDatabase(videosWithGoogleTag, db);
+                populateDatabase(videosWithGoogleTag);
             }
 
             @Override
@@ -229,48 +319,13 @@ public class VideosRepository {
 
     }
 
-    private static void populateDatabase(VideosWithGoogleTag videosWithGoogleTag, final AppDatabase db) {
-        for (final VideosWithGoogleTag.VideosGroupByCategory videosGroupByCategory :
-                videosWithGoogleTag.getAllResources()) {
-
-            // create category table
-            final CategoryEntity categoryEntity = new CategoryEntity();
-            categoryEntity.setCategoryName(videosGroupByCategory.getCategory());
-
-            // create video table with customization
-            postProcessing(videosGroupByCategory);
-
-            new AsyncTask<Void, Void, Void>() {
-                @Override
-                protected Void doInBackground(Void... voids) {
-                    try {
-                        db.beginTransaction();
-                        db.categoryDao().insertCategory(categoryEntity);
-                        db.videoDao().insertAllVideos(videosGroupByCategory.getVideos());
-                        db.setTransactionSuccessful();
-                    } finally {
-                        db.endTransaction();
-                    }
-                    return null;
-                }
-            }.execute();
-
-        }
-    }
-
-    /**
-     * Helper function to make some customization on raw data
-     */
-    private static void postProcessing(VideosWithGoogleTag.VideosGroupByCategory videosGroupByCategory) {
-        for (VideoEntity each : videosGroupByCategory.getVideos()) {
-            each.setCategory(videosGroupByCategory.getCategory());
-            each.setVideoLocalStorageUrl("");
-            each.setVideoBgImageLocalStorageUrl("");
-            each.setVideoCardImageLocalStorageUrl("");
-            each.setVideoUrl(each.getVideoUrls().get(0));
-            each.setRented(false);
-            each.setStatus("");
-            each.setTrailerVideoUrl("https://storage.googleapis.com/android-tv/Sample%20videos/Google%2B/Google%2B_%20Say%20more%20with%20Hangouts.mp4");
-        }
+    private void populateDatabase(final VideosWithGoogleTag videosWithGoogleTag) {
+        new AsyncTask<Void, Void, Void>() {
+            @Override
+            protected Void doInBackground(Void... voids) {
+                mIngester.ingest(videosWithGoogleTag);
+                return null;
+            }
+        }.execute();
     }
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.leanback.leanbackshowcase.app.room.db.repo;
+
+import androidx.annotation.WorkerThread;
+import androidx.arch.core.util.Function;
+import androidx.core.os.TraceCompat;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import dagger.Lazy;
+
+/**
+ * Builds the {@link VideosRepository} on a background thread.
+ *
+ * Building the repository creates the Room database and starts fetching the catalog, which used
+ * to happen on the main thread while the first fragment was being created. Components which need
+ * the repository observe {@link #getRepository()} instead, and get it once it is built. Calls
+ * made to the repository from the main thread are queued with {@link #execute(Task)}, they run
+ * in order once it is built.
+ */
+@Singleton
+public class VideosRepositoryInitializer {
+
+    /**
+     * A call to the repository, made on the background thread of the initializer.
+     */
+    public interface Task {
+        @WorkerThread
+        void run(VideosRepository repository);
+    }
+
+    private final Lazy<VideosRepository> mLazyRepository;
+    // Builds the repository, then runs the tasks queued with execute(), one at a time.
+    private final Executor mExecutor = Executors.newSingleThreadExecutor();
+    private final MutableLiveData<VideosRepository> mRepository = new MutableLiveData<>();
+    private final LiveData<Boolean> mReady;
+    private final AtomicBoolean mStarted = new AtomicBoolean();
+
+    @Inject
+    public VideosRepositoryInitializer(Lazy<VideosRepository> repository) {
+        mLazyRepository = repository;
+        mReady = Transformations.map(mRepository, new Function<VideosRepository, Boolean>() {
+            @Override
+            public Boolean apply(VideosRepository repository) {
+                return repository != null;
+            }
+        });
+    }
+
+    /**
+     * Starts building the repository if it is not started yet.
+     */
+    public void start() {
+        if (!mStarted.compareAndSet(false, true)) {
+            return;
+        }
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                TraceCompat.beginSection("VideosRepository init");
+                try {
+                    mRepository.postValue(mLazyRepository.get());
+                } finally {
+                    TraceCompat.endSection();
+                }
+            }
+        });
+    }
+
+    /**
+     * The repository, once it is built. Starts building it if needed.
+     */
+    public LiveData<VideosRepository> getRepository() {
+        start();
+        return mRepository;
+    }
+
+    /**
+     * Whether the repository is built. Starts building it if needed.
+     */
+    public LiveData<Boolean> isReady() {
+        start();
+        return mReady;
+    }
+
+    /**
+     * Runs {@code task} with the repository in the background, after the tasks queued before it.
+     * Starts building the repository if needed.
+     */
+    public void execute(final Task task) {
+        start();
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                task.run(mLazyRepository.get());
+            }
+        });
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.leanback.leanbackshowcase.app.room.db.search;
+
+import androidx.annotation.NonNull;
+import androidx.leanback.leanbackshowcase.app.room.db.constant.DatabaseColumnConstant.VideoEntry;
+import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * The full text index of the videos.
+ *
+ * It is an FTS4 table using the video table as its external content, so the text is not stored
+ * twice. Triggers on the video table keep it in sync. Room does not know about the table, it is
+ * created by {@link #CALLBACK} in new databases and by {@link #MIGRATION_1_2} in older ones.
+ * <p>
+ * The catalog is written again with INSERT OR REPLACE on every start. The rows REPLACE deletes do
+ * not fire delete triggers unless recursive triggers are on, so a row is also removed from the
+ * index before it is inserted.
+ */
+public class VideoFts {
+
+    public static final String TABLE_NAME = "videos_fts";
+
+    // Index of the title among the columns, as reported by offsets() and matchinfo().
+    static final int COLUMN_INDEX_TITLE = 0;
+
+    private static final String CREATE_TABLE = "CREATE VIRTUAL TABLE IF NOT EXISTS " + TABLE_NAME
+            + " USING fts4(content=\"" + VideoEntry.TABLE_NAME + "\", "
+            + VideoEntry.COLUMN_NAME + ", "
+            + VideoEntry.COLUMN_DESC + ", "
+            + VideoEntry.COLUMN_CATEGORY + ", "
+            // Keeps short prefix queries, typed one letter at a time, as fast as whole words.
+            + "prefix=\"2,3\")";
+
+    private static final String INSERT_ROW = "INSERT INTO " + TABLE_NAME + "(docid, "
+            + VideoEntry.COLUMN_NAME + ", "
+            + VideoEntry.COLUMN_DESC + ", "
+            + VideoEntry.COLUMN_CATEGORY + ") VALUES (new."
+            + VideoEntry.COLUMN_AUTO_GENERATE_ID + ", new."
+            + VideoEntry.COLUMN_NAME + ", new."
+            + VideoEntry.COLUMN_DESC + ", new."
+            + VideoEntry.COLUMN_CATEGORY + ");";
+
+    // An external content row must be deleted while the content row still has its old values.
+    private static final String DELETE_ROW = "DELETE FROM " + TABLE_NAME + " WHERE docid = old."
+            + VideoEntry.COLUMN_AUTO_GENERATE_ID + ";";
+
+    // Removes the row being replaced, if any, while the video table still has its old values.
+    private static final String DELETE_REPLACED_ROW = "DELETE FROM " + TABLE_NAME
+            + " WHERE docid = new." + VideoEntry.COLUMN_AUTO_GENERATE_ID + ";";
+
+    private static final String[] CREATE_TRIGGERS = {
+            "CREATE TRIGGER IF NOT EXISTS " + TABLE_NAME + "_before_update BEFORE UPDATE ON "
+                    + VideoEntry.TABLE_NAME + " BEGIN " + DELETE_ROW + " END",
+            "CREATE TRIGGER IF NOT EXISTS " + TABLE_NAME + "_before_delete BEFORE DELETE ON "
+                    + VideoEntry.TABLE_NAME + " BEGIN " + DELETE_ROW + " END",
+            "CREATE TRIGGER IF NOT EXISTS " + TABLE_NAME + "_before_insert BEFORE INSERT ON "
+                    + VideoEntry.TABLE_NAME + " BEGIN " + DELETE_REPLACED_ROW + " END",
+            "CREATE TRIGGER IF NOT EXISTS " + TABLE_NAME + "_after_update AFTER UPDATE ON "
+                    + VideoEntry.TABLE_NAME + " BEGIN " + INSERT_ROW + " END",
+            "CREATE TRIGGER IF NOT EXISTS " + TABLE_NAME + "_after_insert AFTER INSERT ON "
+                    + VideoEntry.TABLE_NAME + " BEGIN " + INSERT_ROW + " END",
+    };
+
+    private static final String REBUILD = "INSERT INTO " + TABLE_NAME + "(" + TABLE_NAME
+            + ") VALUES ('rebuild')";
+
+    /**
+     * Creates the full text index in a new database.
+     */
+    public static final RoomDatabase.Callback CALLBACK = new RoomDatabase.Callback() {
+        @Override
+        public void onCreate(@NonNull SupportSQLiteDatabase db) {
+            create(db);
+        }
+    };
+
+    /**
+     * Adds the full text index to a database without it, and indexes the existing videos.
+     */
+    public static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            create(db);
+            db.execSQL(REBUILD);
+        }
+    };
+
+    /**
+     * Removes the rows of replaced videos from the index too, and drops the duplicates indexed
+     * while they were not.
+     */
+    public static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            create(db);
+            db.execSQL(REBUILD);
+        }
+    };
+
+    private static void create(SupportSQLiteDatabase db) {
+        db.execSQL(CREATE_TABLE);
+        for (String trigger : CREATE_TRIGGERS) {
+            db.execSQL(trigger);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.leanback.leanbackshowcase.app.room.db.search;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+import androidx.leanback.leanbackshowcase.app.room.db.constant.DatabaseColumnConstant.VideoEntry;
+import androidx.leanback.leanbackshowcase.app.room.db.dao.VideoDao;
+import androidx.leanback.leanbackshowcase.app.room.db.entity.VideoEntity;
+import androidx.sqlite.db.SimpleSQLiteQuery;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Searches the videos through the full text index of {@link VideoFts}.
+ *
+ * Every word of the query is matched as a prefix, in any of the title, description and category.
+ * Results are ordered by an Okapi BM25 rank computed from matchinfo(), a title match counting
+ * more than a description match. The rank only needs the index, so the videos are only read for
+ * the best {@link #MAX_RESULTS} matches, along with the ranges of their titles to highlight.
+ * <p>
+ * Short prefixes can match most of the catalog, so matchinfo() is not read for every match. SQL
+ * first picks at most {@link #MAX_CANDIDATES} videos with every word in the title, and as many
+ * with any match, each the shortest first: BM25 ranks the rows with the same hits by the length
+ * of the matched column, so these hold the best ranked rows but for unusual term frequencies.
+ */
+public class VideoSearch {
+
+    static final String MATCH_INFO_FORMAT = "pcnalx";
+
+    private static final int MAX_RESULTS = 100;
+    // Per kind of candidate, so at most twice this many rows are ranked.
+    static final int MAX_CANDIDATES = 500;
+
+    // BM25 parameters, the usual values.
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Weight of a match in the title, description and category, the columns of VideoFts.
+    private static final double[] COLUMN_WEIGHTS = {3.0, 1.0, 1.5};
+
+    // ?1 is the match expression, ?2 the same restricted to the title.
+    private static final String RANK_QUERY = "SELECT docid AS " + VideoSearchRank.COLUMN_DOCID
+            + ", matchinfo(" + VideoFts.TABLE_NAME + ", '" + MATCH_INFO_FORMAT + "') AS "
+            + VideoSearchRank.COLUMN_MATCH_INFO
+            + " FROM " + VideoFts.TABLE_NAME
+            + " WHERE " + VideoFts.TABLE_NAME + " MATCH ?1 AND docid IN ("
+            + "SELECT docid FROM (" + candidates("?2", VideoEntry.COLUMN_NAME) + ")"
+            + " UNION SELECT docid FROM (" + candidates("?1", VideoEntry.COLUMN_DESC) + "))";
+
+    private static final String MATCH_QUERY = "SELECT " + VideoEntry.TABLE_NAME + ".*, offsets("
+            + VideoFts.TABLE_NAME + ") AS " + VideoSearchMatch.COLUMN_MATCH_OFFSETS
+            + " FROM " + VideoFts.TABLE_NAME + " JOIN " + VideoEntry.TABLE_NAME
+            + " ON " + VideoEntry.TABLE_NAME + "." + VideoEntry.COLUMN_AUTO_GENERATE_ID
+            + " = " + VideoFts.TABLE_NAME + ".docid"
+            + " WHERE " + VideoFts.TABLE_NAME + " MATCH ? AND " + VideoFts.TABLE_NAME
+            + ".docid IN (";
+
+    /**
+     * Returns the videos matching {@code query}, best first.
+     */
+    @WorkerThread
+    public static List<VideoEntity> search(VideoDao dao, String query) {
+        String matchExpression = toMatchExpression(query);
+        if (matchExpression == null) {
+            return Collections.emptyList();
+        }
+
+        // Rank the candidates from the index alone.
+        List<VideoSearchRank> ranks = dao.rankVideos(new SimpleSQLiteQuery(RANK_QUERY,
+                new Object[]{matchExpression, toMatchExpression(query, VideoEntry.COLUMN_NAME)}));
+        final Map<Long, Double> scores = new HashMap<>(ranks.size() * 2);
+        for (VideoSearchRank rank : ranks) {
+            scores.put(rank.docid, score(rank.matchInfo));
+        }
+        List<Long> ids = new ArrayList<>(scores.keySet());
+        Collections.sort(ids, new Comparator<Long>() {
+            @Override
+            public int compare(Long o1, Long o2) {
+                return Double.compare(scores.get(o2), scores.get(o1));
+            }
+        });
+        if (ids.size() > MAX_RESULTS) {
+            ids = ids.subList(0, MAX_RESULTS);
+        }
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // Only read the videos which are shown.
+        StringBuilder sql = new StringBuilder(MATCH_QUERY);
+        Object[] args = new Object[ids.size() + 1];
+        args[0] = matchExpression;
+        for (int i = 0; i < ids.size(); i++) {
+            sql.append(i == 0 ? "?" : ",?");
+            args[i + 1] = ids.get(i);
+        }
+        sql.append(')');
+        List<VideoSearchMatch> matches =
+                dao.loadVideoMatches(new SimpleSQLiteQuery(sql.toString(), args));
+
+        List<VideoEntity> videos = new ArrayList<>(matches.size());
+        for (VideoSearchMatch match : matches) {
+            match.video.setTitleMatches(
+                    titleMatches(match.video.getTitle(), match.matchOffsets));
+            videos.add(match.video);
+        }
+        Collections.sort(videos, new Comparator<VideoEntity>() {
+            @Override
+            public int compare(VideoEntity o1, VideoEntity o2) {
+                return Double.compare(scores.get(o2.getId()), scores.get(o1.getId()));
+            }
+        });
+        return videos;
+    }
+
+    /**
+     * Turns what the user typed into a MATCH expression: every word, as a prefix. Returns null if
+     * there is no word to search.
+     */
+    @Nullable
+    static String toMatchExpression(String query) {
+        return toMatchExpression(query, null);
+    }
+
+    // Restricted to one column of VideoFts when column is not null.
+    @Nullable
+    private static String toMatchExpression(String query, @Nullable String column) {
+        if (query == null) {
+            return null;
+        }
+        StringBuilder expression = new StringBuilder();
+        for (String word : query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (expression.length() > 0) {
+                expression.append(' ');
+            }
+            if (column != null) {
+                expression.append(column).append(':');
+            }
+            expression.append(word).append('*');
+        }
+        return expression.length() == 0 ? null : expression.toString();
+    }
+
+    // The matches of the expression bound to parameter, the shortest column first.
+    private static String candidates(String parameter, String column) {
+        return "SELECT docid FROM " + VideoFts.TABLE_NAME
+                + " WHERE " + VideoFts.TABLE_NAME + " MATCH " + parameter
+                + " ORDER BY length(" + column + ") LIMIT " + MAX_CANDIDATES;
+    }
+
+    /**
+     * BM25 rank of a row from its matchinfo() in {@link #MATCH_INFO_FORMAT}, the higher the
+     * better.
+     */
+    static double score(byte[] matchInfo) {
+        IntBuffer info = ByteBuffer.wrap(matchInfo).order(ByteOrder.nativeOrder()).asIntBuffer();
+        int phrases = info.get(0);
+        int columns = info.get(1);
+        int rows = info.get(2);
+        int averageLengths = 3;
+        int lengths = averageLengths + columns;
+        int hits = lengths + columns;
+
+        double score = 0;
+        for (int phrase = 0; phrase < phrases; phrase++) {
+            for (int column = 0; column < columns && column < COLUMN_WEIGHTS.length; column++) {
+                int hit = hits + 3 * (phrase * columns + column);
+                int hitsInRow = info.get(hit);
+                if (hitsInRow == 0) {
+                    continue;
+                }
+                int rowsWithHits = info.get(hit + 2);
+                double idf = Math.log((rows - rowsWithHits + 0.5) / (rowsWithHits + 0.5));
+                // Words in most rows would get a negative weight, and rank rows lower for
+                // matching them.
+                idf = Math.max(idf, 1e-6);
+                double lengthRatio = info.get(lengths + column)
+                        / (double) Math.max(1, info.get(averageLengths + column));
+                score += COLUMN_WEIGHTS[column] * idf * hitsInRow * (K1 + 1)
+                        / (hitsInRow + K1 * (1 - B + B * lengthRatio));
+            }
+        }
+        return score;
+    }
+
+    /**
+     * The ranges of {@code title} matched according to {@code offsets}, as pairs of start and end
+     * character offsets, or null if the title did not match.
+     */
+    @Nullable
+    static int[] titleMatches(String title, String offsets) {
+        if (title == null || offsets == null || offsets.isEmpty()) {
+            return null;
+        }
+        // Groups of column, term, byte offset and byte size.
+        String[] values = offsets.split(" ");
+        int[] matches = new int[values.length / 2];
+        int count = 0;
+        for (int i = 0; i + 3 < values.length; i += 4) {
+            if (Integer.parseInt(values[i]) != VideoFts.COLUMN_INDEX_TITLE) {
+                continue;
+            }
+            int start = Integer.parseInt(values[i + 2]);
+            int end = start + Integer.parseInt(values[i + 3]);
+            matches[count++] = toCharOffset(title, start);
+            matches[count++] = toCharOffset(title, end);
+        }
+        return count == 0 ? null : Arrays.copyOf(matches, count);
+    }
+
+    // offsets() counts bytes of the UTF-8 text.
+    private static int toCharOffset(String text, int byteOffset) {
+        int bytes = 0;
+        int index = 0;
+        while (index < text.length() && bytes < byteOffset) {
+            int codePoint = text.codePointAt(index);
+            if (codePoint < 0x80) {
+                bytes += 1;
+            } else if (codePoint < 0x800) {
+                bytes += 2;
+            } else if (codePoint < 0x10000) {
+                bytes += 3;
+            } else {
+                bytes += 4;
+            }
+            index += Character.charCount(codePoint);
+        }
+        return index;
+    }
+}
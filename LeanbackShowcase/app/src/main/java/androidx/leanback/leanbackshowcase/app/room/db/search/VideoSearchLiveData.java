@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.leanback.leanbackshowcase.app.room.db.search;
+
+import android.os.AsyncTask;
+import androidx.annotation.NonNull;
+import androidx.leanback.leanbackshowcase.app.room.db.AppDatabase;
+import androidx.leanback.leanbackshowcase.app.room.db.constant.DatabaseColumnConstant.VideoEntry;
+import androidx.leanback.leanbackshowcase.app.room.db.entity.VideoEntity;
+import androidx.lifecycle.LiveData;
+import androidx.room.InvalidationTracker;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The results of a {@link VideoSearch}, searched again whenever the videos change while the live
+ * data is observed. Searches and ranking run on a background thread, like the queries of Room's
+ * own live data.
+ */
+public class VideoSearchLiveData extends LiveData<List<VideoEntity>> {
+
+    private final AppDatabase mDb;
+    private final String mQuery;
+
+    // Only the latest search posts its results.
+    private final AtomicInteger mGeneration = new AtomicInteger();
+
+    private final InvalidationTracker.Observer mObserver =
+            new InvalidationTracker.Observer(VideoEntry.TABLE_NAME) {
+                @Override
+                public void onInvalidated(@NonNull Set<String> tables) {
+                    search();
+                }
+            };
+
+    public VideoSearchLiveData(AppDatabase db, String query) {
+        mDb = db;
+        mQuery = query;
+    }
+
+    @Override
+    protected void onActive() {
+        mDb.getInvalidationTracker().addObserver(mObserver);
+        search();
+    }
+
+    @Override
+    protected void onInactive() {
+        mDb.getInvalidationTracker().removeObserver(mObserver);
+    }
+
+    private void search() {
+        final int generation = mGeneration.incrementAndGet();
+        AsyncTask.THREAD_POOL_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                List<VideoEntity> videos = VideoSearch.search(mDb.videoDao(), mQuery);
+                if (generation == mGeneration.get()) {
+                    postValue(videos);
+                }
+            }
+        });
+    }
+}
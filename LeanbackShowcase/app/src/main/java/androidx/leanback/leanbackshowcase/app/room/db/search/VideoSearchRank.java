@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.leanback.leanbackshowcase.app.room.db.search;
+
+import androidx.room.ColumnInfo;
+
+/**
+ * A row matched by the full text search, with the statistics its rank is computed from.
+ */
+public class VideoSearchRank {
+
+    static final String COLUMN_DOCID = "docid";
+    static final String COLUMN_MATCH_INFO = "match_info";
+
+    // The id of the matched video.
+    @ColumnInfo(name = COLUMN_DOCID)
+    public long docid;
+
+    // matchinfo() of the row, in the format of VideoSearch.MATCH_INFO_FORMAT.
+    @ColumnInfo(name = COLUMN_MATCH_INFO)
+    public byte[] matchInfo;
+}
@@ -22,6 +22,7 @@ import androidx.room.Room;
 import androidx.leanback.leanbackshowcase.app.room.db.AppDatabase;
 import androidx.leanback.leanbackshowcase.app.room.db.dao.CategoryDao;
 import androidx.leanback.leanbackshowcase.app.room.db.dao.VideoDao;
+import androidx.leanback.leanbackshowcase.app.room.db.search.VideoFts;
 import androidx.leanback.leanbackshowcase.app.room.di.viewmodel.ViewModelModule;
 import dagger.Module;
 import dagger.Provides;
@@ -33,7 +34,12 @@ public class ApplicationModule {
     @Singleton
     @Provides
     AppDatabase provideAppDatabase(Application app) {
-        return Room.databaseBuilder(app, AppDatabase.class, AppDatabase.DATABASE_NAME).build();
+        return Room.databaseBuilder(app, AppDatabase.class, AppDatabase.DATABASE_NAME)
+                .addCallback(VideoFts.CALLBACK)
+                .addMigrations(VideoFts.MIGRATION_1_2, AppDatabase.MIGRATION_2_3,
+                        AppDatabase.MIGRATION_3_4, AppDatabase.MIGRATION_4_5,
+                        VideoFts.MIGRATION_5_6)
+                .build();
     }
 
     @Singleton
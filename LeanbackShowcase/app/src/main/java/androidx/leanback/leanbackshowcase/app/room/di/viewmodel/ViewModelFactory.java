@@ -22,21 +22,26 @@ import androidx.lifecycle.ViewModelProvider;
 import java.util.Map;
 
 import javax.inject.Inject;
+import javax.inject.Provider;
 import javax.inject.Singleton;
 
 
+/**
+ * Creates the view models on first use, rather than when the factory is injected into the first
+ * fragment.
+ */
 @Singleton
 public class ViewModelFactory implements ViewModelProvider.Factory{
-    private final Map<Class<? extends ViewModel>, ViewModel> creators;
+    private final Map<Class<? extends ViewModel>, Provider<ViewModel>> creators;
 
     @Inject
-    public ViewModelFactory(Map<Class<? extends ViewModel>, ViewModel> creators) {
+    public ViewModelFactory(Map<Class<? extends ViewModel>, Provider<ViewModel>> creators) {
         this.creators = creators;
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public <T extends ViewModel> T create(Class<T> modelClass) {
-        return (T)creators.get(modelClass);
+        return (T)creators.get(modelClass).get();
     }
 }
@@ -0,0 +1,452 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.leanback.leanbackshowcase.app.room.network;
+
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+import androidx.leanback.leanbackshowcase.app.room.config.AppConfiguration;
+import androidx.leanback.leanbackshowcase.app.room.db.AppDatabase;
+import androidx.leanback.leanbackshowcase.app.room.db.dao.DownloadDao;
+import androidx.leanback.leanbackshowcase.app.room.db.entity.DownloadEntity;
+import androidx.leanback.leanbackshowcase.app.room.db.entity.VideoEntity;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Downloads the files of the videos, a few at a time.
+ *
+ * Every file is a row of the download table, with its state and how much of it is downloaded,
+ * so the queue outlives the process: {@link #resume()} starts again the downloads which were
+ * queued or running when the process was killed, from the bytes already in their files. At most
+ * {@link AppConfiguration#MAX_CONCURRENT_DOWNLOADS} files are downloaded at the same time, the
+ * card and background images of all the queued videos before any video content.
+ * <p>
+ * Downloads are queued, started and finished on {@link #getScheduler()}. Rows of downloads are
+ * deleted there too, the running ones being {@link #cancel cancelled} so that they are neither
+ * finished nor reported.
+ */
+public class DownloadQueue {
+
+    // For debugging purpose.
+    private static final boolean DEBUG = false;
+    private static final String TAG = "DownloadQueue";
+
+    // Resource category, in the order they are downloaded.
+    static final String CARD = "card";
+    static final String BACKGROUND = "background";
+    static final String VIDEO = "video";
+    private static final String[] CATEGORIES = {CARD, BACKGROUND, VIDEO};
+
+    private static final String SUFFIX_SEPARATOR = ".";
+
+    // Currently we only support downloading for the following format.
+    private static final List<String> ALLOWED_TYPES =
+            Arrays.asList("png", "jpg", "jpeg", "gif", "webp", "mp4");
+
+    private static final int TIMEOUT_MS = 30000;
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    // How often the progress of a running download is written.
+    private static final long PROGRESS_INTERVAL_MS = 1000;
+
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+
+    public interface DownloadCompleteListener {
+        void onDownloadingCompleted(DownloadingTaskDescription desc);
+    }
+
+    private final AppDatabase mDb;
+    private final DownloadDao mDao;
+    private final File mDirectory;
+    private final int mMaxConcurrentDownloads;
+    private final Executor mCallbackExecutor;
+
+    // Starts the downloads and finishes them, the running count is only used on it.
+    private final ExecutorService mScheduler = Executors.newSingleThreadExecutor();
+    private final ExecutorService mDownloader;
+    private int mRunning;
+
+    // Ids of the running downloads whose rows were deleted, until they are finished.
+    private final Set<Long> mCancelled =
+            Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+
+    private final List<DownloadCompleteListener> mListeners = new CopyOnWriteArrayList<>();
+    private volatile boolean mClosed;
+
+    /**
+     * Downloads the files in {@code directory} and notifies the listeners on the main thread.
+     */
+    public DownloadQueue(AppDatabase db, File directory) {
+        this(db, directory, AppConfiguration.MAX_CONCURRENT_DOWNLOADS, new Executor() {
+            private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+            @Override
+            public void execute(Runnable command) {
+                mHandler.post(command);
+            }
+        });
+    }
+
+    @VisibleForTesting
+    public DownloadQueue(AppDatabase db, File directory, int maxConcurrentDownloads,
+            Executor callbackExecutor) {
+        mDb = db;
+        mDao = db.downloadDao();
+        mDirectory = directory;
+        mMaxConcurrentDownloads = maxConcurrentDownloads;
+        mCallbackExecutor = callbackExecutor;
+        mDownloader = Executors.newFixedThreadPool(maxConcurrentDownloads);
+    }
+
+    public void addListener(DownloadCompleteListener listener) {
+        if (!mListeners.contains(listener)) {
+            mListeners.add(listener);
+        }
+    }
+
+    public void removeListener(DownloadCompleteListener listener) {
+        mListeners.remove(listener);
+    }
+
+    /**
+     * The single thread which queues, starts and finishes the downloads, where their rows are
+     * deleted.
+     */
+    public Executor getScheduler() {
+        return mScheduler;
+    }
+
+    /**
+     * Stops {@code download} if it is running, because its row is deleted: the file being written
+     * is neither finished nor reported. Must be called on {@link #getScheduler()}.
+     */
+    @WorkerThread
+    public void cancel(DownloadEntity download) {
+        if (download.getState() == DownloadEntity.STATE_RUNNING) {
+            mCancelled.add(download.getId());
+        }
+    }
+
+    /**
+     * Starts again the downloads left by the previous process.
+     */
+    public void resume() {
+        mScheduler.execute(new Runnable() {
+            @Override
+            public void run() {
+                int requeued = mDao.requeueRunning();
+                if (DEBUG) {
+                    Log.d(TAG, "Resuming " + requeued + " downloads");
+                }
+                startNext();
+            }
+        });
+    }
+
+    /**
+     * Queues the video content, background and card image of {@code video}. A file which failed
+     * to download goes on from where it stopped.
+     */
+    public void enqueue(final VideoEntity video) {
+        mScheduler.execute(new Runnable() {
+            @Override
+            public void run() {
+                for (int priority = 0; priority < CATEGORIES.length; priority++) {
+                    queue(video, CATEGORIES[priority], priority);
+                }
+                startNext();
+            }
+        });
+    }
+
+    @WorkerThread
+    private void queue(VideoEntity video, String category, int priority) {
+        String url = getUrl(video, category);
+        String suffix = getSuffix(url);
+        if (!ALLOWED_TYPES.contains(suffix)) {
+            if (DEBUG) {
+                Log.e(TAG, "Unsupported file type, cannot download " + url);
+            }
+            return;
+        }
+
+        DownloadEntity download = mDao.loadDownload(video.getId(), category);
+        if (download == null) {
+            download = new DownloadEntity();
+            download.setVideoId(video.getId());
+            download.setCategory(category);
+            download.setPriority(priority);
+            download.setUrl(url);
+            download.setLocalPath(new File(new File(mDirectory, category),
+                    category + video.getId() + SUFFIX_SEPARATOR + suffix).getPath());
+            download.setState(DownloadEntity.STATE_QUEUED);
+            mDao.insertDownload(download);
+            return;
+        }
+
+        switch (download.getState()) {
+            case DownloadEntity.STATE_DONE:
+                if (new File(download.getLocalPath()).exists()) {
+                    // Already downloaded.
+                    return;
+                }
+                // The file is gone, download it again from the start.
+                download.setDownloadedBytes(0);
+                download.setTotalBytes(-1);
+                // fall through
+            case DownloadEntity.STATE_FAILED:
+                download.setUrl(url);
+                download.setState(DownloadEntity.STATE_QUEUED);
+                mDao.updateDownload(download);
+                break;
+            default:
+                // Already queued or running.
+                break;
+        }
+    }
+
+    // Starts queued downloads while there are free slots, runs on the scheduler.
+    @WorkerThread
+    private void startNext() {
+        int free = mMaxConcurrentDownloads - mRunning;
+        if (mClosed || free <= 0) {
+            return;
+        }
+        for (final DownloadEntity download : mDao.loadNextQueued(free)) {
+            download.setState(DownloadEntity.STATE_RUNNING);
+            mDao.updateDownload(download);
+            mRunning++;
+            mDownloader.execute(new Runnable() {
+                @Override
+                public void run() {
+                    download(download);
+                }
+            });
+        }
+    }
+
+    @WorkerThread
+    private void download(final DownloadEntity download) {
+        boolean downloaded = false;
+        try {
+            transfer(download);
+            downloaded = true;
+        } catch (IOException e) {
+            if (DEBUG) {
+                Log.e(TAG, "Cannot download " + download, e);
+            }
+        }
+
+        // A closed queue stands for a killed process, the download stays running.
+        if (mClosed) {
+            return;
+        }
+        final boolean done = downloaded;
+        mScheduler.execute(new Runnable() {
+            @Override
+            public void run() {
+                finish(download, done);
+            }
+        });
+    }
+
+    @WorkerThread
+    private void finish(DownloadEntity download, boolean done) {
+        mRunning--;
+        if (mCancelled.remove(download.getId())) {
+            // The row is gone, and the file with it.
+            startNext();
+            return;
+        }
+        download.setState(done ? DownloadEntity.STATE_DONE : DownloadEntity.STATE_FAILED);
+        mDao.updateDownload(download);
+        if (done) {
+            notifyCompleted(download);
+        }
+        startNext();
+    }
+
+    private void notifyCompleted(DownloadEntity download) {
+        List<VideoEntity> videos = mDb.videoDao().loadVideosByIds(
+                Collections.singletonList(download.getVideoId()));
+        if (videos.isEmpty()) {
+            return;
+        }
+
+        final DownloadingTaskDescription desc =
+                new DownloadingTaskDescription(videos.get(0), download.getCategory());
+        desc.setStoragePath(Uri.fromFile(new File(download.getLocalPath())).toString());
+        mCallbackExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                for (DownloadCompleteListener listener : mListeners) {
+                    listener.onDownloadingCompleted(desc);
+                }
+            }
+        });
+    }
+
+    /**
+     * Downloads the rest of the file of {@code download}, asking the server for the bytes after
+     * the ones already in the file.
+     */
+    @WorkerThread
+    private void transfer(DownloadEntity download) throws IOException {
+        File file = new File(download.getLocalPath());
+        File parent = file.getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create " + parent);
+        }
+
+        long downloaded = file.length();
+        HttpURLConnection connection =
+                (HttpURLConnection) new URL(download.getUrl()).openConnection();
+        try {
+            connection.setConnectTimeout(TIMEOUT_MS);
+            connection.setReadTimeout(TIMEOUT_MS);
+            if (downloaded > 0) {
+                connection.setRequestProperty("Range", "bytes=" + downloaded + "-");
+            }
+
+            int code = connection.getResponseCode();
+            long length = getContentLength(connection);
+            boolean append;
+            if (code == HttpURLConnection.HTTP_PARTIAL) {
+                append = true;
+            } else if (code == HttpURLConnection.HTTP_OK) {
+                // The server ignored the range, the file starts over.
+                append = false;
+                downloaded = 0;
+            } else if (code == HTTP_RANGE_NOT_SATISFIABLE
+                    && downloaded == download.getTotalBytes()) {
+                // The whole file was downloaded before the process was killed.
+                download.setDownloadedBytes(downloaded);
+                return;
+            } else {
+                if (code == HTTP_RANGE_NOT_SATISFIABLE) {
+                    file.delete();
+                }
+                throw new IOException("Unexpected response " + code + " for " + download);
+            }
+            long total = length < 0 ? -1 : downloaded + length;
+            download.setDownloadedBytes(downloaded);
+            download.setTotalBytes(total);
+            mDao.updateProgress(download.getId(), downloaded, total);
+
+            InputStream in = connection.getInputStream();
+            OutputStream out = new FileOutputStream(file, append);
+            try {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                long lastProgress = SystemClock.uptimeMillis();
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    if (mCancelled.contains(download.getId())) {
+                        throw new IOException("Cancelled " + download);
+                    }
+                    out.write(buffer, 0, read);
+                    downloaded += read;
+                    download.setDownloadedBytes(downloaded);
+                    long now = SystemClock.uptimeMillis();
+                    if (now - lastProgress >= PROGRESS_INTERVAL_MS) {
+                        mDao.updateProgress(download.getId(), downloaded, total);
+                        lastProgress = now;
+                    }
+                }
+            } finally {
+                out.close();
+                in.close();
+            }
+
+            if (total >= 0 && downloaded != total) {
+                throw new IOException("Downloaded " + downloaded + " of " + total + " bytes");
+            }
+            download.setTotalBytes(downloaded);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Stops starting and finishing downloads, as if the process was killed, and interrupts the
+     * running ones.
+     */
+    @VisibleForTesting
+    public void close() {
+        mClosed = true;
+        mScheduler.shutdownNow();
+        mDownloader.shutdownNow();
+    }
+
+    @VisibleForTesting
+    boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return mScheduler.awaitTermination(timeout, unit)
+                && mDownloader.awaitTermination(timeout, unit);
+    }
+
+    private static String getUrl(VideoEntity video, String category) {
+        switch (category) {
+            case CARD:
+                return video.getCardImageUrl();
+            case BACKGROUND:
+                return video.getBgImageUrl();
+            default:
+                return video.getVideoUrl();
+        }
+    }
+
+    private static String getSuffix(String url) {
+        if (url == null) {
+            return "";
+        }
+        return url.substring(url.lastIndexOf(SUFFIX_SEPARATOR) + 1).toLowerCase();
+    }
+
+    // HttpURLConnection#getContentLengthLong() needs API 24.
+    private static long getContentLength(HttpURLConnection connection) {
+        String length = connection.getHeaderField("Content-Length");
+        if (length == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(length);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -23,7 +23,7 @@ import androidx.lifecycle.Observer;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.lifecycle.ViewModelProviders;
 import androidx.annotation.Nullable;
-import androidx.leanback.leanbackshowcase.app.room.adapter.ListAdapter;
+import androidx.leanback.leanbackshowcase.app.room.adapter.PagedListObjectAdapter;
 import androidx.leanback.leanbackshowcase.app.room.db.entity.VideoEntity;
 import androidx.leanback.leanbackshowcase.app.room.viewmodel.VideosInSameCategoryViewModel;
 import androidx.leanback.widget.HorizontalGridView;
@@ -31,11 +31,11 @@ import androidx.leanback.widget.ListRow;
 import androidx.leanback.widget.ListRowPresenter;
 import androidx.leanback.widget.RowPresenter;
 import androidx.fragment.app.FragmentActivity;
+import androidx.paging.PagedList;
 import android.view.View;
 import android.view.ViewGroup;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 
 
@@ -95,7 +95,8 @@ public class LiveDataRowPresenter extends ListRowPresenter {
 
         String category = mRow.getHeaderItem().getName();
 
-        final ListAdapter<VideoEntity> adapter = (ListAdapter<VideoEntity>) mRow.getAdapter();
+        final PagedListObjectAdapter<VideoEntity> adapter =
+                (PagedListObjectAdapter<VideoEntity>) mRow.getAdapter();
 
         FragmentActivity attachedFragmentActivity = (FragmentActivity) holder.view.getContext();
 
@@ -109,35 +110,22 @@ public class LiveDataRowPresenter extends ListRowPresenter {
         VideosInSameCategoryViewModel viewModel = ViewModelProviders.of(attachedFragmentActivity, viewModelFactory).get(VideosInSameCategoryViewModel.class);
 
 
-        // bind live data to view holder
-        vh.setLiveData(viewModel.getVideosInSameCategory(category));
+        // bind live data to view holder, the row only holds the pages around the shown videos
+        vh.setLiveData(viewModel.getPagedVideosInSameCategory(category));
 
         // observe the live data when this row is bound to view holder
         vh.getLiveData().observe(mLifecycleOwner,
-                new Observer<List<VideoEntity>>() {
+                new Observer<PagedList<VideoEntity>>() {
                     @Override
                     public void onChanged(
-                            @Nullable List<VideoEntity> videoEntities) {
+                            @Nullable PagedList<VideoEntity> videoEntities) {
                         if (videoEntities != null) {
 
                             // When the data is bound to the adapter, dispatch start Entrance
                             // transition event
                             notifyDataLoaded();
 
-                            adapter.setItems(videoEntities,
-                                    new Comparator<VideoEntity>() {
-                                        @Override
-                                        public int compare(VideoEntity o1,
-                                                           VideoEntity o2) {
-                                            return o1.getId() == o2.getId() ? 0 : -1;
-                                        }
-                                    }, new Comparator<VideoEntity>() {
-                                        @Override
-                                        public int compare(VideoEntity o1,
-                                                           VideoEntity o2) {
-                                            return o1.equals(o2) ? 0 : -1;
-                                        }
-                                    });
+                            adapter.submitList(videoEntities);
                         }
                     }
                 });
@@ -155,18 +143,18 @@ public class LiveDataRowPresenter extends ListRowPresenter {
      */
     private class LiveDataRowPresenterViewHolder extends ListRowPresenter.ViewHolder {
 
-        private LiveData<List<VideoEntity>> mLiveData;
+        private LiveData<PagedList<VideoEntity>> mLiveData;
 
         public LiveDataRowPresenterViewHolder(View rootView, HorizontalGridView gridView, ListRowPresenter p) {
             super(rootView, gridView, p);
         }
 
 
-        public void setLiveData(LiveData<List<VideoEntity>> liveData) {
+        public void setLiveData(LiveData<PagedList<VideoEntity>> liveData) {
             mLiveData = liveData;
         }
 
-        public final LiveData<List<VideoEntity>> getLiveData() {
+        public final LiveData<PagedList<VideoEntity>> getLiveData() {
             return mLiveData;
         }
     }
@@ -22,13 +22,15 @@ import androidx.lifecycle.ViewModelProviders;
 import android.content.Context;
 import android.content.res.Resources;
 import android.graphics.drawable.Drawable;
-import android.os.AsyncTask;
+import android.text.SpannableString;
+import android.text.Spanned;
+import android.text.TextUtils;
+import android.text.style.ForegroundColorSpan;
 import androidx.annotation.Nullable;
 import androidx.leanback.leanbackshowcase.R;
-import androidx.leanback.leanbackshowcase.app.room.config.AppConfiguration;
+import androidx.leanback.leanbackshowcase.app.room.adapter.VideoEntityDiffCallback;
 import androidx.leanback.leanbackshowcase.app.room.db.entity.VideoEntity;
 import androidx.leanback.leanbackshowcase.app.room.network.NetworkLiveData;
-import androidx.leanback.leanbackshowcase.app.room.network.NetworkManagerUtil;
 import androidx.leanback.leanbackshowcase.app.room.network.PermissionLiveData;
 import androidx.leanback.leanbackshowcase.app.room.viewmodel.VideosViewModel;
 import androidx.leanback.widget.ImageCardView;
@@ -41,12 +43,11 @@ import android.view.ContextThemeWrapper;
 import android.view.MenuItem;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.Toast;
 
 import com.bumptech.glide.Glide;
 import com.bumptech.glide.request.RequestOptions;
 
-import java.io.File;
+import java.util.List;
 import javax.inject.Inject;
 
 /**
@@ -60,9 +61,6 @@ public class VideoCardPresenter extends Presenter {
     private static final String TAG =  "VideoCardPresenter";
 
     // String constant
-    private static final String VIDEO = "video";
-    private static final String BACKGROUND = "background";
-    private static final String CARD = "card";
     private static final String STATUS = "status";
     private static final String DOWNLOADING = "downloading";
     private static final String REMOVING = "removing";
@@ -76,6 +74,7 @@ public class VideoCardPresenter extends Presenter {
     // The default resource when the network or local content are not available.
     private static int sSelectedBackgroundColor = -1;
     private static int sDefaultBackgroundColor = -1;
+    private static int sSearchMatchColor = -1;
     private static Drawable sDefaultCardImage;
 
     @Inject
@@ -90,6 +89,7 @@ public class VideoCardPresenter extends Presenter {
                 ContextCompat.getColor(parent.getContext(), R.color.default_background);
         sSelectedBackgroundColor =
                 ContextCompat.getColor(parent.getContext(), R.color.selected_background);
+        sSearchMatchColor = ContextCompat.getColor(parent.getContext(), R.color.search_color);
         sDefaultCardImage =
                 parent.getResources().getDrawable(R.drawable.no_cache_no_internet, null);
         ImageCardView cardView = new ImageCardView(parent.getContext()) {
@@ -107,17 +107,45 @@ public class VideoCardPresenter extends Presenter {
 
     @Override
     public void onBindViewHolder(final ViewHolder viewHolder, Object item) {
-        VideoEntity video = (VideoEntity) item;
         CardViewHolder cardViewHolder = (CardViewHolder) viewHolder;
+
+        // A paged row has no item yet for the videos it has not loaded.
+        if (item == null) {
+            cardViewHolder.bindPlaceholder();
+            return;
+        }
+        VideoEntity video = (VideoEntity) item;
         cardViewHolder.bind(video);
     }
 
+    /**
+     * Only updates the views showing what changed when the item comes with the payloads of
+     * {@link VideoEntityDiffCallback}, e.g. while a video is downloading.
+     */
+    @Override
+    public void onBindViewHolder(ViewHolder viewHolder, Object item, List<Object> payloads) {
+        int changes = 0;
+        for (Object payload : payloads) {
+            if (!(payload instanceof Integer)) {
+                changes = -1;
+                break;
+            }
+            changes |= (Integer) payload;
+        }
+        if (item == null || payloads.isEmpty() || changes < 0) {
+            onBindViewHolder(viewHolder, item);
+            return;
+        }
+        ((CardViewHolder) viewHolder).bindChanges((VideoEntity) item, changes);
+    }
+
     @Override
     public void onUnbindViewHolder(ViewHolder viewHolder) {
         ImageCardView cardView = (ImageCardView) viewHolder.view;
 
         cardView.setBadgeImage(null);
         cardView.setMainImage(null);
+        ((CardViewHolder) viewHolder).mLoadedImageUri = null;
     }
 
     /**
@@ -134,6 +162,24 @@ public class VideoCardPresenter extends Presenter {
         view.findViewById(R.id.info_field).setBackgroundColor(color);
     }
 
+    /**
+     * Helper function to color the ranges of the title matched by a search.
+     *
+     * @param title   title of the video
+     * @param matches pairs of start and end offsets in the title, or null
+     */
+    private static CharSequence highlightMatches(String title, int[] matches) {
+        if (title == null || matches == null) {
+            return title;
+        }
+        SpannableString highlighted = new SpannableString(title);
+        for (int i = 0; i + 1 < matches.length; i += 2) {
+            highlighted.setSpan(new ForegroundColorSpan(sSearchMatchColor), matches[i],
+                    Math.min(matches[i + 1], title.length()), Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        }
+        return highlighted;
+    }
+
     /**
      * The view holder which will encapsulate all the information related to currently bond video.
      */
@@ -155,6 +201,12 @@ public class VideoCardPresenter extends Presenter {
 
         private VideosViewModel mViewModel;
 
+        // The card image requested from Glide, not requested again while it is the same.
+        private String mLoadedImageUri;
+
+        private boolean mHasPermission = true;
+        private boolean mIsNetworkAvailable = true;
+
 
         CardViewHolder(ImageCardView view, Context context) {
             super(view);
@@ -180,10 +232,34 @@ public class VideoCardPresenter extends Presenter {
 
             mFragmentActivity = (FragmentActivity) context;
             mViewModel = ViewModelProviders.of(mFragmentActivity).get(VideosViewModel.class);
+
+            // Observed once for the view holder, not on every bind.
+            PermissionLiveData.get().observe(mOwner, new Observer<Boolean>() {
+                @Override
+                public void onChanged(@Nullable Boolean hasPermission) {
+                    mHasPermission = hasPermission == null || hasPermission;
+                    if (mVideo != null) {
+                        updatePopMenu(mVideo);
+                    }
+                }
+            });
+
+            NetworkLiveData.sync(mContext).observe(mOwner, new Observer<Boolean>() {
+                @Override
+                public void onChanged(@Nullable Boolean isNetworkAvailable) {
+                    mIsNetworkAvailable = isNetworkAvailable == null || isNetworkAvailable;
+                    if (mVideo != null) {
+                        updatePopMenu(mVideo);
+                    }
+                }
+            });
         }
 
         @Override
         public boolean onLongClick(View v) {
+            if (mVideo == null) {
+                return false;
+            }
             mPopupMenu.show();
             return true;
         }
@@ -192,33 +268,14 @@ public class VideoCardPresenter extends Presenter {
         public boolean onMenuItemClick(MenuItem item) {
             switch (item.getItemId()) {
                 case R.id.download_video_related_resource:
-                    new AsyncTask<VideoEntity, Void, Void>() {
-                        VideoEntity mVideoEntity;
-
-                        @Override
-                        protected Void doInBackground(VideoEntity... videos) {
-                            mVideoEntity = videos[0];
-
-                            // View Model will talk to the repository which will be responsible
-                            // for all interaction with room database
-                            mViewModel.updateDatabase(mVideoEntity, STATUS, DOWNLOADING);
-                            return null;
-                        }
-                    }.execute(mVideo);
-                    NetworkManagerUtil.download(mVideo);
+                    // View Model will talk to the repository which will be responsible
+                    // for all interaction with room database
+                    mViewModel.updateDatabase(mVideo, STATUS, DOWNLOADING);
+                    mViewModel.download(mVideo);
                     return true;
                 case R.id.remove_video_related_resource:
-                    new AsyncTask<VideoEntity, Void, Void>() {
-                        VideoEntity mVideoEntity;
-
-                        @Override
-                        protected Void doInBackground(VideoEntity... videos) {
-                            mVideoEntity = videos[0];
-                            mViewModel.updateDatabase(mVideoEntity, STATUS, REMOVING);
-                            return null;
-                        }
-                    }.execute(mVideo);
-                    RemoveFile();
+                    mViewModel.updateDatabase(mVideo, STATUS, REMOVING);
+                    mViewModel.removeDownloads(mVideo);
                     return true;
                 default:
                     return false;
@@ -232,10 +289,32 @@ public class VideoCardPresenter extends Presenter {
             }
             mVideo = video;
 
+            bindTitleAndContent(video);
+            bindCardImage(video);
+            updatePopMenu(video);
+        }
+
+        /**
+         * Updates the views showing the {@code changes} of the video, flags of
+         * {@link VideoEntityDiffCallback}.
+         */
+        private void bindChanges(VideoEntity video, int changes) {
+            mVideo = video;
+            if ((changes & VideoEntityDiffCallback.CHANGED_STATE) != 0) {
+                bindTitleAndContent(video);
+                updatePopMenu(video);
+            }
+            if ((changes & VideoEntityDiffCallback.CHANGED_CARD_IMAGE) != 0) {
+                bindCardImage(video);
+            }
+        }
+
+        private void bindTitleAndContent(VideoEntity video) {
+            CharSequence title = highlightMatches(video.getTitle(), video.getTitleMatches());
             if (!video.isRented()) {
-                mCardView.setTitleText(video.getTitle());
+                mCardView.setTitleText(title);
             } else {
-                mCardView.setTitleText(video.getTitle() + RENTED);
+                mCardView.setTitleText(TextUtils.concat(title, RENTED));
             }
 
             if (isRemovable()) {
@@ -245,21 +324,34 @@ public class VideoCardPresenter extends Presenter {
             } else {
                 mCardView.setContentText(video.getStudio());
             }
+        }
 
+        private void bindCardImage(VideoEntity video) {
             String loadedUri;
             if (!video.getVideoCardImageLocalStorageUrl().isEmpty()) {
                 loadedUri = video.getVideoCardImageLocalStorageUrl();
             } else {
                 loadedUri = video.getCardImageUrl();
             }
-            if (video.getCardImageUrl() != null) {
+            if (video.getCardImageUrl() != null && !loadedUri.equals(mLoadedImageUri)) {
+                mLoadedImageUri = loadedUri;
                 Glide.with(mCardView.getContext())
                         .load(loadedUri)
                         .apply(mDefaultPlaceHolder)
                         .into(mCardView.getMainImageView());
             }
+        }
 
-            updatePopMenu(video);
+        /**
+         * Shows an empty card in place of a video which is not loaded yet.
+         */
+        private void bindPlaceholder() {
+            mVideo = null;
+            mLoadedImageUri = null;
+            mCardView.setTitleText(null);
+            mCardView.setContentText(null);
+            Glide.with(mCardView.getContext()).clear(mCardView.getMainImageView());
+            mCardView.setMainImage(mDefaultBackground);
         }
 
         /**
@@ -272,29 +364,16 @@ public class VideoCardPresenter extends Presenter {
             if (isDownloadable()) {
                 setInvisible(R.id.remove_video_related_resource);
 
-                PermissionLiveData.get().observe(mOwner, new Observer<Boolean>() {
-                    @Override
-                    public void onChanged(@Nullable Boolean aBoolean) {
-                        if (!aBoolean) {
-                            updatePopupMenuItem(R.id.download_video_related_resource, false,
-                                    DOWNLOAD_VIDEO_NO_PERMISSION);
-                            return;
-                        }
-                    }
-                });
-
-                NetworkLiveData.sync(mContext).observe(mOwner, new Observer<Boolean>() {
-                    @Override
-                    public void onChanged(@Nullable Boolean isNetworkAvailable) {
-                        if (isNetworkAvailable) {
-                            updatePopupMenuItem(R.id.download_video_related_resource, true,
-                                    DOWNLOAD_VIDEO);
-                        } else {
-                            updatePopupMenuItem(R.id.download_video_related_resource, false,
-                                    DOWNLOAD_VIDEO_NO_NETWORK);
-                        }
-                    }
-                });
+                if (!mHasPermission) {
+                    updatePopupMenuItem(R.id.download_video_related_resource, false,
+                            DOWNLOAD_VIDEO_NO_PERMISSION);
+                } else if (mIsNetworkAvailable) {
+                    updatePopupMenuItem(R.id.download_video_related_resource, true,
+                            DOWNLOAD_VIDEO);
+                } else {
+                    updatePopupMenuItem(R.id.download_video_related_resource, false,
+                            DOWNLOAD_VIDEO_NO_NETWORK);
+                }
             } else if (isRemovable()) {
                 updatePopupMenuItem(R.id.remove_video_related_resource, true, REMOVE_LOCAL_VIDEO);
                 setInvisible(R.id.download_video_related_resource);
@@ -314,12 +393,6 @@ public class VideoCardPresenter extends Presenter {
         }
 
 
-        private void RemoveFile() {
-            new FileRemoving().execute(new VideoWithCategory(VIDEO, mVideo));
-            new FileRemoving().execute(new VideoWithCategory(CARD, mVideo));
-            new FileRemoving().execute(new VideoWithCategory(BACKGROUND, mVideo));
-        }
-
         /**
          * When all the local storage paths (including video content, background and card image )
          * for the video entity is empty, and current working status is not downloading. It means
@@ -347,102 +420,5 @@ public class VideoCardPresenter extends Presenter {
                     && !mVideo.getVideoLocalStorageUrl().isEmpty()
                     && !mVideo.getStatus().equals(REMOVING);
         }
-
-        private class VideoWithCategory {
-            private String mCategory;
-            private VideoEntity mVideo;
-
-            public VideoWithCategory(String category, VideoEntity video) {
-                this.mCategory = category;
-                this.mVideo = video;
-            }
-
-            public String getCategory() {
-                return mCategory;
-            }
-
-
-            public VideoEntity getVideo() {
-                return mVideo;
-            }
-
-        }
-
-        private class FileRemoving extends AsyncTask<VideoWithCategory, Void, Void> {
-            private static final int VIDEO_PATH_START_INDEX = 6;
-            private String cat;
-            private String url;
-            private long id;
-
-            @Override
-            protected Void doInBackground(VideoWithCategory... videos) {
-                VideoWithCategory par = videos[0];
-                cat = par.getCategory();
-                id = par.getVideo().getId();
-                switch (cat) {
-                    case BACKGROUND:
-                        url = par.getVideo().getVideoBgImageLocalStorageUrl().substring(VIDEO_PATH_START_INDEX);
-                        break;
-                    case CARD:
-                        url = par.getVideo().getVideoCardImageLocalStorageUrl().substring(VIDEO_PATH_START_INDEX);
-                        break;
-                    case VIDEO:
-                        url = par.getVideo().getVideoLocalStorageUrl().substring(VIDEO_PATH_START_INDEX);
-                        break;
-                }
-                File fileToDelete = new File(url);
-                if (fileToDelete.exists()) {
-                    fileToDelete.delete();
-                    if (AppConfiguration.IS_FILE_OPERATION_LATENCY_ENABLED) {
-                        switch (cat) {
-                            case BACKGROUND:
-                                addLatency(1000L);
-                                break;
-                            case CARD:
-                                addLatency(2000L);
-                                break;
-                            case VIDEO:
-                                addLatency(3000L);
-                                break;
-                        }
-                    }
-                    mViewModel.updateDatabase(par.getVideo(), cat, "");
-                } else {
-                    if (DEBUG) {
-                        Log.e(TAG, "doInBackground (delete file): " + url + " cannot find file");
-                    }
-                }
-                return null;
-            }
-
-            @Override
-            protected void onPostExecute(Void aVoid) {
-                super.onPostExecute(aVoid);
-
-                switch (cat) {
-                    case BACKGROUND:
-                        Toast.makeText(mContext, "bg " + id + " removed", Toast.LENGTH_SHORT).show();
-                        break;
-                    case CARD:
-                        Toast.makeText(mContext, "card " + id + " removed", Toast.LENGTH_SHORT).show();
-                        break;
-                    case VIDEO:
-                        Toast.makeText(mContext, "video " + id + " removed", Toast.LENGTH_SHORT).show();
-                        break;
-                }
-            }
-
-            private void addLatency(Long ms) {
-                try {
-                    // add 1s latency for video downloading, when network latency option
-                    // is enabled.
-                    Thread.sleep(ms);
-                } catch (InterruptedException e) {
-                    if (DEBUG) {
-                        Log.e(TAG, "doInBackground (add latency): ", e);
-                    }
-                }
-            }
-        }
     }
 }
@@ -18,9 +18,13 @@ package androidx.leanback.leanbackshowcase.app.room.viewmodel;
 
 import android.app.Application;
 import androidx.lifecycle.AndroidViewModel;
+import androidx.arch.core.util.Function;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Transformations;
+import androidx.paging.PagedList;
 import androidx.annotation.NonNull;
 import androidx.leanback.leanbackshowcase.app.room.db.repo.VideosRepository;
+import androidx.leanback.leanbackshowcase.app.room.db.repo.VideosRepositoryInitializer;
 import androidx.leanback.leanbackshowcase.app.room.db.entity.VideoEntity;
 
 import java.util.List;
@@ -29,14 +33,14 @@ import javax.inject.Inject;
 
 public class VideosInSameCategoryViewModel extends AndroidViewModel {
 
-    // instance of the repository
-    // TODO not injected into here
-    private VideosRepository mRepository;
+    // The repository, once it is built in the background
+    private LiveData<VideosRepository> mRepository;
 
     @Inject
-    public VideosInSameCategoryViewModel(@NonNull Application application, VideosRepository repository) {
+    public VideosInSameCategoryViewModel(@NonNull Application application,
+            VideosRepositoryInitializer repositoryInitializer) {
         super(application);
-        mRepository = repository;
+        mRepository = repositoryInitializer.getRepository();
     }
 
     /**
@@ -44,13 +48,34 @@ public class VideosInSameCategoryViewModel extends AndroidViewModel {
      *
      * @return live data
      */
-    public LiveData<List<VideoEntity>> getVideosInSameCategory(String category) {
+    public LiveData<List<VideoEntity>> getVideosInSameCategory(final String category) {
 
         // The design here is: The view model will talk to repository to fetch the live data.
-        // The data base is created on the main thread (The database creation won't block the UI)
-        // If the database is not prepared (i.e. no valid data existed in the database), it will
-        // return an empty live data automatically, there is no need to declare an empty live data
-        // explicitly
-        return mRepository.getVideosInSameCategoryLiveData(category);
+        // The repository and its database are created on a background thread, the live data only
+        // emits once they are ready. If the database is not prepared (i.e. no valid data existed
+        // in the database), it will return an empty live data automatically, there is no need to
+        // declare an empty live data explicitly
+        return Transformations.switchMap(mRepository,
+                new Function<VideosRepository, LiveData<List<VideoEntity>>>() {
+                    @Override
+                    public LiveData<List<VideoEntity>> apply(VideosRepository repository) {
+                        return repository.getVideosInSameCategoryLiveData(category);
+                    }
+                });
+    }
+
+    /**
+     * Return the videos in same category, loaded a page at a time as the row is scrolled.
+     *
+     * @return live data
+     */
+    public LiveData<PagedList<VideoEntity>> getPagedVideosInSameCategory(final String category) {
+        return Transformations.switchMap(mRepository,
+                new Function<VideosRepository, LiveData<PagedList<VideoEntity>>>() {
+                    @Override
+                    public LiveData<PagedList<VideoEntity>> apply(VideosRepository repository) {
+                        return repository.getPagedVideosInSameCategory(category);
+                    }
+                });
     }
 }
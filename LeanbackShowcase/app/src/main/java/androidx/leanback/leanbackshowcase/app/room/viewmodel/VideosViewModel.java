@@ -22,9 +22,12 @@ import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.Transformations;
+import androidx.leanback.leanbackshowcase.app.room.db.repo.VideosIngester;
 import androidx.leanback.leanbackshowcase.app.room.db.repo.VideosRepository;
+import androidx.leanback.leanbackshowcase.app.room.db.repo.VideosRepositoryInitializer;
 import androidx.leanback.leanbackshowcase.app.room.db.entity.CategoryEntity;
 import androidx.leanback.leanbackshowcase.app.room.db.entity.VideoEntity;
+import androidx.leanback.leanbackshowcase.app.room.network.DownloadQueue;
 
 import java.util.List;
 import javax.inject.Inject;
@@ -35,36 +38,77 @@ public class VideosViewModel extends AndroidViewModel {
     private final LiveData<List<VideoEntity>> mSearchResults;
     private final LiveData<VideoEntity> mVideoById;
     private final LiveData<List<VideoEntity>> mAllVideosByCategory;
+    private final LiveData<VideosIngester.Progress> mIngestProgress;
+    private final LiveData<Long> mUsedStorage;
 
     // mutable live data can be changed by ui controllers through setter
     private final MutableLiveData<String> mQuery = new MutableLiveData<>();
     private final MutableLiveData<Long> mVideoId = new MutableLiveData<>();
     private final MutableLiveData<String> mVideoCategory = new MutableLiveData<>();
 
-    private final VideosRepository mRepository;
+    // The repository is built in the background, the live data emit once it is ready.
+    private final VideosRepositoryInitializer mRepositoryInitializer;
+    private final LiveData<VideosRepository> mRepository;
 
     @Inject
-    public VideosViewModel(Application application, VideosRepository repository) {
+    public VideosViewModel(Application application,
+            VideosRepositoryInitializer repositoryInitializer) {
         super(application);
 
-        mRepository = repository;
+        mRepositoryInitializer = repositoryInitializer;
+        mRepository = repositoryInitializer.getRepository();
 
-        mAllCategories = mRepository.getAllCategories();
+        mAllCategories = Transformations.switchMap(
+                mRepository, new Function<VideosRepository, LiveData<List<CategoryEntity>>>() {
+                    @Override
+                    public LiveData<List<CategoryEntity>> apply(VideosRepository repository) {
+                        return repository.getAllCategories();
+                    }
+                });
+
+        mIngestProgress = Transformations.switchMap(
+                mRepository, new Function<VideosRepository, LiveData<VideosIngester.Progress>>() {
+                    @Override
+                    public LiveData<VideosIngester.Progress> apply(VideosRepository repository) {
+                        return repository.getIngestProgress();
+                    }
+                });
+
+        mUsedStorage = Transformations.switchMap(
+                mRepository, new Function<VideosRepository, LiveData<Long>>() {
+                    @Override
+                    public LiveData<Long> apply(VideosRepository repository) {
+                        return repository.getUsedStorage();
+                    }
+                });
 
         mSearchResults = Transformations.switchMap(
-                mQuery, new Function<String, LiveData<List<VideoEntity>>>() {
+                mRepository, new Function<VideosRepository, LiveData<List<VideoEntity>>>() {
                     @Override
-                    public LiveData<List<VideoEntity>> apply(final String queryMessage) {
-                        return mRepository.getSearchResult(queryMessage);
+                    public LiveData<List<VideoEntity>> apply(final VideosRepository repository) {
+                        return Transformations.switchMap(
+                                mQuery, new Function<String, LiveData<List<VideoEntity>>>() {
+                                    @Override
+                                    public LiveData<List<VideoEntity>> apply(
+                                            final String queryMessage) {
+                                        return repository.getSearchResult(queryMessage);
+                                    }
+                                });
                     }
                 });
 
 
         mVideoById = Transformations.switchMap(
-                mVideoId, new Function<Long, LiveData<VideoEntity>>() {
+                mRepository, new Function<VideosRepository, LiveData<VideoEntity>>() {
                     @Override
-                    public LiveData<VideoEntity> apply(final Long videoId) {
-                        return mRepository.getVideoById(videoId);
+                    public LiveData<VideoEntity> apply(final VideosRepository repository) {
+                        return Transformations.switchMap(
+                                mVideoId, new Function<Long, LiveData<VideoEntity>>() {
+                                    @Override
+                                    public LiveData<VideoEntity> apply(final Long videoId) {
+                                        return repository.getVideoById(videoId);
+                                    }
+                                });
                     }
                 });
 
@@ -72,12 +116,20 @@ public class VideosViewModel extends AndroidViewModel {
          * Using switch map function to react to the change of observed variable, the benefits of
          * this mapping method is we don't have to re-create the live data every time.
          */
-        mAllVideosByCategory = Transformations.switchMap(mVideoCategory, new Function<String, LiveData<List<VideoEntity>>>() {
-            @Override
-            public LiveData<List<VideoEntity>> apply(String category) {
-                return mRepository.getVideosInSameCategoryLiveData(category);
-            }
-        });
+        mAllVideosByCategory = Transformations.switchMap(
+                mRepository, new Function<VideosRepository, LiveData<List<VideoEntity>>>() {
+                    @Override
+                    public LiveData<List<VideoEntity>> apply(final VideosRepository repository) {
+                        return Transformations.switchMap(mVideoCategory,
+                                new Function<String, LiveData<List<VideoEntity>>>() {
+                                    @Override
+                                    public LiveData<List<VideoEntity>> apply(String category) {
+                                        return repository
+                                                .getVideosInSameCategoryLiveData(category);
+                                    }
+                                });
+                    }
+                });
     }
 
     public LiveData<List<VideoEntity>> getSearchResult() {
@@ -96,6 +148,21 @@ public class VideosViewModel extends AndroidViewModel {
         return mAllCategories;
     }
 
+    public LiveData<VideosIngester.Progress> getIngestProgress() {
+        return mIngestProgress;
+    }
+
+    /**
+     * The number of bytes used by the downloaded videos.
+     */
+    public LiveData<Long> getUsedStorage() {
+        return mUsedStorage;
+    }
+
+    public LiveData<Boolean> isRepositoryReady() {
+        return mRepositoryInitializer.isReady();
+    }
+
     public void setQueryMessage(String queryMessage) {
         mQuery.setValue(queryMessage);
     }
@@ -108,7 +175,67 @@ public class VideosViewModel extends AndroidViewModel {
         mVideoCategory.setValue(category);
     }
 
-    public void updateDatabase(VideoEntity video, String category, String value) {
-        mRepository.updateDatabase(video, category, value);
+    /**
+     * Updates a field of a video, see {@link VideosRepository#updateDatabase}.
+     */
+    public void updateDatabase(final VideoEntity video, final String category,
+            final String value) {
+        mRepositoryInitializer.execute(new VideosRepositoryInitializer.Task() {
+            @Override
+            public void run(VideosRepository repository) {
+                repository.updateDatabase(video, category, value);
+            }
+        });
+    }
+
+    /**
+     * Downloads the files of a video, see {@link VideosRepository#download}.
+     */
+    public void download(final VideoEntity video) {
+        mRepositoryInitializer.execute(new VideosRepositoryInitializer.Task() {
+            @Override
+            public void run(VideosRepository repository) {
+                repository.download(video);
+            }
+        });
+    }
+
+    public void removeDownloads(final VideoEntity video) {
+        mRepositoryInitializer.execute(new VideosRepositoryInitializer.Task() {
+            @Override
+            public void run(VideosRepository repository) {
+                repository.removeDownloads(video);
+            }
+        });
+    }
+
+    public void markPlayed(final VideoEntity video) {
+        mRepositoryInitializer.execute(new VideosRepositoryInitializer.Task() {
+            @Override
+            public void run(VideosRepository repository) {
+                repository.markPlayed(video);
+            }
+        });
+    }
+
+    /**
+     * Notifies {@code listener} of the completed downloads, from when the repository is built.
+     */
+    public void addDownloadListener(final DownloadQueue.DownloadCompleteListener listener) {
+        mRepositoryInitializer.execute(new VideosRepositoryInitializer.Task() {
+            @Override
+            public void run(VideosRepository repository) {
+                repository.addDownloadListener(listener);
+            }
+        });
+    }
+
+    public void removeDownloadListener(final DownloadQueue.DownloadCompleteListener listener) {
+        mRepositoryInitializer.execute(new VideosRepositoryInitializer.Task() {
+            @Override
+            public void run(VideosRepository repository) {
+                repository.removeDownloadListener(listener);
+            }
+        });
     }
 }
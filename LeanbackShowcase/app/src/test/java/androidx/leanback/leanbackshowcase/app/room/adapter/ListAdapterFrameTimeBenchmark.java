@@ -0,0 +1,265 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.leanback.leanbackshowcase.app.room.adapter;
+
+import android.app.Application;
+
+import androidx.leanback.widget.ObjectAdapter;
+import androidx.recyclerview.widget.DiffUtil;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Sets {@link #UPDATE_COUNT} updates of a {@link #ITEM_COUNT} items list and checks the main
+ * thread time of each, which has to stay within {@link #MAX_FRAME_MS} and below the time of
+ * computing the difference on the main thread. Also checks that moves are notified.
+ *
+ * The test thread stands for the main thread: the results posted to it are queued, and running
+ * them is one frame.
+ * <p>
+ * Not part of the default test run, see {@code benchmarkTests} in app/build.gradle.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28, application = Application.class)
+public class ListAdapterFrameTimeBenchmark {
+
+    private static final int ITEM_COUNT = 5000;
+    private static final int UPDATE_COUNT = 20;
+
+    // Changes made to the list by each update.
+    private static final int MOVES = 10;
+    private static final int CHANGES = 50;
+    private static final int REPLACEMENTS = 20;
+
+    // A few frames, so that only a regression fails on a slow machine.
+    private static final long MAX_FRAME_MS = 50;
+
+    private static final DiffUtil.ItemCallback<Item> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<Item>() {
+                @Override
+                public boolean areItemsTheSame(Item oldItem, Item newItem) {
+                    return oldItem.mId == newItem.mId;
+                }
+
+                @Override
+                public boolean areContentsTheSame(Item oldItem, Item newItem) {
+                    return oldItem.mVersion == newItem.mVersion;
+                }
+            };
+
+    private final BlockingQueue<Runnable> mMainThreadQueue = new LinkedBlockingQueue<>();
+    private ExecutorService mDiffExecutor;
+
+    private ListAdapter<Item> mAdapter;
+    private NotificationCounter mNotifications;
+    private final Random mRandom = new Random(42);
+    private int mNextId;
+
+    @Before
+    public void setUp() {
+        mDiffExecutor = Executors.newSingleThreadExecutor();
+        mAdapter = new ListAdapter<>();
+        mAdapter.setExecutors(mDiffExecutor, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                mMainThreadQueue.add(command);
+            }
+        });
+        mNotifications = new NotificationCounter();
+        mAdapter.registerObserver(mNotifications);
+
+        List<Item> items = new ArrayList<>(ITEM_COUNT);
+        for (mNextId = 0; mNextId < ITEM_COUNT; mNextId++) {
+            items.add(new Item(mNextId, 0));
+        }
+        // The first list has nothing to diff against, it is set right away.
+        mAdapter.setItems(items, DIFF_CALLBACK);
+        assertEquals(ITEM_COUNT, mAdapter.size());
+    }
+
+    @After
+    public void tearDown() {
+        mDiffExecutor.shutdownNow();
+    }
+
+    @Test
+    public void mainThreadTimePerUpdate() throws InterruptedException {
+        long maxFrame = 0;
+        long totalFrames = 0;
+        long maxSyncDiff = 0;
+        long totalSyncDiffs = 0;
+        for (int i = 0; i < UPDATE_COUNT; i++) {
+            final List<Item> oldItems = new ArrayList<>(mAdapter.unmodifiableList());
+            List<Item> newItems = update(oldItems);
+
+            // What setItems() used to run on the main thread.
+            long start = System.nanoTime();
+            DiffUtil.calculateDiff(callback(oldItems, newItems));
+            long syncDiff = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            mAdapter.setItems(newItems, DIFF_CALLBACK);
+            long frame = System.nanoTime() - start;
+            frame += runNextFrame();
+
+            assertEquals(newItems, mAdapter.unmodifiableList());
+            maxFrame = Math.max(maxFrame, frame);
+            totalFrames += frame;
+            maxSyncDiff = Math.max(maxSyncDiff, syncDiff);
+            totalSyncDiffs += syncDiff;
+        }
+
+        String times = "Main thread time per update of " + ITEM_COUNT + " items: average "
+                + toMillis(totalFrames / UPDATE_COUNT) + " ms, max " + toMillis(maxFrame)
+                + " ms. Diffing on the main thread: average "
+                + toMillis(totalSyncDiffs / UPDATE_COUNT) + " ms, max " + toMillis(maxSyncDiff)
+                + " ms";
+        assertTrue(times, maxFrame <= MAX_FRAME_MS * 1000000);
+        assertTrue(times, totalFrames < totalSyncDiffs);
+
+        assertEquals(ITEM_COUNT, mNotifications.mSize);
+        assertTrue(mNotifications.mMoves > 0);
+    }
+
+    // Runs the next result posted to the main thread, returns how long it took.
+    private long runNextFrame() throws InterruptedException {
+        Runnable result = mMainThreadQueue.poll(30, TimeUnit.SECONDS);
+        assertNotNull(result);
+        long start = System.nanoTime();
+        result.run();
+        return System.nanoTime() - start;
+    }
+
+    // Moves, changes, removes and adds a few items, like a refresh of the catalog.
+    private List<Item> update(List<Item> items) {
+        List<Item> updated = new ArrayList<>(items);
+        for (int i = 0; i < MOVES; i++) {
+            Item moved = updated.remove(mRandom.nextInt(updated.size()));
+            updated.add(mRandom.nextInt(updated.size() + 1), moved);
+        }
+        for (int i = 0; i < CHANGES; i++) {
+            int position = mRandom.nextInt(updated.size());
+            Item changed = updated.get(position);
+            updated.set(position, new Item(changed.mId, changed.mVersion + 1));
+        }
+        for (int i = 0; i < REPLACEMENTS; i++) {
+            updated.remove(mRandom.nextInt(updated.size()));
+            updated.add(mRandom.nextInt(updated.size() + 1), new Item(mNextId++, 0));
+        }
+        return updated;
+    }
+
+    private static DiffUtil.Callback callback(final List<Item> oldItems,
+            final List<Item> newItems) {
+        return new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return oldItems.size();
+            }
+
+            @Override
+            public int getNewListSize() {
+                return newItems.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                return DIFF_CALLBACK.areItemsTheSame(oldItems.get(oldItemPosition),
+                        newItems.get(newItemPosition));
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                return DIFF_CALLBACK.areContentsTheSame(oldItems.get(oldItemPosition),
+                        newItems.get(newItemPosition));
+            }
+        };
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1000000.0;
+    }
+
+    private static final class Item {
+        private final int mId;
+        private final int mVersion;
+
+        Item(int id, int version) {
+            mId = id;
+            mVersion = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Item that = (Item) o;
+            return mId == that.mId && mVersion == that.mVersion;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * mId + mVersion;
+        }
+    }
+
+    /**
+     * Tracks the size of the adapter as its observers see it, from the notifications alone.
+     */
+    private static final class NotificationCounter extends ObjectAdapter.DataObserver {
+        private int mSize;
+        private int mMoves;
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            mSize += itemCount;
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            mSize -= itemCount;
+        }
+
+        @Override
+        public void onItemMoved(int fromPosition, int toPosition) {
+            mMoves++;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.leanback.leanbackshowcase.app.room.adapter;
+
+import android.app.Application;
+
+import androidx.leanback.widget.ObjectAdapter;
+import androidx.recyclerview.widget.DiffUtil;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Checks that {@link ListAdapter} drops the differences made stale by a newer list, and computes
+ * the difference again when its items changed while it was being computed.
+ *
+ * The test thread stands for the main thread: the results posted to it are queued, and running
+ * them is one frame.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28, application = Application.class)
+public class ListAdapterTest {
+
+    private static final int ITEM_COUNT = 100;
+
+    // Changes made to the list by each update.
+    private static final int MOVES = 2;
+    private static final int CHANGES = 5;
+    private static final int REPLACEMENTS = 2;
+
+    private static final DiffUtil.ItemCallback<Item> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<Item>() {
+                @Override
+                public boolean areItemsTheSame(Item oldItem, Item newItem) {
+                    return oldItem.mId == newItem.mId;
+                }
+
+                @Override
+                public boolean areContentsTheSame(Item oldItem, Item newItem) {
+                    return oldItem.mVersion == newItem.mVersion;
+                }
+            };
+
+    private final BlockingQueue<Runnable> mMainThreadQueue = new LinkedBlockingQueue<>();
+    private ExecutorService mDiffExecutor;
+
+    private ListAdapter<Item> mAdapter;
+    private NotificationCounter mNotifications;
+    private final Random mRandom = new Random(42);
+    private int mNextId;
+
+    @Before
+    public void setUp() {
+        mDiffExecutor = Executors.newSingleThreadExecutor();
+        mAdapter = new ListAdapter<>();
+        mAdapter.setExecutors(mDiffExecutor, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                mMainThreadQueue.add(command);
+            }
+        });
+        mNotifications = new NotificationCounter();
+        mAdapter.registerObserver(mNotifications);
+
+        List<Item> items = new ArrayList<>(ITEM_COUNT);
+        for (mNextId = 0; mNextId < ITEM_COUNT; mNextId++) {
+            items.add(new Item(mNextId, 0));
+        }
+        // The first list has nothing to diff against, it is set right away.
+        mAdapter.setItems(items, DIFF_CALLBACK);
+        assertEquals(ITEM_COUNT, mAdapter.size());
+    }
+
+    @After
+    public void tearDown() {
+        mDiffExecutor.shutdownNow();
+    }
+
+    @Test
+    public void staleUpdatesAreDropped() throws InterruptedException {
+        List<Item> first = update(new ArrayList<>(mAdapter.unmodifiableList()));
+        List<Item> second = update(first);
+        List<Item> third = update(second);
+
+        // Every update arrives before the previous difference is dispatched.
+        mAdapter.setItems(first, DIFF_CALLBACK);
+        mAdapter.setItems(second, DIFF_CALLBACK);
+        mAdapter.setItems(third, DIFF_CALLBACK);
+        int notifications = mNotifications.mTotal;
+        runNextFrame();
+        runNextFrame();
+        assertEquals(notifications, mNotifications.mTotal);
+        runNextFrame();
+
+        assertEquals(third, mAdapter.unmodifiableList());
+        assertEquals(third.size(), mNotifications.mSize);
+    }
+
+    @Test
+    public void itemsChangedWhileDiffing() throws InterruptedException {
+        List<Item> newItems = update(new ArrayList<>(mAdapter.unmodifiableList()));
+        mAdapter.setItems(newItems, DIFF_CALLBACK);
+        mAdapter.removeItems(0, 10);
+
+        // The difference is computed again against the items left.
+        runNextFrame();
+        runNextFrame();
+
+        assertEquals(newItems, mAdapter.unmodifiableList());
+        assertEquals(newItems.size(), mNotifications.mSize);
+    }
+
+    // Runs the next result posted to the main thread.
+    private void runNextFrame() throws InterruptedException {
+        Runnable result = mMainThreadQueue.poll(30, TimeUnit.SECONDS);
+        assertNotNull(result);
+        result.run();
+    }
+
+    // Moves, changes, removes and adds a few items, like a refresh of the catalog.
+    private List<Item> update(List<Item> items) {
+        List<Item> updated = new ArrayList<>(items);
+        for (int i = 0; i < MOVES; i++) {
+            Item moved = updated.remove(mRandom.nextInt(updated.size()));
+            updated.add(mRandom.nextInt(updated.size() + 1), moved);
+        }
+        for (int i = 0; i < CHANGES; i++) {
+            int position = mRandom.nextInt(updated.size());
+            Item changed = updated.get(position);
+            updated.set(position, new Item(changed.mId, changed.mVersion + 1));
+        }
+        for (int i = 0; i < REPLACEMENTS; i++) {
+            updated.remove(mRandom.nextInt(updated.size()));
+            updated.add(mRandom.nextInt(updated.size() + 1), new Item(mNextId++, 0));
+        }
+        return updated;
+    }
+
+    private static final class Item {
+        private final int mId;
+        private final int mVersion;
+
+        Item(int id, int version) {
+            mId = id;
+            mVersion = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Item that = (Item) o;
+            return mId == that.mId && mVersion == that.mVersion;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * mId + mVersion;
+        }
+    }
+
+    /**
+     * Tracks the size of the adapter as its observers see it, from the notifications alone.
+     */
+    private static final class NotificationCounter extends ObjectAdapter.DataObserver {
+        private int mSize;
+        private int mTotal;
+
+        @Override
+        public void onChanged() {
+            mTotal++;
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            mTotal++;
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            mSize += itemCount;
+            mTotal++;
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            mSize -= itemCount;
+            mTotal++;
+        }
+
+        @Override
+        public void onItemMoved(int fromPosition, int toPosition) {
+            mTotal++;
+        }
+    }
+}
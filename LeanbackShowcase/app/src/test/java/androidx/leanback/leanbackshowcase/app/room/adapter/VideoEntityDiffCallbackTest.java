@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.leanback.leanbackshowcase.app.room.adapter;
+
+import android.app.Application;
+import android.graphics.drawable.ColorDrawable;
+import android.graphics.drawable.Drawable;
+import android.widget.FrameLayout;
+
+import androidx.annotation.NonNull;
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.fragment.app.FragmentActivity;
+import androidx.leanback.leanbackshowcase.R;
+import androidx.leanback.leanbackshowcase.app.room.db.entity.VideoEntity;
+import androidx.leanback.leanbackshowcase.app.room.db.repo.VideosRepository;
+import androidx.leanback.leanbackshowcase.app.room.db.repo.VideosRepositoryInitializer;
+import androidx.leanback.leanbackshowcase.app.room.ui.VideoCardPresenter;
+import androidx.leanback.leanbackshowcase.app.room.viewmodel.VideosViewModel;
+import androidx.leanback.widget.ImageCardView;
+import androidx.leanback.widget.Presenter;
+import androidx.lifecycle.ViewModel;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.lifecycle.ViewModelProviders;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+
+import java.util.Collections;
+import java.util.List;
+
+import dagger.Lazy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Checks that a state-only or image-only change of a video gets the payload flag of what changed,
+ * and that {@link VideoCardPresenter} then only updates the views showing it instead of binding
+ * the whole card again.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28, application = Application.class)
+public class VideoEntityDiffCallbackTest {
+
+    private static final String TITLE = "Title";
+    private static final String STUDIO = "Studio";
+    private static final String CARD_IMAGE_URL = "https://example.com/card.jpg";
+
+    // Runs the live data of the view model on the calling thread.
+    @Rule
+    public InstantTaskExecutorRule mInstantTaskExecutorRule = new InstantTaskExecutorRule();
+
+    private final VideoEntityDiffCallback mCallback = new VideoEntityDiffCallback();
+
+    private VideoCardPresenter mPresenter;
+    private Presenter.ViewHolder mViewHolder;
+    private ImageCardView mCardView;
+
+    @Before
+    public void setUp() {
+        ActivityController<FragmentActivity> controller =
+                Robolectric.buildActivity(FragmentActivity.class);
+        FragmentActivity activity = controller.get();
+        activity.setTheme(R.style.Theme_Example_LeanbackBrowse);
+        controller.setup();
+
+        // The cards get the view model of the activity, which the fragments create with the
+        // injected factory.
+        final VideosRepositoryInitializer initializer =
+                new VideosRepositoryInitializer(new Lazy<VideosRepository>() {
+                    @Override
+                    public VideosRepository get() {
+                        return null;
+                    }
+                });
+        final Application application = activity.getApplication();
+        ViewModelProviders.of(activity, new ViewModelProvider.Factory() {
+            @NonNull
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T extends ViewModel> T create(@NonNull Class<T> modelClass) {
+                return (T) new VideosViewModel(application, initializer);
+            }
+        }).get(VideosViewModel.class);
+
+        mPresenter = new VideoCardPresenter();
+        mViewHolder = mPresenter.onCreateViewHolder(new FrameLayout(activity));
+        mCardView = (ImageCardView) mViewHolder.view;
+    }
+
+    @Test
+    public void stateChangeIsFlagged() {
+        VideoEntity rented = newVideo();
+        rented.setRented(true);
+        assertEquals(VideoEntityDiffCallback.CHANGED_STATE,
+                mCallback.getChangePayload(newVideo(), rented));
+
+        VideoEntity downloading = newVideo();
+        downloading.setStatus("downloading");
+        assertEquals(VideoEntityDiffCallback.CHANGED_STATE,
+                mCallback.getChangePayload(newVideo(), downloading));
+    }
+
+    @Test
+    public void imageChangeIsFlagged() {
+        VideoEntity changed = newVideo();
+        changed.setCardImageUrl("https://example.com/other.jpg");
+        assertEquals(VideoEntityDiffCallback.CHANGED_CARD_IMAGE,
+                mCallback.getChangePayload(newVideo(), changed));
+    }
+
+    @Test
+    public void downloadedCardImageIsStateAndImageChange() {
+        VideoEntity downloaded = newVideo();
+        downloaded.setVideoCardImageLocalStorageUrl("/data/card.jpg");
+        assertEquals(VideoEntityDiffCallback.CHANGED_STATE
+                        | VideoEntityDiffCallback.CHANGED_CARD_IMAGE,
+                mCallback.getChangePayload(newVideo(), downloaded));
+    }
+
+    @Test
+    public void titleChangeHasNoPayload() {
+        VideoEntity renamed = newVideo();
+        renamed.setTitle("Other Title");
+        assertNull(mCallback.getChangePayload(newVideo(), renamed));
+
+        VideoEntity matched = newVideo();
+        matched.setTitleMatches(new int[]{0, 2});
+        assertNull(mCallback.getChangePayload(newVideo(), matched));
+    }
+
+    @Test
+    public void stateChangeKeepsCardImage() {
+        VideoEntity video = newVideo();
+        mPresenter.onBindViewHolder(mViewHolder, video);
+        Drawable image = markCardImage();
+
+        // Would reload the image if the whole card was bound again.
+        VideoEntity rented = newVideo();
+        rented.setRented(true);
+        rented.setCardImageUrl("https://example.com/other.jpg");
+        mPresenter.onBindViewHolder(mViewHolder, rented,
+                Collections.<Object>singletonList(VideoEntityDiffCallback.CHANGED_STATE));
+
+        assertEquals(TITLE + " (rented)", mCardView.getTitleText().toString());
+        assertSame(image, mCardView.getMainImageView().getDrawable());
+    }
+
+    @Test
+    public void imageChangeKeepsTitleAndContent() {
+        VideoEntity video = newVideo();
+        mPresenter.onBindViewHolder(mViewHolder, video);
+        Drawable image = markCardImage();
+        mCardView.setTitleText("Bound");
+        mCardView.setContentText("Bound");
+
+        VideoEntity changed = newVideo();
+        changed.setCardImageUrl("https://example.com/other.jpg");
+        mPresenter.onBindViewHolder(mViewHolder, changed, payloads(video, changed));
+
+        assertEquals("Bound", mCardView.getTitleText().toString());
+        assertEquals("Bound", mCardView.getContentText().toString());
+        assertNotSame(image, mCardView.getMainImageView().getDrawable());
+    }
+
+    @Test
+    public void changeWithoutPayloadBindsCard() {
+        VideoEntity video = newVideo();
+        mPresenter.onBindViewHolder(mViewHolder, video);
+        mCardView.setContentText("Bound");
+
+        VideoEntity renamed = newVideo();
+        renamed.setTitle("Other Title");
+        mPresenter.onBindViewHolder(mViewHolder, renamed, payloads(video, renamed));
+
+        assertEquals("Other Title", mCardView.getTitleText().toString());
+        assertEquals(STUDIO, mCardView.getContentText().toString());
+    }
+
+    // What RecyclerView passes to the presenter for the change, no payload meaning a full bind.
+    private List<Object> payloads(VideoEntity oldItem, VideoEntity newItem) {
+        Object payload = mCallback.getChangePayload(oldItem, newItem);
+        return payload == null
+                ? Collections.<Object>emptyList() : Collections.singletonList(payload);
+    }
+
+    // Replaces the card image with one that only a new image request would replace again.
+    private Drawable markCardImage() {
+        Drawable image = new ColorDrawable();
+        mCardView.getMainImageView().setImageDrawable(image);
+        return image;
+    }
+
+    private static VideoEntity newVideo() {
+        VideoEntity video = new VideoEntity();
+        video.setId(1);
+        video.setTitle(TITLE);
+        video.setStudio(STUDIO);
+        video.setCardImageUrl(CARD_IMAGE_URL);
+        video.setStatus("");
+        video.setVideoLocalStorageUrl("");
+        video.setVideoBgImageLocalStorageUrl("");
+        video.setVideoCardImageLocalStorageUrl("");
+        return video;
+    }
+}
@@ -0,0 +1,341 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.leanback.leanbackshowcase.app.room.db.repo;
+
+import android.app.Application;
+import android.net.Uri;
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.leanback.leanbackshowcase.app.room.db.AppDatabase;
+import androidx.leanback.leanbackshowcase.app.room.db.entity.DownloadEntity;
+import androidx.leanback.leanbackshowcase.app.room.db.entity.StorageEntity;
+import androidx.leanback.leanbackshowcase.app.room.db.entity.VideoEntity;
+import androidx.leanback.leanbackshowcase.app.room.network.DownloadQueue;
+import androidx.leanback.leanbackshowcase.app.room.network.DownloadingTaskDescription;
+import androidx.leanback.leanbackshowcase.app.room.network.LocalHttpServer;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the least recently watched videos are removed when the downloads exceed the quota,
+ * with their rows and files, that the used storage is observable, and that a video removed while
+ * it downloads is not written back when the download ends.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28, application = Application.class)
+public class StorageManagerTest {
+
+    private static final int FILE_SIZE = 100;
+    private static final int VIDEO_SIZE = 64 * 1024;
+    private static final long QUOTA_BYTES = 3 * FILE_SIZE;
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    // Runs Room's queries of the live data on the writing thread.
+    @Rule
+    public InstantTaskExecutorRule mInstantTaskExecutorRule = new InstantTaskExecutorRule();
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    private AppDatabase mDb;
+    private VideoUpdateQueue mUpdateQueue;
+    private DownloadQueue mDownloadQueue;
+    private StorageManager mStorageManager;
+    private final Map<Long, File> mFiles = new HashMap<>();
+
+    @Before
+    public void setUp() throws IOException {
+        mDb = Room.inMemoryDatabaseBuilder(ApplicationProvider.<Application>getApplicationContext(),
+                AppDatabase.class)
+                .allowMainThreadQueries()
+                .build();
+        mUpdateQueue = new VideoUpdateQueue(mDb, 0);
+        mDownloadQueue = new DownloadQueue(mDb, mFolder.newFolder("downloads"), 1,
+                DIRECT_EXECUTOR);
+        mStorageManager = new StorageManager(mDb, mUpdateQueue, mDownloadQueue, QUOTA_BYTES,
+                DIRECT_EXECUTOR, DIRECT_EXECUTOR);
+    }
+
+    @After
+    public void tearDown() {
+        mDownloadQueue.close();
+        mDb.close();
+    }
+
+    @Test
+    public void leastRecentlyWatchedVideosAreEvicted() throws Exception {
+        addDownloadedVideo(1, 1000);
+        addDownloadedVideo(2, 3000);
+        addDownloadedVideo(3, 2000);
+
+        // The oldest video, but its content is still downloading.
+        addDownloadedVideo(4, 0);
+        DownloadEntity queued = newDownload(4, "video", DownloadEntity.STATE_QUEUED);
+        mDb.downloadDao().insertDownload(queued);
+
+        final List<Long> usedBytes = new ArrayList<>();
+        LiveData<Long> usedStorage = mStorageManager.getUsedBytes();
+        usedStorage.observeForever(new Observer<Long>() {
+            @Override
+            public void onChanged(Long bytes) {
+                usedBytes.add(bytes);
+            }
+        });
+        assertEquals(Long.valueOf(4 * FILE_SIZE), usedStorage.getValue());
+
+        mStorageManager.onPlayed(1);
+        VideoEntity downloaded = addVideo(5);
+        mDb.downloadDao().insertDownload(newDownload(5, "card", DownloadEntity.STATE_DONE));
+        DownloadingTaskDescription desc = new DownloadingTaskDescription(downloaded, "card");
+        desc.setStoragePath(Uri.fromFile(mFiles.get(5L)).toString());
+        mStorageManager.onDownloaded(desc);
+        awaitVideoUpdates(1);
+
+        // 3 and then 2 were watched least recently, 4 is not done downloading.
+        assertEvicted(3);
+        assertEvicted(2);
+        assertKept(1);
+        assertKept(4);
+        assertKept(downloaded.getId());
+        assertEquals(Long.valueOf(3 * FILE_SIZE), usedStorage.getValue());
+        assertTrue(usedBytes.contains(5L * FILE_SIZE));
+    }
+
+    @Test
+    public void removedVideoIsDeleted() throws Exception {
+        addDownloadedVideo(1, 1000);
+        addDownloadedVideo(2, 2000);
+
+        mStorageManager.remove(1);
+        awaitVideoUpdates(1);
+
+        assertEvicted(1);
+        assertKept(2);
+        assertEquals(FILE_SIZE, mDb.storageDao().loadUsedBytes());
+    }
+
+    @Test
+    public void videoRemovedWhileDownloading() throws Exception {
+        LocalHttpServer server = new LocalHttpServer();
+        try {
+            VideoEntity video = addRemoteVideo(server, 6);
+            server.pauseOnce("/video6.mp4", VIDEO_SIZE / 2);
+
+            // Runs on the scheduler of the queue, as in the app, with room for every file.
+            final DownloadQueue queue = new DownloadQueue(mDb, mFolder.newFolder("remote"), 1,
+                    DIRECT_EXECUTOR);
+            final StorageManager storageManager = new StorageManager(mDb, mUpdateQueue, queue,
+                    Long.MAX_VALUE, queue.getScheduler(), DIRECT_EXECUTOR);
+            final BlockingQueue<String> completions = new LinkedBlockingQueue<>();
+            queue.addListener(new DownloadQueue.DownloadCompleteListener() {
+                @Override
+                public void onDownloadingCompleted(DownloadingTaskDescription desc) {
+                    storageManager.onDownloaded(desc);
+                    completions.add(desc.getCategory());
+                }
+            });
+
+            queue.enqueue(video);
+            assertTrue(server.awaitStalled(TIMEOUT_SECONDS));
+            assertEquals("card", completions.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            assertEquals("background", completions.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            File videoFile = new File(mDb.downloadDao().loadDownload(6, "video").getLocalPath());
+
+            // Removed halfway through the video.
+            storageManager.remove(6);
+            awaitScheduler(queue);
+            awaitVideoUpdates(6);
+            assertNull(mDb.storageDao().loadStorage(6));
+            assertTrue(mDb.downloadDao().loadDownloadsOfVideo(6).isEmpty());
+            assertEquals("", loadVideo(6).getVideoCardImageLocalStorageUrl());
+
+            // Downloaded again, which only starts once the cancelled download is finished. It
+            // would have been reported first otherwise.
+            server.release();
+            queue.enqueue(video);
+            List<String> categories = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                categories.add(completions.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            }
+            assertEquals(Arrays.asList("card", "background", "video"), categories);
+            awaitScheduler(queue);
+            awaitVideoUpdates(6);
+            queue.close();
+
+            assertEquals(2 * FILE_SIZE + VIDEO_SIZE,
+                    mDb.storageDao().loadStorage(6).getSizeBytes());
+            assertEquals(Uri.fromFile(videoFile).toString(),
+                    loadVideo(6).getVideoLocalStorageUrl());
+            assertArrayEquals(server.getContent(video.getVideoUrl()),
+                    Files.readAllBytes(videoFile.toPath()));
+        } finally {
+            server.close();
+        }
+    }
+
+    private void assertEvicted(long videoId) {
+        assertNull(mDb.storageDao().loadStorage(videoId));
+        assertTrue(mDb.downloadDao().loadDownloadsOfVideo(videoId).isEmpty());
+        assertFalse(mFiles.get(videoId).exists());
+
+        VideoEntity video = loadVideo(videoId);
+        assertEquals("", video.getVideoCardImageLocalStorageUrl());
+        assertEquals("", video.getStatus());
+    }
+
+    private void assertKept(long videoId) {
+        assertNotNull(mDb.storageDao().loadStorage(videoId));
+        assertTrue(mFiles.get(videoId).exists());
+        assertEquals(Uri.fromFile(mFiles.get(videoId)).toString(),
+                loadVideo(videoId).getVideoCardImageLocalStorageUrl());
+    }
+
+    // Updates are written in order, so this one is written after those of the evictions.
+    private void awaitVideoUpdates(long videoId) throws Exception {
+        mUpdateQueue.update(loadVideo(videoId), VideoUpdateQueue.RENTED, "")
+                .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    // Waits for what the scheduler of the queue was given so far.
+    private static void awaitScheduler(DownloadQueue queue) throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(1);
+        queue.getScheduler().execute(new Runnable() {
+            @Override
+            public void run() {
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    private VideoEntity loadVideo(long videoId) {
+        return mDb.videoDao().loadVideosByIds(Collections.singletonList(videoId)).get(0);
+    }
+
+    // A video whose card image is downloaded, and was last played at lastPlayed.
+    private void addDownloadedVideo(long videoId, long lastPlayed) throws IOException {
+        addVideo(videoId);
+        mDb.downloadDao().insertDownload(newDownload(videoId, "card", DownloadEntity.STATE_DONE));
+
+        StorageEntity storage = new StorageEntity();
+        storage.setVideoId(videoId);
+        storage.setSizeBytes(FILE_SIZE);
+        storage.setLastPlayed(lastPlayed);
+        mDb.storageDao().insertStorage(storage);
+    }
+
+    private VideoEntity addVideo(long videoId) throws IOException {
+        File file = mFolder.newFile("card" + videoId + ".png");
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(new byte[FILE_SIZE]);
+        } finally {
+            out.close();
+        }
+        mFiles.put(videoId, file);
+
+        VideoEntity video = new VideoEntity();
+        video.setId(videoId);
+        video.setTitle("Video " + videoId);
+        video.setStatus("downloading");
+        video.setVideoLocalStorageUrl("");
+        video.setVideoBgImageLocalStorageUrl("");
+        video.setVideoCardImageLocalStorageUrl(Uri.fromFile(file).toString());
+        mDb.videoDao().insertAllVideos(Collections.singletonList(video));
+        return video;
+    }
+
+    // A video whose files are served by server, the images being FILE_SIZE bytes.
+    private VideoEntity addRemoteVideo(LocalHttpServer server, long videoId) {
+        String base = server.getBaseUrl();
+        VideoEntity video = new VideoEntity();
+        video.setId(videoId);
+        video.setTitle("Video " + videoId);
+        video.setStatus("");
+        video.setVideoLocalStorageUrl("");
+        video.setVideoBgImageLocalStorageUrl("");
+        video.setVideoCardImageLocalStorageUrl("");
+        video.setCardImageUrl(base + "/card" + videoId + ".png");
+        video.setBgImageUrl(base + "/bg" + videoId + ".jpg");
+        video.setVideoUrl(base + "/video" + videoId + ".mp4");
+        server.addContent("/card" + videoId + ".png", new byte[FILE_SIZE]);
+        server.addContent("/bg" + videoId + ".jpg", new byte[FILE_SIZE]);
+        byte[] content = new byte[VIDEO_SIZE];
+        Arrays.fill(content, (byte) videoId);
+        server.addContent("/video" + videoId + ".mp4", content);
+
+        mDb.videoDao().insertAllVideos(Collections.singletonList(video));
+        return video;
+    }
+
+    private DownloadEntity newDownload(long videoId, String category, int state) {
+        DownloadEntity download = new DownloadEntity();
+        download.setVideoId(videoId);
+        download.setCategory(category);
+        download.setUrl("http://127.0.0.1/" + category + videoId);
+        download.setLocalPath(category.equals("card")
+                ? mFiles.get(videoId).getPath()
+                : new File(mFolder.getRoot(), category + videoId).getPath());
+        download.setState(state);
+        if (state == DownloadEntity.STATE_DONE) {
+            download.setDownloadedBytes(FILE_SIZE);
+            download.setTotalBytes(FILE_SIZE);
+        }
+        return download;
+    }
+}
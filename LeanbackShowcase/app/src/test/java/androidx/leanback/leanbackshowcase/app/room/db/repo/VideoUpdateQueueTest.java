@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.leanback.leanbackshowcase.app.room.db.repo;
+
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.leanback.leanbackshowcase.app.room.db.AppDatabase;
+import androidx.leanback.leanbackshowcase.app.room.db.constant.DatabaseColumnConstant;
+import androidx.leanback.leanbackshowcase.app.room.db.entity.VideoEntity;
+import androidx.room.InvalidationTracker;
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that a burst of field updates of a few videos is one write, which invalidates the
+ * observers of the videos once.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28, application = Application.class)
+public class VideoUpdateQueueTest {
+
+    private static final int VIDEO_COUNT = 3;
+
+    // Long enough for the whole burst to fall in one window.
+    private static final long WINDOW_MS = 500;
+
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    // Runs Room's invalidation tracker on the writing thread.
+    @Rule
+    public InstantTaskExecutorRule mInstantTaskExecutorRule = new InstantTaskExecutorRule();
+
+    private AppDatabase mDb;
+    private final List<VideoEntity> mVideos = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        mDb = Room.inMemoryDatabaseBuilder(ApplicationProvider.<Application>getApplicationContext(),
+                AppDatabase.class)
+                .allowMainThreadQueries()
+                .build();
+        for (int i = 1; i <= VIDEO_COUNT; i++) {
+            VideoEntity video = new VideoEntity();
+            video.setId(i);
+            video.setTitle("Video " + i);
+            video.setStatus("");
+            video.setVideoLocalStorageUrl("");
+            video.setVideoBgImageLocalStorageUrl("");
+            video.setVideoCardImageLocalStorageUrl("");
+            mVideos.add(video);
+        }
+        mDb.videoDao().insertAllVideos(mVideos);
+    }
+
+    @After
+    public void tearDown() {
+        mDb.close();
+    }
+
+    @Test
+    public void burstOfUpdatesIsOneWrite() throws Exception {
+        final AtomicInteger invalidations = new AtomicInteger();
+        mDb.getInvalidationTracker().addObserver(
+                new InvalidationTracker.Observer(DatabaseColumnConstant.VideoEntry.TABLE_NAME) {
+                    @Override
+                    public void onInvalidated(@NonNull Set<String> tables) {
+                        invalidations.incrementAndGet();
+                    }
+                });
+
+        VideoUpdateQueue queue = new VideoUpdateQueue(mDb, WINDOW_MS);
+        List<VideoUpdateQueue.UpdateFuture> futures = new ArrayList<>();
+        for (VideoEntity video : mVideos) {
+            long id = video.getId();
+            futures.add(queue.update(video, VideoUpdateQueue.STATUS, "downloading"));
+            futures.add(queue.update(video, VideoUpdateQueue.VIDEO, "file:///video/" + id));
+            futures.add(queue.update(video, VideoUpdateQueue.BACKGROUND, "file:///bg/" + id));
+            futures.add(queue.update(video, VideoUpdateQueue.CARD, "file:///card/" + id));
+            futures.add(queue.update(video, VideoUpdateQueue.STATUS, ""));
+        }
+
+        final CountDownLatch listened = new CountDownLatch(1);
+        futures.get(0).addListener(new Runnable() {
+            @Override
+            public void run() {
+                listened.countDown();
+            }
+        }, DIRECT_EXECUTOR);
+
+        for (VideoUpdateQueue.UpdateFuture future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        assertTrue(listened.await(10, TimeUnit.SECONDS));
+        assertEquals(1, invalidations.get());
+
+        List<VideoEntity> written = mDb.videoDao().loadVideosByIds(Arrays.asList(1L, 2L, 3L));
+        assertEquals(VIDEO_COUNT, written.size());
+        long version = written.get(0).getVersion();
+        assertTrue(version > 0);
+        for (VideoEntity video : written) {
+            long id = video.getId();
+            assertEquals("", video.getStatus());
+            assertEquals("file:///video/" + id, video.getVideoLocalStorageUrl());
+            assertEquals("file:///bg/" + id, video.getVideoBgImageLocalStorageUrl());
+            assertEquals("file:///card/" + id, video.getVideoCardImageLocalStorageUrl());
+            assertEquals("Video " + id, video.getTitle());
+            assertEquals(version, video.getVersion());
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.leanback.leanbackshowcase.app.room.db.repo;
+
+import android.app.Application;
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.leanback.leanbackshowcase.app.room.api.VideosWithGoogleTag;
+import androidx.leanback.leanbackshowcase.app.room.db.AppDatabase;
+import androidx.leanback.leanbackshowcase.app.room.db.constant.DatabaseColumnConstant;
+import androidx.leanback.leanbackshowcase.app.room.db.constant.GsonConstant;
+import androidx.lifecycle.Observer;
+import androidx.room.InvalidationTracker;
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.google.gson.Gson;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Ingests a synthetic feed of {@link #VIDEO_COUNT} videos within {@link #MAX_INGEST_MS}. Also
+ * checks that the whole feed is written in one transaction, so observers are invalidated once.
+ * <p>
+ * Not part of the default test run, see {@code benchmarkTests} in app/build.gradle.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28, application = Application.class)
+public class VideosIngesterBenchmark {
+
+    private static final int CATEGORY_COUNT = 50;
+    private static final int VIDEO_COUNT = 50000;
+    // Several times what a development machine takes, so only a regression fails it.
+    private static final long MAX_INGEST_MS = 30000;
+
+    // Runs Room's invalidation tracker and LiveData updates on the calling thread.
+    @Rule
+    public InstantTaskExecutorRule mInstantTaskExecutorRule = new InstantTaskExecutorRule();
+
+    private AppDatabase mDb;
+
+    @Before
+    public void setUp() {
+        mDb = Room.inMemoryDatabaseBuilder(ApplicationProvider.<Application>getApplicationContext(),
+                AppDatabase.class)
+                .allowMainThreadQueries()
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        mDb.close();
+    }
+
+    @Test
+    public void ingestSyntheticFeed() {
+        VideosWithGoogleTag feed = new Gson().fromJson(buildFeed(CATEGORY_COUNT, VIDEO_COUNT),
+                VideosWithGoogleTag.class);
+
+        // Opens the database, so the tracker observes the tables from the start.
+        mDb.getOpenHelper().getWritableDatabase();
+        final int[] invalidations = new int[1];
+        mDb.getInvalidationTracker().addObserver(new InvalidationTracker.Observer(
+                DatabaseColumnConstant.VideoEntry.TABLE_NAME,
+                DatabaseColumnConstant.CategoryEntry.TABLE_NAME) {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                invalidations[0]++;
+            }
+        });
+
+        VideosIngester ingester = new VideosIngester(mDb);
+        final int[] progressUpdates = new int[1];
+        ingester.getProgress().observeForever(new Observer<VideosIngester.Progress>() {
+            @Override
+            public void onChanged(@Nullable VideosIngester.Progress progress) {
+                progressUpdates[0]++;
+            }
+        });
+
+        // Robolectric's SystemClock does not advance on its own.
+        long start = System.nanoTime();
+        ingester.ingest(feed);
+        long elapsed = (System.nanoTime() - start) / 1000000;
+        assertTrue("Ingested " + VIDEO_COUNT + " videos in " + elapsed + " ms",
+                elapsed <= MAX_INGEST_MS);
+
+        assertEquals(VIDEO_COUNT, count(DatabaseColumnConstant.VideoEntry.TABLE_NAME));
+        assertEquals(CATEGORY_COUNT, count(DatabaseColumnConstant.CategoryEntry.TABLE_NAME));
+        assertEquals(1, invalidations[0]);
+
+        VideosIngester.Progress progress = ingester.getProgress().getValue();
+        assertTrue(progress.isDone());
+        assertEquals(VIDEO_COUNT, progress.getInserted());
+        assertEquals(VIDEO_COUNT, progress.getTotal());
+        assertTrue(progressUpdates[0] > 2);
+    }
+
+    private int count(String table) {
+        Cursor cursor = mDb.query("SELECT COUNT(*) FROM " + table, null);
+        try {
+            cursor.moveToFirst();
+            return cursor.getInt(0);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // A feed of videoCount videos, spread evenly over categoryCount categories.
+    static String buildFeed(int categoryCount, int videoCount) {
+        int videosPerCategory = videoCount / categoryCount;
+        StringBuilder json = new StringBuilder();
+        json.append("{\"").append(GsonConstant.GOOGLE_VIDEO_TAG).append("\":[");
+        for (int c = 0; c < categoryCount; c++) {
+            if (c > 0) {
+                json.append(',');
+            }
+            json.append("{\"category\":\"Category ").append(c).append("\",\"videos\":[");
+            for (int v = 0; v < videosPerCategory; v++) {
+                int id = c * videosPerCategory + v;
+                if (v > 0) {
+                    json.append(',');
+                }
+                json.append('{')
+                        .append('"').append(GsonConstant.TITLE).append("\":\"Video ")
+                        .append(id).append("\",")
+                        .append('"').append(GsonConstant.DESCRIPTION)
+                        .append("\":\"Synthetic video number ").append(id).append("\",")
+                        .append('"').append(GsonConstant.STUDIO).append("\":\"Studio\",")
+                        .append('"').append(GsonConstant.CARD_IMAGE_URL)
+                        .append("\":\"https://example.com/card/").append(id).append(".jpg\",")
+                        .append('"').append(GsonConstant.BACKGROUND_IMAGE_URL)
+                        .append("\":\"https://example.com/bg/").append(id).append(".jpg\",")
+                        .append('"').append(GsonConstant.VIDEO_URLS)
+                        .append("\":[\"https://example.com/video/").append(id)
+                        .append(".mp4\"]")
+                        .append('}');
+            }
+            json.append("]}");
+        }
+        json.append("]}");
+        return json.toString();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.leanback.leanbackshowcase.app.room.db.repo;
+
+import android.app.Application;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteException;
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.leanback.leanbackshowcase.app.room.api.VideosWithGoogleTag;
+import androidx.leanback.leanbackshowcase.app.room.db.AppDatabase;
+import androidx.leanback.leanbackshowcase.app.room.db.constant.DatabaseColumnConstant;
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.google.gson.Gson;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks that an ingest always ends with a final progress, whether it wrote the catalog or not.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28, application = Application.class)
+public class VideosIngesterTest {
+
+    private static final int CATEGORY_COUNT = 3;
+    private static final int VIDEO_COUNT = 30;
+
+    // Delivers the posted progress on the calling thread.
+    @Rule
+    public InstantTaskExecutorRule mInstantTaskExecutorRule = new InstantTaskExecutorRule();
+
+    private AppDatabase mDb;
+    private VideosIngester mIngester;
+
+    @Before
+    public void setUp() {
+        mDb = Room.inMemoryDatabaseBuilder(ApplicationProvider.<Application>getApplicationContext(),
+                AppDatabase.class)
+                .allowMainThreadQueries()
+                .build();
+        mIngester = new VideosIngester(mDb);
+    }
+
+    @After
+    public void tearDown() {
+        mDb.close();
+    }
+
+    @Test
+    public void successfulIngestIsDone() {
+        mIngester.ingest(buildFeed());
+
+        VideosIngester.Progress progress = mIngester.getProgress().getValue();
+        assertTrue(progress.isDone());
+        assertFalse(progress.isFailed());
+        assertEquals(VIDEO_COUNT, progress.getInserted());
+        assertEquals(VIDEO_COUNT, countVideos());
+    }
+
+    @Test
+    public void failedIngestIsDone() {
+        mDb.getOpenHelper().getWritableDatabase().execSQL("CREATE TRIGGER fail_insert"
+                + " BEFORE INSERT ON " + DatabaseColumnConstant.VideoEntry.TABLE_NAME
+                + " BEGIN SELECT RAISE(ABORT, 'injected failure'); END");
+
+        try {
+            mIngester.ingest(buildFeed());
+            fail("The insert did not fail");
+        } catch (SQLiteException expected) {
+            // Rolled back, and still reported as over.
+        }
+
+        VideosIngester.Progress progress = mIngester.getProgress().getValue();
+        assertTrue(progress.isDone());
+        assertTrue(progress.isFailed());
+        assertEquals(0, progress.getInserted());
+        assertEquals(0, countVideos());
+    }
+
+    private static VideosWithGoogleTag buildFeed() {
+        return new Gson().fromJson(
+                VideosIngesterBenchmark.buildFeed(CATEGORY_COUNT, VIDEO_COUNT),
+                VideosWithGoogleTag.class);
+    }
+
+    private int countVideos() {
+        Cursor cursor = mDb.query(
+                "SELECT COUNT(*) FROM " + DatabaseColumnConstant.VideoEntry.TABLE_NAME, null);
+        try {
+            cursor.moveToFirst();
+            return cursor.getInt(0);
+        } finally {
+            cursor.close();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.leanback.leanbackshowcase.app.room.db.search;
+
+import android.app.Application;
+
+import androidx.leanback.leanbackshowcase.app.room.db.AppDatabase;
+import androidx.leanback.leanbackshowcase.app.room.db.entity.VideoEntity;
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Searches a catalog of {@link #VIDEO_COUNT} videos within {@link #MAX_SEARCH_MS}, for prefixes
+ * typed one letter at a time, which match most of the catalog.
+ * <p>
+ * Not part of the default test run, see {@code benchmarkTests} in app/build.gradle.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28, application = Application.class)
+public class VideoSearchBenchmark {
+
+    private static final int VIDEO_COUNT = 100000;
+    private static final int BATCH_SIZE = 5000;
+    private static final String[] QUERIES = {"v", "vi", "vid", "video", "video 4", "video 42"};
+    // Several times what a development machine takes, so only a regression fails it.
+    private static final long MAX_SEARCH_MS = 1000;
+
+    private AppDatabase mDb;
+
+    @Before
+    public void setUp() {
+        mDb = Room.inMemoryDatabaseBuilder(ApplicationProvider.<Application>getApplicationContext(),
+                AppDatabase.class)
+                .addCallback(VideoFts.CALLBACK)
+                .allowMainThreadQueries()
+                .build();
+
+        List<VideoEntity> videos = new ArrayList<>(BATCH_SIZE);
+        for (int id = 0; id < VIDEO_COUNT; id++) {
+            VideoEntity video = new VideoEntity();
+            video.setTitle("Video " + id);
+            video.setDescription("Synthetic video number " + id);
+            video.setCategory("Category " + id % 50);
+            videos.add(video);
+            if (videos.size() == BATCH_SIZE) {
+                mDb.videoDao().insertAllVideos(videos);
+                videos.clear();
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        mDb.close();
+    }
+
+    @Test
+    public void searchLargeCatalog() {
+        // Warms up the statements and the page cache.
+        VideoSearch.search(mDb.videoDao(), "video");
+
+        for (String query : QUERIES) {
+            // Robolectric's SystemClock does not advance on its own.
+            long start = System.nanoTime();
+            List<VideoEntity> results = VideoSearch.search(mDb.videoDao(), query);
+            long elapsed = (System.nanoTime() - start) / 1000000;
+            assertTrue("Searched \"" + query + "\" in " + elapsed + " ms",
+                    elapsed <= MAX_SEARCH_MS);
+            assertEquals(100, results.size());
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.leanback.leanbackshowcase.app.room.db.search;
+
+import android.app.Application;
+import android.database.Cursor;
+
+import androidx.leanback.leanbackshowcase.app.room.db.AppDatabase;
+import androidx.leanback.leanbackshowcase.app.room.db.entity.VideoEntity;
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the match expressions, the BM25 rank and the title highlights of the search, and that
+ * bounding the ranked candidates keeps the best match and that writing the catalog again leaves
+ * the index as it was.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28, application = Application.class)
+public class VideoSearchTest {
+
+    private static final int ROWS = 1000;
+    // Average lengths of the title, description and category.
+    private static final int[] AVERAGE_LENGTHS = {4, 20, 1};
+
+    private AppDatabase mDb;
+
+    @Before
+    public void setUp() {
+        mDb = Room.inMemoryDatabaseBuilder(ApplicationProvider.<Application>getApplicationContext(),
+                AppDatabase.class)
+                .addCallback(VideoFts.CALLBACK)
+                .allowMainThreadQueries()
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        mDb.close();
+    }
+
+    @Test
+    public void matchExpressionHasEveryWordAsPrefix() {
+        assertEquals("big* café*", VideoSearch.toMatchExpression("  Big, CAFÉ!"));
+        assertEquals("a1*", VideoSearch.toMatchExpression("a1"));
+        assertNull(VideoSearch.toMatchExpression("-- !"));
+        assertNull(VideoSearch.toMatchExpression(null));
+    }
+
+    @Test
+    public void titleMatchOutranksDescriptionMatch() {
+        double title = VideoSearch.score(matchInfo(new int[]{4, 20, 1}, 0, 50));
+        double description = VideoSearch.score(matchInfo(new int[]{4, 20, 1}, 1, 50));
+        assertTrue(title > description);
+    }
+
+    @Test
+    public void shorterColumnRanksHigher() {
+        double shortTitle = VideoSearch.score(matchInfo(new int[]{2, 20, 1}, 0, 50));
+        double longTitle = VideoSearch.score(matchInfo(new int[]{8, 20, 1}, 0, 50));
+        assertTrue(shortTitle > longTitle);
+    }
+
+    @Test
+    public void rarerWordRanksHigher() {
+        double rare = VideoSearch.score(matchInfo(new int[]{4, 20, 1}, 0, 5));
+        double common = VideoSearch.score(matchInfo(new int[]{4, 20, 1}, 0, 500));
+        assertTrue(rare > common);
+    }
+
+    @Test
+    public void wordInEveryRowStillScores() {
+        assertTrue(VideoSearch.score(matchInfo(new int[]{4, 20, 1}, 0, ROWS)) > 0);
+    }
+
+    @Test
+    public void titleMatchesAreCharacterRanges() {
+        // "Big Café Show": "café" is 5 bytes from byte 4, "show" follows at byte 10.
+        int[] matches = VideoSearch.titleMatches("Big Café Show",
+                "0 0 4 5 1 0 12 4 0 1 10 4");
+        assertArrayEquals(new int[]{4, 8, 9, 13}, matches);
+    }
+
+    @Test
+    public void titleMatchesWithoutTitleHit() {
+        assertNull(VideoSearch.titleMatches("Big Café Show", "1 0 12 4"));
+        assertNull(VideoSearch.titleMatches("Big Café Show", ""));
+        assertNull(VideoSearch.titleMatches(null, "0 0 4 5"));
+    }
+
+    @Test
+    public void searchRanksTitleMatchFirst() {
+        List<VideoEntity> videos = new ArrayList<>();
+        // More short description matches than are ranked, which a title match must still beat.
+        for (int i = 0; i < 2 * VideoSearch.MAX_CANDIDATES; i++) {
+            videos.add(newVideo("Video " + i, "ocean"));
+        }
+        videos.add(newVideo("Ocean", "A very long description of the deep blue sea, its waves,"
+                + " its fish, its currents and its storms"));
+        mDb.videoDao().insertAllVideos(videos);
+
+        List<VideoEntity> results = VideoSearch.search(mDb.videoDao(), "oce");
+
+        assertEquals(100, results.size());
+        assertEquals("Ocean", results.get(0).getTitle());
+        assertArrayEquals(new int[]{0, 5}, results.get(0).getTitleMatches());
+        assertNull(results.get(1).getTitleMatches());
+    }
+
+    @Test
+    public void searchWithoutMatch() {
+        mDb.videoDao().insertAllVideos(Collections.singletonList(newVideo("Ocean", "Waves")));
+
+        assertTrue(VideoSearch.search(mDb.videoDao(), "forest").isEmpty());
+        assertTrue(VideoSearch.search(mDb.videoDao(), " ").isEmpty());
+    }
+
+    @Test
+    public void ingestingCatalogAgainKeepsRanks() {
+        List<VideoEntity> videos = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            VideoEntity video = newVideo("Ocean " + i, i % 2 == 0 ? "ocean waves" : "forest");
+            video.setId(i + 1);
+            videos.add(video);
+        }
+        mDb.videoDao().insertAllVideos(videos);
+        Map<Long, byte[]> matchInfo = loadMatchInfo("ocean*");
+        List<VideoEntity> results = VideoSearch.search(mDb.videoDao(), "ocean");
+
+        // The videos are written again with the same ids on every start.
+        mDb.videoDao().insertAllVideos(videos);
+
+        Map<Long, byte[]> ingestedAgain = loadMatchInfo("ocean*");
+        assertEquals(matchInfo.keySet(), ingestedAgain.keySet());
+        for (Map.Entry<Long, byte[]> entry : matchInfo.entrySet()) {
+            assertArrayEquals("Video " + entry.getKey(),
+                    entry.getValue(), ingestedAgain.get(entry.getKey()));
+        }
+        List<VideoEntity> resultsAgain = VideoSearch.search(mDb.videoDao(), "ocean");
+        assertEquals(results.size(), resultsAgain.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(results.get(i).getId(), resultsAgain.get(i).getId());
+        }
+    }
+
+    // The matchinfo() of every row matching expression, which counts the hits in the whole index.
+    private Map<Long, byte[]> loadMatchInfo(String expression) {
+        Map<Long, byte[]> matchInfo = new LinkedHashMap<>();
+        Cursor cursor = mDb.query("SELECT docid, matchinfo(" + VideoFts.TABLE_NAME + ", '"
+                + VideoSearch.MATCH_INFO_FORMAT + "') FROM " + VideoFts.TABLE_NAME + " WHERE "
+                + VideoFts.TABLE_NAME + " MATCH ? ORDER BY docid", new Object[]{expression});
+        try {
+            while (cursor.moveToNext()) {
+                matchInfo.put(cursor.getLong(0), cursor.getBlob(1));
+            }
+        } finally {
+            cursor.close();
+        }
+        return matchInfo;
+    }
+
+    private static VideoEntity newVideo(String title, String description) {
+        VideoEntity video = new VideoEntity();
+        video.setTitle(title);
+        video.setDescription(description);
+        video.setCategory("Category");
+        return video;
+    }
+
+    // matchinfo() in VideoSearch.MATCH_INFO_FORMAT of a row with one phrase, which hits the
+    // column once and is in rowsWithHits rows of ROWS.
+    private static byte[] matchInfo(int[] lengths, int column, int rowsWithHits) {
+        int columns = lengths.length;
+        ByteBuffer info = ByteBuffer.allocate(4 * (3 + 2 * columns + 3 * columns))
+                .order(ByteOrder.nativeOrder());
+        info.putInt(1).putInt(columns).putInt(ROWS);
+        for (int averageLength : AVERAGE_LENGTHS) {
+            info.putInt(averageLength);
+        }
+        for (int length : lengths) {
+            info.putInt(length);
+        }
+        for (int c = 0; c < columns; c++) {
+            boolean hit = c == column;
+            info.putInt(hit ? 1 : 0).putInt(hit ? rowsWithHits : 0).putInt(hit ? rowsWithHits : 0);
+        }
+        return info.array();
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.leanback.leanbackshowcase.app.room.network;
+
+import android.app.Application;
+import android.net.Uri;
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.leanback.leanbackshowcase.app.room.db.AppDatabase;
+import androidx.leanback.leanbackshowcase.app.room.db.entity.DownloadEntity;
+import androidx.leanback.leanbackshowcase.app.room.db.entity.VideoEntity;
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Downloads videos from a local HTTP server standing in for the catalog's storage. Checks that
+ * artwork is downloaded before the videos, that no more downloads than allowed run at the same
+ * time, that a download cut by the process being killed goes on from where it stopped, and that
+ * queuing a downloaded video again only fetches the files which are gone.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28, application = Application.class)
+public class DownloadQueueTest {
+
+    private static final int IMAGE_SIZE = 4 * 1024;
+    private static final int VIDEO_SIZE = 256 * 1024;
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    // Runs Room's invalidation tracker on the writing thread.
+    @Rule
+    public InstantTaskExecutorRule mInstantTaskExecutorRule = new InstantTaskExecutorRule();
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    private AppDatabase mDb;
+    private LocalHttpServer mServer;
+    private File mDirectory;
+    private final Random mRandom = new Random(42);
+    private final BlockingQueue<DownloadingTaskDescription> mCompletions =
+            new LinkedBlockingQueue<>();
+    private final DownloadQueue.DownloadCompleteListener mListener =
+            new DownloadQueue.DownloadCompleteListener() {
+                @Override
+                public void onDownloadingCompleted(DownloadingTaskDescription desc) {
+                    mCompletions.add(desc);
+                }
+            };
+
+    @Before
+    public void setUp() throws IOException {
+        mDb = Room.inMemoryDatabaseBuilder(ApplicationProvider.<Application>getApplicationContext(),
+                AppDatabase.class)
+                .allowMainThreadQueries()
+                .build();
+        mServer = new LocalHttpServer();
+        mDirectory = mFolder.newFolder("downloads");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        mServer.close();
+        mDb.close();
+    }
+
+    @Test
+    public void artworkFirstAndLimitedConcurrency() throws Exception {
+        VideoEntity first = addVideo(1);
+        VideoEntity second = addVideo(2);
+
+        DownloadQueue queue = new DownloadQueue(mDb, mDirectory, 2, DIRECT_EXECUTOR);
+        queue.addListener(mListener);
+        queue.enqueue(first);
+        queue.enqueue(second);
+
+        for (int i = 0; i < 6; i++) {
+            assertNotNull(mCompletions.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+        queue.close();
+
+        List<String> requests = mServer.getRequestedPaths();
+        assertEquals(6, requests.size());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(requests.get(i), !requests.get(i).endsWith(".mp4"));
+        }
+        assertTrue(requests.get(4).endsWith(".mp4"));
+        assertTrue(requests.get(5).endsWith(".mp4"));
+        assertTrue(mServer.getMaxConcurrentRequests() <= 2);
+
+        for (DownloadEntity download : mDb.downloadDao().loadDownloadsOfVideo(first.getId())) {
+            assertEquals(DownloadEntity.STATE_DONE, download.getState());
+            assertArrayEquals(mServer.getContent(download.getUrl()),
+                    Files.readAllBytes(new File(download.getLocalPath()).toPath()));
+        }
+    }
+
+    @Test
+    public void downloadResumesAfterProcessDeath() throws Exception {
+        VideoEntity video = addVideo(1);
+        mServer.stallOnce("/video1.mp4", VIDEO_SIZE / 2);
+
+        DownloadQueue queue = new DownloadQueue(mDb, mDirectory, 1, DIRECT_EXECUTOR);
+        queue.addListener(mListener);
+        queue.enqueue(video);
+        assertTrue(mServer.awaitStalled(TIMEOUT_SECONDS));
+        assertEquals(DownloadQueue.CARD,
+                mCompletions.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS).getCategory());
+        assertEquals(DownloadQueue.BACKGROUND,
+                mCompletions.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS).getCategory());
+
+        // The process is killed halfway through the video.
+        queue.close();
+        mServer.release();
+        assertTrue(queue.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        DownloadEntity download = mDb.downloadDao().loadDownload(video.getId(),
+                DownloadQueue.VIDEO);
+        File file = new File(download.getLocalPath());
+        assertEquals(DownloadEntity.STATE_RUNNING, download.getState());
+        assertEquals(VIDEO_SIZE, download.getTotalBytes());
+        assertEquals(VIDEO_SIZE / 2, file.length());
+
+        // The next process finds the download in the database.
+        DownloadQueue restarted = new DownloadQueue(mDb, mDirectory, 1, DIRECT_EXECUTOR);
+        restarted.addListener(mListener);
+        restarted.resume();
+        DownloadingTaskDescription desc = mCompletions.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        restarted.close();
+
+        assertNotNull(desc);
+        assertEquals(DownloadQueue.VIDEO, desc.getCategory());
+        assertEquals(video.getId(), desc.getVideo().getId());
+        assertEquals(Uri.fromFile(file).toString(), desc.getStoragePath());
+        assertEquals("bytes=" + VIDEO_SIZE / 2 + "-", mServer.getLastRange());
+        assertArrayEquals(mServer.getContent(download.getUrl()), Files.readAllBytes(file.toPath()));
+        assertEquals(DownloadEntity.STATE_DONE,
+                mDb.downloadDao().loadDownload(video.getId(), DownloadQueue.VIDEO).getState());
+    }
+
+    @Test
+    public void downloadedFilesAreKept() throws Exception {
+        VideoEntity video = addVideo(1);
+
+        DownloadQueue queue = new DownloadQueue(mDb, mDirectory, 1, DIRECT_EXECUTOR);
+        queue.addListener(mListener);
+        queue.enqueue(video);
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(mCompletions.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+        DownloadEntity card = mDb.downloadDao().loadDownload(video.getId(), DownloadQueue.CARD);
+        DownloadEntity content = mDb.downloadDao().loadDownload(video.getId(),
+                DownloadQueue.VIDEO);
+        assertTrue(new File(card.getLocalPath()).delete());
+
+        // Only the file which is gone is downloaded again.
+        queue.enqueue(video);
+        DownloadingTaskDescription desc = mCompletions.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        queue.close();
+        assertTrue(queue.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        assertNotNull(desc);
+        assertEquals(DownloadQueue.CARD, desc.getCategory());
+        List<String> requests = mServer.getRequestedPaths();
+        assertEquals(4, requests.size());
+        assertEquals("/card1.png", requests.get(3));
+        assertArrayEquals(mServer.getContent(card.getUrl()),
+                Files.readAllBytes(new File(card.getLocalPath()).toPath()));
+        assertArrayEquals(mServer.getContent(content.getUrl()),
+                Files.readAllBytes(new File(content.getLocalPath()).toPath()));
+    }
+
+    private VideoEntity addVideo(long id) {
+        String base = mServer.getBaseUrl();
+        VideoEntity video = new VideoEntity();
+        video.setId(id);
+        video.setTitle("Video " + id);
+        video.setCardImageUrl(base + "/card" + id + ".png");
+        video.setBgImageUrl(base + "/bg" + id + ".jpg");
+        video.setVideoUrl(base + "/video" + id + ".mp4");
+        mServer.addContent("/card" + id + ".png", randomBytes(IMAGE_SIZE));
+        mServer.addContent("/bg" + id + ".jpg", randomBytes(IMAGE_SIZE));
+        mServer.addContent("/video" + id + ".mp4", randomBytes(VIDEO_SIZE));
+
+        List<VideoEntity> videos = new ArrayList<>();
+        videos.add(video);
+        mDb.videoDao().insertAllVideos(videos);
+        return video;
+    }
+
+    private byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        mRandom.nextBytes(bytes);
+        return bytes;
+    }
+}
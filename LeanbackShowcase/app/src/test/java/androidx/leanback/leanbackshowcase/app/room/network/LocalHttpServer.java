@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.leanback.leanbackshowcase.app.room.network;
+
+import android.net.Uri;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves files over HTTP/1.1, with support for the Range header, standing in for the catalog's
+ * storage. One response can be held after some bytes until it is released, and then either cut
+ * or sent to the end.
+ */
+public class LocalHttpServer {
+
+    private final ServerSocket mSocket;
+    private final Map<String, byte[]> mContents = new HashMap<>();
+    private final List<String> mRequestedPaths = new ArrayList<>();
+    private String mLastRange;
+
+    private int mActiveRequests;
+    private int mMaxConcurrentRequests;
+
+    private String mStallPath;
+    private int mStallAfter;
+    private boolean mStallResumes;
+    private final CountDownLatch mStalled = new CountDownLatch(1);
+    private final CountDownLatch mReleased = new CountDownLatch(1);
+
+    public LocalHttpServer() throws IOException {
+        mSocket = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+        Thread acceptor = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                accept();
+            }
+        }, "LocalHttpServer");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + mSocket.getLocalPort();
+    }
+
+    public synchronized void addContent(String path, byte[] content) {
+        mContents.put(path, content);
+    }
+
+    public synchronized byte[] getContent(String url) {
+        return mContents.get(Uri.parse(url).getPath());
+    }
+
+    /**
+     * Holds the next response for {@code path} after {@code after} bytes, and closes the
+     * connection once released.
+     */
+    public synchronized void stallOnce(String path, int after) {
+        mStallPath = path;
+        mStallAfter = after;
+        mStallResumes = false;
+    }
+
+    /**
+     * Holds the next response for {@code path} after {@code after} bytes, and sends the rest
+     * once released.
+     */
+    public synchronized void pauseOnce(String path, int after) {
+        mStallPath = path;
+        mStallAfter = after;
+        mStallResumes = true;
+    }
+
+    public boolean awaitStalled(long seconds) throws InterruptedException {
+        return mStalled.await(seconds, TimeUnit.SECONDS);
+    }
+
+    public void release() {
+        mReleased.countDown();
+    }
+
+    public synchronized List<String> getRequestedPaths() {
+        return new ArrayList<>(mRequestedPaths);
+    }
+
+    public synchronized String getLastRange() {
+        return mLastRange;
+    }
+
+    public synchronized int getMaxConcurrentRequests() {
+        return mMaxConcurrentRequests;
+    }
+
+    private synchronized void onRequestStarted() {
+        mActiveRequests++;
+        mMaxConcurrentRequests = Math.max(mMaxConcurrentRequests, mActiveRequests);
+    }
+
+    private synchronized void onRequestFinished() {
+        mActiveRequests--;
+    }
+
+    public void close() throws IOException {
+        release();
+        mSocket.close();
+    }
+
+    private void accept() {
+        while (!mSocket.isClosed()) {
+            final Socket client;
+            try {
+                client = mSocket.accept();
+            } catch (IOException e) {
+                return;
+            }
+            Thread handler = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    onRequestStarted();
+                    try {
+                        serve(client);
+                    } catch (IOException | InterruptedException e) {
+                        // The client went away.
+                    } finally {
+                        onRequestFinished();
+                        try {
+                            client.close();
+                        } catch (IOException e) {
+                            // Already closed.
+                        }
+                    }
+                }
+            });
+            handler.setDaemon(true);
+            handler.start();
+        }
+    }
+
+    private void serve(Socket client) throws IOException, InterruptedException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                client.getInputStream(), StandardCharsets.ISO_8859_1));
+        String requestLine = reader.readLine();
+        if (requestLine == null) {
+            return;
+        }
+        String path = requestLine.split(" ")[1];
+        String range = null;
+        String header;
+        while ((header = reader.readLine()) != null && !header.isEmpty()) {
+            if (header.regionMatches(true, 0, "Range:", 0, 6)) {
+                range = header.substring(6).trim();
+            }
+        }
+
+        byte[] content;
+        int stallAfter = -1;
+        boolean stallResumes = false;
+        synchronized (this) {
+            mRequestedPaths.add(path);
+            mLastRange = range;
+            content = mContents.get(path);
+            if (path.equals(mStallPath)) {
+                stallAfter = mStallAfter;
+                stallResumes = mStallResumes;
+                mStallPath = null;
+            }
+        }
+
+        OutputStream out = client.getOutputStream();
+        if (content == null) {
+            writeHeaders(out, "404 Not Found", 0, null);
+            return;
+        }
+        int start = 0;
+        if (range != null) {
+            start = Integer.parseInt(range.substring("bytes=".length(), range.indexOf('-')));
+            if (start >= content.length) {
+                writeHeaders(out, "416 Range Not Satisfiable", 0, null);
+                return;
+            }
+            writeHeaders(out, "206 Partial Content", content.length - start,
+                    "bytes " + start + "-" + (content.length - 1) + "/" + content.length);
+        } else {
+            writeHeaders(out, "200 OK", content.length, null);
+        }
+
+        if (stallAfter >= 0) {
+            out.write(content, start, stallAfter - start);
+            out.flush();
+            mStalled.countDown();
+            mReleased.await();
+            if (!stallResumes) {
+                return;
+            }
+            start = stallAfter;
+        }
+        out.write(content, start, content.length - start);
+        out.flush();
+    }
+
+    private static void writeHeaders(OutputStream out, String status, int length,
+            String contentRange) throws IOException {
+        StringBuilder headers = new StringBuilder()
+                .append("HTTP/1.1 ").append(status).append("\r\n")
+                .append("Content-Length: ").append(length).append("\r\n")
+                .append("Connection: close\r\n");
+        if (contentRange != null) {
+            headers.append("Content-Range: ").append(contentRange).append("\r\n");
+        }
+        headers.append("\r\n");
+        out.write(headers.toString().getBytes(StandardCharsets.ISO_8859_1));
+    }
+}